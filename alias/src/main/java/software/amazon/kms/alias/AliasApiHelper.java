@@ -26,28 +26,28 @@ public class AliasApiHelper extends AbstractKmsApiHelper {
 
     public CreateAliasResponse createAlias(final CreateAliasRequest createAliasRequest,
                                            final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(CREATE_ALIAS,
+        return wrapKmsExceptions(CREATE_ALIAS, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(createAliasRequest,
                 proxyClient.client()::createAlias));
     }
 
     public DeleteAliasResponse deleteAlias(final DeleteAliasRequest deleteAliasRequest,
                                            final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(DELETE_ALIAS,
+        return wrapKmsExceptions(DELETE_ALIAS, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(deleteAliasRequest,
                 proxyClient.client()::deleteAlias));
     }
 
     public ListAliasesResponse listAliases(final ListAliasesRequest listAliasesRequest,
                                            final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(LIST_ALIASES,
+        return wrapKmsExceptions(LIST_ALIASES, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(listAliasesRequest,
                 proxyClient.client()::listAliases));
     }
 
     public UpdateAliasResponse updateAlias(final UpdateAliasRequest updateAliasRequest,
                                            final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(UPDATE_ALIAS,
+        return wrapKmsExceptions(UPDATE_ALIAS, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(updateAliasRequest,
                 proxyClient.client()::updateAlias));
     }
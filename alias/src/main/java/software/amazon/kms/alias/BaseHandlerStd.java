@@ -8,6 +8,7 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.kms.common.ClientBuilder;
 import software.amazon.kms.common.EventualConsistencyHandlerHelper;
+import software.amazon.kms.common.KmsApiMetrics;
 
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
     final ClientBuilder clientBuilder;
@@ -16,7 +17,12 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         eventualConsistencyHandlerHelper;
 
     public BaseHandlerStd() {
-        this(new ClientBuilder(), new AliasApiHelper(), new EventualConsistencyHandlerHelper<>());
+        this(HandlerDependencies.shared());
+    }
+
+    BaseHandlerStd(final HandlerDependencies dependencies) {
+        this(dependencies.clientBuilder, dependencies.aliasApiHelper,
+            dependencies.eventualConsistencyHandlerHelper);
     }
 
     public BaseHandlerStd(final ClientBuilder clientBuilder, final AliasApiHelper aliasApiHelper,
@@ -34,12 +40,17 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final Logger logger) {
-        return handleRequest(
-            proxy,
-            request,
-            callbackContext != null ? callbackContext : new CallbackContext(),
-            proxy.newProxy(clientBuilder::getClient),
-            logger);
+        try {
+            return handleRequest(
+                proxy,
+                request,
+                callbackContext != null ? callbackContext : new CallbackContext(),
+                proxy.newProxy(clientBuilder::getClient),
+                logger);
+        } finally {
+            // Lambda may freeze the container once we return, so every invocation writes out its own calls
+            KmsApiMetrics.shared().flush(ResourceModel.TYPE_NAME, logger::log);
+        }
     }
 
     protected abstract ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -0,0 +1,34 @@
+package software.amazon.kms.alias;
+
+import software.amazon.kms.common.ClientBuilder;
+import software.amazon.kms.common.EventualConsistencyHandlerHelper;
+
+/**
+ * The helpers of the AWS::KMS::Alias handlers. They are thread-safe and never change once built,
+ * so a single instance, built when the first handler is, serves every handler in the container
+ * instead of each handler building its own.
+ */
+final class HandlerDependencies {
+    private static final HandlerDependencies SHARED = new HandlerDependencies();
+
+    final ClientBuilder clientBuilder;
+    final AliasApiHelper aliasApiHelper;
+    final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext>
+        eventualConsistencyHandlerHelper;
+    // Used by the read handler to find aliases it can't describe the key of
+    final ListHandler listHandler;
+
+    private HandlerDependencies() {
+        this.clientBuilder = new ClientBuilder();
+        this.aliasApiHelper = new AliasApiHelper();
+        this.eventualConsistencyHandlerHelper = new EventualConsistencyHandlerHelper<>();
+        this.listHandler = new ListHandler(clientBuilder, aliasApiHelper, eventualConsistencyHandlerHelper);
+    }
+
+    /**
+     * Gets the instance shared by the whole container.
+     */
+    static HandlerDependencies shared() {
+        return SHARED;
+    }
+}
@@ -4,6 +4,11 @@ import com.amazonaws.util.StringUtils;
 import java.util.Optional;
 import java.util.function.Predicate;
 import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.AliasListEntry;
+import software.amazon.awssdk.services.kms.model.DescribeKeyRequest;
+import software.amazon.awssdk.services.kms.model.ListAliasesResponse;
+import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
@@ -16,14 +21,23 @@ import software.amazon.kms.common.EventualConsistencyHandlerHelper;
 
 
 public class ReadHandler extends BaseHandlerStd {
+    private final ListHandler listHandler;
+
     public ReadHandler() {
-        super();
+        this(HandlerDependencies.shared());
+    }
+
+    private ReadHandler(final HandlerDependencies dependencies) {
+        super(dependencies);
+        this.listHandler = dependencies.listHandler;
     }
 
     public ReadHandler(final ClientBuilder clientBuilder, final AliasApiHelper aliasApiHelper,
                        final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext>
                            eventualConsistencyHandlerHelper) {
         super(clientBuilder, aliasApiHelper, eventualConsistencyHandlerHelper);
+        this.listHandler = new ListHandler(clientBuilder, aliasApiHelper,
+            eventualConsistencyHandlerHelper);
     }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -33,6 +47,60 @@ public class ReadHandler extends BaseHandlerStd {
         final ProxyClient<KmsClient> proxyClient,
         final Logger logger) {
 
+        final ResourceModel model = request.getDesiredResourceState();
+
+        // Resolve the alias to its key, so we only need to list that key's aliases
+        // instead of every alias in the account
+        final String keyId;
+        try {
+            keyId = aliasApiHelper.describeKey(DescribeKeyRequest.builder()
+                .keyId(model.getAliasName())
+                .build(), proxyClient).keyMetadata().keyId();
+        } catch (final CfnNotFoundException e) {
+            return notFound();
+        } catch (final CfnAccessDeniedException e) {
+            // Without kms:DescribeKey on the target key we can only find the alias by listing
+            logger.log(String.format("Unable to describe the key for %s, listing aliases instead",
+                model.getAliasName()));
+            return listAliasesAndFind(proxy, request, callbackContext, proxyClient, logger);
+        }
+
+        final Optional<ResourceModel> targetResourceModel =
+            findKeyAlias(keyId, model.getAliasName(), proxyClient);
+        if (targetResourceModel.isPresent()) {
+            return ProgressEvent.defaultSuccessHandler(targetResourceModel.get());
+        }
+
+        // The alias was updated to point at another key since we described it
+        return listAliasesAndFind(proxy, request, callbackContext, proxyClient, logger);
+    }
+
+    private Optional<ResourceModel> findKeyAlias(final String keyId, final String aliasName,
+                                                 final ProxyClient<KmsClient> proxyClient) {
+        String marker = null;
+        do {
+            final ListAliasesResponse listAliasesResponse = aliasApiHelper
+                .listAliases(Translator.listAliasesRequest(keyId, marker), proxyClient);
+
+            final Optional<AliasListEntry> aliasListEntry = listAliasesResponse.aliases().stream()
+                .filter(alias -> aliasName.equals(alias.aliasName()))
+                .findFirst();
+            if (aliasListEntry.isPresent()) {
+                return aliasListEntry.map(Translator::translateToResourceModel);
+            }
+            marker = listAliasesResponse.nextMarker();
+        } while (!StringUtils.isNullOrEmpty(marker));
+
+        return Optional.empty();
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> listAliasesAndFind(
+        final AmazonWebServicesClientProxy proxy,
+        final ResourceHandlerRequest<ResourceModel> request,
+        final CallbackContext callbackContext,
+        final ProxyClient<KmsClient> proxyClient,
+        final Logger logger) {
+
         final ResourceModel model = request.getDesiredResourceState();
         final Predicate<ResourceModel> predicate =
             resourceModel -> resourceModel.getAliasName().equals(model.getAliasName());
@@ -40,10 +108,8 @@ public class ReadHandler extends BaseHandlerStd {
         String marker = null;
         do {
             request.setNextToken(marker);
-            final ProgressEvent<ResourceModel, CallbackContext> listModelsResponse =
-                new ListHandler(this.clientBuilder, this.aliasApiHelper,
-                    this.eventualConsistencyHandlerHelper)
-                    .handleRequest(proxy, request, callbackContext, proxyClient, logger);
+            final ProgressEvent<ResourceModel, CallbackContext> listModelsResponse = listHandler
+                .handleRequest(proxy, request, callbackContext, proxyClient, logger);
 
             final Optional<ResourceModel> targetResourceModel =
                 listModelsResponse.getResourceModels().stream()
@@ -54,6 +120,10 @@ public class ReadHandler extends BaseHandlerStd {
             marker = listModelsResponse.getNextToken();
         } while (!StringUtils.isNullOrEmpty(marker));
 
+        return notFound();
+    }
+
+    private static ProgressEvent<ResourceModel, CallbackContext> notFound() {
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
             .status(OperationStatus.FAILED)
             .errorCode(HandlerErrorCode.NotFound)
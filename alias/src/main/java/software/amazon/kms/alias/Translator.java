@@ -32,6 +32,12 @@ public class Translator {
             .marker(nextToken).build();
     }
 
+    static ListAliasesRequest listAliasesRequest(final String keyId, final String nextToken) {
+        return ListAliasesRequest.builder()
+            .keyId(keyId)
+            .marker(nextToken).build();
+    }
+
     static ResourceModel translateToResourceModel(final AliasListEntry aliasListEntry) {
         return ResourceModel.builder()
             .aliasName(aliasListEntry.aliasName())
@@ -0,0 +1,23 @@
+package software.amazon.kms.alias;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class HandlerDependenciesTest {
+    @Test
+    public void testHandlersShareDependencies() {
+        final HandlerDependencies dependencies = HandlerDependencies.shared();
+        final CreateHandler createHandler = new CreateHandler();
+        final ReadHandler readHandler = new ReadHandler();
+
+        assertThat(HandlerDependencies.shared()).isSameAs(dependencies);
+        assertThat(dependencies.listHandler.clientBuilder).isSameAs(dependencies.clientBuilder);
+        for (final BaseHandlerStd handler : new BaseHandlerStd[] {createHandler, readHandler}) {
+            assertThat(handler.clientBuilder).isSameAs(dependencies.clientBuilder);
+            assertThat(handler.aliasApiHelper).isSameAs(dependencies.aliasApiHelper);
+            assertThat(handler.eventualConsistencyHandlerHelper)
+                .isSameAs(dependencies.eventualConsistencyHandlerHelper);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package software.amazon.kms.alias;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -15,8 +16,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.AliasListEntry;
+import software.amazon.awssdk.services.kms.model.DescribeKeyRequest;
+import software.amazon.awssdk.services.kms.model.DescribeKeyResponse;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
 import software.amazon.awssdk.services.kms.model.ListAliasesRequest;
 import software.amazon.awssdk.services.kms.model.ListAliasesResponse;
+import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.OperationStatus;
@@ -34,6 +40,9 @@ public class ReadHandlerTest {
         .aliasName("alias/testReadAlias")
         .targetKeyId("keyId")
         .build();
+    private static final String KEY_ID = "1234abcd-12ab-34cd-56ef-1234567890ab";
+    private static final DescribeKeyRequest EXPECTED_DESCRIBE_KEY_REQUEST =
+        DescribeKeyRequest.builder().keyId(MODEL.getAliasName()).build();
 
     @Mock
     private KmsClient kms;
@@ -64,28 +73,20 @@ public class ReadHandlerTest {
 
     @Test
     public void handleRequest_SimpleSuccess() {
-        // Mock out the list aliases response
+        // Mock out the describe key and list aliases responses
+        mockDescribeKey();
         final ListAliasesRequest expectedListAliasesRequest =
-            Translator.listAliasesRequest(MODEL, null);
-        final ListAliasesResponse listAliasesResponse = ListAliasesResponse.builder()
-            .aliases(com.google.common.collect.Lists.newArrayList(AliasListEntry.builder()
-                .aliasName(MODEL.getAliasName())
-                .targetKeyId(MODEL.getTargetKeyId())
-                .build()))
-            .build();
-        doReturn(listAliasesResponse).when(aliasApiHelper)
+            Translator.listAliasesRequest(KEY_ID, null);
+        doReturn(listAliasesResponse(MODEL.getAliasName(), null)).when(aliasApiHelper)
             .listAliases(eq(expectedListAliasesRequest), eq(proxyKmsClient));
 
-        // Set up our request
-        final ResourceHandlerRequest<ResourceModel> request =
-            ResourceHandlerRequest.<ResourceModel>builder().desiredResourceState(MODEL).build();
-
         // Execute the read handler and make sure it returns the expected results
         assertThat(handler
-            .handleRequest(proxy, request, callbackContext, proxyKmsClient, TestConstants.LOGGER))
+            .handleRequest(proxy, request(), callbackContext, proxyKmsClient, TestConstants.LOGGER))
             .isEqualTo(ProgressEvent.defaultSuccessHandler(MODEL));
 
-        // Make sure we called our helper to list the aliases
+        // Make sure we resolved the alias and only listed its key's aliases
+        verify(aliasApiHelper).describeKey(eq(EXPECTED_DESCRIBE_KEY_REQUEST), eq(proxyKmsClient));
         verify(aliasApiHelper).listAliases(eq(expectedListAliasesRequest), eq(proxyKmsClient));
 
         // We shouldn't make any other calls
@@ -93,44 +94,104 @@ public class ReadHandlerTest {
         verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
     }
 
+    @Test
+    public void handleRequest_KeyAliasesPaginated() {
+        // Mock out the describe key and list aliases responses
+        mockDescribeKey();
+        doReturn(listAliasesResponse(MODEL.getAliasName() + "Page1", TestConstants.NEXT_MARKER))
+            .when(aliasApiHelper)
+            .listAliases(eq(Translator.listAliasesRequest(KEY_ID, null)), eq(proxyKmsClient));
+        doReturn(listAliasesResponse(MODEL.getAliasName(), null)).when(aliasApiHelper)
+            .listAliases(eq(Translator.listAliasesRequest(KEY_ID, TestConstants.NEXT_MARKER)),
+                eq(proxyKmsClient));
+
+        // Execute the read handler and make sure it returns the expected results
+        assertThat(handler
+            .handleRequest(proxy, request(), callbackContext, proxyKmsClient, TestConstants.LOGGER))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(MODEL));
+
+        // Make sure we walked the key's aliases
+        verify(aliasApiHelper).describeKey(eq(EXPECTED_DESCRIBE_KEY_REQUEST), eq(proxyKmsClient));
+        verify(aliasApiHelper)
+            .listAliases(eq(Translator.listAliasesRequest(KEY_ID, null)), eq(proxyKmsClient));
+        verify(aliasApiHelper)
+            .listAliases(eq(Translator.listAliasesRequest(KEY_ID, TestConstants.NEXT_MARKER)),
+                eq(proxyKmsClient));
+
+        // We shouldn't make any other calls
+        verifyNoMoreInteractions(aliasApiHelper);
+        verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
+    }
+
     @Test
     public void handleRequest_NotFound() {
-        // Mock out the list aliases responses
-        final ListAliasesRequest expectedListAliasesRequestPage1 =
+        // The alias doesn't resolve to a key
+        doThrow(new CfnNotFoundException(ResourceModel.TYPE_NAME, MODEL.getAliasName()))
+            .when(aliasApiHelper)
+            .describeKey(eq(EXPECTED_DESCRIBE_KEY_REQUEST), eq(proxyKmsClient));
+
+        // Execute the read handler and make sure it returns the expected results
+        assertThat(handler
+            .handleRequest(proxy, request(), callbackContext, proxyKmsClient, TestConstants.LOGGER))
+            .isEqualTo(ProgressEvent.<ResourceModel, CallbackContext>builder()
+                .status(OperationStatus.FAILED)
+                .errorCode(HandlerErrorCode.NotFound)
+                .build());
+
+        // Make sure we didn't need to list any aliases
+        verify(aliasApiHelper).describeKey(eq(EXPECTED_DESCRIBE_KEY_REQUEST), eq(proxyKmsClient));
+
+        // We shouldn't make any other calls
+        verifyNoMoreInteractions(aliasApiHelper);
+        verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
+    }
+
+    @Test
+    public void handleRequest_AccessDeniedFallbackSuccess() {
+        // We aren't allowed to describe the key, so we need to list the aliases
+        doThrow(new CfnAccessDeniedException("DescribeKey")).when(aliasApiHelper)
+            .describeKey(eq(EXPECTED_DESCRIBE_KEY_REQUEST), eq(proxyKmsClient));
+        final ListAliasesRequest expectedListAliasesRequest =
             Translator.listAliasesRequest(MODEL, null);
-        final ListAliasesRequest expectedListAliasesRequestPage2 =
-            Translator.listAliasesRequest(MODEL, TestConstants.NEXT_MARKER);
-        final ListAliasesResponse listAliasesResponsePage1 = ListAliasesResponse.builder()
-            .aliases(com.google.common.collect.Lists.newArrayList(AliasListEntry.builder()
-                .aliasName(MODEL.getAliasName() + "Page1")
-                .targetKeyId(MODEL.getTargetKeyId())
-                .build()))
-            .nextMarker(TestConstants.NEXT_MARKER)
-            .build();
-        final ListAliasesResponse listAliasesResponsePage2 = ListAliasesResponse.builder()
-            .aliases(com.google.common.collect.Lists.newArrayList(AliasListEntry.builder()
-                .aliasName(MODEL.getAliasName() + "Page2")
-                .targetKeyId(MODEL.getTargetKeyId())
-                .build()))
-            .build();
-        doReturn(listAliasesResponsePage1).when(aliasApiHelper)
-            .listAliases(eq(expectedListAliasesRequestPage1), eq(proxyKmsClient));
-        doReturn(listAliasesResponsePage2).when(aliasApiHelper)
-            .listAliases(eq(expectedListAliasesRequestPage2), eq(proxyKmsClient));
+        doReturn(listAliasesResponse(MODEL.getAliasName(), null)).when(aliasApiHelper)
+            .listAliases(eq(expectedListAliasesRequest), eq(proxyKmsClient));
+
+        // Execute the read handler and make sure it returns the expected results
+        assertThat(handler
+            .handleRequest(proxy, request(), callbackContext, proxyKmsClient, TestConstants.LOGGER))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(MODEL));
 
-        // Set up our request
-        final ResourceHandlerRequest<ResourceModel> request =
-            ResourceHandlerRequest.<ResourceModel>builder().desiredResourceState(MODEL).build();
+        // Make sure we called our helper to list the aliases
+        verify(aliasApiHelper).describeKey(eq(EXPECTED_DESCRIBE_KEY_REQUEST), eq(proxyKmsClient));
+        verify(aliasApiHelper).listAliases(eq(expectedListAliasesRequest), eq(proxyKmsClient));
+
+        // We shouldn't make any other calls
+        verifyNoMoreInteractions(aliasApiHelper);
+        verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
+    }
+
+    @Test
+    public void handleRequest_AccessDeniedFallbackNotFound() {
+        // We aren't allowed to describe the key, so we need to list the aliases
+        doThrow(new CfnAccessDeniedException("DescribeKey")).when(aliasApiHelper)
+            .describeKey(eq(EXPECTED_DESCRIBE_KEY_REQUEST), eq(proxyKmsClient));
+        doReturn(listAliasesResponse(MODEL.getAliasName() + "Page1", TestConstants.NEXT_MARKER))
+            .when(aliasApiHelper)
+            .listAliases(eq(Translator.listAliasesRequest(MODEL, null)), eq(proxyKmsClient));
+        doReturn(listAliasesResponse(MODEL.getAliasName() + "Page2", null)).when(aliasApiHelper)
+            .listAliases(eq(Translator.listAliasesRequest(MODEL, TestConstants.NEXT_MARKER)),
+                eq(proxyKmsClient));
 
         // Execute the read handler and make sure it returns the expected results
         assertThat(handler
-            .handleRequest(proxy, request, callbackContext, proxyKmsClient, TestConstants.LOGGER))
+            .handleRequest(proxy, request(), callbackContext, proxyKmsClient, TestConstants.LOGGER))
             .isEqualTo(ProgressEvent.<ResourceModel, CallbackContext>builder()
                 .status(OperationStatus.FAILED)
                 .errorCode(HandlerErrorCode.NotFound)
                 .build());
 
         // Make sure we called our helper to list the aliases
+        verify(aliasApiHelper).describeKey(eq(EXPECTED_DESCRIBE_KEY_REQUEST), eq(proxyKmsClient));
         verify(aliasApiHelper)
             .listAliases(eq(Translator.listAliasesRequest(MODEL, null)), eq(proxyKmsClient));
         verify(aliasApiHelper)
@@ -141,4 +202,54 @@ public class ReadHandlerTest {
         verifyNoMoreInteractions(aliasApiHelper);
         verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
     }
+
+    @Test
+    public void handleRequest_AliasMovedFallback() {
+        // The alias resolves to a key, but has since moved to another key
+        mockDescribeKey();
+        doReturn(listAliasesResponse(MODEL.getAliasName() + "Other", null)).when(aliasApiHelper)
+            .listAliases(eq(Translator.listAliasesRequest(KEY_ID, null)), eq(proxyKmsClient));
+        final ListAliasesRequest expectedListAliasesRequest =
+            Translator.listAliasesRequest(MODEL, null);
+        doReturn(listAliasesResponse(MODEL.getAliasName(), null)).when(aliasApiHelper)
+            .listAliases(eq(expectedListAliasesRequest), eq(proxyKmsClient));
+
+        // Execute the read handler and make sure it returns the expected results
+        assertThat(handler
+            .handleRequest(proxy, request(), callbackContext, proxyKmsClient, TestConstants.LOGGER))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(MODEL));
+
+        // Make sure we fell back to listing the aliases
+        verify(aliasApiHelper).describeKey(eq(EXPECTED_DESCRIBE_KEY_REQUEST), eq(proxyKmsClient));
+        verify(aliasApiHelper)
+            .listAliases(eq(Translator.listAliasesRequest(KEY_ID, null)), eq(proxyKmsClient));
+        verify(aliasApiHelper).listAliases(eq(expectedListAliasesRequest), eq(proxyKmsClient));
+
+        // We shouldn't make any other calls
+        verifyNoMoreInteractions(aliasApiHelper);
+        verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
+    }
+
+    private void mockDescribeKey() {
+        doReturn(DescribeKeyResponse.builder()
+            .keyMetadata(KeyMetadata.builder().keyId(KEY_ID).build())
+            .build())
+            .when(aliasApiHelper)
+            .describeKey(eq(EXPECTED_DESCRIBE_KEY_REQUEST), eq(proxyKmsClient));
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> request() {
+        return ResourceHandlerRequest.<ResourceModel>builder().desiredResourceState(MODEL).build();
+    }
+
+    private static ListAliasesResponse listAliasesResponse(final String aliasName,
+                                                           final String nextMarker) {
+        return ListAliasesResponse.builder()
+            .aliases(com.google.common.collect.Lists.newArrayList(AliasListEntry.builder()
+                .aliasName(aliasName)
+                .targetKeyId(MODEL.getTargetKeyId())
+                .build()))
+            .nextMarker(nextMarker)
+            .build();
+    }
 }
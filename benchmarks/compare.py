@@ -0,0 +1,73 @@
+#!/usr/bin/env python3
+"""Compares the JMH JSON results of two runs, e.g. of a change and of the commit it is based on.
+
+Usage: python3 benchmarks/compare.py before.json after.json
+
+Prints the score and, when the runs used -prof gc, the bytes allocated per operation of every
+benchmark in both runs, with the change from the first run to the second.
+"""
+
+import json
+import sys
+
+ALLOC_METRIC = "gc.alloc.rate.norm"
+
+
+def load(path):
+    with open(path) as f:
+        return {name(result): result for result in json.load(f)}
+
+
+def name(result):
+    params = result.get("params") or {}
+    suffix = ",".join("%s=%s" % (key, params[key]) for key in sorted(params))
+    return result["benchmark"] + (":" + suffix if suffix else "")
+
+
+def alloc(result):
+    # Older JMH versions prefix secondary metrics with a middle dot
+    for metric, value in (result.get("secondaryMetrics") or {}).items():
+        if metric.lstrip("·") == ALLOC_METRIC:
+            return value["score"]
+    return None
+
+
+def change(current, previous):
+    if current is None or previous is None:
+        return "n/a"
+    if previous == 0:
+        return "n/a" if current == 0 else "new"
+    return "%+.1f%%" % ((current - previous) * 100.0 / previous)
+
+
+def fmt(value):
+    return "-" if value is None else "%.3f" % value
+
+
+def main(args):
+    if len(args) != 2:
+        print(__doc__.strip())
+        return 2
+
+    before_path, after_path = args
+    before, after = load(before_path), load(after_path)
+
+    for benchmark in sorted(set(before) | set(after)):
+        if benchmark not in before:
+            print("%s  only in %s" % (benchmark, after_path))
+            continue
+        if benchmark not in after:
+            print("%s  only in %s" % (benchmark, before_path))
+            continue
+
+        previous, current = before[benchmark], after[benchmark]
+        previous_score, score = previous["primaryMetric"]["score"], current["primaryMetric"]["score"]
+        print("%s  score %s -> %s %s (%s)  alloc %s -> %s B/op (%s)" % (
+            benchmark, fmt(previous_score), fmt(score), current["primaryMetric"]["scoreUnit"],
+            change(score, previous_score), fmt(alloc(previous)), fmt(alloc(current)),
+            change(alloc(current), alloc(previous))))
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main(sys.argv[1:]))
@@ -0,0 +1,77 @@
+package software.amazon.kms.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the inputs used by the benchmark suites. The shapes mirror what CloudFormation
+ * sends the handlers: key policies made of IAM style statements, and string tag maps.
+ */
+final class BenchmarkInputs {
+    private BenchmarkInputs() {
+        // Prevent Instantiation
+    }
+
+    /**
+     * Builds a key policy whose JSON serialization is roughly the requested number of bytes.
+     */
+    static Map<String, Object> keyPolicy(final int approximateBytes) {
+        final Map<String, Object> policy = new LinkedHashMap<>();
+        policy.put("Version", "2012-10-17");
+        policy.put("Id", "key-benchmark-" + approximateBytes);
+
+        final List<Object> statements = new ArrayList<>();
+        policy.put("Statement", statements);
+
+        // Each generated statement serializes to a little over 400 bytes
+        int remainingBytes = approximateBytes;
+        for (int i = 0; remainingBytes > 0; i++) {
+            statements.add(statement(i));
+            remainingBytes -= 420;
+        }
+
+        return policy;
+    }
+
+    /**
+     * Builds a tag map with the requested number of entries. Tags whose index is below
+     * the offset share their values with any other map built with the same size.
+     */
+    static Map<String, String> tags(final int count, final int changedFrom) {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            tags.put("cost-center/team-" + i,
+                (i < changedFrom ? "value-" : "changed-value-") + i);
+        }
+
+        return tags;
+    }
+
+    private static Map<String, Object> statement(final int index) {
+        final Map<String, Object> principal = new LinkedHashMap<>();
+        principal.put("AWS", Collections.singletonList(
+            "arn:aws:iam::111122223333:role/benchmark-role-" + index));
+
+        final Map<String, Object> condition = new LinkedHashMap<>();
+        condition.put("StringEquals", Collections.singletonMap("kms:ViaService",
+            "s3.us-west-2.amazonaws.com"));
+
+        final Map<String, Object> statement = new LinkedHashMap<>();
+        statement.put("Sid", "Allow use of the key " + index);
+        statement.put("Effect", "Allow");
+        statement.put("Principal", principal);
+        final List<String> actions = new ArrayList<>();
+        actions.add("kms:Encrypt");
+        actions.add("kms:Decrypt");
+        actions.add("kms:ReEncrypt*");
+        actions.add("kms:GenerateDataKey*");
+        actions.add("kms:DescribeKey");
+        statement.put("Action", actions);
+        statement.put("Resource", "*");
+        statement.put("Condition", condition);
+        return statement;
+    }
+}
@@ -0,0 +1,158 @@
+package software.amazon.kms.benchmarks;
+
+import com.google.common.base.Strings;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.kms.model.AlreadyExistsException;
+import software.amazon.awssdk.services.kms.model.DependencyTimeoutException;
+import software.amazon.awssdk.services.kms.model.DisabledException;
+import software.amazon.awssdk.services.kms.model.InvalidAliasNameException;
+import software.amazon.awssdk.services.kms.model.InvalidArnException;
+import software.amazon.awssdk.services.kms.model.InvalidMarkerException;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import software.amazon.awssdk.services.kms.model.KmsInternalException;
+import software.amazon.awssdk.services.kms.model.KmsInvalidStateException;
+import software.amazon.awssdk.services.kms.model.LimitExceededException;
+import software.amazon.awssdk.services.kms.model.MalformedPolicyDocumentException;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+import software.amazon.awssdk.services.kms.model.TagException;
+import software.amazon.awssdk.services.kms.model.UnsupportedOperationException;
+import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
+import software.amazon.cloudformation.exceptions.CfnAlreadyExistsException;
+import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnServiceInternalErrorException;
+import software.amazon.cloudformation.exceptions.CfnServiceLimitExceededException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.exceptions.CfnUnauthorizedTaggingOperationException;
+import software.amazon.kms.common.AbstractKmsApiHelper;
+import software.amazon.kms.common.KmsExceptionClassifier;
+
+/**
+ * Mapping a failed KMS call's exception to the CloudFormation exception the handler fails with,
+ * as done for every throttled call during a throttling storm. Both mappings create the same
+ * CloudFormation exception, so the difference between them is the cost of the classification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionMappingBenchmark {
+    private static final String OPERATION = "TagResource";
+
+    @Param({"Throttling", "NotFound", "AccessDenied", "TaggingAccessDenied", "NullMessage"})
+    public String failure;
+
+    private RuntimeException exception;
+
+    @Setup
+    public void setup() {
+        switch (failure) {
+            case "Throttling":
+                exception = kmsException(AbstractKmsApiHelper.THROTTLING_ERROR_CODE, "Rate exceeded");
+                break;
+            case "NotFound":
+                exception = NotFoundException.builder().message("Key 'mock-key-id' does not exist").build();
+                break;
+            case "AccessDenied":
+                exception = kmsException(AbstractKmsApiHelper.ACCESS_DENIED_ERROR_CODE,
+                    "User is not authorized to perform: kms:PutKeyPolicy");
+                break;
+            case "TaggingAccessDenied":
+                exception = kmsException(AbstractKmsApiHelper.ACCESS_DENIED_ERROR_CODE,
+                    "User is not authorized to perform: kms:ListResourceTags");
+                break;
+            case "NullMessage":
+                exception = MalformedPolicyDocumentException.builder()
+                    .message("null (Service: Kms, Status Code: 400, Request ID: mock-request-id)")
+                    .build();
+                break;
+            default:
+                throw new IllegalArgumentException(failure);
+        }
+    }
+
+    @Benchmark
+    public RuntimeException classifier() {
+        return KmsExceptionClassifier.toCfnException(OPERATION, exception);
+    }
+
+    /**
+     * The mapping as wrapKmsExceptions did it before {@link KmsExceptionClassifier}: a chain of
+     * catch blocks, with the message checked for every tagging permission in turn.
+     */
+    @Benchmark
+    public RuntimeException catchChain() {
+        try {
+            throw exception;
+        } catch (final AlreadyExistsException e) {
+            return new CfnAlreadyExistsException(addMessageIfNull(OPERATION, e));
+        } catch (final InvalidAliasNameException | KmsInvalidStateException | InvalidArnException
+            | MalformedPolicyDocumentException | TagException | UnsupportedOperationException
+            | DisabledException e) {
+            return new CfnInvalidRequestException(addMessageIfNull(OPERATION, e));
+        } catch (final LimitExceededException e) {
+            return new CfnServiceLimitExceededException(addMessageIfNull(OPERATION, e));
+        } catch (final InvalidMarkerException e) {
+            return new CfnInternalFailureException(addMessageIfNull(OPERATION, e));
+        } catch (final KmsInternalException | DependencyTimeoutException e) {
+            return new CfnServiceInternalErrorException(OPERATION, e);
+        } catch (final NotFoundException e) {
+            return new CfnNotFoundException(addMessageIfNull(OPERATION, e));
+        } catch (final KmsException e) {
+            if (AbstractKmsApiHelper.ACCESS_DENIED_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
+                if (e.getMessage().contains(AbstractKmsApiHelper.KMS_TAG_RESOURCE_PERMISSION)
+                    || e.getMessage().contains(AbstractKmsApiHelper.KMS_UNTAG_RESOURCE_PERMISSION)
+                    || e.getMessage().contains(AbstractKmsApiHelper.KMS_LIST_RESOURCE_TAGS_PERMISSION)) {
+                    return new CfnUnauthorizedTaggingOperationException(e);
+                }
+
+                return new CfnAccessDeniedException(OPERATION, e);
+            } else if (AbstractKmsApiHelper.VALIDATION_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
+                return new CfnInvalidRequestException(addMessageIfNull(OPERATION, e));
+            } else if (AbstractKmsApiHelper.THROTTLING_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
+                return new CfnThrottlingException(OPERATION, e);
+            }
+
+            return new CfnGeneralServiceException(OPERATION, e);
+        }
+    }
+
+    private static Exception addMessageIfNull(final String operation, final Exception e) {
+        final String defaultExceptionMessage = String.format("%s failed due to %s", operation,
+            e.getClass().getSimpleName());
+        if (!Strings.isNullOrEmpty(e.getMessage()) && e.getMessage().startsWith("null (")) {
+            return new Exception(e.getMessage().replaceFirst("null", defaultExceptionMessage), e);
+        }
+
+        return e;
+    }
+
+    private static KmsException kmsException(final String errorCode, final String errorMessage) {
+        return (KmsException) KmsException.builder()
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .sdkHttpResponse(SdkHttpResponse.builder()
+                    .statusCode(400)
+                    .build())
+                .errorCode(errorCode)
+                .errorMessage(errorMessage)
+                .build())
+            .build();
+    }
+}
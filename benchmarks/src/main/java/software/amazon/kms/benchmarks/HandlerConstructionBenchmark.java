@@ -0,0 +1,88 @@
+package software.amazon.kms.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.kms.common.ClientBuilder;
+import software.amazon.kms.common.CreatableKeyHandlerHelper;
+import software.amazon.kms.common.CreatableKeyTranslator;
+import software.amazon.kms.common.EventualConsistencyHandlerHelper;
+import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.TagHelper;
+import software.amazon.kms.key.BaseHandlerStd;
+import software.amazon.kms.key.CallbackContext;
+import software.amazon.kms.key.CreateHandler;
+import software.amazon.kms.key.DeleteHandler;
+import software.amazon.kms.key.ListHandler;
+import software.amazon.kms.key.ReadHandler;
+import software.amazon.kms.key.ResourceModel;
+import software.amazon.kms.key.Translator;
+import software.amazon.kms.key.UpdateHandler;
+
+/**
+ * Building the five AWS::KMS::Key handlers, as the handler wrapper does when a container
+ * starts. The handlers live as long as the container, so the bytes allocated per operation,
+ * reported by {@code -prof gc}, bound the memory they hold on to in the steady state.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerConstructionBenchmark {
+    @Benchmark
+    public List<BaseHandlerStd> sharedDependencies() {
+        return Arrays.asList(new CreateHandler(), new ReadHandler(), new UpdateHandler(),
+            new DeleteHandler(), new ListHandler());
+    }
+
+    /**
+     * Every handler builds its own helpers, as they did before the handlers shared them.
+     */
+    @Benchmark
+    public List<BaseHandlerStd> perHandlerDependencies() {
+        final OwnDependencies create = new OwnDependencies();
+        final OwnDependencies read = new OwnDependencies();
+        final OwnDependencies update = new OwnDependencies();
+        final OwnDependencies delete = new OwnDependencies();
+        final OwnDependencies list = new OwnDependencies();
+
+        return Arrays.asList(
+            new CreateHandler(create.clientBuilder, create.translator, create.keyApiHelper,
+                create.eventualConsistencyHandlerHelper, create.keyHandlerHelper, create.tagHelper),
+            new ReadHandler(read.clientBuilder, read.translator, read.keyApiHelper,
+                read.eventualConsistencyHandlerHelper, read.keyHandlerHelper),
+            new UpdateHandler(update.clientBuilder, update.translator, update.keyApiHelper,
+                update.eventualConsistencyHandlerHelper, update.keyHandlerHelper, update.tagHelper),
+            new DeleteHandler(delete.clientBuilder, delete.translator, delete.keyApiHelper,
+                delete.eventualConsistencyHandlerHelper, delete.keyHandlerHelper),
+            new ListHandler(list.clientBuilder, list.translator, list.keyApiHelper,
+                list.eventualConsistencyHandlerHelper, list.keyHandlerHelper));
+    }
+
+    /**
+     * The helpers a handler used to build in its constructor.
+     */
+    private static final class OwnDependencies {
+        private final ClientBuilder clientBuilder = new ClientBuilder();
+        private final Translator translator = new Translator();
+        private final KeyApiHelper keyApiHelper = new KeyApiHelper();
+        private final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext>
+            eventualConsistencyHandlerHelper = new EventualConsistencyHandlerHelper<>();
+        private final CreatableKeyHandlerHelper<ResourceModel, CallbackContext, CreatableKeyTranslator<ResourceModel>>
+            keyHandlerHelper = new CreatableKeyHandlerHelper<>(ResourceModel.TYPE_NAME, keyApiHelper,
+                eventualConsistencyHandlerHelper, translator);
+        private final TagHelper<ResourceModel, CallbackContext, CreatableKeyTranslator<ResourceModel>>
+            tagHelper = new TagHelper<>(translator, keyApiHelper, keyHandlerHelper);
+    }
+}
@@ -0,0 +1,51 @@
+package software.amazon.kms.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.kms.key.Translator;
+
+/**
+ * Key policy serialization, as performed on every create, update and read.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeyPolicyBenchmark {
+    @Param({"1024", "8192", "32768"})
+    public int policyBytes;
+
+    private Translator translator;
+    private Map<String, Object> keyPolicy;
+    private String serializedKeyPolicy;
+
+    @Setup
+    public void setup() {
+        translator = new Translator();
+        keyPolicy = BenchmarkInputs.keyPolicy(policyBytes);
+        serializedKeyPolicy = translator.translatePolicyInput(keyPolicy);
+    }
+
+    @Benchmark
+    public String translatePolicyInput() {
+        return translator.translatePolicyInput(keyPolicy);
+    }
+
+    @Benchmark
+    public Map<String, Object> deserializeKeyPolicy() {
+        return translator.deserializeKeyPolicy(serializedKeyPolicy);
+    }
+}
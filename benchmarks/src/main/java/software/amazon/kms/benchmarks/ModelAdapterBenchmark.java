@@ -0,0 +1,67 @@
+package software.amazon.kms.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.kms.key.ModelAdapter;
+import software.amazon.kms.key.ResourceModel;
+import software.amazon.kms.key.Tag;
+
+/**
+ * Resource model defaulting and redaction, as performed at the start and end of
+ * every AWS::KMS::Key handler invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ModelAdapterBenchmark {
+    private static final String PARTITION = "aws";
+    private static final String ACCOUNT_ID = "111122223333";
+
+    @Param({"1024", "32768"})
+    public int policyBytes;
+
+    private Map<String, Object> keyPolicy;
+    private ResourceModel model;
+
+    @Setup
+    public void setup() {
+        keyPolicy = BenchmarkInputs.keyPolicy(policyBytes);
+        model = ResourceModel.builder()
+            .keyId("1234abcd-12ab-34cd-56ef-1234567890ab")
+            .arn("arn:aws:kms:us-west-2:111122223333:key/1234abcd-12ab-34cd-56ef-1234567890ab")
+            .description("benchmark key")
+            .keyPolicy(keyPolicy)
+            .tags(BenchmarkInputs.tags(50, 50).entrySet().stream()
+                .map(e -> Tag.builder().key(e.getKey()).value(e.getValue()).build())
+                .collect(Collectors.toSet()))
+            .pendingWindowInDays(7)
+            .build();
+    }
+
+    @Benchmark
+    public ResourceModel setDefaults() {
+        // setDefaults replaces the map policy with its serialized form, so start from the map
+        model.setKeyPolicy(keyPolicy);
+        return ModelAdapter.setDefaults(model, PARTITION, ACCOUNT_ID);
+    }
+
+    @Benchmark
+    public ResourceModel unsetWriteOnly() {
+        return ModelAdapter.unsetWriteOnly(model);
+    }
+}
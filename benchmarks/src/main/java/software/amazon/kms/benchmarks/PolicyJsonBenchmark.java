@@ -0,0 +1,67 @@
+package software.amazon.kms.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.kms.common.PolicyJson;
+
+/**
+ * Compares the shared PolicyJson reader and writer with the per call ObjectMapper and
+ * TypeReference it replaced. Run with -prof gc to see the allocation difference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PolicyJsonBenchmark {
+    @Param({"1024", "8192", "32768"})
+    public int policyBytes;
+
+    private Map<String, Object> keyPolicy;
+    private String serializedKeyPolicy;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        keyPolicy = BenchmarkInputs.keyPolicy(policyBytes);
+        serializedKeyPolicy = PolicyJson.shared().writePolicy(keyPolicy);
+    }
+
+    @Benchmark
+    public String writePolicyNewObjectMapper() throws JsonProcessingException {
+        return new ObjectMapper().writeValueAsString(keyPolicy);
+    }
+
+    @Benchmark
+    public String writePolicyShared() throws JsonProcessingException {
+        return PolicyJson.shared().writePolicy(keyPolicy);
+    }
+
+    @Benchmark
+    public Map<String, Object> readPolicyTypeReference() throws IOException {
+        return new ObjectMapper().readValue(serializedKeyPolicy,
+            new TypeReference<HashMap<String, Object>>() {
+            });
+    }
+
+    @Benchmark
+    public Map<String, Object> readPolicyShared() throws IOException {
+        return PolicyJson.shared().readPolicy(serializedKeyPolicy);
+    }
+}
@@ -0,0 +1,150 @@
+package software.amazon.kms.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.DescribeKeyResponse;
+import software.amazon.awssdk.services.kms.model.GetKeyPolicyResponse;
+import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusResponse;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.KeySpec;
+import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.awssdk.services.kms.model.KeyUsageType;
+import software.amazon.awssdk.services.kms.model.ListResourceTagsResponse;
+import software.amazon.awssdk.services.kms.model.OriginType;
+import software.amazon.awssdk.services.kms.model.Tag;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.kms.common.ClientBuilder;
+import software.amazon.kms.common.ColdStartPriming;
+import software.amazon.kms.common.CreatableKeyHandlerHelper;
+import software.amazon.kms.common.EventualConsistencyHandlerHelper;
+import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.KmsClientPool;
+import software.amazon.kms.key.CallbackContext;
+import software.amazon.kms.key.ReadHandler;
+import software.amazon.kms.key.ResourceModel;
+import software.amazon.kms.key.Translator;
+
+/**
+ * The time to the first AWS::KMS::Key read handled by a fresh JVM, with and without cold start
+ * priming. Each fork builds the handler, which starts priming it when priming is on, waits for
+ * priming to finish, and then measures a single read, so the score is the latency of a first
+ * request that arrives once priming is done. KMS is replaced by a stub that answers right away.
+ *
+ * <p>Every fork measures one request only, so the suite needs many forks for stable results.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    private static final String KEY_ID = "1234abcd-12ab-34cd-56ef-1234567890ab";
+    private static final String KEY_ARN = "arn:aws:kms:us-west-2:111122223333:key/" + KEY_ID;
+    // A literal, so that the stub doesn't load any of the JSON classes before the handler does
+    private static final String KEY_POLICY = "{\"Version\":\"2012-10-17\",\"Statement\":[{\"Effect\":\"Allow\","
+        + "\"Principal\":{\"AWS\":\"arn:aws:iam::111122223333:root\"},\"Action\":\"kms:*\",\"Resource\":\"*\"}]}";
+
+    private ReadHandler readHandler;
+    private AmazonWebServicesClientProxy proxy;
+    private LoggerProxy logger;
+
+    @Setup
+    public void setup() {
+        final KmsClient kms = stubKmsClient();
+        final ClientBuilder clientBuilder = new ClientBuilder(new KmsClientPool(() -> kms, region -> kms));
+        final Translator translator = new Translator();
+        final KeyApiHelper keyApiHelper = new KeyApiHelper();
+        final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext> eventualConsistencyHandlerHelper =
+            new EventualConsistencyHandlerHelper<>();
+
+        // Loading the handler class starts priming it in the background, unless priming is turned
+        // off for this fork
+        readHandler = new ReadHandler(clientBuilder, translator, keyApiHelper, eventualConsistencyHandlerHelper,
+            new CreatableKeyHandlerHelper<>(ResourceModel.TYPE_NAME, keyApiHelper,
+                eventualConsistencyHandlerHelper, translator));
+        ColdStartPriming.awaitPriming(ResourceModel.TYPE_NAME, Duration.ofSeconds(10));
+        logger = new LoggerProxy();
+        proxy = new AmazonWebServicesClientProxy(logger, new Credentials("accessKey", "secretKey", "token"),
+            () -> Duration.ofMinutes(10).toMillis());
+    }
+
+    @Benchmark
+    @Fork(value = 20, jvmArgsAppend = "-D" + ColdStartPriming.ENABLED_PROPERTY + "=true")
+    public ProgressEvent<ResourceModel, CallbackContext> firstReadPrimed() {
+        return read();
+    }
+
+    @Benchmark
+    @Fork(value = 20, jvmArgsAppend = "-D" + ColdStartPriming.ENABLED_PROPERTY + "=false")
+    public ProgressEvent<ResourceModel, CallbackContext> firstReadUnprimed() {
+        return read();
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> read() {
+        return readHandler.handleRequest(proxy, ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(ResourceModel.builder().keyId(KEY_ID).build())
+            .awsPartition("aws")
+            .awsAccountId("111122223333")
+            .build(), null, logger);
+    }
+
+    /**
+     * A KMS client that answers the read handler's calls without a network round trip. It is
+     * a dynamic proxy, so it doesn't have to implement the rest of the client interface.
+     */
+    private static KmsClient stubKmsClient() {
+        return (KmsClient) Proxy.newProxyInstance(KmsClient.class.getClassLoader(),
+            new Class<?>[] {KmsClient.class}, (stub, method, args) -> {
+                switch (method.getName()) {
+                    case "describeKey":
+                        return DescribeKeyResponse.builder()
+                            .keyMetadata(KeyMetadata.builder()
+                                .keyId(KEY_ID)
+                                .arn(KEY_ARN)
+                                .description("benchmark key")
+                                .enabled(true)
+                                .keyState(KeyState.ENABLED)
+                                .keyUsage(KeyUsageType.ENCRYPT_DECRYPT)
+                                .keySpec(KeySpec.SYMMETRIC_DEFAULT)
+                                .origin(OriginType.AWS_KMS)
+                                .multiRegion(false)
+                                .build())
+                            .build();
+                    case "getKeyPolicy":
+                        return GetKeyPolicyResponse.builder()
+                            .policy(KEY_POLICY)
+                            .build();
+                    case "getKeyRotationStatus":
+                        return GetKeyRotationStatusResponse.builder().keyRotationEnabled(true).build();
+                    case "listResourceTags":
+                        return ListResourceTagsResponse.builder()
+                            .tags(Tag.builder().tagKey("benchmark").tagValue("true").build())
+                            .build();
+                    case "serviceName":
+                        return KmsClient.SERVICE_NAME;
+                    case "close":
+                        return null;
+                    case "toString":
+                        return "StubKmsClient";
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
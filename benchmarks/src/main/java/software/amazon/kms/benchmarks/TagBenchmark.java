@@ -0,0 +1,103 @@
+package software.amazon.kms.benchmarks;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.services.kms.model.Tag;
+import software.amazon.kms.common.CreatableKeyTranslator;
+import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.TagDiff;
+import software.amazon.kms.common.TagHelper;
+import software.amazon.kms.key.CallbackContext;
+import software.amazon.kms.key.ResourceModel;
+import software.amazon.kms.key.Translator;
+
+/**
+ * Tag conversion and diffing, as performed on every create and update.
+ * Half of the desired tags differ from the previous ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TagBenchmark {
+    @Param({"1", "10", "50"})
+    public int tagCount;
+
+    private Translator translator;
+    private TagHelper<ResourceModel, CallbackContext, CreatableKeyTranslator<ResourceModel>>
+        tagHelper;
+    private Map<String, String> previousTags;
+    private Map<String, String> desiredTags;
+    private Set<Tag> previousSdkTags;
+    private Set<Tag> desiredSdkTags;
+
+    @Setup
+    public void setup() {
+        translator = new Translator();
+        tagHelper = new TagHelper<>(translator, new KeyApiHelper(), null);
+        previousTags = BenchmarkInputs.tags(tagCount, tagCount);
+        desiredTags = BenchmarkInputs.tags(tagCount, tagCount / 2);
+        previousSdkTags = TagHelper.convertToSet(previousTags);
+        desiredSdkTags = TagHelper.convertToSet(desiredTags);
+    }
+
+    @Benchmark
+    public Set<Tag> convertToSet() {
+        return TagHelper.convertToSet(desiredTags);
+    }
+
+    @Benchmark
+    public Set<Tag> translateTagsToSdk() {
+        return translator.translateTagsToSdk(desiredTags);
+    }
+
+    @Benchmark
+    public Set<Tag> generateTagsToAdd() {
+        return tagHelper.generateTagsToAdd(previousSdkTags, desiredSdkTags);
+    }
+
+    @Benchmark
+    public Set<Tag> generateTagsToRemove() {
+        return tagHelper.generateTagsToRemove(previousSdkTags, desiredSdkTags);
+    }
+
+    /**
+     * The full diff as updates computed it before {@link TagDiff}: both maps converted to
+     * SDK tags, once for the removals and once for the additions.
+     */
+    @Benchmark
+    public void setDiff(final Blackhole blackhole) {
+        blackhole.consume(tagHelper.generateTagsToRemove(TagHelper.convertToSet(previousTags),
+            TagHelper.convertToSet(desiredTags)));
+        blackhole.consume(tagHelper.generateTagsToAdd(TagHelper.convertToSet(previousTags),
+            TagHelper.convertToSet(desiredTags)));
+    }
+
+    @Benchmark
+    public TagDiff tagDiff() {
+        return TagDiff.between(previousTags, desiredTags);
+    }
+
+    /**
+     * The diff along with the SDK tags a TagResource call would send.
+     */
+    @Benchmark
+    public Set<Tag> tagDiffTagsToApply() {
+        return TagDiff.between(previousTags, desiredTags).tagsToApply();
+    }
+}
@@ -1,43 +1,33 @@
 package software.amazon.kms.common;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Supplier;
 
-import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 
+import software.amazon.awssdk.awscore.AwsServiceClientConfiguration;
+import software.amazon.awssdk.core.SdkClient;
 import software.amazon.awssdk.services.kms.KmsClient;
-import software.amazon.awssdk.services.kms.model.AlreadyExistsException;
-import software.amazon.awssdk.services.kms.model.DependencyTimeoutException;
 import software.amazon.awssdk.services.kms.model.DescribeKeyRequest;
 import software.amazon.awssdk.services.kms.model.DescribeKeyResponse;
-import software.amazon.awssdk.services.kms.model.DisabledException;
-import software.amazon.awssdk.services.kms.model.InvalidAliasNameException;
-import software.amazon.awssdk.services.kms.model.InvalidArnException;
-import software.amazon.awssdk.services.kms.model.InvalidMarkerException;
-import software.amazon.awssdk.services.kms.model.KmsException;
-import software.amazon.awssdk.services.kms.model.KmsInternalException;
-import software.amazon.awssdk.services.kms.model.KmsInvalidStateException;
-import software.amazon.awssdk.services.kms.model.LimitExceededException;
-import software.amazon.awssdk.services.kms.model.MalformedPolicyDocumentException;
-import software.amazon.awssdk.services.kms.model.NotFoundException;
-import software.amazon.awssdk.services.kms.model.TagException;
-import software.amazon.awssdk.services.kms.model.UnsupportedOperationException;
-import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
-import software.amazon.cloudformation.exceptions.CfnAlreadyExistsException;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
-import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
-import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
-import software.amazon.cloudformation.exceptions.CfnNotFoundException;
-import software.amazon.cloudformation.exceptions.CfnServiceInternalErrorException;
-import software.amazon.cloudformation.exceptions.CfnServiceLimitExceededException;
 import software.amazon.cloudformation.exceptions.CfnThrottlingException;
-import software.amazon.cloudformation.exceptions.CfnUnauthorizedTaggingOperationException;
 import software.amazon.cloudformation.proxy.ProxyClient;
 
 /**
  * Abstract Helper class for calling KMS APIs. The primary function of this class
  * is to wrap KMS service exceptions with the appropriate CloudFormation exception.
  * This is necessary so that CloudFormation can determine whether or not it should
- * retry a failed request.
+ * retry a failed request. Every call is also recorded in the helper's {@link KmsApiMetrics},
+ * and waits for its turn under the helper's {@link AdaptiveRateLimiter}.
+ *
+ * <p>The helper's calls may be made from several threads at once with the same handler
+ * {@link ProxyClient}, as the concurrent reads, tag chunks and describes do. Neither the proxy
+ * client nor the helper keeps any state between calls: injectCredentialsAndInvokeV2 only copies
+ * the request with the handler's credentials as its override configuration, and hands the copy
+ * to the {@link KmsClient}, which is thread-safe, as are the limiter and the metrics. The proxy's
+ * call chains are different, they keep the state of the handler's progress, so they are only
+ * ever used on the handler's own thread.
  */
 public class AbstractKmsApiHelper {
     public static final String THROTTLING_ERROR_CODE = "ThrottlingException";
@@ -49,69 +39,106 @@ public class AbstractKmsApiHelper {
 
     private static final String DESCRIBE_KEY = "DescribeKey";
 
+    private final KmsApiMetrics metrics;
+    private final AdaptiveRateLimiter rateLimiter;
+
+    public AbstractKmsApiHelper() {
+        this(KmsApiMetrics.shared(), AdaptiveRateLimiter.shared());
+    }
+
+    public AbstractKmsApiHelper(final KmsApiMetrics metrics) {
+        this(metrics, AdaptiveRateLimiter.shared());
+    }
+
+    public AbstractKmsApiHelper(final KmsApiMetrics metrics, final AdaptiveRateLimiter rateLimiter) {
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
+    }
+
     public DescribeKeyResponse describeKey(final DescribeKeyRequest describeKeyRequest,
             final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(DESCRIBE_KEY,
+        return wrapKmsExceptions(DESCRIBE_KEY, proxyClient,
                 () -> proxyClient.injectCredentialsAndInvokeV2(describeKeyRequest,
                         proxyClient.client()::describeKey));
     }
 
+    /**
+     * Waits for a KMS call made through one of the helper methods on another thread,
+     * and rethrows its CloudFormation exception if it failed.
+     */
+    public static <T> T awaitResponse(final CompletableFuture<T> response) {
+        try {
+            return response.join();
+        } catch (final CompletionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    /**
+     * Makes a KMS call once the rate limit of its operation in its client's region allows it,
+     * and maps its failures to CloudFormation exceptions.
+     */
+    protected <T> T wrapKmsExceptions(final String operation,
+        final ProxyClient<? extends SdkClient> proxyClient,
+        final Supplier<T> serviceCall) {
+        final String region = getRegion(proxyClient);
+        acquirePermit(operation, region);
+        return recordCall(operation, region, metrics.startTimer(), () -> mapKmsExceptions(operation, serviceCall));
+    }
+
     protected <T> T wrapKmsExceptions(final String operation, final Supplier<T> serviceCall) {
+        return wrapKmsExceptions(operation, null, serviceCall);
+    }
+
+    private void acquirePermit(final String operation, final String region) {
         try {
-            return serviceCall.get();
-        } catch (final AlreadyExistsException e) {
-            throw new CfnAlreadyExistsException(addMessageIfNull(operation, e));
-        } catch (final InvalidAliasNameException | KmsInvalidStateException | InvalidArnException |
-            MalformedPolicyDocumentException | TagException | UnsupportedOperationException |
-            DisabledException e) {
-            throw new CfnInvalidRequestException(addMessageIfNull(operation, e));
-        } catch (final LimitExceededException e) {
-            throw new CfnServiceLimitExceededException(addMessageIfNull(operation, e));
-        } catch (final InvalidMarkerException e) {
-            // We should never make a call with an invalid marker, if we did, there is an issue
-            throw new CfnInternalFailureException(addMessageIfNull(operation, e));
-        } catch (final KmsInternalException | DependencyTimeoutException e) {
-            throw new CfnServiceInternalErrorException(operation, e);
-        } catch (final NotFoundException e) {
-            throw new CfnNotFoundException(addMessageIfNull(operation, e));
-        } catch (final KmsException e) {
-            if (ACCESS_DENIED_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
-                 // If this is a tagging related Access Denied we need to throw CfnUnauthorizedTaggingOperationException
-                 if (e.getMessage().contains(KMS_TAG_RESOURCE_PERMISSION) ||
-                         e.getMessage().contains(KMS_UNTAG_RESOURCE_PERMISSION) ||
-                         e.getMessage().contains(KMS_LIST_RESOURCE_TAGS_PERMISSION)) {
-                     throw new CfnUnauthorizedTaggingOperationException(e);
-                 }
-
-                throw new CfnAccessDeniedException(operation, e);
-            } else if (VALIDATION_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
-                throw new CfnInvalidRequestException(addMessageIfNull(operation, e));
-            } else if (THROTTLING_ERROR_CODE.equals(e.awsErrorDetails().errorCode())) {
-                throw new CfnThrottlingException(operation, e);
-            }
+            metrics.recordLimiterWait(operation, rateLimiter.acquire(operation, region));
+        } catch (final CfnThrottlingException e) {
+            metrics.recordLimiterRejection(operation);
+            throw e;
+        }
+    }
 
-            throw new CfnGeneralServiceException(operation, e);
+    private <T> T recordCall(final String operation, final String region, final long startNanos,
+        final Supplier<T> call) {
+        final T result;
+        try {
+            result = call.get();
+        } catch (final RuntimeException e) {
+            metrics.record(operation, startNanos, e);
+            // Only throttles say anything about the quota, other errors leave the rate as it is
+            if (e instanceof CfnThrottlingException) {
+                rateLimiter.onThrottle(operation, region);
+            }
+            throw e;
         }
+
+        metrics.record(operation, startNanos, null);
+        rateLimiter.onSuccess(operation, region);
+        return result;
     }
 
     /**
-     * Generates exception messages for exceptions that didn't have one.
-     *
-     * @param operation Operation that caused the exception
-     * @param e Exception that occurred
-     * @return Exception
+     * Gets the region a proxy client's calls go to, or null if that is not known, e.g. for
+     * mock clients.
      */
-    private Exception addMessageIfNull(final String operation, final Exception e) {
-        // CloudFormation users only see the message of an exception that resulted in a failure,
-        // and do not see its type. Some KMS exceptions (Like MalformedPolicyDocumentException)
-        // do not have exception messages, so we need to add one that mentions the exception type and operation.
-        final String defaultExceptionMessage = String.format("%s failed due to %s", operation,
-                e.getClass().getSimpleName());
-        if (!Strings.isNullOrEmpty(e.getMessage()) && e.getMessage().startsWith("null (")) {
-            // Replace 'null', while keeping the request id that the SDK adds on
-            return new Exception(e.getMessage().replaceFirst("null", defaultExceptionMessage), e);
+    private static String getRegion(final ProxyClient<? extends SdkClient> proxyClient) {
+        if (proxyClient == null || proxyClient.client() == null
+            || !(proxyClient.client().serviceClientConfiguration() instanceof AwsServiceClientConfiguration)) {
+            return null;
         }
 
-        return e;
+        final AwsServiceClientConfiguration configuration =
+            (AwsServiceClientConfiguration) proxyClient.client().serviceClientConfiguration();
+        return configuration.region() == null ? null : configuration.region().id();
+    }
+
+    private <T> T mapKmsExceptions(final String operation, final Supplier<T> serviceCall) {
+        try {
+            return serviceCall.get();
+        } catch (final RuntimeException e) {
+            throw KmsExceptionClassifier.toCfnException(operation, e);
+        }
     }
 }
@@ -0,0 +1,174 @@
+package software.amazon.kms.common;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+
+/**
+ * A client side rate limit on the KMS calls of the whole container, kept separately for every
+ * operation in every region, since that is how KMS applies its request quotas. The limits adapt
+ * to the quota the account actually has left (additive increase, multiplicative decrease):
+ * every call KMS answers successfully raises its limit a little, and every throttled call halves
+ * it. Other errors say nothing about the quota, so they leave the limit as it is.
+ *
+ * <p>Calls are spaced out evenly at the current rate. A call waits for its turn as long as that
+ * is within the maximum wait. A call whose turn is further off is not made at all. It fails with
+ * a {@link CfnThrottlingException}, the same as if KMS had throttled it, rather than holding on
+ * to its thread past the list time budget or the handler's own timeout.
+ */
+public class AdaptiveRateLimiter {
+    public static final double DEFAULT_INITIAL_PERMITS_PER_SECOND = 25;
+    public static final double DEFAULT_MAX_PERMITS_PER_SECOND = 500;
+    public static final double MIN_PERMITS_PER_SECOND = 0.5;
+    // A few calls' turns even at the minimum rate, and well within a handler invocation
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(5);
+    // Every second of calls at the current rate raises it by one call per second
+    public static final double ADDITIVE_INCREASE = 1;
+    public static final double MULTIPLICATIVE_DECREASE = 0.5;
+
+    // KMS quotas are per second, so the throttles of the calls made in the same second only count once
+    private static final long DECREASE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final AdaptiveRateLimiter SHARED = new AdaptiveRateLimiter(DEFAULT_INITIAL_PERMITS_PER_SECOND,
+        DEFAULT_MAX_PERMITS_PER_SECOND, DEFAULT_MAX_WAIT, Ticker.systemTicker(), TimeUnit.NANOSECONDS::sleep);
+
+    private final double initialPermitsPerSecond;
+    private final double maxPermitsPerSecond;
+    private final long maxWaitNanos;
+    private final Ticker ticker;
+    private final Sleeper sleeper;
+    private final ConcurrentMap<String, Limit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveRateLimiter(final double initialPermitsPerSecond,
+                               final double maxPermitsPerSecond,
+                               final Duration maxWait,
+                               final Ticker ticker,
+                               final Sleeper sleeper) {
+        Preconditions.checkArgument(initialPermitsPerSecond >= MIN_PERMITS_PER_SECOND
+                && initialPermitsPerSecond <= maxPermitsPerSecond,
+            "initialPermitsPerSecond must be between %s and maxPermitsPerSecond", MIN_PERMITS_PER_SECOND);
+
+        this.initialPermitsPerSecond = initialPermitsPerSecond;
+        this.maxPermitsPerSecond = maxPermitsPerSecond;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.ticker = ticker;
+        this.sleeper = sleeper;
+    }
+
+    /**
+     * Gets the limiter shared by every handler in the container.
+     */
+    public static AdaptiveRateLimiter shared() {
+        return SHARED;
+    }
+
+    /**
+     * Waits until a call may be made.
+     *
+     * @param region the region the call is made to, or null if it is not known
+     * @return how long the call waited, in nanoseconds
+     * @throws CfnThrottlingException if the call would have to wait longer than the maximum wait
+     * @throws CfnInternalFailureException if the thread is interrupted while it waits
+     */
+    public long acquire(final String operation, final String region) {
+        final long waitNanos = limit(operation, region).reserve(ticker.read());
+        if (waitNanos < 0) {
+            throw new CfnThrottlingException(operation,
+                new IllegalStateException("Client side rate limit exceeded"));
+        }
+
+        if (waitNanos > 0) {
+            try {
+                sleeper.sleep(waitNanos);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CfnInternalFailureException(e);
+            }
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Lets the limiter know that KMS answered a call successfully.
+     */
+    public void onSuccess(final String operation, final String region) {
+        limit(operation, region).increase();
+    }
+
+    /**
+     * Lets the limiter know that KMS throttled a call.
+     */
+    public void onThrottle(final String operation, final String region) {
+        limit(operation, region).decrease(ticker.read());
+    }
+
+    /**
+     * Gets the calls per second currently allowed.
+     */
+    public double getPermitsPerSecond(final String operation, final String region) {
+        return limit(operation, region).getPermitsPerSecond();
+    }
+
+    private Limit limit(final String operation, final String region) {
+        return limits.computeIfAbsent(region == null ? operation : operation + "/" + region,
+            key -> new Limit(initialPermitsPerSecond, ticker.read()));
+    }
+
+    /**
+     * Waits for a call's turn. The shared limiter sleeps, tests skip ahead on their clock.
+     */
+    @FunctionalInterface
+    public interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    private final class Limit {
+        private double permitsPerSecond;
+        private long nextFreeNanos;
+        private long lastDecreaseNanos;
+        private boolean decreased;
+
+        private Limit(final double permitsPerSecond, final long nowNanos) {
+            this.permitsPerSecond = permitsPerSecond;
+            // Ticker readings are only meaningful relative to each other, and may well be negative
+            this.nextFreeNanos = nowNanos;
+        }
+
+        /**
+         * Reserves the next free slot, and gets how long until it starts, or -1 if that is
+         * longer than the maximum wait, in which case nothing is reserved.
+         */
+        private synchronized long reserve(final long nowNanos) {
+            // Compared by their difference, which stays correct when the ticker overflows
+            final long waitNanos = Math.max(0, nextFreeNanos - nowNanos);
+            if (waitNanos > maxWaitNanos) {
+                return -1;
+            }
+
+            nextFreeNanos = nowNanos + waitNanos + (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+            return waitNanos;
+        }
+
+        private synchronized void increase() {
+            permitsPerSecond = Math.min(maxPermitsPerSecond, permitsPerSecond + ADDITIVE_INCREASE / permitsPerSecond);
+        }
+
+        private synchronized void decrease(final long nowNanos) {
+            if (decreased && nowNanos - lastDecreaseNanos < DECREASE_INTERVAL_NANOS) {
+                return;
+            }
+
+            permitsPerSecond = Math.max(MIN_PERMITS_PER_SECOND, permitsPerSecond * MULTIPLICATIVE_DECREASE);
+            lastDecreaseNanos = nowNanos;
+            decreased = true;
+        }
+
+        private synchronized double getPermitsPerSecond() {
+            return permitsPerSecond;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package software.amazon.kms.common;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.InvalidArnException;
@@ -9,13 +14,58 @@ import software.amazon.cloudformation.LambdaWrapper;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 
 public class ClientBuilder {
+    // Shared by every handler in the container, so warm invocations reuse the same clients
+    private static final KmsClientPool SHARED_CLIENT_POOL = new KmsClientPool(
+        () -> KmsClient.builder()
+            .httpClient(LambdaWrapper.HTTP_CLIENT)
+            .build(),
+        region -> KmsClient.builder()
+            .httpClient(LambdaWrapper.HTTP_CLIENT)
+            .region(region)
+            .build());
+
+    private final KmsClientPool clientPool;
+
+    public ClientBuilder() {
+        this(SHARED_CLIENT_POOL);
+    }
+
+    @VisibleForTesting
+    public ClientBuilder(final KmsClientPool clientPool) {
+        this.clientPool = clientPool;
+    }
+
+    /**
+     * Builds a client builder whose clients all send their requests to the given endpoint,
+     * whatever their region, e.g. a local KMS stand-in for load testing. The region is still
+     * used to sign the requests, so the endpoint can tell the regions apart.
+     *
+     * @param endpoint the endpoint to send every request to
+     * @param defaultRegion the region of the client returned by {@link #getClient()}
+     * @return a client builder with its own client pool
+     */
+    public static ClientBuilder forEndpoint(final URI endpoint, final String defaultRegion) {
+        final Region region = toKmsRegion(defaultRegion);
+
+        return new ClientBuilder(
+            new KmsClientPool(
+                () -> KmsClient.builder()
+                    .httpClient(LambdaWrapper.HTTP_CLIENT)
+                    .endpointOverride(endpoint)
+                    .region(region)
+                    .build(),
+                clientRegion -> KmsClient.builder()
+                    .httpClient(LambdaWrapper.HTTP_CLIENT)
+                    .endpointOverride(endpoint)
+                    .region(clientRegion)
+                    .build()));
+    }
+
     /**
      * Gets a KMS client.
      */
     public KmsClient getClient() {
-        return KmsClient.builder()
-            .httpClient(LambdaWrapper.HTTP_CLIENT)
-            .build();
+        return clientPool.getDefaultClient();
     }
 
     /**
@@ -42,14 +92,30 @@ public class ClientBuilder {
      * @return a KmsClient supplier
      */
     public Supplier<KmsClient> getClientForRegion(final String regionStr) {
-        final Region region = KmsClient.serviceMetadata().regions().stream().filter(
-            r -> r.id().equals(regionStr)).findFirst().orElseThrow(() ->
-            new CfnInvalidRequestException(new IllegalArgumentException(String
-                .format("'%s' is not a valid KMS Region.", regionStr))));
+        return Suppliers.ofInstance(clientPool.getClient(toKmsRegion(regionStr)));
+    }
 
-        return Suppliers.ofInstance(KmsClient.builder()
-            .httpClient(LambdaWrapper.HTTP_CLIENT)
-            .region(region)
-            .build());
+    /**
+     * Builds the clients for the specified regions ahead of time, instead of lazily on
+     * the first request for each region.
+     *
+     * @param regionStrs the regions to warm the client pool for
+     */
+    public void warmClients(final String... regionStrs) {
+        final List<Region> regions = Arrays.stream(regionStrs)
+            .map(ClientBuilder::toKmsRegion)
+            .collect(Collectors.toList());
+
+        clientPool.warm(regions);
+    }
+
+    private static Region toKmsRegion(final String regionStr) {
+        final Region region = KmsClientPool.kmsRegion(regionStr);
+        if (region == null) {
+            throw new CfnInvalidRequestException(new IllegalArgumentException(String
+                .format("'%s' is not a valid KMS Region.", regionStr)));
+        }
+
+        return region;
     }
 }
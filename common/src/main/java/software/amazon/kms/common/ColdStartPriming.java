@@ -0,0 +1,120 @@
+package software.amazon.kms.common;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pays the first-use costs of a resource type's handlers when the container starts, instead of
+ * in its first request: building the SDK client and loading the KMS service metadata, creating
+ * the Jackson readers and writers of key policies, and loading the generated model classes.
+ * Handlers prime from a static initializer, so priming starts during Lambda's init phase.
+ * The primer runs on a daemon thread of its own that nothing waits on, so loading the handler
+ * classes never blocks on it, and a primer that fails or gets stuck cannot break or stall it.
+ *
+ * <p>Priming makes no network calls and keeps no credentials, timestamps or random state, so it
+ * is safe to checkpoint: a container restored from a snapshot taken after priming behaves like
+ * one that primed itself. It only happens in Lambda, so loading the handlers in tests or tools
+ * stays cheap, unless the {@value #ENABLED_PROPERTY} system property turns it on or off.
+ */
+public final class ColdStartPriming {
+    public static final String ENABLED_PROPERTY = "software.amazon.kms.priming";
+
+    private static final String REGION_ENVIRONMENT_VARIABLE = "AWS_REGION";
+    private static final String LAMBDA_ENVIRONMENT_VARIABLE = "AWS_LAMBDA_FUNCTION_NAME";
+    private static final Map<String, CompletableFuture<Duration>> PRIMINGS = new ConcurrentHashMap<>();
+
+    private ColdStartPriming() {
+        // Prevent Instantiation
+    }
+
+    /**
+     * Starts the primer of a resource type in the background, unless it already started in
+     * this container. Priming is best effort: a primer that fails is neither reported nor
+     * retried, and whatever it didn't get to is left for the first request to pay for.
+     *
+     * @param typeName the resource type being primed
+     * @param primer   exercises the resource type's handler paths with synthetic models
+     * @return whether the primer was started
+     */
+    public static boolean prime(final String typeName, final Runnable primer) {
+        if (!isEnabled()) {
+            return false;
+        }
+
+        final CompletableFuture<Duration> priming = new CompletableFuture<>();
+        if (PRIMINGS.putIfAbsent(typeName, priming) != null) {
+            return false;
+        }
+
+        final Thread thread = new Thread(() -> run(primer, priming), "kms-cold-start-priming");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /**
+     * How long priming the resource type took, if it was primed and has finished.
+     */
+    public static Optional<Duration> getPrimingTime(final String typeName) {
+        final CompletableFuture<Duration> priming = PRIMINGS.get(typeName);
+        return priming == null ? Optional.empty() : Optional.ofNullable(priming.getNow(null));
+    }
+
+    /**
+     * Waits for priming the resource type to finish, for benchmarks and tests that need the
+     * container in the state priming leaves it in. Handlers never wait for priming.
+     *
+     * @return how long priming took, or empty if the resource type wasn't primed or its primer
+     *         is still running after the timeout
+     */
+    public static Optional<Duration> awaitPriming(final String typeName, final Duration timeout) {
+        final CompletableFuture<Duration> priming = PRIMINGS.get(typeName);
+        if (priming == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(priming.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (final ExecutionException | TimeoutException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isEnabled() {
+        final String enabled = System.getProperty(ENABLED_PROPERTY);
+        return enabled != null ? Boolean.parseBoolean(enabled) : System.getenv(LAMBDA_ENVIRONMENT_VARIABLE) != null;
+    }
+
+    private static void run(final Runnable primer, final CompletableFuture<Duration> priming) {
+        final long start = System.nanoTime();
+        try {
+            primer.run();
+        } catch (final RuntimeException | LinkageError e) {
+            // Deliberately dropped, see prime. A class that fails to load is left to the first
+            // request as well, which reports it like any other failure.
+        } finally {
+            priming.complete(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Builds the client the handlers use for their own region. Building it resolves neither
+     * credentials nor endpoints over the network, so the client can be part of a snapshot.
+     */
+    public static void primeClients(final ClientBuilder clientBuilder) {
+        // Lambda always sets the region. Anywhere else, the client would look it up from the
+        // instance metadata service, and priming makes no network calls.
+        if (System.getenv(REGION_ENVIRONMENT_VARIABLE) != null) {
+            clientBuilder.getClient();
+        }
+    }
+}
@@ -24,6 +24,14 @@ public class CreatableKeyHandlerHelper<M, C extends KeyCallbackContext, T extend
         super(typeName, keyApiHelper, eventualConsistencyHandlerHelper, keyTranslator);
     }
 
+    public CreatableKeyHandlerHelper(final String typeName,
+                                     final KeyApiHelper keyApiHelper,
+                                     final EventualConsistencyHandlerHelper<M, C> eventualConsistencyHandlerHelper,
+                                     final T keyTranslator,
+                                     final TagPipeline tagPipeline) {
+        super(typeName, keyApiHelper, eventualConsistencyHandlerHelper, keyTranslator, tagPipeline);
+    }
+
     /**
      * Creates a KMS key, updates the resource model,
      * and then waits for it to propagate throughout the region.
@@ -35,6 +43,11 @@ public class CreatableKeyHandlerHelper<M, C extends KeyCallbackContext, T extend
         final C callbackContext,
         final Map<String, String> tags
     ) {
+        callbackContext.recordMutation(KeyMutation.KEY_POLICY);
+        if (tags != null && !tags.isEmpty()) {
+            callbackContext.recordMutation(KeyMutation.TAGS);
+        }
+
         return proxy.initiate("kms::create-key", proxyClient, model, callbackContext)
             .translateToServiceRequest(m -> keyTranslator.createKeyRequest(model, tags))
             .makeServiceCall(keyApiHelper::createKey)
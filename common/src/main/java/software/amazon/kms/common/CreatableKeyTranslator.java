@@ -16,7 +16,7 @@ import software.amazon.awssdk.services.kms.model.OriginType;
 public abstract class CreatableKeyTranslator<M> extends KeyTranslator<M> {
 
     protected CreatableKeyTranslator() {
-        this(new ObjectMapper());
+        super();
     }
 
     protected CreatableKeyTranslator(final ObjectMapper objectMapper) {
@@ -14,4 +14,23 @@ import software.amazon.cloudformation.proxy.StdCallbackContext;
 public class EventualConsistencyCallbackContext extends StdCallbackContext {
     protected boolean propagationComplete;
     protected boolean updateRequest = true;
+    protected int propagationProbeAttempts;
+    protected int consistentPropagationProbes;
+    protected int propagationWaitSeconds;
+
+    /**
+     * How long changes made by this operation may take to propagate throughout the region.
+     */
+    public int propagationDelaySeconds() {
+        return updateRequest ? EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS
+            : EventualConsistencyHandlerHelper.CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS;
+    }
+
+    /**
+     * How long to wait before a propagation probe's reads are trusted. Nothing is known
+     * about what the operation changed, so by default the probe is trusted right away.
+     */
+    public int propagationFloorSeconds() {
+        return 0;
+    }
 }
@@ -1,5 +1,7 @@
 package software.amazon.kms.common;
 
+import com.google.common.base.Preconditions;
+import java.time.Duration;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 
 public class EventualConsistencyHandlerHelper <M, C extends EventualConsistencyCallbackContext> {
@@ -9,6 +11,44 @@ public class EventualConsistencyHandlerHelper <M, C extends EventualConsistencyC
     // Eventual consistency delay for create & delete operation to 15 secs
     public static final int CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS = 15;
 
+    // Probing backs off exponentially from the initial delay, up to the maximum delay.
+    // The waits are short next to the fixed delays, so probes are spaced evenly by default,
+    // which lets an update that no probe is blind to finish in 6 seconds rather than 60.
+    public static final int PROBE_INITIAL_DELAY_SECONDS = 3;
+    public static final int PROBE_MAX_DELAY_SECONDS = 3;
+    // A single consistent read may have been served by an already refreshed cache,
+    // so we only trust several of them in a row
+    public static final int REQUIRED_CONSISTENT_PROBES = 2;
+
+    public static final String CREATE_PROPAGATION_OPERATION = "CreatePropagation";
+    public static final String UPDATE_PROPAGATION_OPERATION = "UpdatePropagation";
+
+    private final int probeInitialDelaySeconds;
+    private final int probeMaxDelaySeconds;
+    private final int requiredConsistentProbes;
+    private final KmsApiMetrics metrics;
+
+    public EventualConsistencyHandlerHelper() {
+        this(PROBE_INITIAL_DELAY_SECONDS, PROBE_MAX_DELAY_SECONDS, REQUIRED_CONSISTENT_PROBES,
+            KmsApiMetrics.shared());
+    }
+
+    public EventualConsistencyHandlerHelper(final int probeInitialDelaySeconds,
+                                            final int probeMaxDelaySeconds,
+                                            final int requiredConsistentProbes,
+                                            final KmsApiMetrics metrics) {
+        Preconditions.checkArgument(probeInitialDelaySeconds > 0,
+            "probeInitialDelaySeconds must be positive");
+        Preconditions.checkArgument(probeMaxDelaySeconds >= probeInitialDelaySeconds,
+            "probeMaxDelaySeconds must be at least probeInitialDelaySeconds");
+        Preconditions.checkArgument(requiredConsistentProbes > 0,
+            "requiredConsistentProbes must be positive");
+        this.probeInitialDelaySeconds = probeInitialDelaySeconds;
+        this.probeMaxDelaySeconds = probeMaxDelaySeconds;
+        this.requiredConsistentProbes = requiredConsistentProbes;
+        this.metrics = metrics;
+    }
+
     /**
      * Perform the final propagation delay to make sure the latest
      * version of the resource is available throughout the region.
@@ -20,12 +60,72 @@ public class EventualConsistencyHandlerHelper <M, C extends EventualConsistencyC
         }
 
         callbackContext.setPropagationComplete(true);
-        int delaySeconds = callbackContext.isUpdateRequest() ? EVENTUAL_CONSISTENCY_DELAY_SECONDS :
-                CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS;
+        int delaySeconds = callbackContext.propagationDelaySeconds();
         return ProgressEvent.defaultInProgressHandler(callbackContext, delaySeconds,
                 progressEvent.getResourceModel());
     }
 
+    /**
+     * Waits for the latest version of the resource to be available throughout the region,
+     * like {@link #waitForChangesToPropagate(ProgressEvent)}, but finishes as soon as the
+     * probe has seen the change several times in a row. The fixed delay remains the ceiling,
+     * so a probe that never sees the change costs no more than the fixed wait.
+     *
+     * <p>Probes read the resource through the control plane, which says nothing about whether
+     * the data plane already enforces the change. The probe is only trusted once the callback
+     * context's {@link EventualConsistencyCallbackContext#propagationFloorSeconds() floor} has
+     * passed, so changes a probe can't observe, such as a key policy update, still wait the
+     * full delay. A new key's policy is such a change too, so key creates wait the full create
+     * delay. When the floor reaches the fixed delay there is nothing left to probe for, so this
+     * is then the same as the fixed wait.
+     *
+     * <p>How long every probed wait took is recorded through {@link KmsApiMetrics}, as
+     * {@value #CREATE_PROPAGATION_OPERATION} or {@value #UPDATE_PROPAGATION_OPERATION}.
+     */
+    public ProgressEvent<M, C> waitForChangesToPropagate(final ProgressEvent<M, C> progressEvent,
+                                                         final PropagationProbe<M, C> probe) {
+        final C callbackContext = progressEvent.getCallbackContext();
+        if (callbackContext.isPropagationComplete()) {
+            return progressEvent;
+        }
+
+        final int ceilingSeconds = callbackContext.propagationDelaySeconds();
+        final int floorSeconds = Math.min(callbackContext.propagationFloorSeconds(), ceilingSeconds);
+        if (floorSeconds >= ceilingSeconds) {
+            return waitForChangesToPropagate(progressEvent);
+        }
+
+        final int waitedSeconds = callbackContext.getPropagationWaitSeconds();
+        if (waitedSeconds < floorSeconds) {
+            // The probe can't observe this change, wait out the floor in one go
+            callbackContext.setPropagationWaitSeconds(floorSeconds);
+            return ProgressEvent.defaultInProgressHandler(callbackContext, floorSeconds - waitedSeconds,
+                progressEvent.getResourceModel());
+        }
+
+        // Reads made right after the change prove little, we always wait before probing
+        if (waitedSeconds > 0) {
+            if (waitedSeconds >= ceilingSeconds) {
+                return completePropagation(progressEvent, false);
+            }
+
+            callbackContext.setConsistentPropagationProbes(
+                probe.isConsistent(progressEvent.getResourceModel(), callbackContext)
+                    ? callbackContext.getConsistentPropagationProbes() + 1 : 0);
+            if (callbackContext.getConsistentPropagationProbes() >= requiredConsistentProbes) {
+                return completePropagation(progressEvent, true);
+            }
+        }
+
+        final int delaySeconds = Math.min(
+            probeDelaySeconds(callbackContext.getPropagationProbeAttempts()),
+            ceilingSeconds - waitedSeconds);
+        callbackContext.setPropagationProbeAttempts(callbackContext.getPropagationProbeAttempts() + 1);
+        callbackContext.setPropagationWaitSeconds(waitedSeconds + delaySeconds);
+        return ProgressEvent.defaultInProgressHandler(callbackContext, delaySeconds,
+            progressEvent.getResourceModel());
+    }
+
     /**
      * Method for setting the request type, based on it the eventual consistency delay is determined.
      */
@@ -34,4 +134,23 @@ public class EventualConsistencyHandlerHelper <M, C extends EventualConsistencyC
         return progressEvent;
 
     }
+
+    private ProgressEvent<M, C> completePropagation(final ProgressEvent<M, C> progressEvent,
+                                                    final boolean confirmed) {
+        final C callbackContext = progressEvent.getCallbackContext();
+        callbackContext.setPropagationComplete(true);
+
+        // Record how long propagation took, so the delays can be tuned from real data
+        metrics.recordPropagation(
+            callbackContext.isUpdateRequest() ? UPDATE_PROPAGATION_OPERATION : CREATE_PROPAGATION_OPERATION,
+            Duration.ofSeconds(callbackContext.getPropagationWaitSeconds()), confirmed);
+
+        return progressEvent;
+    }
+
+    private int probeDelaySeconds(final int attempt) {
+        // Shifting by more than a few bits would pass the maximum delay anyway
+        final long delaySeconds = (long) probeInitialDelaySeconds << Math.min(attempt, 16);
+        return (int) Math.min(delaySeconds, probeMaxDelaySeconds);
+    }
 }
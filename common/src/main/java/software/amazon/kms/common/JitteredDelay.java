@@ -0,0 +1,58 @@
+package software.amazon.kms.common;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import software.amazon.cloudformation.proxy.Delay;
+
+/**
+ * Spreads out the polls of another delay, so that the stabilization of many resources deleted
+ * together, e.g. with their stack, doesn't poll KMS in lockstep. Every delay is somewhere between
+ * half and all of the wrapped delay.
+ *
+ * <p>The wrapped delay still decides when to stop waiting, by the time the jittered delays
+ * actually took: it is only asked for its next delay once the jittered delays used up the ones
+ * it already gave, so the wait lasts as long as it would have without jitter. Since it keeps
+ * track of the time of one wait, every wait needs a jittered delay of its own.
+ */
+public class JitteredDelay implements Delay {
+    private final Delay delay;
+    private final DoubleSupplier random;
+    private int wrappedAttempt = -1;
+    private Duration wrappedDelay;
+    private long wrappedNanos;
+    private long elapsedNanos;
+
+    public JitteredDelay(final Delay delay) {
+        this(delay, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    @VisibleForTesting
+    JitteredDelay(final Delay delay, final DoubleSupplier random) {
+        this.delay = delay;
+        this.random = random;
+    }
+
+    @Override
+    public synchronized Duration nextDelay(final int attempt) {
+        if (wrappedAttempt < 0) {
+            // A wait resumed by a later invocation picks up the wrapped delay where its attempts left off
+            wrappedAttempt = attempt;
+        }
+
+        while (elapsedNanos >= wrappedNanos) {
+            wrappedDelay = delay.nextDelay(wrappedAttempt++);
+            if (wrappedDelay == null || wrappedDelay.isZero() || wrappedDelay.isNegative()) {
+                // The wrapped delay timed out
+                return wrappedDelay;
+            }
+            wrappedNanos += wrappedDelay.toNanos();
+        }
+
+        final long halfNanos = wrappedDelay.toNanos() / 2;
+        final long jitteredNanos = halfNanos + (long) (random.getAsDouble() * (wrappedDelay.toNanos() - halfNanos));
+        elapsedNanos += jitteredNanos;
+        return Duration.ofNanos(jitteredNanos);
+    }
+}
@@ -59,30 +59,38 @@ public class KeyApiHelper extends AbstractKmsApiHelper {
     private static final String UNTAG_RESOURCE = "UntagResource";
     private static final String UPDATE_KEY_DESCRIPTION = "UpdateKeyDescription";
 
+    public KeyApiHelper() {
+        super();
+    }
+
+    public KeyApiHelper(final KmsApiMetrics metrics, final AdaptiveRateLimiter rateLimiter) {
+        super(metrics, rateLimiter);
+    }
+
     public CreateKeyResponse createKey(final CreateKeyRequest createKeyRequest,
                                        final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(CREATE_KEY,
+        return wrapKmsExceptions(CREATE_KEY, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(createKeyRequest,
                 proxyClient.client()::createKey));
     }
 
     public ReplicateKeyResponse replicateKey(final ReplicateKeyRequest replicateKeyRequest,
                                              final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(REPLICATE_KEY,
+        return wrapKmsExceptions(REPLICATE_KEY, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(replicateKeyRequest,
                 proxyClient.client()::replicateKey));
     }
 
     public DisableKeyResponse disableKey(final DisableKeyRequest disableKeyRequest,
                                          final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(DISABLE_KEY,
+        return wrapKmsExceptions(DISABLE_KEY, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(disableKeyRequest,
                 proxyClient.client()::disableKey));
     }
 
     public EnableKeyResponse enableKey(final EnableKeyRequest enableKeyRequest,
                                        final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(ENABLE_KEY,
+        return wrapKmsExceptions(ENABLE_KEY, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(enableKeyRequest,
                 proxyClient.client()::enableKey));
     }
@@ -90,7 +98,7 @@ public class KeyApiHelper extends AbstractKmsApiHelper {
     public DisableKeyRotationResponse disableKeyRotation(
         final DisableKeyRotationRequest disableKeyRotationRequest,
         final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(DISABLE_KEY_ROTATION,
+        return wrapKmsExceptions(DISABLE_KEY_ROTATION, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(
                 disableKeyRotationRequest, proxyClient.client()::disableKeyRotation));
     }
@@ -98,14 +106,14 @@ public class KeyApiHelper extends AbstractKmsApiHelper {
     public EnableKeyRotationResponse enableKeyRotation(
         final EnableKeyRotationRequest enableKeyRotationRequest,
         final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(ENABLE_KEY_ROTATION,
+        return wrapKmsExceptions(ENABLE_KEY_ROTATION, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(
                 enableKeyRotationRequest, proxyClient.client()::enableKeyRotation));
     }
 
     public GetKeyPolicyResponse getKeyPolicy(final GetKeyPolicyRequest getKeyPolicyRequest,
                                              final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(GET_KEY_POLICY,
+        return wrapKmsExceptions(GET_KEY_POLICY, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(getKeyPolicyRequest,
                 proxyClient.client()::getKeyPolicy));
     }
@@ -113,54 +121,54 @@ public class KeyApiHelper extends AbstractKmsApiHelper {
     public GetKeyRotationStatusResponse getKeyRotationStatus(
         final GetKeyRotationStatusRequest getKeyRotationStatusRequest,
         final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(GET_KEY_ROTATION_STATUS,
+        return wrapKmsExceptions(GET_KEY_ROTATION_STATUS, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(
                 getKeyRotationStatusRequest, proxyClient.client()::getKeyRotationStatus));
     }
 
     public ListKeysResponse listKeys(final ListKeysRequest listKeysRequest,
                                      final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(LIST_KEYS, () -> proxyClient.injectCredentialsAndInvokeV2(
+        return wrapKmsExceptions(LIST_KEYS, proxyClient, () -> proxyClient.injectCredentialsAndInvokeV2(
             listKeysRequest, proxyClient.client()::listKeys));
     }
 
     public ListResourceTagsResponse listResourceTags(
         final ListResourceTagsRequest listResourceTagsRequest,
         final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(LIST_RESOURCE_TAGS, () -> proxyClient.injectCredentialsAndInvokeV2(
+        return wrapKmsExceptions(LIST_RESOURCE_TAGS, proxyClient, () -> proxyClient.injectCredentialsAndInvokeV2(
             listResourceTagsRequest, proxyClient.client()::listResourceTags));
     }
 
     public PutKeyPolicyResponse putKeyPolicy(final PutKeyPolicyRequest putKeyPolicyRequest,
                                              final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(PUT_KEY_POLICY, () -> proxyClient.injectCredentialsAndInvokeV2(
+        return wrapKmsExceptions(PUT_KEY_POLICY, proxyClient, () -> proxyClient.injectCredentialsAndInvokeV2(
             putKeyPolicyRequest, proxyClient.client()::putKeyPolicy));
     }
 
     public ScheduleKeyDeletionResponse scheduleKeyDeletion(
         final ScheduleKeyDeletionRequest scheduleKeyDeletionRequest,
         final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(SCHEDULE_KEY_DELETION,
+        return wrapKmsExceptions(SCHEDULE_KEY_DELETION, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(
                 scheduleKeyDeletionRequest, proxyClient.client()::scheduleKeyDeletion));
     }
 
     public TagResourceResponse tagResource(final TagResourceRequest tagResourceRequest,
                                            final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(TAG_RESOURCE, () -> proxyClient.injectCredentialsAndInvokeV2(
+        return wrapKmsExceptions(TAG_RESOURCE, proxyClient, () -> proxyClient.injectCredentialsAndInvokeV2(
             tagResourceRequest, proxyClient.client()::tagResource));
     }
 
     public UntagResourceResponse untagResource(final UntagResourceRequest untagResourceRequest,
                                                final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(UNTAG_RESOURCE, () -> proxyClient.injectCredentialsAndInvokeV2(
+        return wrapKmsExceptions(UNTAG_RESOURCE, proxyClient, () -> proxyClient.injectCredentialsAndInvokeV2(
             untagResourceRequest, proxyClient.client()::untagResource));
     }
 
     public UpdateKeyDescriptionResponse updateKeyDescription(
         final UpdateKeyDescriptionRequest updateKeyDescriptionRequest,
         final ProxyClient<KmsClient> proxyClient) {
-        return wrapKmsExceptions(UPDATE_KEY_DESCRIPTION,
+        return wrapKmsExceptions(UPDATE_KEY_DESCRIPTION, proxyClient,
             () -> proxyClient.injectCredentialsAndInvokeV2(
                 updateKeyDescriptionRequest, proxyClient.client()::updateKeyDescription));
     }
@@ -0,0 +1,140 @@
+package software.amazon.kms.common;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.MultiRegionConfiguration;
+
+/**
+ * An in-container cache of the key attributes that are fixed when a key is created: whether it
+ * is multi-Region and which kind, its key spec, key usage, origin and creation date. Lists use
+ * it to skip describing keys they already know their filter excludes, e.g. the replicas when
+ * listing AWS::KMS::Key, so they only describe the keys they may return.
+ *
+ * <p>The one exception is the multi-Region key type, which UpdatePrimaryRegion swaps between a
+ * primary and a replica. Entries of multi-Region keys expire, while entries of single-Region
+ * keys are kept until the cache is full, when the least recently used ones are evicted first.
+ * Mutable state such as whether the key is pending deletion is never cached.
+ *
+ * <p>Lookups are counted as the {@value KmsApiMetrics#CACHE_HITS} and
+ * {@value KmsApiMetrics#CACHE_MISSES} of DescribeKey, since every hit saves describing a key.
+ * A cache with a maximum size of zero is disabled, and does not count anything.
+ */
+public class KeyAttributeCache {
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    public static final Duration DEFAULT_MULTI_REGION_TTL = Duration.ofMinutes(15);
+
+    private static final String DESCRIBE_KEY = "DescribeKey";
+    private static final KeyAttributeCache SHARED = new KeyAttributeCache(DEFAULT_MAXIMUM_SIZE,
+        DEFAULT_MULTI_REGION_TTL, Ticker.systemTicker(), KmsApiMetrics.shared());
+
+    private final boolean enabled;
+    private final Cache<String, Entry> entries;
+    private final long multiRegionTtlNanos;
+    private final Ticker ticker;
+    private final KmsApiMetrics metrics;
+
+    public KeyAttributeCache(final long maximumSize, final Duration multiRegionTtl, final Ticker ticker,
+                             final KmsApiMetrics metrics) {
+        this.enabled = maximumSize > 0;
+        this.entries = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .build();
+        this.multiRegionTtlNanos = multiRegionTtl.toNanos();
+        this.ticker = ticker;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the cache shared by every handler in the container.
+     */
+    public static KeyAttributeCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets a cache that never holds on to any entries, nor records any lookups.
+     */
+    public static KeyAttributeCache disabled() {
+        return new KeyAttributeCache(0, DEFAULT_MULTI_REGION_TTL, Ticker.systemTicker(), KmsApiMetrics.shared());
+    }
+
+    public Optional<KeyAttributes> get(final String keyArn) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        final Entry entry = keyArn == null ? null : entries.getIfPresent(keyArn);
+        if (entry == null || isExpired(entry)) {
+            metrics.recordCount(DESCRIBE_KEY, KmsApiMetrics.CACHE_MISSES);
+            return Optional.empty();
+        }
+
+        metrics.recordCount(DESCRIBE_KEY, KmsApiMetrics.CACHE_HITS);
+        return Optional.of(entry.attributes);
+    }
+
+    /**
+     * Caches the attributes of a key from its metadata.
+     */
+    public void put(final String keyArn, final KeyMetadata keyMetadata) {
+        if (keyArn != null) {
+            entries.put(keyArn, new Entry(KeyAttributes.of(keyMetadata), ticker.read()));
+        }
+    }
+
+    private boolean isExpired(final Entry entry) {
+        return Boolean.TRUE.equals(entry.attributes.getMultiRegion())
+            && ticker.read() - entry.cachedAtNanos > multiRegionTtlNanos;
+    }
+
+    /**
+     * The attributes a key was created with.
+     */
+    @lombok.Value
+    public static class KeyAttributes {
+        Boolean multiRegion;
+        String multiRegionKeyType;
+        String keySpec;
+        String keyUsage;
+        String origin;
+        Instant creationDate;
+
+        static KeyAttributes of(final KeyMetadata keyMetadata) {
+            return new KeyAttributes(keyMetadata.multiRegion(),
+                keyMetadata.multiRegionConfiguration() == null ? null
+                    : keyMetadata.multiRegionConfiguration().multiRegionKeyTypeAsString(),
+                keyMetadata.keySpecAsString(), keyMetadata.keyUsageAsString(), keyMetadata.originAsString(),
+                keyMetadata.creationDate());
+        }
+
+        /**
+         * Gets key metadata with only these attributes set, for filters that only look at them.
+         */
+        public KeyMetadata toKeyMetadata() {
+            return KeyMetadata.builder()
+                .multiRegion(multiRegion)
+                .multiRegionConfiguration(multiRegionKeyType == null ? null
+                    : MultiRegionConfiguration.builder().multiRegionKeyType(multiRegionKeyType).build())
+                .keySpec(keySpec)
+                .keyUsage(keyUsage)
+                .origin(origin)
+                .creationDate(creationDate)
+                .build();
+        }
+    }
+
+    private static final class Entry {
+        private final KeyAttributes attributes;
+        private final long cachedAtNanos;
+
+        private Entry(final KeyAttributes attributes, final long cachedAtNanos) {
+            this.attributes = attributes;
+            this.cachedAtNanos = cachedAtNanos;
+        }
+    }
+}
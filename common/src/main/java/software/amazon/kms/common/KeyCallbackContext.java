@@ -1,5 +1,7 @@
 package software.amazon.kms.common;
 
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.Set;
 import software.amazon.awssdk.services.kms.model.Tag;
 
@@ -17,4 +19,47 @@ public class KeyCallbackContext extends EventualConsistencyCallbackContext {
     protected boolean keyPolicyUpdated;
     protected String tagMarker;
     protected Set<Tag> existingTags;
+    protected Set<KeyMutation> mutations = EnumSet.noneOf(KeyMutation.class);
+    // Tag keys whose tag or untag call already went through, so a resumed update skips them
+    protected Set<String> reconciledTagKeys = new HashSet<>();
+
+    /**
+     * Records that a write of the given kind was issued against the key.
+     */
+    public void recordMutation(final KeyMutation mutation) {
+        mutations.add(mutation);
+    }
+
+    /**
+     * Updates only need to wait for as long as the slowest of the changes they made
+     * takes to propagate.
+     */
+    @Override
+    public int propagationDelaySeconds() {
+        if (!updateRequest || mutations.isEmpty()) {
+            return super.propagationDelaySeconds();
+        }
+
+        return mutations.stream()
+            .mapToInt(KeyMutation::getPropagationDelaySeconds)
+            .max()
+            .getAsInt();
+    }
+
+    /**
+     * Propagation probes describe the key, so they can't tell whether the data plane already
+     * enforces a policy, key state or tag change. Operations that made one wait the full delay.
+     * A new key always comes with a policy, so creates never finish before the create delay.
+     */
+    @Override
+    public int propagationFloorSeconds() {
+        final int floorSeconds = updateRequest ? super.propagationFloorSeconds()
+            : EventualConsistencyHandlerHelper.CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS;
+
+        return Math.max(floorSeconds, mutations.stream()
+            .filter(KeyMutation::isAuthorizationChange)
+            .mapToInt(KeyMutation::getPropagationDelaySeconds)
+            .max()
+            .orElse(0));
+    }
 }
@@ -1,17 +1,21 @@
 package software.amazon.kms.common;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Sets;
+import com.google.common.base.Strings;
+import com.google.common.base.Ticker;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.DisableKeyRequest;
+import software.amazon.awssdk.services.kms.model.KeyListEntry;
 import software.amazon.awssdk.services.kms.model.KeyMetadata;
 import software.amazon.awssdk.services.kms.model.KeyState;
 import software.amazon.awssdk.services.kms.model.KmsInvalidStateException;
@@ -20,6 +24,7 @@ import software.amazon.awssdk.services.kms.model.NotFoundException;
 import software.amazon.awssdk.services.kms.model.ScheduleKeyDeletionRequest;
 import software.amazon.awssdk.services.kms.model.ScheduleKeyDeletionResponse;
 import software.amazon.awssdk.services.kms.model.Tag;
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
@@ -44,7 +49,18 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
     final EventualConsistencyHandlerHelper<M, C> eventualConsistencyHandlerHelper;
     final T keyTranslator;
 
+    // A list keeps reading pages until it has this many keys, or its time budget runs out
+    public static final int DEFAULT_LIST_TARGET_MODELS = 50;
+    public static final Duration DEFAULT_LIST_TIME_BUDGET = Duration.ofSeconds(20);
+
     private final Delay stabilizeDelay;
+    private final KeyMetadataFetcher keyMetadataFetcher;
+    private final KeyAttributeCache keyAttributeCache;
+    private final int listTargetModels;
+    private final long listTimeBudgetNanos;
+    private final Ticker ticker;
+    private final TagPipeline tagPipeline;
+    private final PolicyCanonicalizer policyCanonicalizer = new PolicyCanonicalizer();
 
     //Exponential retry strategy for operation
     public final Delay BACKOFF_STRATEGY =
@@ -59,11 +75,26 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
                             final KeyApiHelper keyApiHelper,
                             final EventualConsistencyHandlerHelper<M, C> eventualConsistencyHandlerHelper,
                             final T keyTranslator) {
+        this(typeName, keyApiHelper, eventualConsistencyHandlerHelper, keyTranslator,
+            new TagPipeline(keyApiHelper));
+    }
+
+    public KeyHandlerHelper(final String typeName,
+                            final KeyApiHelper keyApiHelper,
+                            final EventualConsistencyHandlerHelper<M, C> eventualConsistencyHandlerHelper,
+                            final T keyTranslator,
+                            final TagPipeline tagPipeline) {
         this.typeName = typeName;
         this.keyApiHelper = keyApiHelper;
         this.eventualConsistencyHandlerHelper = eventualConsistencyHandlerHelper;
         this.keyTranslator = keyTranslator;
         this.stabilizeDelay = BACKOFF_STRATEGY;
+        this.keyMetadataFetcher = new KeyMetadataFetcher(keyApiHelper);
+        this.keyAttributeCache = KeyAttributeCache.shared();
+        this.listTargetModels = DEFAULT_LIST_TARGET_MODELS;
+        this.listTimeBudgetNanos = DEFAULT_LIST_TIME_BUDGET.toNanos();
+        this.ticker = Ticker.systemTicker();
+        this.tagPipeline = tagPipeline;
     }
 
     @VisibleForTesting
@@ -71,11 +102,41 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
                             final KeyApiHelper keyApiHelper,
                             final EventualConsistencyHandlerHelper<M, C> eventualConsistencyHandlerHelper,
                             final T keyTranslator, final Delay stabilizeDelay) {
+        this(typeName, keyApiHelper, eventualConsistencyHandlerHelper, keyTranslator,
+            stabilizeDelay, new KeyMetadataFetcher(keyApiHelper));
+    }
+
+    @VisibleForTesting
+    public KeyHandlerHelper(final String typeName,
+                            final KeyApiHelper keyApiHelper,
+                            final EventualConsistencyHandlerHelper<M, C> eventualConsistencyHandlerHelper,
+                            final T keyTranslator, final Delay stabilizeDelay,
+                            final KeyMetadataFetcher keyMetadataFetcher) {
+        this(typeName, keyApiHelper, eventualConsistencyHandlerHelper, keyTranslator, stabilizeDelay,
+            keyMetadataFetcher, KeyAttributeCache.disabled(), DEFAULT_LIST_TARGET_MODELS,
+            DEFAULT_LIST_TIME_BUDGET, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    public KeyHandlerHelper(final String typeName,
+                            final KeyApiHelper keyApiHelper,
+                            final EventualConsistencyHandlerHelper<M, C> eventualConsistencyHandlerHelper,
+                            final T keyTranslator, final Delay stabilizeDelay,
+                            final KeyMetadataFetcher keyMetadataFetcher,
+                            final KeyAttributeCache keyAttributeCache,
+                            final int listTargetModels, final Duration listTimeBudget,
+                            final Ticker ticker) {
         this.typeName = typeName;
         this.keyApiHelper = keyApiHelper;
         this.eventualConsistencyHandlerHelper = eventualConsistencyHandlerHelper;
         this.keyTranslator = keyTranslator;
         this.stabilizeDelay = stabilizeDelay != null ? stabilizeDelay : BACKOFF_STRATEGY;
+        this.keyMetadataFetcher = keyMetadataFetcher;
+        this.keyAttributeCache = keyAttributeCache;
+        this.listTargetModels = listTargetModels;
+        this.listTimeBudgetNanos = listTimeBudget.toNanos();
+        this.ticker = ticker;
+        this.tagPipeline = new TagPipeline(keyApiHelper);
     }
 
     /**
@@ -108,6 +169,36 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
             });
     }
 
+    /**
+     * Reads the key back and reports whether it reflects the model's description, enabled
+     * state and key policy. Used to probe whether changes to the key have propagated.
+     */
+    public boolean isKeyConsistent(final ProxyClient<KmsClient> proxyClient, final M model) {
+        try {
+            final KeyMetadata keyMetadata = keyApiHelper
+                .describeKey(keyTranslator.describeKeyRequest(model), proxyClient).keyMetadata();
+            if (!Objects.equals(Strings.nullToEmpty(keyTranslator.getKeyDescription(model)),
+                Strings.nullToEmpty(keyMetadata.description()))
+                || !Objects.equals(keyTranslator.getKeyEnabled(model), keyMetadata.enabled())) {
+                return false;
+            }
+
+            // Without a policy of our own, or with the default policy, there is nothing to compare
+            final String keyPolicy =
+                keyTranslator.translatePolicyInput(keyTranslator.getKeyPolicy(model));
+            if (Strings.isNullOrEmpty(keyPolicy)) {
+                return true;
+            }
+
+            final String currentKeyPolicy = keyApiHelper
+                .getKeyPolicy(keyTranslator.getKeyPolicyRequest(model), proxyClient).policy();
+            return policyCanonicalizer.isEquivalent(keyPolicy, currentKeyPolicy);
+        } catch (final BaseHandlerException e) {
+            // A failed read, throttled or otherwise, doesn't tell us anything
+            return false;
+        }
+    }
+
     /**
      * Gets a KMS key's policy and updates the resource model.
      */
@@ -141,6 +232,7 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
     ) {
         if (!keyTranslator.getKeyDescription(previousModel)
             .equals(keyTranslator.getKeyDescription(model))) {
+            callbackContext.recordMutation(KeyMutation.DESCRIPTION);
             return proxy.initiate("kms::update-key-description", proxyClient, model,
                 callbackContext)
                 .translateToServiceRequest(keyTranslator::updateKeyDescriptionRequest)
@@ -153,7 +245,7 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
 
     /**
      * Update a KMS key's policy and waits for it to propagate throughout the region.
-     * No updates are made unless the new policy differs from the previous one.
+     * No updates are made unless the new policy is semantically different from the previous one.
      */
     public ProgressEvent<M, C> updateKeyPolicy(
         final AmazonWebServicesClientProxy proxy,
@@ -162,13 +254,18 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
         final M model,
         final C callbackContext
     ) {
-        final String previousKeyPolicy =
-            keyTranslator.translatePolicyInput(keyTranslator.getKeyPolicy(previousModel));
-        final String currentKeyPolicy =
-            keyTranslator.translatePolicyInput(keyTranslator.getKeyPolicy(model));
-        if (!previousKeyPolicy.equals(currentKeyPolicy) && !callbackContext
-            .isKeyPolicyUpdated()) { // context carries policy propagation status
+        // Context carries policy propagation status, re-entries after the put have nothing to compare
+        if (callbackContext.isKeyPolicyUpdated()) {
+            return ProgressEvent.progress(model, callbackContext);
+        }
+
+        // Only put the policy if it changed semantically, formatting changes don't need a put
+        // or the propagation delay that comes with it. The policies are compared as the models
+        // hold them, only the put serializes the policy.
+        if (!policyCanonicalizer.isEquivalent(keyTranslator.getKeyPolicy(previousModel),
+            keyTranslator.getKeyPolicy(model))) {
             callbackContext.setKeyPolicyUpdated(true);
+            callbackContext.recordMutation(KeyMutation.KEY_POLICY);
             return proxy
                 .initiate("kms::update-key-keypolicy", proxyClient, model, callbackContext)
                 .translateToServiceRequest(keyTranslator::putKeyPolicyRequest)
@@ -200,6 +297,7 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
 
         if (!wasEnabled && shouldBeEnabled && !callbackContext.isKeyEnabled()) {
             callbackContext.setKeyEnabled(true);
+            callbackContext.recordMutation(KeyMutation.ENABLED_STATE);
             return proxy.initiate("kms::enable-key", proxyClient, model, callbackContext)
                 .translateToServiceRequest(keyTranslator::enableKeyRequest)
                 .makeServiceCall(keyApiHelper::enableKey)
@@ -230,6 +328,7 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
             previousModel == null || keyTranslator.getKeyEnabled(previousModel);
 
         if (wasEnabled && !shouldBeEnabled) {
+            callbackContext.recordMutation(KeyMutation.ENABLED_STATE);
             return proxy.initiate("kms::disable-key", proxyClient, model, callbackContext)
                 .translateToServiceRequest(keyTranslator::disableKeyRequest)
                     .backoffDelay(stabilizeDelay)
@@ -309,39 +408,14 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
             .then(progressEvent -> retrieveResourceTags(proxy, proxyClient, model,
                 callbackContext, false))
             .then(progressEvent -> {
-                final Set<Tag> existingTags =
-                    Optional.ofNullable(callbackContext.getExistingTags())
-                        .orElse(new HashSet<>());
-                final Set<Tag> tagsToRemove = Sets.difference(existingTags,
-                    keyTranslator.translateTagsToSdk(desiredResourceTags));
-                if (!tagsToRemove.isEmpty()) {
-                    return proxy
-                        .initiate("kms::untag-key", proxyClient, model, callbackContext)
-                        .translateToServiceRequest(
-                            (m) -> keyTranslator.untagResourceRequest(m, tagsToRemove))
-                        .makeServiceCall(keyApiHelper::untagResource)
-                        .progress();
+                final TagDiff tagDiff = TagDiff.between(
+                    TagHelper.convertToMap(callbackContext.getExistingTags()), desiredResourceTags);
+                if (tagDiff.isEmpty()) {
+                    return progressEvent;
                 }
 
-                return progressEvent;
-            })
-            .then(progressEvent -> {
-                final Set<Tag> existingTags =
-                    Optional.ofNullable(callbackContext.getExistingTags())
-                        .orElse(new HashSet<>());
-                final Set<Tag> tagsToAdd =
-                    Sets.difference(keyTranslator.translateTagsToSdk(desiredResourceTags),
-                        existingTags);
-                if (!tagsToAdd.isEmpty()) {
-                    return proxy
-                        .initiate("kms::tag-key", proxyClient, model, callbackContext)
-                        .translateToServiceRequest(
-                            (m) -> keyTranslator.tagResourceRequest(m, tagsToAdd))
-                        .makeServiceCall(keyApiHelper::tagResource)
-                        .progress();
-                }
-
-                return progressEvent;
+                callbackContext.recordMutation(KeyMutation.TAGS);
+                return tagPipeline.apply(proxyClient, keyTranslator, model, callbackContext, tagDiff);
             });
     }
 
@@ -359,6 +433,7 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
                 try {
                     return proxy.initiate("kms::delete-key", proxyClient, model, callbackContext)
                         .translateToServiceRequest(keyTranslator::scheduleKeyDeletionRequest)
+                        .backoffDelay(new JitteredDelay(stabilizeDelay))
                         .makeServiceCall(keyApiHelper::scheduleKeyDeletion)
                         .stabilize(this::isDeleted)
                         .done(scheduleKeyDeletionResponse -> ProgressEvent.progress(model, callbackContext));
@@ -378,32 +453,71 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
 
     /**
      * List all of the key's in a customer's account and filter them by their key metadata.
+     * The keys on each page are described concurrently, but the page order is preserved.
+     *
+     * <p>A ListKeys page can hold few or no keys that pass the filter, e.g. when listing the
+     * replicas of an account that has mostly single-region keys, so pages are read until there
+     * are enough models to return or the time budget runs out. Keys are only described until
+     * there are enough models. The next token is a {@link KeyListCursor}, so a list that fills
+     * up part way through a page resumes after the last key it looked at.
+     *
+     * <p>Keys that the {@link KeyAttributeCache} shows the filter excludes are not described at
+     * all, so the filter must only look at the attributes that cache holds.
      */
     public ProgressEvent<M, C> listKeysAndFilterByMetadata(
         final ProxyClient<KmsClient> proxyClient,
         final String nextToken,
         final Function<KeyMetadata, Boolean> filterFunction
     ) {
-        final ListKeysResponse listKeysResponse =
-            keyApiHelper.listKeys(keyTranslator.listKeysRequest(nextToken), proxyClient);
-
-        final List<M> models = listKeysResponse.keys().stream()
-            .filter(key -> {
-                final KeyMetadata keyMetadata = keyApiHelper
-                    .describeKey(keyTranslator.describeKeyRequest(key.keyArn()), proxyClient)
-                    .keyMetadata();
-
-                // Apply our metadata filter, and remove any pending deletion keys
-                return filterFunction.apply(keyMetadata) &&
-                    !keyMetadata.keyState().equals(KeyState.PENDING_DELETION) &&
-                    !keyMetadata.keyState().equals(KeyState.PENDING_REPLICA_DELETION);
-            })
-            .map(keyTranslator::translateKeyListEntry)
-            .collect(Collectors.toList());
+        final long startNanos = ticker.read();
+        final List<M> models = new ArrayList<>();
+        KeyListCursor cursor = KeyListCursor.parse(nextToken);
+        do {
+            final ListKeysResponse listKeysResponse =
+                keyApiHelper.listKeys(keyTranslator.listKeysRequest(cursor.getMarker()), proxyClient);
+            final List<KeyListEntry> keys = listKeysResponse.keys();
+
+            int next = cursor.resumeIndex(keys);
+            while (next < keys.size() && models.size() < listTargetModels) {
+                // Every key adds at most one model, so describe no more keys than models are still
+                // missing. Pending deletion can change at any time, so the keys that may pass are
+                // still described.
+                final List<KeyListEntry> describedKeys = new ArrayList<>();
+                while (next < keys.size() && describedKeys.size() < listTargetModels - models.size()) {
+                    final KeyListEntry key = keys.get(next++);
+                    if (keyAttributeCache.get(key.keyArn())
+                        .map(keyAttributes -> filterFunction.apply(keyAttributes.toKeyMetadata()))
+                        .orElse(true)) {
+                        describedKeys.add(key);
+                    }
+                }
+
+                final List<KeyMetadata> keyMetadataList = keyMetadataFetcher.describeKeys(
+                    describedKeys.stream()
+                        .map(key -> keyTranslator.describeKeyRequest(key.keyArn()))
+                        .collect(Collectors.toList()),
+                    proxyClient);
+                for (int i = 0; i < describedKeys.size(); i++) {
+                    final KeyMetadata keyMetadata = keyMetadataList.get(i);
+                    keyAttributeCache.put(describedKeys.get(i).keyArn(), keyMetadata);
+
+                    // Apply our metadata filter, and remove any pending deletion keys
+                    if (filterFunction.apply(keyMetadata) &&
+                        !keyMetadata.keyState().equals(KeyState.PENDING_DELETION) &&
+                        !keyMetadata.keyState().equals(KeyState.PENDING_REPLICA_DELETION)) {
+                        models.add(keyTranslator.translateKeyListEntry(describedKeys.get(i)));
+                    }
+                }
+            }
+
+            cursor = next < keys.size() ? new KeyListCursor(cursor.getMarker(), keys.get(next - 1).keyId())
+                : new KeyListCursor(listKeysResponse.nextMarker(), null);
+        } while (cursor.getMarker() != null && models.size() < listTargetModels
+            && ticker.read() - startNanos < listTimeBudgetNanos);
 
         return ProgressEvent.<M, C>builder()
             .resourceModels(models)
-            .nextToken(listKeysResponse.nextMarker())
+            .nextToken(cursor.toToken())
             .status(OperationStatus.SUCCESS)
             .build();
     }
@@ -413,10 +527,18 @@ public class KeyHandlerHelper<M, C extends KeyCallbackContext, T extends KeyTran
                               final ProxyClient<KmsClient> proxyClient,
                               final M resourceModel,
                               final C callbackContext) {
-        final KeyState keyState =
+        // ScheduleKeyDeletion reports the state the key moved to, so only describe the key if
+        // that state was still settling
+        if (isPendingDeletion(scheduleKeyDeletionResponse.keyState())) {
+            return true;
+        }
+
+        return isPendingDeletion(
             keyApiHelper.describeKey(keyTranslator.describeKeyRequest(resourceModel), proxyClient)
-                .keyMetadata().keyState();
-        return keyState.equals(KeyState.PENDING_DELETION) ||
-            keyState.equals(KeyState.PENDING_REPLICA_DELETION);
+                .keyMetadata().keyState());
+    }
+
+    private static boolean isPendingDeletion(final KeyState keyState) {
+        return keyState == KeyState.PENDING_DELETION || keyState == KeyState.PENDING_REPLICA_DELETION;
     }
 }
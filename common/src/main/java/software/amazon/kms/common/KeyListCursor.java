@@ -0,0 +1,73 @@
+package software.amazon.kms.common;
+
+import com.google.common.base.Strings;
+import java.util.List;
+import software.amazon.awssdk.services.kms.model.KeyListEntry;
+
+/**
+ * Where a filtered key list left off: the ListKeys marker of a page, and the id of the last key
+ * on that page that was already looked at. A list that stops at a page boundary uses the KMS
+ * marker as its next token as is, so tokens handed out before cursors existed still work. A list
+ * that stops part way through a page prefixes the marker with the key id, e.g.
+ * {@code <key id>!<marker>}; neither key ids nor KMS markers, which are base64, contain a {@code !}.
+ *
+ * <p>The list resumes by key id rather than by position, so keys that are created or deleted on
+ * the page between two list calls don't shift it.
+ */
+@lombok.Value
+class KeyListCursor {
+    private static final char SEPARATOR = '!';
+
+    /**
+     * The marker of the page, or null for the first page.
+     */
+    String marker;
+
+    /**
+     * The id of the last key on the page that was looked at, or null to start at the top of the page.
+     */
+    String lastKeyId;
+
+    static KeyListCursor parse(final String token) {
+        if (Strings.isNullOrEmpty(token)) {
+            return new KeyListCursor(null, null);
+        }
+
+        final int separator = token.indexOf(SEPARATOR);
+        if (separator <= 0) {
+            return new KeyListCursor(token, null);
+        }
+
+        final String marker = token.substring(separator + 1);
+        return new KeyListCursor(marker.isEmpty() ? null : marker, token.substring(0, separator));
+    }
+
+    /**
+     * Gets the index of the first key on the page that wasn't looked at yet. If the last key that
+     * was looked at has since been deleted, the whole page is looked at again, so a key may be
+     * listed twice, but none is skipped.
+     */
+    int resumeIndex(final List<KeyListEntry> keys) {
+        if (lastKeyId == null) {
+            return 0;
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            if (lastKeyId.equals(keys.get(i).keyId())) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gets the next token to resume the list at this cursor.
+     */
+    String toToken() {
+        if (lastKeyId == null) {
+            return marker;
+        }
+
+        return lastKeyId + SEPARATOR + Strings.nullToEmpty(marker);
+    }
+}
@@ -0,0 +1,155 @@
+package software.amazon.kms.common;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.DescribeKeyRequest;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Describes a batch of KMS keys concurrently. The number of in-flight DescribeKey calls is capped
+ * by the worker pool the fetcher is given, by default one shared by the whole container. Every
+ * describe goes through {@link KeyApiHelper}, so it is paced the same way as any other call the
+ * helper makes, and the workers share the caller's proxy client as the helper allows. Describes
+ * that are throttled are sent back through the pipeline for another attempt, and the results
+ * are always returned in the same order as the requests.
+ */
+public class KeyMetadataFetcher {
+    public static final int DEFAULT_MAX_CONCURRENCY = 8;
+    public static final int DEFAULT_MAX_THROTTLED_ATTEMPTS = 3;
+
+    private static final long IDLE_WORKER_TIMEOUT_SECONDS = 30;
+    // Every fetcher in the container shares one worker pool, so building a fetcher never starts threads
+    private static final ExecutorService SHARED_EXECUTOR = newWorkerPool(DEFAULT_MAX_CONCURRENCY);
+
+    private final KeyApiHelper keyApiHelper;
+    private final int maxThrottledAttempts;
+    private final ExecutorService executorService;
+
+    public KeyMetadataFetcher(final KeyApiHelper keyApiHelper) {
+        this(keyApiHelper, SHARED_EXECUTOR, DEFAULT_MAX_THROTTLED_ATTEMPTS);
+    }
+
+    public KeyMetadataFetcher(final KeyApiHelper keyApiHelper,
+                              final ExecutorService executorService,
+                              final int maxThrottledAttempts) {
+        Preconditions.checkArgument(maxThrottledAttempts > 0, "maxThrottledAttempts must be positive");
+
+        this.keyApiHelper = keyApiHelper;
+        this.maxThrottledAttempts = maxThrottledAttempts;
+        this.executorService = Preconditions.checkNotNull(executorService, "executorService");
+    }
+
+    private static ExecutorService newWorkerPool(final int maxConcurrency) {
+        // Workers are daemon threads that time out when idle, so a warm container
+        // does not hold on to threads between list invocations.
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(maxConcurrency,
+            maxConcurrency, IDLE_WORKER_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                final Thread thread = new Thread(runnable, "kms-describe-key");
+                thread.setDaemon(true);
+                return thread;
+            });
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    /**
+     * Describes each of the requested keys, returning their metadata in request order.
+     * A describe that is still throttled after the configured number of attempts
+     * results in a CfnThrottlingException, so that CloudFormation retries the whole page.
+     * Any other failure is thrown as soon as it happens, and the describes still
+     * outstanding are cancelled.
+     */
+    public List<KeyMetadata> describeKeys(final List<DescribeKeyRequest> describeKeyRequests,
+                                          final ProxyClient<KmsClient> proxyClient) {
+        final KeyMetadata[] keyMetadata = new KeyMetadata[describeKeyRequests.size()];
+
+        List<Integer> pending = new ArrayList<>(describeKeyRequests.size());
+        for (int i = 0; i < describeKeyRequests.size(); i++) {
+            pending.add(i);
+        }
+
+        CfnThrottlingException lastThrottle = null;
+        for (int attempt = 0; attempt < maxThrottledAttempts && !pending.isEmpty(); attempt++) {
+            final CompletionService<KeyMetadata> completionService =
+                new ExecutorCompletionService<>(executorService);
+            // Futures don't override equals, so this maps each of them to its request in submission order
+            final Map<Future<KeyMetadata>, Integer> indexes = new LinkedHashMap<>();
+            for (final int index : pending) {
+                final DescribeKeyRequest describeKeyRequest = describeKeyRequests.get(index);
+                indexes.put(completionService.submit(() ->
+                    keyApiHelper.describeKey(describeKeyRequest, proxyClient).keyMetadata()), index);
+            }
+
+            final List<Integer> throttled = new ArrayList<>();
+            try {
+                for (int i = 0; i < indexes.size(); i++) {
+                    final Future<KeyMetadata> future = take(completionService);
+                    try {
+                        keyMetadata[indexes.get(future)] = await(future);
+                    } catch (final CfnThrottlingException e) {
+                        // Send the throttled describe back through the pipeline
+                        throttled.add(indexes.get(future));
+                        lastThrottle = e;
+                    }
+                }
+            } catch (final RuntimeException e) {
+                // Anything other than throttling fails the whole page, the other describes are wasted calls.
+                // The last submitted are cancelled first, so a worker freed by an interrupted describe
+                // finds no queued describe left to start.
+                final List<Future<KeyMetadata>> futures = new ArrayList<>(indexes.keySet());
+                Collections.reverse(futures);
+                futures.forEach(future -> future.cancel(true));
+                throw e;
+            }
+
+            Collections.sort(throttled);
+            pending = throttled;
+        }
+
+        if (!pending.isEmpty()) {
+            throw lastThrottle;
+        }
+
+        return Arrays.asList(keyMetadata);
+    }
+
+    private static Future<KeyMetadata> take(final CompletionService<KeyMetadata> completionService) {
+        try {
+            return completionService.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        }
+    }
+
+    private static KeyMetadata await(final Future<KeyMetadata> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        } catch (final ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new CfnInternalFailureException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package software.amazon.kms.common;
+
+/**
+ * The kinds of changes a handler can make to a KMS key, along with how long
+ * each of them may take to propagate throughout the region, and whether they
+ * change who may use the key.
+ */
+public enum KeyMutation {
+    // Policy and key state changes alter who may use the key, and are subject to the
+    // full 60 seconds KMS may cache them for
+    KEY_POLICY(EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS, true),
+    ENABLED_STATE(EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS, true),
+    // Tags can grant access through attribute-based access control, so they are treated like the policy
+    TAGS(EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS, true),
+    // Rotation and description changes don't affect authorization
+    KEY_ROTATION(EventualConsistencyHandlerHelper.CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS, false),
+    DESCRIPTION(EventualConsistencyHandlerHelper.CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS, false);
+
+    private final int propagationDelaySeconds;
+    private final boolean authorizationChange;
+
+    KeyMutation(final int propagationDelaySeconds, final boolean authorizationChange) {
+        this.propagationDelaySeconds = propagationDelaySeconds;
+        this.authorizationChange = authorizationChange;
+    }
+
+    public int getPropagationDelaySeconds() {
+        return propagationDelaySeconds;
+    }
+
+    /**
+     * Whether the change alters who may use the key. Such changes are enforced by the
+     * cryptographic operations, which a control plane read can't observe.
+     */
+    public boolean isAuthorizationChange() {
+        return authorizationChange;
+    }
+}
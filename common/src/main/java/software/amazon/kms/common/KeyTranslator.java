@@ -2,11 +2,10 @@ package software.amazon.kms.common;
 
 import com.amazonaws.util.StringUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -58,15 +57,19 @@ public abstract class KeyTranslator<M> {
             "    ]\n" +
             "}";
 
-    private final ObjectMapper objectMapper;
+    private final PolicyJson policyJson;
 
     protected KeyTranslator() {
-        this(new ObjectMapper());
+        this(PolicyJson.shared());
     }
 
     protected KeyTranslator(final ObjectMapper objectMapper) {
         // So the object mapper can be mocked in our tests
-        this.objectMapper = objectMapper;
+        this(new PolicyJson(objectMapper));
+    }
+
+    protected KeyTranslator(final PolicyJson policyJson) {
+        this.policyJson = policyJson;
     }
 
     public abstract String getKeyId(final M model);
@@ -166,6 +169,14 @@ public abstract class KeyTranslator<M> {
             ).build();
     }
 
+    public UntagResourceRequest untagResourceByKeysRequest(final M model,
+                                                           final Collection<String> tagKeysToRemove) {
+        return UntagResourceRequest.builder()
+            .keyId(getKeyId(model))
+            .tagKeys(tagKeysToRemove)
+            .build();
+    }
+
     public ScheduleKeyDeletionRequest scheduleKeyDeletionRequest(final M model) {
         return ScheduleKeyDeletionRequest.builder()
             .keyId(getKeyId(model))
@@ -192,7 +203,7 @@ public abstract class KeyTranslator<M> {
         final String policyString;
         if (policy instanceof Map) {
             try {
-                policyString = objectMapper.writeValueAsString(policy);
+                policyString = policyJson.writePolicy(policy);
             } catch (final JsonProcessingException e) {
                 throw new TerminalException(e);
             }
@@ -208,8 +219,7 @@ public abstract class KeyTranslator<M> {
         }
 
         try {
-            return objectMapper.readValue(keyPolicy, new TypeReference<HashMap<String, Object>>() {
-            });
+            return policyJson.readPolicy(keyPolicy);
         } catch (final IOException e) {
             throw new CfnInternalFailureException(e);
         }
@@ -0,0 +1,326 @@
+package software.amazon.kms.common;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Ticker;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import software.amazon.cloudformation.exceptions.CfnUnauthorizedTaggingOperationException;
+
+/**
+ * Records the latency and the failures of every KMS call made through an
+ * {@link AbstractKmsApiHelper}, per KMS operation, and writes them out as CloudWatch
+ * Embedded Metric Format (EMF) log lines, one per operation.
+ *
+ * <p>Latencies are kept as a histogram with buckets 25% apart, which EMF accepts as a
+ * values and counts pair, so the percentiles CloudWatch computes stay within a bucket of
+ * the real ones. Failures are counted by the type of the exception the call was mapped to,
+ * except for tagging related access denials, which are counted as
+ * {@value #TAGGING_ACCESS_DENIED} so that they can be told apart from the denials handlers
+ * fail on. The time calls spent waiting for the {@link AdaptiveRateLimiter}, and the calls it
+ * turned away, are recorded as well, and so is how long the resources an operation creates took
+ * to be ready, for the operations whose handlers wait for that. The waits for changes to
+ * propagate are recorded too, along with how many of them ran into the fixed delay before
+ * a probe confirmed the change, so that the delays can be tuned from real data. Other events
+ * that save or cost calls, such as the hits and misses of the in-container caches, are counted
+ * under the operation they stand for.
+ */
+public class KmsApiMetrics {
+    public static final String NAMESPACE = "KmsResourceProviders";
+    public static final String RESOURCE_TYPE_DIMENSION = "ResourceType";
+    public static final String OPERATION_DIMENSION = "Operation";
+    public static final String LATENCY = "Latency";
+    public static final String CALLS = "Calls";
+    public static final String TAGGING_ACCESS_DENIED = "TaggingAccessDenied";
+    public static final String LIMITER_WAIT = "RateLimiterWait";
+    public static final String LIMITER_REJECTED = "RateLimiterRejected";
+    public static final String TIME_TO_READY = "TimeToReady";
+    public static final String PROPAGATION_TIME = "PropagationTime";
+    public static final String PROPAGATION_UNCONFIRMED = "PropagationUnconfirmed";
+    public static final String CACHE_HITS = "CacheHits";
+    public static final String CACHE_MISSES = "CacheMisses";
+
+    private static final double BUCKET_RATIO = 1.25;
+    private static final double LOG_BUCKET_RATIO = Math.log(BUCKET_RATIO);
+    // Anything faster lands in the lowest bucket, a KMS call never is
+    private static final double MIN_BUCKET_MILLIS = 0.1;
+    private static final KmsApiMetrics SHARED = new KmsApiMetrics(Ticker.systemTicker(), Clock.systemUTC());
+
+    private final Ticker ticker;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    public KmsApiMetrics(final Ticker ticker, final Clock clock) {
+        this.ticker = ticker;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the metrics shared by every handler in the container.
+     */
+    public static KmsApiMetrics shared() {
+        return SHARED;
+    }
+
+    /**
+     * Gets the time a call is started at, to pass to {@link #record(String, long, Throwable)}.
+     */
+    long startTimer() {
+        return ticker.read();
+    }
+
+    /**
+     * Records a call that was started at the given time and has just finished.
+     *
+     * @param failure the exception the call failed with, or null if it succeeded
+     */
+    void record(final String operation, final long startNanos, final Throwable failure) {
+        final double latencyMillis = (ticker.read() - startNanos) / 1_000_000.0;
+        operations.computeIfAbsent(operation, o -> new OperationMetrics())
+            .record(latencyMillis, failure == null ? null : errorMetricName(failure));
+    }
+
+    void recordLimiterWait(final String operation, final long waitNanos) {
+        if (waitNanos > 0) {
+            operations.computeIfAbsent(operation, o -> new OperationMetrics())
+                .recordLimiterWait(waitNanos / 1_000_000.0);
+        }
+    }
+
+    void recordLimiterRejection(final String operation) {
+        operations.computeIfAbsent(operation, o -> new OperationMetrics()).recordLimiterRejection();
+    }
+
+    /**
+     * Records how long a resource the given operation created took to be ready to use.
+     */
+    public void recordTimeToReady(final String operation, final Duration timeToReady) {
+        operations.computeIfAbsent(operation, o -> new OperationMetrics())
+            .recordTimeToReady(timeToReady.toNanos() / 1_000_000.0);
+    }
+
+    /**
+     * Records how long a change the given operation made took to propagate.
+     *
+     * @param confirmed whether a probe saw the change, rather than the wait running into its ceiling
+     */
+    public void recordPropagation(final String operation, final Duration waited, final boolean confirmed) {
+        operations.computeIfAbsent(operation, o -> new OperationMetrics())
+            .recordPropagation(waited.toNanos() / 1_000_000.0, confirmed);
+    }
+
+    /**
+     * Counts an event of the given operation, written out as a count metric with the given name.
+     */
+    public void recordCount(final String operation, final String name) {
+        operations.computeIfAbsent(operation, o -> new OperationMetrics()).recordCount(name);
+    }
+
+    /**
+     * Writes out everything recorded since the last flush, one EMF line per operation,
+     * and starts over. The metrics of an operation are written out and reset under their lock,
+     * so a call recorded by another thread meanwhile lands in either this flush or the next.
+     */
+    public void flush(final String resourceType, final MetricsSink sink) {
+        for (final Map.Entry<String, OperationMetrics> operation : operations.entrySet()) {
+            final String line = toEmf(resourceType, operation.getKey(), operation.getValue());
+            if (line != null) {
+                sink.emit(line);
+            }
+        }
+    }
+
+    private static String errorMetricName(final Throwable failure) {
+        if (failure instanceof CfnUnauthorizedTaggingOperationException) {
+            return TAGGING_ACCESS_DENIED;
+        }
+
+        return failure.getClass().getSimpleName();
+    }
+
+    /**
+     * Gets the EMF line of everything recorded for an operation, and resets its metrics,
+     * or gets null if nothing was recorded since they were last reset.
+     */
+    private String toEmf(final String resourceType, final String operation, final OperationMetrics metrics) {
+        final ObjectNode emf = objectMapper.createObjectNode();
+        final ObjectNode directive = emf.putObject("_aws")
+            .put("Timestamp", clock.millis())
+            .putArray("CloudWatchMetrics")
+            .addObject()
+            .put("Namespace", NAMESPACE);
+        directive.putArray("Dimensions").addArray()
+            .add(RESOURCE_TYPE_DIMENSION)
+            .add(OPERATION_DIMENSION);
+        final ArrayNode definitions = directive.putArray("Metrics");
+
+        emf.put(RESOURCE_TYPE_DIMENSION, resourceType);
+        emf.put(OPERATION_DIMENSION, operation);
+        synchronized (metrics) {
+            if (metrics.isEmpty()) {
+                return null;
+            }
+
+            putHistogram(emf, definitions, LATENCY, metrics.latency);
+
+            definitions.addObject().put("Name", CALLS).put("Unit", "Count");
+            emf.put(CALLS, metrics.latency.count);
+            for (final Map.Entry<String, Long> errors : metrics.errors.entrySet()) {
+                definitions.addObject().put("Name", errors.getKey()).put("Unit", "Count");
+                emf.put(errors.getKey(), errors.getValue());
+            }
+            for (final Map.Entry<String, Long> counts : metrics.counts.entrySet()) {
+                definitions.addObject().put("Name", counts.getKey()).put("Unit", "Count");
+                emf.put(counts.getKey(), counts.getValue());
+            }
+            if (metrics.limiterWaitMillis > 0) {
+                definitions.addObject().put("Name", LIMITER_WAIT).put("Unit", "Milliseconds");
+                emf.put(LIMITER_WAIT, metrics.limiterWaitMillis);
+            }
+            if (metrics.limiterRejections > 0) {
+                definitions.addObject().put("Name", LIMITER_REJECTED).put("Unit", "Count");
+                emf.put(LIMITER_REJECTED, metrics.limiterRejections);
+            }
+            putHistogram(emf, definitions, TIME_TO_READY, metrics.timeToReady);
+            putHistogram(emf, definitions, PROPAGATION_TIME, metrics.propagationTime);
+            if (metrics.propagationTime.count > 0) {
+                definitions.addObject().put("Name", PROPAGATION_UNCONFIRMED).put("Unit", "Count");
+                emf.put(PROPAGATION_UNCONFIRMED, metrics.propagationUnconfirmed);
+            }
+            metrics.reset();
+        }
+
+        try {
+            return objectMapper.writeValueAsString(emf);
+        } catch (final JsonProcessingException e) {
+            // Writing a tree of plain values does not fail
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void putHistogram(final ObjectNode emf, final ArrayNode definitions, final String name,
+                                     final Histogram histogram) {
+        if (histogram.count == 0) {
+            return;
+        }
+
+        definitions.addObject().put("Name", name).put("Unit", "Milliseconds");
+        final ObjectNode metric = emf.putObject(name);
+        final ArrayNode values = metric.putArray("Values");
+        final ArrayNode counts = metric.putArray("Counts");
+        for (final Map.Entry<Integer, Long> bucket : histogram.buckets.entrySet()) {
+            values.add(bucketMillis(bucket.getKey()));
+            counts.add(bucket.getValue());
+        }
+        metric.put("Min", histogram.minMillis)
+            .put("Max", histogram.maxMillis)
+            .put("Sum", histogram.sumMillis)
+            .put("Count", histogram.count);
+    }
+
+    static int bucket(final double millis) {
+        return (int) Math.floor(Math.log(Math.max(millis, MIN_BUCKET_MILLIS)) / LOG_BUCKET_RATIO);
+    }
+
+    /**
+     * Gets the value a bucket's latencies are reported as, the geometric middle of the bucket.
+     */
+    static double bucketMillis(final int bucket) {
+        return Math.round(Math.pow(BUCKET_RATIO, bucket + 0.5) * 1000) / 1000.0;
+    }
+
+    private static final class OperationMetrics {
+        private final Histogram latency = new Histogram();
+        private final Histogram timeToReady = new Histogram();
+        private final Histogram propagationTime = new Histogram();
+        // Sorted so that the lines list the values in order
+        private final Map<String, Long> errors = new TreeMap<>();
+        private final Map<String, Long> counts = new TreeMap<>();
+        private double limiterWaitMillis;
+        private long limiterRejections;
+        private long propagationUnconfirmed;
+
+        private synchronized void record(final double latencyMillis, final String error) {
+            latency.record(latencyMillis);
+            if (error != null) {
+                errors.merge(error, 1L, Long::sum);
+            }
+        }
+
+        private synchronized void recordCount(final String name) {
+            counts.merge(name, 1L, Long::sum);
+        }
+
+        private synchronized void recordLimiterWait(final double waitMillis) {
+            limiterWaitMillis += waitMillis;
+        }
+
+        private synchronized void recordLimiterRejection() {
+            limiterRejections++;
+        }
+
+        private synchronized void recordTimeToReady(final double millis) {
+            timeToReady.record(millis);
+        }
+
+        private synchronized void recordPropagation(final double millis, final boolean confirmed) {
+            propagationTime.record(millis);
+            if (!confirmed) {
+                propagationUnconfirmed++;
+            }
+        }
+
+        private synchronized boolean isEmpty() {
+            // Errors and unconfirmed propagations are only ever recorded along with a histogram value
+            return latency.count == 0 && timeToReady.count == 0 && propagationTime.count == 0
+                && counts.isEmpty() && limiterWaitMillis == 0 && limiterRejections == 0;
+        }
+
+        private synchronized void reset() {
+            latency.reset();
+            timeToReady.reset();
+            propagationTime.reset();
+            errors.clear();
+            counts.clear();
+            limiterWaitMillis = 0;
+            limiterRejections = 0;
+            propagationUnconfirmed = 0;
+        }
+    }
+
+    /**
+     * Guarded by the {@link OperationMetrics} it belongs to.
+     */
+    private static final class Histogram {
+        // Sorted so that the lines list the values in order
+        private final Map<Integer, Long> buckets = new TreeMap<>();
+        private long count;
+        private double sumMillis;
+        private double minMillis = Double.MAX_VALUE;
+        private double maxMillis;
+
+        private void record(final double millis) {
+            buckets.merge(bucket(millis), 1L, Long::sum);
+            count++;
+            sumMillis += millis;
+            minMillis = Math.min(minMillis, millis);
+            maxMillis = Math.max(maxMillis, millis);
+        }
+
+        private void reset() {
+            buckets.clear();
+            count = 0;
+            sumMillis = 0;
+            minMillis = Double.MAX_VALUE;
+            maxMillis = 0;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package software.amazon.kms.common;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kms.KmsClient;
+
+/**
+ * A thread-safe pool of KMS clients, keyed by region. Clients are built the first time
+ * a region is requested and then reused for the lifetime of the container, since the
+ * SDK clients are thread-safe and share the Lambda wrapper's HTTP client. Regional client
+ * requests are counted as the {@value KmsApiMetrics#CACHE_HITS} and
+ * {@value KmsApiMetrics#CACHE_MISSES} of the {@value #OPERATION} operation.
+ */
+public class KmsClientPool {
+    public static final String OPERATION = "KmsClientPool";
+
+    // Regions KMS is available in, indexed by id so lookups don't scan the service metadata
+    private static final Map<String, Region> KMS_REGIONS =
+        Collections.unmodifiableMap(KmsClient.serviceMetadata().regions().stream()
+            .collect(Collectors.toMap(Region::id, Function.identity(), (a, b) -> a)));
+
+    private final Function<Region, KmsClient> regionalClientFactory;
+    private final Supplier<KmsClient> defaultClient;
+    private final ConcurrentMap<Region, KmsClient> regionalClients = new ConcurrentHashMap<>();
+    private final KmsApiMetrics metrics;
+
+    public KmsClientPool(final Supplier<KmsClient> defaultClientFactory,
+                         final Function<Region, KmsClient> regionalClientFactory) {
+        this(defaultClientFactory, regionalClientFactory, KmsApiMetrics.shared());
+    }
+
+    @VisibleForTesting
+    public KmsClientPool(final Supplier<KmsClient> defaultClientFactory,
+                         final Function<Region, KmsClient> regionalClientFactory,
+                         final KmsApiMetrics metrics) {
+        this.defaultClient = Suppliers.memoize(defaultClientFactory::get);
+        this.regionalClientFactory = regionalClientFactory;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Looks up the KMS region with the given id.
+     *
+     * @return the region, or null if KMS is not available in a region with that id
+     */
+    public static Region kmsRegion(final String regionId) {
+        return KMS_REGIONS.get(regionId);
+    }
+
+    /**
+     * Gets the client for the container's own region, building it on first use.
+     */
+    public KmsClient getDefaultClient() {
+        return defaultClient.get();
+    }
+
+    /**
+     * Gets the client for the given region, building it on first use.
+     */
+    public KmsClient getClient(final Region region) {
+        final KmsClient kmsClient = regionalClients.get(region);
+        if (kmsClient != null) {
+            metrics.recordCount(OPERATION, KmsApiMetrics.CACHE_HITS);
+            return kmsClient;
+        }
+
+        return regionalClients.computeIfAbsent(region, r -> {
+            metrics.recordCount(OPERATION, KmsApiMetrics.CACHE_MISSES);
+            return regionalClientFactory.apply(r);
+        });
+    }
+
+    /**
+     * Builds the clients for the given regions ahead of their first use.
+     * Warming does not count towards the pool's hits or misses.
+     */
+    public void warm(final Iterable<Region> regions) {
+        regions.forEach(region -> regionalClients.computeIfAbsent(region, regionalClientFactory));
+    }
+
+    public int size() {
+        return regionalClients.size();
+    }
+}
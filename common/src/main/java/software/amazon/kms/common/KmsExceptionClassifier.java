@@ -0,0 +1,148 @@
+package software.amazon.kms.common;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import software.amazon.awssdk.services.kms.model.AlreadyExistsException;
+import software.amazon.awssdk.services.kms.model.DependencyTimeoutException;
+import software.amazon.awssdk.services.kms.model.DisabledException;
+import software.amazon.awssdk.services.kms.model.InvalidAliasNameException;
+import software.amazon.awssdk.services.kms.model.InvalidArnException;
+import software.amazon.awssdk.services.kms.model.InvalidMarkerException;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import software.amazon.awssdk.services.kms.model.KmsInternalException;
+import software.amazon.awssdk.services.kms.model.KmsInvalidStateException;
+import software.amazon.awssdk.services.kms.model.LimitExceededException;
+import software.amazon.awssdk.services.kms.model.MalformedPolicyDocumentException;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+import software.amazon.awssdk.services.kms.model.TagException;
+import software.amazon.awssdk.services.kms.model.UnsupportedOperationException;
+import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
+import software.amazon.cloudformation.exceptions.CfnAlreadyExistsException;
+import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnServiceInternalErrorException;
+import software.amazon.cloudformation.exceptions.CfnServiceLimitExceededException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.exceptions.CfnUnauthorizedTaggingOperationException;
+
+/**
+ * Maps KMS service exceptions to the CloudFormation exceptions that tell CloudFormation whether
+ * to retry, for {@link AbstractKmsApiHelper}. The mapping of every exception class is resolved
+ * once, by walking up its class hierarchy, and kept in a {@link ClassValue}; the error codes of
+ * exceptions KMS has no class for are looked up in a map. Throttling storms go through here for
+ * every call, so nothing is formatted unless the exception needs a message.
+ */
+public final class KmsExceptionClassifier {
+    private static final Map<Class<?>, Mapping> EXCEPTION_MAPPINGS = ImmutableMap.<Class<?>, Mapping>builder()
+        .put(AlreadyExistsException.class, Mapping.ALREADY_EXISTS)
+        .put(InvalidAliasNameException.class, Mapping.INVALID_REQUEST)
+        .put(KmsInvalidStateException.class, Mapping.INVALID_REQUEST)
+        .put(InvalidArnException.class, Mapping.INVALID_REQUEST)
+        .put(MalformedPolicyDocumentException.class, Mapping.INVALID_REQUEST)
+        .put(TagException.class, Mapping.INVALID_REQUEST)
+        .put(UnsupportedOperationException.class, Mapping.INVALID_REQUEST)
+        .put(DisabledException.class, Mapping.INVALID_REQUEST)
+        .put(LimitExceededException.class, Mapping.LIMIT_EXCEEDED)
+        // We should never make a call with an invalid marker, if we did, there is an issue
+        .put(InvalidMarkerException.class, Mapping.INTERNAL_FAILURE)
+        .put(KmsInternalException.class, Mapping.SERVICE_INTERNAL_ERROR)
+        .put(DependencyTimeoutException.class, Mapping.SERVICE_INTERNAL_ERROR)
+        .put(NotFoundException.class, Mapping.NOT_FOUND)
+        .put(KmsException.class, Mapping.ERROR_CODE)
+        .build();
+    private static final Map<String, Mapping> ERROR_CODE_MAPPINGS = ImmutableMap.of(
+        AbstractKmsApiHelper.ACCESS_DENIED_ERROR_CODE, Mapping.ACCESS_DENIED,
+        AbstractKmsApiHelper.VALIDATION_ERROR_CODE, Mapping.INVALID_REQUEST,
+        AbstractKmsApiHelper.THROTTLING_ERROR_CODE, Mapping.THROTTLING);
+    private static final ClassValue<Mapping> MAPPINGS = new ClassValue<Mapping>() {
+        @Override
+        protected Mapping computeValue(final Class<?> type) {
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                final Mapping mapping = EXCEPTION_MAPPINGS.get(c);
+                if (mapping != null) {
+                    return mapping;
+                }
+            }
+
+            return Mapping.UNMAPPED;
+        }
+    };
+    private static final String NULL_MESSAGE = "null";
+    private static final String NULL_MESSAGE_PREFIX = NULL_MESSAGE + " (";
+
+    private KmsExceptionClassifier() {
+    }
+
+    /**
+     * Gets the CloudFormation exception a KMS call that failed with the given exception should
+     * fail with, or the exception itself if it did not come from KMS.
+     */
+    public static RuntimeException toCfnException(final String operation, final RuntimeException e) {
+        return MAPPINGS.get(e.getClass()).map(operation, e);
+    }
+
+    private static Mapping errorCodeMapping(final KmsException e) {
+        if (e.awsErrorDetails() == null) {
+            return Mapping.GENERAL_SERVICE;
+        }
+
+        return ERROR_CODE_MAPPINGS.getOrDefault(e.awsErrorDetails().errorCode(), Mapping.GENERAL_SERVICE);
+    }
+
+    private static boolean isTaggingPermission(final String message) {
+        return message != null && (message.contains(AbstractKmsApiHelper.KMS_TAG_RESOURCE_PERMISSION)
+            || message.contains(AbstractKmsApiHelper.KMS_UNTAG_RESOURCE_PERMISSION)
+            || message.contains(AbstractKmsApiHelper.KMS_LIST_RESOURCE_TAGS_PERMISSION));
+    }
+
+    /**
+     * Adds a message to exceptions that didn't have one.
+     */
+    private static Exception addMessageIfNull(final String operation, final Exception e) {
+        // CloudFormation users only see the message of an exception that resulted in a failure,
+        // and do not see its type. Some KMS exceptions (Like MalformedPolicyDocumentException)
+        // do not have exception messages, so we need to add one that mentions the exception type and operation.
+        final String message = e.getMessage();
+        if (message == null || !message.startsWith(NULL_MESSAGE_PREFIX)) {
+            return e;
+        }
+
+        // Replace 'null', while keeping the request id that the SDK adds on
+        return new Exception(operation + " failed due to " + e.getClass().getSimpleName()
+            + message.substring(NULL_MESSAGE.length()), e);
+    }
+
+    private enum Mapping {
+        ALREADY_EXISTS((operation, e) -> new CfnAlreadyExistsException(addMessageIfNull(operation, e))),
+        INVALID_REQUEST((operation, e) -> new CfnInvalidRequestException(addMessageIfNull(operation, e))),
+        LIMIT_EXCEEDED((operation, e) -> new CfnServiceLimitExceededException(addMessageIfNull(operation, e))),
+        INTERNAL_FAILURE((operation, e) -> new CfnInternalFailureException(addMessageIfNull(operation, e))),
+        SERVICE_INTERNAL_ERROR(CfnServiceInternalErrorException::new),
+        NOT_FOUND((operation, e) -> new CfnNotFoundException(addMessageIfNull(operation, e))),
+        ACCESS_DENIED((operation, e) -> {
+            // If this is a tagging related Access Denied we need to throw CfnUnauthorizedTaggingOperationException
+            if (isTaggingPermission(e.getMessage())) {
+                return new CfnUnauthorizedTaggingOperationException(e);
+            }
+
+            return new CfnAccessDeniedException(operation, e);
+        }),
+        THROTTLING(CfnThrottlingException::new),
+        GENERAL_SERVICE(CfnGeneralServiceException::new),
+        ERROR_CODE((operation, e) -> errorCodeMapping((KmsException) e).map(operation, e)),
+        UNMAPPED((operation, e) -> e);
+
+        private final BiFunction<String, RuntimeException, RuntimeException> mapper;
+
+        Mapping(final BiFunction<String, RuntimeException, RuntimeException> mapper) {
+            this.mapper = mapper;
+        }
+
+        private RuntimeException map(final String operation, final RuntimeException e) {
+            return mapper.apply(operation, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package software.amazon.kms.common;
+
+/**
+ * Where {@link KmsApiMetrics} writes its log lines. Handlers pass their CloudFormation
+ * logger, whose lines end up in CloudWatch Logs where the embedded metrics are extracted;
+ * tests and local runs can collect the lines instead.
+ */
+@FunctionalInterface
+public interface MetricsSink {
+    void emit(String line);
+}
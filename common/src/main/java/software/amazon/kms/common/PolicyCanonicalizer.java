@@ -0,0 +1,167 @@
+package software.amazon.kms.common;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Reduces key policy documents to a canonical form, so that policies which only differ in
+ * formatting are recognized as the same policy. In the canonical form:
+ * <ul>
+ *     <li>object keys are sorted,</li>
+ *     <li>numbers and booleans are written as strings, and</li>
+ *     <li>single element arrays are replaced by their element.</li>
+ * </ul>
+ * These are the same equivalences IAM applies when it evaluates a policy.
+ *
+ * <p>Policies can be compared as given in a resource model, either a JSON object or a serialized
+ * document, so they never need to be serialized just to be compared. Canonical forms of
+ * serialized policies are cached by the SHA-256 hash of the document, so handler re-entries with
+ * the same policy skip the parse.
+ */
+public class PolicyCanonicalizer {
+    private static final int DEFAULT_MAXIMUM_CACHE_SIZE = 128;
+
+    private final PolicyJson policyJson;
+    private final Cache<HashCode, Object> canonicalPolicies;
+
+    public PolicyCanonicalizer() {
+        this(PolicyJson.shared(), DEFAULT_MAXIMUM_CACHE_SIZE);
+    }
+
+    public PolicyCanonicalizer(final PolicyJson policyJson, final long maximumCacheSize) {
+        this.policyJson = policyJson;
+        this.canonicalPolicies = CacheBuilder.newBuilder()
+            .maximumSize(maximumCacheSize)
+            .build();
+    }
+
+    /**
+     * Checks whether two key policies are semantically the same. Each policy is either a JSON
+     * object, as a map, or a serialized document, as a string.
+     */
+    public boolean isEquivalent(final Object policy, final Object otherPolicy) {
+        // Maps compare deeply, so unchanged policies never get canonicalized
+        if (Objects.equals(policy, otherPolicy)) {
+            return true;
+        }
+
+        if (policy == null || otherPolicy == null) {
+            return false;
+        }
+
+        return canonicalValue(policy).equals(canonicalValue(otherPolicy));
+    }
+
+    /**
+     * Gets the canonical form of a serialized key policy, serialized. Policies that are not
+     * valid JSON are returned as is, since KMS will reject them anyway.
+     */
+    public String canonicalize(final String policy) {
+        final Object canonicalPolicy = canonicalValue(policy);
+        if (policy.equals(canonicalPolicy)) {
+            return policy;
+        }
+
+        try {
+            return policyJson.writePolicy(canonicalPolicy);
+        } catch (final IOException e) {
+            // Writing a tree of plain values does not fail
+            return policy;
+        }
+    }
+
+    long cacheSize() {
+        return canonicalPolicies.size();
+    }
+
+    private Object canonicalValue(final Object policy) {
+        if (!(policy instanceof String)) {
+            return canonicalValueOf(policy);
+        }
+
+        final HashCode policyHash = Hashing.sha256().hashString((String) policy, StandardCharsets.UTF_8);
+        Object canonicalPolicy = canonicalPolicies.getIfPresent(policyHash);
+        if (canonicalPolicy == null) {
+            canonicalPolicy = computeCanonicalForm((String) policy);
+            canonicalPolicies.put(policyHash, canonicalPolicy);
+        }
+
+        return canonicalPolicy;
+    }
+
+    private Object computeCanonicalForm(final String policy) {
+        // Build the canonical form straight from the token stream, rather than
+        // materializing the policy as a map and then copying it into sorted maps
+        try (JsonParser parser = policyJson.createParser(policy)) {
+            if (parser.nextToken() == null) {
+                return policy;
+            }
+
+            final Object canonicalPolicy = readCanonicalValue(parser);
+            return canonicalPolicy == null ? policy : canonicalPolicy;
+        } catch (final IOException e) {
+            return policy;
+        }
+    }
+
+    private static Object canonicalValueOf(final Object value) {
+        if (value instanceof Map) {
+            final Map<String, Object> sorted = new TreeMap<>();
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), canonicalValueOf(entry.getValue()));
+            }
+
+            return sorted;
+        }
+
+        if (value instanceof Collection) {
+            final List<Object> elements = new ArrayList<>();
+            for (final Object element : (Collection<?>) value) {
+                elements.add(canonicalValueOf(element));
+            }
+
+            return elements.size() == 1 ? elements.get(0) : elements;
+        }
+
+        // Strings, numbers and booleans are all compared by their text
+        return value == null ? null : value.toString();
+    }
+
+    private static Object readCanonicalValue(final JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT:
+                final Map<String, Object> sorted = new TreeMap<>();
+                String fieldName;
+                while ((fieldName = parser.nextFieldName()) != null) {
+                    parser.nextToken();
+                    sorted.put(fieldName, readCanonicalValue(parser));
+                }
+
+                return sorted;
+            case START_ARRAY:
+                final List<Object> elements = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    elements.add(readCanonicalValue(parser));
+                }
+
+                return elements.size() == 1 ? elements.get(0) : elements;
+            case VALUE_NULL:
+                return null;
+            default:
+                // Strings, numbers and booleans are all compared by their text
+                return parser.getText();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package software.amazon.kms.common;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes key policy documents. ObjectMappers are expensive to create, while the
+ * readers and writers derived from them are immutable and thread-safe, so a single shared
+ * instance serves every handler in the container.
+ */
+public class PolicyJson {
+    private static final TypeReference<HashMap<String, Object>> POLICY_TYPE =
+        new TypeReference<HashMap<String, Object>>() {
+        };
+    private static final PolicyJson SHARED = new PolicyJson(new ObjectMapper());
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader policyReader;
+    private final ObjectWriter policyWriter;
+
+    public PolicyJson(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.policyReader = objectMapper.readerFor(POLICY_TYPE);
+        this.policyWriter = objectMapper.writer();
+    }
+
+    /**
+     * Gets the instance shared by the whole container.
+     */
+    public static PolicyJson shared() {
+        return SHARED;
+    }
+
+    /**
+     * Serializes a key policy that was provided as a JSON object.
+     */
+    public String writePolicy(final Object policy) throws JsonProcessingException {
+        return policyWriter.writeValueAsString(policy);
+    }
+
+    /**
+     * Deserializes a key policy document into a map.
+     */
+    public Map<String, Object> readPolicy(final String policy) throws IOException {
+        return policyReader.readValue(policy);
+    }
+
+    /**
+     * Creates a streaming parser over a key policy document, for callers that
+     * want to process the policy without materializing it as a map first.
+     */
+    public JsonParser createParser(final String policy) throws IOException {
+        return objectMapper.getFactory().createParser(policy);
+    }
+}
@@ -0,0 +1,16 @@
+package software.amazon.kms.common;
+
+/**
+ * Checks whether a change made by a handler is visible to reads yet.
+ *
+ * @param <M> the resource model type
+ * @param <C> the callback context type
+ */
+@FunctionalInterface
+public interface PropagationProbe<M, C> {
+    /**
+     * Reads the resource back and reports whether it matches the model.
+     * Probes should report an inconclusive read, such as a throttled one, as inconsistent.
+     */
+    boolean isConsistent(M model, C callbackContext);
+}
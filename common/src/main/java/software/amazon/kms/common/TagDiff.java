@@ -0,0 +1,126 @@
+package software.amazon.kms.common;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.collections.MapUtils;
+import software.amazon.awssdk.services.kms.model.Tag;
+
+/**
+ * The changes needed to bring a key's tags from one tag map to another.
+ *
+ * <p>The diff is computed in a single pass over each map, without converting them to
+ * SDK {@link Tag} sets first. Tags are only built for the entries a TagResource call
+ * actually sends. Like {@link TagHelper#convertToSet(Map)}, value-less tag entries are
+ * treated as absent.
+ */
+@lombok.Getter
+@lombok.ToString
+@lombok.EqualsAndHashCode
+public final class TagDiff {
+    private static final TagDiff EMPTY =
+        new TagDiff(Collections.emptyMap(), Collections.emptyMap(), Collections.emptySet());
+
+    // Tags whose key is not on the key yet
+    private final Map<String, String> addedTags;
+    // Tags whose key is already on the key, mapped to their new value
+    private final Map<String, String> changedTags;
+    // Keys of the tags that are no longer desired
+    private final Set<String> removedTagKeys;
+
+    private TagDiff(final Map<String, String> addedTags,
+                    final Map<String, String> changedTags,
+                    final Set<String> removedTagKeys) {
+        this.addedTags = addedTags;
+        this.changedTags = changedTags;
+        this.removedTagKeys = removedTagKeys;
+    }
+
+    /**
+     * Computes the changes needed to go from the existing tags to the desired tags.
+     * Either map may be null.
+     */
+    public static TagDiff between(final Map<String, String> existingTags,
+                                  final Map<String, String> desiredTags) {
+        Map<String, String> addedTags = null;
+        Map<String, String> changedTags = null;
+        Set<String> removedTagKeys = null;
+
+        if (MapUtils.isNotEmpty(desiredTags)) {
+            for (final Map.Entry<String, String> desiredTag : desiredTags.entrySet()) {
+                final String desiredValue = desiredTag.getValue();
+                if (desiredValue == null) {
+                    continue;
+                }
+
+                final String existingValue = existingTags == null ? null
+                    : existingTags.get(desiredTag.getKey());
+                if (existingValue == null) {
+                    addedTags = putLazily(addedTags, desiredTag.getKey(), desiredValue);
+                } else if (!existingValue.equals(desiredValue)) {
+                    changedTags = putLazily(changedTags, desiredTag.getKey(), desiredValue);
+                }
+            }
+        }
+
+        if (MapUtils.isNotEmpty(existingTags)) {
+            for (final Map.Entry<String, String> existingTag : existingTags.entrySet()) {
+                if (existingTag.getValue() != null
+                    && (desiredTags == null || desiredTags.get(existingTag.getKey()) == null)) {
+                    if (removedTagKeys == null) {
+                        removedTagKeys = new HashSet<>();
+                    }
+                    removedTagKeys.add(existingTag.getKey());
+                }
+            }
+        }
+
+        if (addedTags == null && changedTags == null && removedTagKeys == null) {
+            return EMPTY;
+        }
+
+        return new TagDiff(
+            addedTags == null ? Collections.emptyMap() : addedTags,
+            changedTags == null ? Collections.emptyMap() : changedTags,
+            removedTagKeys == null ? Collections.emptySet() : removedTagKeys);
+    }
+
+    public boolean isEmpty() {
+        return !hasTagsToApply() && !hasTagsToRemove();
+    }
+
+    public boolean hasTagsToApply() {
+        return !addedTags.isEmpty() || !changedTags.isEmpty();
+    }
+
+    public boolean hasTagsToRemove() {
+        return !removedTagKeys.isEmpty();
+    }
+
+    /**
+     * Builds the tags a TagResource call has to send: the added tags, and the changed
+     * tags with their new values. TagResource overwrites the value of an existing tag,
+     * so changed tags don't need to be removed first.
+     */
+    public Set<Tag> tagsToApply() {
+        if (!hasTagsToApply()) {
+            return Collections.emptySet();
+        }
+
+        final Set<Tag> tags = new HashSet<>(
+            (int) ((addedTags.size() + changedTags.size()) / 0.75f) + 1);
+        addedTags.forEach((key, value) -> tags.add(Tag.builder().tagKey(key).tagValue(value).build()));
+        changedTags.forEach((key, value) -> tags.add(Tag.builder().tagKey(key).tagValue(value).build()));
+        return tags;
+    }
+
+    private static Map<String, String> putLazily(final Map<String, String> tags,
+                                                 final String key,
+                                                 final String value) {
+        final Map<String, String> result = tags == null ? new HashMap<>() : tags;
+        result.put(key, value);
+        return result;
+    }
+}
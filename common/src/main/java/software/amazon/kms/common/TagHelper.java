@@ -22,12 +22,19 @@ public class TagHelper<M, C extends KeyCallbackContext, T extends KeyTranslator<
     final T keyTranslator;
     final KeyApiHelper keyApiHelper;
     final KeyHandlerHelper<M, C, T> keyHandlerHelper;
+    final TagPipeline tagPipeline;
 
     public TagHelper(final T keyTranslator, final KeyApiHelper keyApiHelper,
             final KeyHandlerHelper<M, C, T> keyHandlerHelper) {
+        this(keyTranslator, keyApiHelper, keyHandlerHelper, new TagPipeline(keyApiHelper));
+    }
+
+    public TagHelper(final T keyTranslator, final KeyApiHelper keyApiHelper,
+            final KeyHandlerHelper<M, C, T> keyHandlerHelper, final TagPipeline tagPipeline) {
         this.keyTranslator = keyTranslator;
         this.keyApiHelper = keyApiHelper;
         this.keyHandlerHelper = keyHandlerHelper;
+        this.tagPipeline = tagPipeline;
     }
 
     /**
@@ -49,6 +56,25 @@ public class TagHelper<M, C extends KeyCallbackContext, T extends KeyTranslator<
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * convertToMap
+     *
+     * Converts a set of Tag objects to a tag map.
+     * Note: Like convertToSet, convertToMap filters out value-less tag entries.
+     */
+    public static Map<String, String> convertToMap(final Set<Tag> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> tagMap = new HashMap<>();
+        for (final Tag tag : tags) {
+            if (tag.tagValue() != null) {
+                tagMap.put(tag.tagKey(), tag.tagValue());
+            }
+        }
+        return tagMap;
+    }
+
     /**
      * generateTagsForCreate
      *
@@ -119,41 +145,34 @@ public class TagHelper<M, C extends KeyCallbackContext, T extends KeyTranslator<
     /**
      * updateKeyTags
      *
-     * Updates the user defined tags as the customer desired
+     * Updates the user defined tags as the customer desired. The desired tags are diffed against
+     * the previous request's, so the key's tags are never listed, and tags added outside of
+     * CloudFormation are left alone.
      */
     public ProgressEvent<M, C>
     updateKeyTags(final AmazonWebServicesClientProxy proxy, final ProxyClient<KmsClient> proxyClient, final M model,
             final ResourceHandlerRequest<M> handlerRequest, final C callbackContext, final Map<String, String> desiredTags) {
+        return applyTagDiff(proxyClient, model, callbackContext,
+                TagDiff.between(getPreviouslyAttachedTags(handlerRequest), desiredTags),
+                ProgressEvent.progress(model, callbackContext));
+    }
 
-        return ProgressEvent.progress(model, callbackContext)
-                .then(progressEvent -> keyHandlerHelper.retrieveResourceTags(proxy, proxyClient, model,
-                        callbackContext, false))
-                .then(progressEvent -> {
-                    final Set<Tag> existingTags = convertToSet(getPreviouslyAttachedTags(handlerRequest));
-                    final Set<Tag> tagsToRemove = generateTagsToRemove(existingTags, convertToSet(desiredTags));
-                    if (!tagsToRemove.isEmpty()) {
-                        return proxy
-                                .initiate("kms::untag-key", proxyClient, model, callbackContext)
-                                .translateToServiceRequest(
-                                        (m) -> keyTranslator.untagResourceRequest(m, tagsToRemove))
-                                .makeServiceCall(keyApiHelper::untagResource)
-                                .progress();
-                    }
-                    return progressEvent;
-                })
-                .then(progressEvent -> {
-                    final Set<Tag> existingTags =
-                            convertToSet(getPreviouslyAttachedTags(handlerRequest));
-                    final Set<Tag> tagsToAdd = generateTagsToAdd(existingTags, convertToSet(desiredTags));
-                    if (!tagsToAdd.isEmpty()) {
-                        return proxy
-                                .initiate("kms::tag-key", proxyClient, model, callbackContext)
-                                .translateToServiceRequest(
-                                        (m) -> keyTranslator.tagResourceRequest(m, tagsToAdd))
-                                .makeServiceCall(keyApiHelper::tagResource)
-                                .progress();
+    /**
+     * applyTagDiff
+     *
+     * Untags the tags the diff removes and tags the ones it adds or changes, in chunks.
+     * No calls are made for an empty diff.
+     */
+    public ProgressEvent<M, C> applyTagDiff(final ProxyClient<KmsClient> proxyClient, final M model,
+            final C callbackContext, final TagDiff tagDiff, final ProgressEvent<M, C> progressEvent) {
+
+        return progressEvent
+                .then(p -> {
+                    if (tagDiff.isEmpty()) {
+                        return p;
                     }
-                    return progressEvent;
+                    callbackContext.recordMutation(KeyMutation.TAGS);
+                    return tagPipeline.apply(proxyClient, keyTranslator, model, callbackContext, tagDiff);
                 });
     }
 }
@@ -0,0 +1,188 @@
+package software.amazon.kms.common;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.Tag;
+import software.amazon.awssdk.services.kms.model.TagResourceRequest;
+import software.amazon.awssdk.services.kms.model.UntagResourceRequest;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+/**
+ * Applies a {@link TagDiff} to a key in chunks. Removals and additions touch different tag keys,
+ * so every chunk is independent of the others: chunks are sent concurrently by a fixed size
+ * worker pool, straight through the key API helper, so they are paced like every other KMS call.
+ * A failed chunk only loses its own tags. The handlers of a resource type share one pipeline, so
+ * its worker pool bounds the tagging concurrency of the whole container.
+ *
+ * <p>Workers only make the calls, all through the handler's proxy client, which is safe to share
+ * between them (see {@link AbstractKmsApiHelper}). The tag keys of every chunk that went through
+ * are saved in the callback context by the calling thread, and skipped when the diff is applied
+ * again, so a handler that is called back, after a throttled chunk or a propagation wait,
+ * doesn't send a chunk twice.
+ */
+public class TagPipeline {
+    // KMS allows at most 50 tags on a key, so a chunk never needs to be larger than that
+    public static final int MAX_TAGS_PER_REQUEST = 50;
+    public static final int DEFAULT_CHUNK_SIZE = 10;
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+    public static final int THROTTLED_CALLBACK_DELAY_SECONDS = 5;
+
+    private static final long IDLE_WORKER_TIMEOUT_SECONDS = 30;
+
+    private final KeyApiHelper keyApiHelper;
+    private final int chunkSize;
+    private final ExecutorService executorService;
+
+    public TagPipeline(final KeyApiHelper keyApiHelper) {
+        this(keyApiHelper, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public TagPipeline(final KeyApiHelper keyApiHelper,
+                       final int chunkSize,
+                       final int maxConcurrency) {
+        Preconditions.checkArgument(chunkSize > 0 && chunkSize <= MAX_TAGS_PER_REQUEST,
+            "chunkSize must be between 1 and %s", MAX_TAGS_PER_REQUEST);
+        Preconditions.checkArgument(maxConcurrency > 0, "maxConcurrency must be positive");
+
+        this.keyApiHelper = keyApiHelper;
+        this.chunkSize = chunkSize;
+
+        // Workers are daemon threads that time out when idle, so a warm container
+        // does not hold on to threads between tag updates.
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(maxConcurrency,
+            maxConcurrency, IDLE_WORKER_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                final Thread thread = new Thread(runnable, "kms-tag-resource");
+                thread.setDaemon(true);
+                return thread;
+            });
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        this.executorService = threadPoolExecutor;
+    }
+
+    /**
+     * Untags and tags the key as the diff requires, skipping the tag keys the callback context
+     * records as already done. Returns an in progress event with a callback delay if any chunk
+     * was throttled; any other failure is thrown once every chunk has finished.
+     */
+    public <M, C extends KeyCallbackContext> ProgressEvent<M, C> apply(
+        final ProxyClient<KmsClient> proxyClient,
+        final KeyTranslator<M> keyTranslator,
+        final M model,
+        final C callbackContext,
+        final TagDiff tagDiff
+    ) {
+        final Set<String> reconciledTagKeys = callbackContext.getReconciledTagKeys();
+        final List<Chunk> chunks = new ArrayList<>();
+
+        for (final List<String> tagKeys : partition(tagDiff.getRemovedTagKeys(), reconciledTagKeys)) {
+            final UntagResourceRequest untagResourceRequest =
+                keyTranslator.untagResourceByKeysRequest(model, tagKeys);
+            chunks.add(new Chunk(tagKeys,
+                () -> keyApiHelper.untagResource(untagResourceRequest, proxyClient)));
+        }
+
+        final Set<String> tagKeysToApply = new HashSet<>(tagDiff.getAddedTags().keySet());
+        tagKeysToApply.addAll(tagDiff.getChangedTags().keySet());
+        for (final List<String> tagKeys : partition(tagKeysToApply, reconciledTagKeys)) {
+            final Set<Tag> tags = new HashSet<>();
+            for (final String tagKey : tagKeys) {
+                tags.add(Tag.builder().tagKey(tagKey).tagValue(tagValue(tagDiff, tagKey)).build());
+            }
+            final TagResourceRequest tagResourceRequest = keyTranslator.tagResourceRequest(model, tags);
+            chunks.add(new Chunk(tagKeys,
+                () -> keyApiHelper.tagResource(tagResourceRequest, proxyClient)));
+        }
+
+        send(chunks);
+
+        RuntimeException failure = null;
+        for (final Chunk chunk : chunks) {
+            try {
+                await(chunk.result);
+                reconciledTagKeys.addAll(chunk.tagKeys);
+            } catch (final RuntimeException e) {
+                // Anything other than throttling is worth failing for
+                if (failure == null || failure instanceof CfnThrottlingException) {
+                    failure = e;
+                }
+            }
+        }
+
+        if (failure instanceof CfnThrottlingException) {
+            return ProgressEvent.defaultInProgressHandler(callbackContext,
+                THROTTLED_CALLBACK_DELAY_SECONDS, model);
+        } else if (failure != null) {
+            throw failure;
+        }
+
+        return ProgressEvent.progress(model, callbackContext);
+    }
+
+    private void send(final List<Chunk> chunks) {
+        for (final Chunk chunk : chunks) {
+            final FutureTask<?> call = new FutureTask<>(chunk.call::get);
+            chunk.result = call;
+
+            if (chunks.size() == 1) {
+                // No need to hand a single call over to another thread
+                call.run();
+            } else {
+                executorService.execute(call);
+            }
+        }
+    }
+
+    private List<List<String>> partition(final Set<String> tagKeys, final Set<String> reconciledTagKeys) {
+        // Sorting keeps the chunks the same across invocations
+        final TreeSet<String> pendingTagKeys = new TreeSet<>(tagKeys);
+        pendingTagKeys.removeAll(reconciledTagKeys);
+        return Lists.partition(new ArrayList<>(pendingTagKeys), chunkSize);
+    }
+
+    private static String tagValue(final TagDiff tagDiff, final String tagKey) {
+        final String addedValue = tagDiff.getAddedTags().get(tagKey);
+        return addedValue != null ? addedValue : tagDiff.getChangedTags().get(tagKey);
+    }
+
+    private static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        } catch (final ExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new CfnInternalFailureException(e.getCause());
+        }
+    }
+
+    private static final class Chunk {
+        private final List<String> tagKeys;
+        private final Supplier<?> call;
+        private Future<?> result;
+
+        private Chunk(final List<String> tagKeys, final Supplier<?> call) {
+            this.tagKeys = tagKeys;
+            this.call = call;
+        }
+    }
+}
@@ -11,6 +11,9 @@ import static software.amazon.kms.common.KeyApiHelper.THROTTLING_ERROR_CODE;
 import static software.amazon.kms.common.KeyApiHelper.VALIDATION_ERROR_CODE;
 
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -253,4 +256,32 @@ public class AbstractKmsApiHelperTest {
                     "(Service: Kms, Status Code: 400, Request ID: null, Extended Request ID: null)");
         }
     }
+
+    @Test
+    public void testAwaitResponse() {
+        assertThat(AbstractKmsApiHelper.awaitResponse(CompletableFuture.completedFuture("response")))
+            .isEqualTo("response");
+    }
+
+    @Test
+    public void testAwaitResponseFailure() {
+        final CompletableFuture<String> response = CompletableFuture.supplyAsync(() ->
+            mockKmsApiHelper.testCall(() -> {
+                throw NotFoundException.builder().build();
+            }));
+
+        assertThatExceptionOfType(CfnNotFoundException.class)
+            .isThrownBy(() -> AbstractKmsApiHelper.awaitResponse(response));
+    }
+
+    @Test
+    public void testAwaitResponseCheckedFailure() {
+        final IOException ioException = new IOException();
+        final CompletableFuture<String> response = new CompletableFuture<>();
+        response.completeExceptionally(ioException);
+
+        assertThatExceptionOfType(CompletionException.class)
+            .isThrownBy(() -> AbstractKmsApiHelper.awaitResponse(response))
+            .withCause(ioException);
+    }
 }
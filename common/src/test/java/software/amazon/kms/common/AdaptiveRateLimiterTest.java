@@ -0,0 +1,229 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.google.common.base.Ticker;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+
+public class AdaptiveRateLimiterTest {
+    private static final String OPERATION = "MockOperation";
+    private static final String REGION = "us-west-2";
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+    private AdaptiveRateLimiter rateLimiter;
+
+    @BeforeEach
+    public void setup() {
+        rateLimiter = new AdaptiveRateLimiter(10, 20, AdaptiveRateLimiter.DEFAULT_MAX_WAIT, ticker, nanos::addAndGet);
+    }
+
+    @Test
+    public void testCallsAreSpacedOut() {
+        assertThat(rateLimiter.acquire(OPERATION, REGION)).isEqualTo(0);
+        assertThat(rateLimiter.acquire(OPERATION, REGION)).isEqualTo(SECOND_NANOS / 10);
+        assertThat(nanos.get()).isEqualTo(SECOND_NANOS / 10);
+
+        // Other operations and regions have limits of their own
+        assertThat(rateLimiter.acquire("OtherOperation", REGION)).isEqualTo(0);
+        assertThat(rateLimiter.acquire(OPERATION, "us-east-1")).isEqualTo(0);
+        assertThat(rateLimiter.acquire(OPERATION, null)).isEqualTo(0);
+    }
+
+    @Test
+    public void testNegativeTickerStart() {
+        // System.nanoTime may start anywhere, including far below zero
+        nanos.set(-100 * SECOND_NANOS);
+
+        assertThat(rateLimiter.acquire(OPERATION, REGION)).isEqualTo(0);
+        assertThat(rateLimiter.acquire(OPERATION, REGION)).isEqualTo(SECOND_NANOS / 10);
+        assertThat(nanos.get()).isEqualTo(-100 * SECOND_NANOS + SECOND_NANOS / 10);
+    }
+
+    @Test
+    public void testTickerOverflow() {
+        nanos.set(Long.MAX_VALUE - SECOND_NANOS / 20);
+        rateLimiter.acquire(OPERATION, REGION);
+
+        // The next slot is past the point where the ticker wraps around
+        assertThat(rateLimiter.acquire(OPERATION, REGION)).isEqualTo(SECOND_NANOS / 10);
+    }
+
+    @Test
+    public void testWaitsWithinMaxWaitAreWaitedOut() {
+        rateLimiter = new AdaptiveRateLimiter(1, 1, AdaptiveRateLimiter.DEFAULT_MAX_WAIT, ticker, nanos::addAndGet);
+        rateLimiter.acquire(OPERATION, REGION);
+        rateLimiter.acquire(OPERATION, REGION);
+
+        assertThat(rateLimiter.acquire(OPERATION, REGION)).isEqualTo(SECOND_NANOS);
+        assertThat(nanos.get()).isEqualTo(2 * SECOND_NANOS);
+    }
+
+    @Test
+    public void testGivesUpAtMaxWaitAtMinimumRate() {
+        rateLimiter = new AdaptiveRateLimiter(10, 20, Duration.ofSeconds(5), ticker, waitNanos -> { });
+        for (int i = 0; i < 10; i++) {
+            nanos.addAndGet(SECOND_NANOS);
+            rateLimiter.onThrottle(OPERATION, REGION);
+        }
+        assertThat(rateLimiter.getPermitsPerSecond(OPERATION, REGION))
+            .isEqualTo(AdaptiveRateLimiter.MIN_PERMITS_PER_SECOND);
+
+        // Calls queued at the same moment are two seconds apart, so the fourth is over the cap
+        assertThat(rateLimiter.acquire(OPERATION, REGION)).isEqualTo(0);
+        assertThat(rateLimiter.acquire(OPERATION, REGION)).isEqualTo(2 * SECOND_NANOS);
+        assertThat(rateLimiter.acquire(OPERATION, REGION)).isEqualTo(4 * SECOND_NANOS);
+        assertThatExceptionOfType(CfnThrottlingException.class)
+            .isThrownBy(() -> rateLimiter.acquire(OPERATION, REGION));
+
+        // Nothing was reserved for the call that was turned away
+        nanos.addAndGet(2 * SECOND_NANOS);
+        assertThat(rateLimiter.acquire(OPERATION, REGION)).isEqualTo(4 * SECOND_NANOS);
+    }
+
+    @Test
+    public void testInterruptedWait() {
+        rateLimiter = new AdaptiveRateLimiter(1, 1, AdaptiveRateLimiter.DEFAULT_MAX_WAIT, ticker, waitNanos -> {
+            throw new InterruptedException();
+        });
+        rateLimiter.acquire(OPERATION, REGION);
+
+        assertThatExceptionOfType(CfnInternalFailureException.class)
+            .isThrownBy(() -> rateLimiter.acquire(OPERATION, REGION));
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    public void testAdditiveIncrease() {
+        rateLimiter.onSuccess(OPERATION, REGION);
+        assertThat(rateLimiter.getPermitsPerSecond(OPERATION, REGION)).isEqualTo(10.1);
+
+        for (int i = 0; i < 1000; i++) {
+            rateLimiter.onSuccess(OPERATION, REGION);
+        }
+        assertThat(rateLimiter.getPermitsPerSecond(OPERATION, REGION)).isEqualTo(20);
+    }
+
+    @Test
+    public void testErrorsLeaveRateUnchanged() {
+        final MockKmsApiHelper helper = new MockKmsApiHelper(new KmsApiMetrics(ticker, Clock.systemUTC()),
+            rateLimiter);
+
+        assertThatExceptionOfType(CfnNotFoundException.class)
+            .isThrownBy(() -> helper.testExceptionWrapping(NotFoundException.builder().build()));
+        assertThat(rateLimiter.getPermitsPerSecond(OPERATION, null)).isEqualTo(10);
+
+        helper.testCall(() -> "response");
+        assertThat(rateLimiter.getPermitsPerSecond(OPERATION, null)).isEqualTo(10.1);
+    }
+
+    @Test
+    public void testMultiplicativeDecrease() {
+        rateLimiter.onThrottle(OPERATION, REGION);
+        assertThat(rateLimiter.getPermitsPerSecond(OPERATION, REGION)).isEqualTo(5);
+
+        // Throttles within the same second only count once
+        rateLimiter.onThrottle(OPERATION, REGION);
+        assertThat(rateLimiter.getPermitsPerSecond(OPERATION, REGION)).isEqualTo(5);
+
+        for (int i = 0; i < 10; i++) {
+            nanos.addAndGet(SECOND_NANOS);
+            rateLimiter.onThrottle(OPERATION, REGION);
+        }
+        assertThat(rateLimiter.getPermitsPerSecond(OPERATION, REGION))
+            .isEqualTo(AdaptiveRateLimiter.MIN_PERMITS_PER_SECOND);
+    }
+
+    @Test
+    public void testInvalidInitialRate() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() ->
+            new AdaptiveRateLimiter(30, 20, AdaptiveRateLimiter.DEFAULT_MAX_WAIT, ticker, nanos::addAndGet));
+    }
+
+    @Test
+    public void testShared() {
+        assertThat(AdaptiveRateLimiter.shared()).isSameAs(AdaptiveRateLimiter.shared());
+    }
+
+    /**
+     * Calls a stand-in for KMS that throttles everything over its quota of 10 calls per second,
+     * starting out well over the quota.
+     */
+    @Test
+    public void testConvergesOnThrottlingService() {
+        final ThrottlingService service = new ThrottlingService(10);
+        final MockKmsApiHelper helper = new MockKmsApiHelper(
+            new KmsApiMetrics(ticker, Clock.systemUTC()),
+            new AdaptiveRateLimiter(25, 500, AdaptiveRateLimiter.DEFAULT_MAX_WAIT, ticker, nanos::addAndGet));
+
+        int throttled = 0;
+        for (int i = 0; i < 2000; i++) {
+            try {
+                helper.testCall(service::call);
+            } catch (final CfnThrottlingException e) {
+                throttled++;
+            }
+        }
+
+        final double seconds = (double) nanos.get() / SECOND_NANOS;
+        // Sending at the initial rate throughout would have had more than half the calls throttled
+        assertThat(throttled).isLessThan(100);
+        assertThat(service.getAccepted() / seconds).isBetween(5.0, 10.0);
+    }
+
+    private final class ThrottlingService {
+        private final int callsPerSecond;
+        private final Deque<Long> acceptedNanos = new ArrayDeque<>();
+        private int accepted;
+
+        private ThrottlingService(final int callsPerSecond) {
+            this.callsPerSecond = callsPerSecond;
+        }
+
+        private String call() {
+            while (!acceptedNanos.isEmpty() && acceptedNanos.peekFirst() <= nanos.get() - SECOND_NANOS) {
+                acceptedNanos.removeFirst();
+            }
+
+            if (acceptedNanos.size() >= callsPerSecond) {
+                throw KmsException.builder()
+                    .awsErrorDetails(AwsErrorDetails.builder()
+                        .sdkHttpResponse(SdkHttpResponse.builder()
+                            .statusCode(400)
+                            .build())
+                        .errorCode(AbstractKmsApiHelper.THROTTLING_ERROR_CODE)
+                        .build())
+                    .build();
+            }
+
+            acceptedNanos.addLast(nanos.get());
+            accepted++;
+            return "response";
+        }
+
+        private int getAccepted() {
+            return accepted;
+        }
+    }
+}
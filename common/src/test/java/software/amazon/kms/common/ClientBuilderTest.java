@@ -0,0 +1,98 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+
+@ExtendWith(MockitoExtension.class)
+public class ClientBuilderTest {
+    private static final String PRIMARY_KEY_ARN =
+        "arn:aws:kms:eu-west-1:123456789012:key/mrk-1234abcd12ab34cd56ef1234567890ab";
+
+    @Mock
+    private KmsClientPool kmsClientPool;
+
+    @Mock
+    private KmsClient kmsClient;
+
+    private ClientBuilder clientBuilder;
+
+    @BeforeEach
+    public void setup() {
+        clientBuilder = new ClientBuilder(kmsClientPool);
+    }
+
+    @Test
+    public void testGetClient() {
+        when(kmsClientPool.getDefaultClient()).thenReturn(kmsClient);
+
+        assertThat(clientBuilder.getClient()).isSameAs(kmsClient);
+    }
+
+    @Test
+    public void testGetClientForArnRegion() {
+        when(kmsClientPool.getClient(Region.EU_WEST_1)).thenReturn(kmsClient);
+
+        assertThat(clientBuilder.getClientForArnRegion(PRIMARY_KEY_ARN).get()).isSameAs(kmsClient);
+    }
+
+    @Test
+    public void testGetClientForArnRegionInvalidArn() {
+        assertThatExceptionOfType(CfnInvalidRequestException.class)
+            .isThrownBy(() -> clientBuilder.getClientForArnRegion("not-an-arn"))
+            .withCauseInstanceOf(SdkException.class)
+            .withMessageContaining("Unable to determine the region of the supplied arn");
+    }
+
+    @Test
+    public void testGetClientForRegionInvalidRegion() {
+        assertThatExceptionOfType(CfnInvalidRequestException.class)
+            .isThrownBy(() -> clientBuilder.getClientForRegion("not-a-region"))
+            .withCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testWarmClients() {
+        clientBuilder.warmClients("eu-west-1");
+
+        verify(kmsClientPool).warm(Collections.singletonList(Region.EU_WEST_1));
+    }
+
+    @Test
+    public void testDefaultClientBuilderUsesSharedPool() {
+        assertThat(new ClientBuilder().getClientForRegion("us-west-2").get())
+            .isSameAs(new ClientBuilder().getClientForRegion("us-west-2").get());
+    }
+
+    @Test
+    public void testForEndpoint() {
+        final URI endpoint = URI.create("http://localhost:4566");
+        final ClientBuilder endpointClientBuilder = ClientBuilder.forEndpoint(endpoint, "eu-west-1");
+
+        assertThat(endpointClientBuilder.getClient().serviceClientConfiguration().endpointOverride())
+            .contains(endpoint);
+        assertThat(endpointClientBuilder.getClient().serviceClientConfiguration().region())
+            .isEqualTo(Region.EU_WEST_1);
+        assertThat(endpointClientBuilder.getClientForRegion("us-west-2").get()
+            .serviceClientConfiguration().endpointOverride()).contains(endpoint);
+    }
+
+    @Test
+    public void testForEndpointInvalidRegion() {
+        assertThatExceptionOfType(CfnInvalidRequestException.class)
+            .isThrownBy(() -> ClientBuilder.forEndpoint(URI.create("http://localhost:4566"), "not-a-region"));
+    }
+}
@@ -0,0 +1,111 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ColdStartPrimingTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @BeforeEach
+    public void setup() {
+        // Tests don't run in Lambda, so priming has to be turned on
+        System.setProperty(ColdStartPriming.ENABLED_PROPERTY, "true");
+    }
+
+    @AfterEach
+    public void teardown() {
+        System.clearProperty(ColdStartPriming.ENABLED_PROPERTY);
+    }
+
+    @Test
+    public void testPrimesOncePerType() {
+        final AtomicInteger runs = new AtomicInteger();
+
+        assertThat(ColdStartPriming.prime("Mock::Primed::Once", runs::incrementAndGet)).isTrue();
+        assertThat(ColdStartPriming.prime("Mock::Primed::Once", runs::incrementAndGet)).isFalse();
+        assertThat(ColdStartPriming.prime("Mock::Primed::Other", runs::incrementAndGet)).isTrue();
+
+        assertThat(ColdStartPriming.awaitPriming("Mock::Primed::Once", TIMEOUT)).isPresent();
+        assertThat(ColdStartPriming.awaitPriming("Mock::Primed::Other", TIMEOUT)).isPresent();
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(ColdStartPriming.getPrimingTime("Mock::Primed::Once")).isPresent();
+    }
+
+    @Test
+    public void testFailedPrimingIsNotRetried() {
+        final AtomicInteger runs = new AtomicInteger();
+        final Runnable failingPrimer = () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException();
+        };
+
+        assertThat(ColdStartPriming.prime("Mock::Primed::Failing", failingPrimer)).isTrue();
+        assertThat(ColdStartPriming.awaitPriming("Mock::Primed::Failing", TIMEOUT)).isPresent();
+        assertThat(ColdStartPriming.prime("Mock::Primed::Failing", failingPrimer)).isFalse();
+
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPrimerErrorsAreContained() {
+        final Runnable failingPrimer = () -> {
+            throw new NoClassDefFoundError("software/amazon/kms/Missing");
+        };
+
+        assertThatCode(() -> ColdStartPriming.prime("Mock::Primed::Error", failingPrimer))
+            .doesNotThrowAnyException();
+        assertThat(ColdStartPriming.awaitPriming("Mock::Primed::Error", TIMEOUT)).isPresent();
+    }
+
+    @Test
+    public void testStuckPrimerIsNotWaitedOn() {
+        final CountDownLatch release = new CountDownLatch(1);
+        final Runnable stuckPrimer = () -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        try {
+            final long start = System.nanoTime();
+            assertThat(ColdStartPriming.prime("Mock::Primed::Stuck", stuckPrimer)).isTrue();
+            // Handlers prime while their class loads, so starting the primer must not wait on it
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(TIMEOUT);
+            assertThat(ColdStartPriming.getPrimingTime("Mock::Primed::Stuck")).isEmpty();
+            assertThat(ColdStartPriming.awaitPriming("Mock::Primed::Stuck", Duration.ofMillis(50))).isEmpty();
+        } finally {
+            release.countDown();
+        }
+        assertThat(ColdStartPriming.awaitPriming("Mock::Primed::Stuck", TIMEOUT)).isPresent();
+    }
+
+    @Test
+    public void testPrimingDisabled() {
+        final AtomicInteger runs = new AtomicInteger();
+        System.setProperty(ColdStartPriming.ENABLED_PROPERTY, "false");
+
+        assertThat(ColdStartPriming.prime("Mock::Primed::Disabled", runs::incrementAndGet)).isFalse();
+        assertThat(runs.get()).isZero();
+        assertThat(ColdStartPriming.awaitPriming("Mock::Primed::Disabled", TIMEOUT)).isEmpty();
+    }
+
+    @Test
+    public void testNotPrimedOutsideLambda() {
+        assumeTrue(System.getenv("AWS_LAMBDA_FUNCTION_NAME") == null);
+        final AtomicInteger runs = new AtomicInteger();
+        System.clearProperty(ColdStartPriming.ENABLED_PROPERTY);
+
+        assertThat(ColdStartPriming.prime("Mock::Primed::Outside", runs::incrementAndGet)).isFalse();
+        assertThat(runs.get()).isZero();
+    }
+}
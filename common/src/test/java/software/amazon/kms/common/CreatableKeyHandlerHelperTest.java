@@ -83,6 +83,9 @@ public class CreatableKeyHandlerHelperTest {
                 .isEqualTo(ProgressEvent.progress(MOCK_MODEL, keyCallbackContext));
 
         verify(keyTranslator).setReadOnlyKeyMetadata(eq(MOCK_MODEL), eq(KEY_METADATA));
+        // The new key's policy and tags decide who may use it
+        assertThat(keyCallbackContext.getMutations()).containsExactlyInAnyOrder(KeyMutation.KEY_POLICY,
+            KeyMutation.TAGS);
     }
 
     @Test
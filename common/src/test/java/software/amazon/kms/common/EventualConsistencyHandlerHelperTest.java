@@ -1,22 +1,42 @@
 package software.amazon.kms.common;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
-
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Ticker;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 
 public class EventualConsistencyHandlerHelperTest {
     private static final Object MOCK_MODEL = new Object();
+    private static final String RESOURCE_TYPE = "AWS::KMS::Key";
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> lines = new ArrayList<>();
+    private KmsApiMetrics metrics;
     private EventualConsistencyHandlerHelper<Object, EventualConsistencyCallbackContext>
         eventualConsistencyHandlerHelper;
     private EventualConsistencyCallbackContext eventualConsistencyCallbackContext;
 
     @BeforeEach
     public void setup() {
-        eventualConsistencyHandlerHelper = new EventualConsistencyHandlerHelper<>();
+        metrics = new KmsApiMetrics(Ticker.systemTicker(), Clock.systemUTC());
+        eventualConsistencyHandlerHelper = new EventualConsistencyHandlerHelper<>(
+            EventualConsistencyHandlerHelper.PROBE_INITIAL_DELAY_SECONDS,
+            EventualConsistencyHandlerHelper.PROBE_MAX_DELAY_SECONDS,
+            EventualConsistencyHandlerHelper.REQUIRED_CONSISTENT_PROBES, metrics);
         eventualConsistencyCallbackContext = new EventualConsistencyCallbackContext();
     }
 
@@ -38,4 +58,239 @@ public class EventualConsistencyHandlerHelperTest {
             .isEqualTo(ProgressEvent.progress(MOCK_MODEL, eventualConsistencyCallbackContext));
         assertThat(eventualConsistencyCallbackContext.isPropagationComplete()).isTrue();
     }
+
+    @Test
+    public void testWaitForChangesToPropagateScalesWithMutations() {
+        final KeyCallbackContext keyCallbackContext = new KeyCallbackContext();
+        keyCallbackContext.recordMutation(KeyMutation.DESCRIPTION);
+
+        assertThat(eventualConsistencyHandlerHelper.waitForChangesToPropagate(
+            ProgressEvent.progress(MOCK_MODEL, keyCallbackContext))).isEqualTo(
+            ProgressEvent.defaultInProgressHandler(keyCallbackContext,
+                KeyMutation.DESCRIPTION.getPropagationDelaySeconds(), MOCK_MODEL));
+    }
+
+    @Test
+    public void testPropagationDelayIsSlowestMutation() {
+        final KeyCallbackContext keyCallbackContext = new KeyCallbackContext();
+        keyCallbackContext.recordMutation(KeyMutation.DESCRIPTION);
+        keyCallbackContext.recordMutation(KeyMutation.KEY_POLICY);
+
+        assertThat(keyCallbackContext.propagationDelaySeconds())
+            .isEqualTo(EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS);
+    }
+
+    @Test
+    public void testPropagationDelayWithoutMutations() {
+        final KeyCallbackContext keyCallbackContext = new KeyCallbackContext();
+
+        assertThat(keyCallbackContext.propagationDelaySeconds())
+            .isEqualTo(EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS);
+
+        // Creates and deletes keep their own delay, whatever they changed along the way
+        keyCallbackContext.setUpdateRequest(false);
+        keyCallbackContext.recordMutation(KeyMutation.KEY_POLICY);
+        assertThat(keyCallbackContext.propagationDelaySeconds())
+            .isEqualTo(EventualConsistencyHandlerHelper.CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS);
+    }
+
+    @Test
+    public void testProbedWaitCeilingScalesWithMutations() {
+        final KeyCallbackContext keyCallbackContext = new KeyCallbackContext();
+        keyCallbackContext.recordMutation(KeyMutation.KEY_ROTATION);
+        keyCallbackContext.setPropagationWaitSeconds(
+            KeyMutation.KEY_ROTATION.getPropagationDelaySeconds());
+
+        final ProgressEvent<Object, EventualConsistencyCallbackContext> progressEvent =
+            ProgressEvent.progress(MOCK_MODEL, keyCallbackContext);
+        assertThat(eventualConsistencyHandlerHelper.waitForChangesToPropagate(progressEvent,
+            (model, context) -> false)).isSameAs(progressEvent);
+        assertThat(keyCallbackContext.isPropagationComplete()).isTrue();
+    }
+
+    @Test
+    public void testProbedWaitWaitsBeforeProbing() {
+        final AtomicInteger probes = new AtomicInteger();
+
+        assertThat(eventualConsistencyHandlerHelper.waitForChangesToPropagate(
+            ProgressEvent.progress(MOCK_MODEL, eventualConsistencyCallbackContext),
+            (model, context) -> probes.incrementAndGet() > 0)).isEqualTo(
+            ProgressEvent.defaultInProgressHandler(eventualConsistencyCallbackContext,
+                EventualConsistencyHandlerHelper.PROBE_INITIAL_DELAY_SECONDS, MOCK_MODEL));
+        assertThat(probes.get()).isEqualTo(0);
+        assertThat(eventualConsistencyCallbackContext.isPropagationComplete()).isFalse();
+    }
+
+    @Test
+    public void testProbedWaitConsistent() throws IOException {
+        // Two consistent probes in a row, 3 seconds apart
+        assertThat(waitUntilPropagated(Arrays.asList(true, true)))
+            .containsExactly(3, 3);
+        assertThat(eventualConsistencyCallbackContext.isPropagationComplete()).isTrue();
+        assertThat(eventualConsistencyCallbackContext.getPropagationWaitSeconds()).isEqualTo(6);
+
+        final JsonNode emf = flushedPropagation(
+            EventualConsistencyHandlerHelper.UPDATE_PROPAGATION_OPERATION);
+        assertThat(emf.get(KmsApiMetrics.PROPAGATION_TIME).get("Max").asDouble()).isEqualTo(6_000);
+        assertThat(emf.get(KmsApiMetrics.PROPAGATION_TIME).get("Count").asLong()).isEqualTo(1);
+        assertThat(emf.get(KmsApiMetrics.PROPAGATION_UNCONFIRMED).asLong()).isEqualTo(0);
+    }
+
+    @Test
+    public void testProbedWaitInconsistentProbeResets() {
+        assertThat(waitUntilPropagated(Arrays.asList(true, false, true, true)))
+            .containsExactly(3, 3, 3, 3);
+        assertThat(eventualConsistencyCallbackContext.getPropagationWaitSeconds()).isEqualTo(12);
+    }
+
+    @Test
+    public void testProbedWaitFallsBackToCeiling() throws IOException {
+        assertThat(waitUntilPropagated(Collections.nCopies(30, false)))
+            .isEqualTo(Collections.nCopies(20, 3));
+        assertThat(eventualConsistencyCallbackContext.getPropagationWaitSeconds())
+            .isEqualTo(EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS);
+
+        final JsonNode emf = flushedPropagation(
+            EventualConsistencyHandlerHelper.UPDATE_PROPAGATION_OPERATION);
+        assertThat(emf.get(KmsApiMetrics.PROPAGATION_TIME).get("Max").asDouble())
+            .isEqualTo(EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS * 1_000);
+        assertThat(emf.get(KmsApiMetrics.PROPAGATION_UNCONFIRMED).asLong()).isEqualTo(1);
+    }
+
+    @Test
+    public void testProbedWaitCreate() throws IOException {
+        eventualConsistencyCallbackContext.setUpdateRequest(false);
+
+        // A create no longer waits out the whole 15 seconds once the key reads back consistently
+        assertThat(waitUntilPropagated(Arrays.asList(true, true)))
+            .containsExactly(3, 3);
+
+        final JsonNode emf = flushedPropagation(
+            EventualConsistencyHandlerHelper.CREATE_PROPAGATION_OPERATION);
+        assertThat(emf.get(KmsApiMetrics.PROPAGATION_TIME).get("Max").asDouble()).isEqualTo(6_000);
+    }
+
+    @Test
+    public void testProbedWaitBacksOffToCreateCeiling() {
+        eventualConsistencyHandlerHelper = new EventualConsistencyHandlerHelper<>(2, 10, 3, metrics);
+        eventualConsistencyCallbackContext.setUpdateRequest(false);
+
+        // The last delay is cut short so we never wait past the fixed delay
+        assertThat(waitUntilPropagated(Arrays.asList(false, false, false, false)))
+            .containsExactly(2, 4, 8, 1);
+        assertThat(eventualConsistencyCallbackContext.getPropagationWaitSeconds()).isEqualTo(
+            EventualConsistencyHandlerHelper.CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS);
+    }
+
+    @Test
+    public void testPropagationFloorOnlyForAuthorizationChanges() {
+        final KeyCallbackContext keyCallbackContext = new KeyCallbackContext();
+        keyCallbackContext.recordMutation(KeyMutation.DESCRIPTION);
+        keyCallbackContext.recordMutation(KeyMutation.KEY_ROTATION);
+        assertThat(keyCallbackContext.propagationFloorSeconds()).isEqualTo(0);
+
+        keyCallbackContext.recordMutation(KeyMutation.TAGS);
+        assertThat(keyCallbackContext.propagationFloorSeconds())
+            .isEqualTo(EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS);
+
+        // A new key comes with a policy, so creates never wait less than the create delay
+        final KeyCallbackContext createCallbackContext = new KeyCallbackContext();
+        createCallbackContext.setUpdateRequest(false);
+        assertThat(createCallbackContext.propagationFloorSeconds())
+            .isEqualTo(EventualConsistencyHandlerHelper.CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS);
+    }
+
+    @Test
+    public void testProbedWaitKeepsCreateDelayForKeys() {
+        final KeyCallbackContext keyCallbackContext = new KeyCallbackContext();
+        keyCallbackContext.setUpdateRequest(false);
+        keyCallbackContext.recordMutation(KeyMutation.KEY_POLICY);
+        eventualConsistencyCallbackContext = keyCallbackContext;
+
+        assertThat(waitUntilPropagated(Collections.emptyList()))
+            .containsExactly(EventualConsistencyHandlerHelper.CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS);
+        assertThat(keyCallbackContext.isPropagationComplete()).isTrue();
+    }
+
+    @Test
+    public void testProbedWaitKeepsFloorForAuthorizationChanges() {
+        final KeyCallbackContext keyCallbackContext = new KeyCallbackContext();
+        keyCallbackContext.recordMutation(KeyMutation.DESCRIPTION);
+        keyCallbackContext.recordMutation(KeyMutation.KEY_POLICY);
+        eventualConsistencyCallbackContext = keyCallbackContext;
+
+        // The policy change can't be probed, so we wait the full delay without probing
+        assertThat(waitUntilPropagated(Collections.emptyList()))
+            .containsExactly(EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS);
+        assertThat(keyCallbackContext.isPropagationComplete()).isTrue();
+
+        // Nothing was measured, so nothing is recorded
+        metrics.flush(RESOURCE_TYPE, lines::add);
+        assertThat(lines).isEmpty();
+    }
+
+    @Test
+    public void testProbedWaitProbesOtherChanges() {
+        final KeyCallbackContext keyCallbackContext = new KeyCallbackContext();
+        keyCallbackContext.recordMutation(KeyMutation.DESCRIPTION);
+        eventualConsistencyCallbackContext = keyCallbackContext;
+
+        assertThat(waitUntilPropagated(Arrays.asList(true, true)))
+            .containsExactly(3, 3);
+        assertThat(keyCallbackContext.isPropagationComplete()).isTrue();
+    }
+
+    @Test
+    public void testProbedWaitAlreadyPropagated() {
+        eventualConsistencyCallbackContext.setPropagationComplete(true);
+
+        assertThat(eventualConsistencyHandlerHelper.waitForChangesToPropagate(
+            ProgressEvent.progress(MOCK_MODEL, eventualConsistencyCallbackContext),
+            (model, context) -> true))
+            .isEqualTo(ProgressEvent.progress(MOCK_MODEL, eventualConsistencyCallbackContext));
+        metrics.flush(RESOURCE_TYPE, lines::add);
+        assertThat(lines).isEmpty();
+    }
+
+    @Test
+    public void testInvalidProbeConfiguration() {
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> new EventualConsistencyHandlerHelper<>(0, 10, 3, metrics));
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> new EventualConsistencyHandlerHelper<>(5, 4, 3, metrics));
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> new EventualConsistencyHandlerHelper<>(2, 10, 0, metrics));
+    }
+
+    private JsonNode flushedPropagation(final String operation) throws IOException {
+        metrics.flush(RESOURCE_TYPE, lines::add);
+        assertThat(lines).hasSize(1);
+
+        final JsonNode emf = objectMapper.readTree(lines.get(0));
+        assertThat(emf.get(KmsApiMetrics.OPERATION_DIMENSION).asText()).isEqualTo(operation);
+        return emf;
+    }
+
+    /**
+     * Re-invokes the probed wait, like CloudFormation would, until propagation completes.
+     *
+     * @return the callback delays that were requested along the way
+     */
+    private List<Integer> waitUntilPropagated(final List<Boolean> probeResults) {
+        final Iterator<Boolean> probes = probeResults.iterator();
+        final List<Integer> delays = new ArrayList<>();
+
+        ProgressEvent<Object, EventualConsistencyCallbackContext> progressEvent;
+        do {
+            progressEvent = eventualConsistencyHandlerHelper.waitForChangesToPropagate(
+                ProgressEvent.progress(MOCK_MODEL, eventualConsistencyCallbackContext),
+                (model, context) -> probes.next());
+            if (progressEvent.getCallbackDelaySeconds() > 0) {
+                delays.add(progressEvent.getCallbackDelaySeconds());
+            }
+        } while (progressEvent.getStatus() == OperationStatus.IN_PROGRESS
+            && progressEvent.getCallbackDelaySeconds() > 0);
+
+        return delays;
+    }
 }
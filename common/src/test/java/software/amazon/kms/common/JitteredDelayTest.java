@@ -0,0 +1,61 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import software.amazon.cloudformation.proxy.Delay;
+import software.amazon.cloudformation.proxy.delay.Constant;
+
+public class JitteredDelayTest {
+    private static final Delay DELAY = Constant.of()
+        .delay(Duration.ofSeconds(4))
+        .timeout(Duration.ofSeconds(10))
+        .build();
+
+    @Test
+    public void testDelayIsBetweenHalfAndAll() {
+        assertThat(new JitteredDelay(DELAY, () -> 0).nextDelay(1)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(new JitteredDelay(DELAY, () -> 0.5).nextDelay(1)).isEqualTo(Duration.ofSeconds(3));
+        assertThat(new JitteredDelay(DELAY, () -> 1).nextDelay(1)).isEqualTo(Duration.ofSeconds(4));
+
+        final JitteredDelay jitteredDelay = new JitteredDelay(DELAY);
+        for (int attempt = 1; attempt <= 2; attempt++) {
+            assertThat(jitteredDelay.nextDelay(attempt))
+                .isBetween(Duration.ofSeconds(2), Duration.ofSeconds(4));
+        }
+    }
+
+    @Test
+    public void testKeepsTimeout() {
+        final Delay timedOut = attempt -> Duration.ZERO;
+        assertThat(new JitteredDelay(timedOut, () -> 0.5).nextDelay(1)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    public void testWaitsAsLongAsWrappedDelay() {
+        // Five delays of four seconds, so a twenty second wait
+        final Delay fiveAttempts = attempt -> attempt < 5 ? Duration.ofSeconds(4) : Duration.ZERO;
+
+        assertThat(wait(new JitteredDelay(fiveAttempts, () -> 0), 0)).containsOnly(Duration.ofSeconds(2))
+            .hasSize(10);
+        assertThat(wait(new JitteredDelay(fiveAttempts, () -> 1), 0)).containsOnly(Duration.ofSeconds(4))
+            .hasSize(5);
+        // A resumed wait only has the time of the wrapped delay's attempts that are left
+        assertThat(wait(new JitteredDelay(fiveAttempts, () -> 0), 3)).containsOnly(Duration.ofSeconds(2))
+            .hasSize(4);
+    }
+
+    private static List<Duration> wait(final Delay delay, final int firstAttempt) {
+        final List<Duration> delays = new ArrayList<>();
+        for (int attempt = firstAttempt; ; attempt++) {
+            final Duration next = delay.nextDelay(attempt);
+            if (next.isZero()) {
+                return delays;
+            }
+            delays.add(next);
+        }
+    }
+}
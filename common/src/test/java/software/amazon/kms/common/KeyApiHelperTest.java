@@ -3,15 +3,29 @@ package software.amazon.kms.common;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 
 
+import com.google.common.base.Ticker;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
 import software.amazon.awssdk.services.kms.KmsClient;
 import software.amazon.awssdk.services.kms.model.CreateKeyRequest;
 import software.amazon.awssdk.services.kms.model.CreateKeyResponse;
@@ -283,4 +297,48 @@ public class KeyApiHelperTest {
         assertThat(keyApiHelper.updateKeyDescription(updateKeyDescriptionRequest, proxyKmsClient))
             .isEqualTo(updateKeyDescriptionResponse);
     }
+
+    @Test
+    public void testConcurrentCallsShareProxyClient() throws Exception {
+        // A real proxy, so that every call goes through its credential injection
+        final ProxyClient<KmsClient> proxyClient = new AmazonWebServicesClientProxy(TestConstants.LOGGER,
+            TestConstants.MOCK_CREDENTIALS, () -> Duration.ofMinutes(10).toMillis()).newProxy(() -> kms);
+        final KeyApiHelper concurrentKeyApiHelper = new KeyApiHelper(
+            new KmsApiMetrics(Ticker.systemTicker(), Clock.systemUTC()),
+            new AdaptiveRateLimiter(500, 500, AdaptiveRateLimiter.DEFAULT_MAX_WAIT, Ticker.systemTicker(),
+                TimeUnit.NANOSECONDS::sleep));
+        final int threads = 8;
+        // Every call waits until all of them are in flight, so they really overlap
+        final CountDownLatch inFlight = new CountDownLatch(threads);
+        final Set<String> keyIdsWithCredentials = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            final GetKeyPolicyRequest request = invocation.getArgument(0);
+            if (request.overrideConfiguration()
+                .flatMap(AwsRequestOverrideConfiguration::credentialsProvider).isPresent()) {
+                keyIdsWithCredentials.add(request.keyId());
+            }
+            inFlight.countDown();
+            inFlight.await(5, TimeUnit.SECONDS);
+            return GetKeyPolicyResponse.builder().policy(request.keyId()).build();
+        }).when(kms).getKeyPolicy(any(GetKeyPolicyRequest.class));
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<String>> policies = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final GetKeyPolicyRequest request = GetKeyPolicyRequest.builder().keyId("key-" + i).build();
+                policies.add(executorService.submit(
+                    () -> concurrentKeyApiHelper.getKeyPolicy(request, proxyClient).policy()));
+            }
+
+            // Each call gets its own response, and its own copy of the request with the credentials
+            for (int i = 0; i < threads; i++) {
+                assertThat(policies.get(i).get(10, TimeUnit.SECONDS)).isEqualTo("key-" + i);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertThat(inFlight.getCount()).isZero();
+        assertThat(keyIdsWithCredentials).hasSize(threads);
+    }
 }
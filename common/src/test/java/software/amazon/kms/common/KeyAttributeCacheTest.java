@@ -0,0 +1,122 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Ticker;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.KeySpec;
+import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.awssdk.services.kms.model.KeyUsageType;
+import software.amazon.awssdk.services.kms.model.MultiRegionConfiguration;
+import software.amazon.awssdk.services.kms.model.MultiRegionKeyType;
+import software.amazon.awssdk.services.kms.model.OriginType;
+
+public class KeyAttributeCacheTest {
+    private static final String KEY_ARN = "arn:aws:kms:us-east-1:123456789012:key/mock-key-id";
+    private static final Duration MULTI_REGION_TTL = Duration.ofMinutes(15);
+    private static final KeyMetadata SINGLE_REGION_KEY = KeyMetadata.builder()
+        .keyId("mock-key-id")
+        .arn(KEY_ARN)
+        .multiRegion(false)
+        .keySpec(KeySpec.RSA_2048)
+        .keyUsage(KeyUsageType.SIGN_VERIFY)
+        .origin(OriginType.AWS_KMS)
+        .creationDate(Instant.parse("2021-06-16T00:00:00Z"))
+        .keyState(KeyState.ENABLED)
+        .build();
+    private static final KeyMetadata REPLICA_KEY = SINGLE_REGION_KEY.toBuilder()
+        .multiRegion(true)
+        .multiRegionConfiguration(MultiRegionConfiguration.builder()
+            .multiRegionKeyType(MultiRegionKeyType.REPLICA)
+            .build())
+        .build();
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<String> lines = new ArrayList<>();
+    private KmsApiMetrics metrics;
+    private KeyAttributeCache keyAttributeCache;
+
+    @BeforeEach
+    public void setup() {
+        metrics = new KmsApiMetrics(Ticker.systemTicker(), Clock.systemUTC());
+        keyAttributeCache = new KeyAttributeCache(10, MULTI_REGION_TTL, new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        }, metrics);
+    }
+
+    @Test
+    public void testOnlyCreationAttributesAreCached() {
+        keyAttributeCache.put(KEY_ARN, REPLICA_KEY);
+
+        final KeyMetadata cached = keyAttributeCache.get(KEY_ARN).get().toKeyMetadata();
+        assertThat(cached.multiRegion()).isTrue();
+        assertThat(cached.multiRegionConfiguration().multiRegionKeyType()).isEqualTo(MultiRegionKeyType.REPLICA);
+        assertThat(cached.keySpec()).isEqualTo(KeySpec.RSA_2048);
+        assertThat(cached.keyUsage()).isEqualTo(KeyUsageType.SIGN_VERIFY);
+        assertThat(cached.origin()).isEqualTo(OriginType.AWS_KMS);
+        assertThat(cached.creationDate()).isEqualTo(REPLICA_KEY.creationDate());
+        assertThat(cached.keyState()).isNull();
+        assertThat(cached.keyId()).isNull();
+    }
+
+    @Test
+    public void testSingleRegionKeysDoNotExpire() {
+        keyAttributeCache.put(KEY_ARN, SINGLE_REGION_KEY);
+        nanos.addAndGet(Duration.ofDays(365).toNanos());
+
+        assertThat(keyAttributeCache.get(KEY_ARN).get().toKeyMetadata().multiRegionConfiguration()).isNull();
+    }
+
+    @Test
+    public void testMultiRegionKeysExpire() {
+        keyAttributeCache.put(KEY_ARN, REPLICA_KEY);
+        nanos.addAndGet(MULTI_REGION_TTL.toNanos());
+        assertThat(keyAttributeCache.get(KEY_ARN)).isPresent();
+
+        nanos.incrementAndGet();
+        assertThat(keyAttributeCache.get(KEY_ARN)).isEmpty();
+    }
+
+    @Test
+    public void testLookupsAreCounted() throws IOException {
+        keyAttributeCache.get(KEY_ARN);
+        keyAttributeCache.get(null);
+        keyAttributeCache.put(KEY_ARN, SINGLE_REGION_KEY);
+        keyAttributeCache.get(KEY_ARN);
+        keyAttributeCache.get(KEY_ARN);
+        metrics.flush("AWS::KMS::Key", lines::add);
+
+        final JsonNode emf = new ObjectMapper().readTree(lines.get(0));
+        assertThat(emf.get(KmsApiMetrics.OPERATION_DIMENSION).asText()).isEqualTo("DescribeKey");
+        assertThat(emf.get(KmsApiMetrics.CACHE_HITS).asLong()).isEqualTo(2);
+        assertThat(emf.get(KmsApiMetrics.CACHE_MISSES).asLong()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDisabled() {
+        KmsApiMetrics.shared().flush("AWS::KMS::Key", line -> { });
+        final KeyAttributeCache disabled = KeyAttributeCache.disabled();
+        disabled.put(KEY_ARN, SINGLE_REGION_KEY);
+        disabled.put(null, SINGLE_REGION_KEY);
+
+        assertThat(disabled.get(KEY_ARN)).isEmpty();
+        // A disabled cache has no lookups worth counting
+        KmsApiMetrics.shared().flush("AWS::KMS::Key", lines::add);
+        assertThat(lines).isEmpty();
+        assertThat(KeyAttributeCache.shared()).isSameAs(KeyAttributeCache.shared());
+    }
+}
@@ -5,16 +5,24 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
+import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,6 +46,8 @@ import software.amazon.awssdk.services.kms.model.KeyMetadata;
 import software.amazon.awssdk.services.kms.model.KeyState;
 import software.amazon.awssdk.services.kms.model.KeyUsageType;
 import software.amazon.awssdk.services.kms.model.KmsInvalidStateException;
+import software.amazon.awssdk.services.kms.model.MultiRegionConfiguration;
+import software.amazon.awssdk.services.kms.model.MultiRegionKeyType;
 import software.amazon.awssdk.services.kms.model.ListKeysRequest;
 import software.amazon.awssdk.services.kms.model.ListKeysResponse;
 import software.amazon.awssdk.services.kms.model.ListResourceTagsRequest;
@@ -52,9 +62,11 @@ import software.amazon.awssdk.services.kms.model.UpdateKeyDescriptionRequest;
 import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Delay;
 import software.amazon.cloudformation.proxy.delay.CappedExponential;
+import software.amazon.cloudformation.proxy.delay.Constant;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -190,6 +202,7 @@ public class KeyHandlerHelperTest {
             .updateKeyDescription(proxy, proxyKmsClient, MOCK_MODEL, MOCK_MODEL,
                 keyCallbackContext))
             .isEqualTo(ProgressEvent.progress(MOCK_MODEL, keyCallbackContext));
+        assertThat(keyCallbackContext.getMutations()).containsExactly(KeyMutation.DESCRIPTION);
 
         verify(keyApiHelper)
             .updateKeyDescription(any(UpdateKeyDescriptionRequest.class), eq(proxyKmsClient));
@@ -201,6 +214,7 @@ public class KeyHandlerHelperTest {
             .updateKeyDescription(proxy, proxyKmsClient, MOCK_MODEL, MOCK_MODEL,
                 keyCallbackContext))
             .isEqualTo(ProgressEvent.progress(MOCK_MODEL, keyCallbackContext));
+        assertThat(keyCallbackContext.getMutations()).isEmpty();
 
         verify(keyApiHelper, never())
             .updateKeyDescription(any(UpdateKeyDescriptionRequest.class), eq(proxyKmsClient));
@@ -216,8 +230,11 @@ public class KeyHandlerHelperTest {
             .updateKeyPolicy(proxy, proxyKmsClient, MOCK_MODEL, MOCK_MODEL, keyCallbackContext))
             .isEqualTo(ProgressEvent.defaultInProgressHandler(keyCallbackContext,
                 EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS, MOCK_MODEL));
+        assertThat(keyCallbackContext.getMutations()).containsExactly(KeyMutation.KEY_POLICY);
 
         verify(keyApiHelper).putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient));
+        // Only the put serializes the policy
+        verify(keyTranslator).translatePolicyInput(any());
     }
 
     @Test
@@ -226,25 +243,46 @@ public class KeyHandlerHelperTest {
             .updateKeyPolicy(proxy, proxyKmsClient, MOCK_MODEL, MOCK_MODEL, keyCallbackContext))
             .isEqualTo(ProgressEvent.progress(MOCK_MODEL, keyCallbackContext));
         assertThat(keyCallbackContext.isKeyPolicyUpdated()).isFalse();
+        assertThat(keyCallbackContext.getMutations()).isEmpty();
 
         verify(keyApiHelper, never())
             .putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient));
     }
 
+    @Test
+    public void testUpdateKeyPolicyFormattingOnly() {
+        when(keyTranslator.getKeyPolicy(MOCK_MODEL)).thenReturn(TestConstants.KEY_POLICY)
+            .thenReturn(new ImmutableMap.Builder<String, Object>()
+                .put("Resource", "*")
+                .put("Action", Collections.singletonList("kms:*"))
+                .put("Principal", "*")
+                .put("Effect", "Allow")
+                .put("Sid", "Enable IAM User Permissions")
+                .build());
+
+        assertThat(keyHandlerHelper
+            .updateKeyPolicy(proxy, proxyKmsClient, MOCK_MODEL, MOCK_MODEL, keyCallbackContext))
+            .isEqualTo(ProgressEvent.progress(MOCK_MODEL, keyCallbackContext));
+        assertThat(keyCallbackContext.isKeyPolicyUpdated()).isFalse();
+
+        verify(keyApiHelper, never())
+            .putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyTranslator, never()).translatePolicyInput(any());
+    }
+
     @Test
     public void testUpdateKeyPolicyAlreadyUpdated() {
         keyCallbackContext.setKeyPolicyUpdated(true);
-        when(keyTranslator.getKeyPolicy(MOCK_MODEL)).thenReturn(TestConstants.KEY_POLICY)
-            .thenReturn(
-                UPDATED_KEY_POLICY);
 
         assertThat(keyHandlerHelper
             .updateKeyPolicy(proxy, proxyKmsClient, MOCK_MODEL, MOCK_MODEL, keyCallbackContext))
             .isEqualTo(ProgressEvent.progress(MOCK_MODEL, keyCallbackContext));
         assertThat(keyCallbackContext.isKeyPolicyUpdated()).isTrue();
 
+        // Re-entries after the put don't look at the policies at all
         verify(keyApiHelper, never())
             .putKeyPolicy(any(PutKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyTranslator, never()).getKeyPolicy(any());
     }
 
     @Test
@@ -256,6 +294,7 @@ public class KeyHandlerHelperTest {
                 true)).isEqualTo(ProgressEvent.defaultInProgressHandler(keyCallbackContext,
             EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS, MOCK_MODEL));
         assertThat(keyCallbackContext.isKeyEnabled()).isTrue();
+        assertThat(keyCallbackContext.getMutations()).containsExactly(KeyMutation.ENABLED_STATE);
 
         verify(keyApiHelper).enableKey(any(EnableKeyRequest.class), eq(proxyKmsClient));
     }
@@ -303,6 +342,7 @@ public class KeyHandlerHelperTest {
             .disableKeyIfNecessary(proxy, proxyKmsClient, null, MOCK_MODEL,
                 keyCallbackContext))
             .isEqualTo(ProgressEvent.progress(MOCK_MODEL, keyCallbackContext));
+        assertThat(keyCallbackContext.getMutations()).containsExactly(KeyMutation.ENABLED_STATE);
 
         verify(keyApiHelper).disableKey(any(DisableKeyRequest.class), eq(proxyKmsClient));
     }
@@ -321,7 +361,7 @@ public class KeyHandlerHelperTest {
     public void testDisableKeyRetry() {
         keyHandlerHelper =
                 new KeyHandlerHelper<>(TestConstants.MOCK_TYPE_NAME, keyApiHelper,
-                        eventualConsistencyHandlerHelper, keyTranslator, null);
+                        eventualConsistencyHandlerHelper, keyTranslator, (Delay) null);
         when(keyApiHelper.disableKey(any(DisableKeyRequest.class), eq(proxyKmsClient)))
                 .thenThrow(CfnNotFoundException.class).thenReturn(DisableKeyResponse.builder().build());
         when(keyTranslator.getKeyEnabled(eq(MOCK_MODEL))).thenReturn(false);
@@ -498,6 +538,57 @@ public class KeyHandlerHelperTest {
             .waitForChangesToPropagate(eq(expectedProgressEvent));
     }
 
+    @ParameterizedTest
+    @EnumSource(value = KeyState.class, names = {"PENDING_DELETION", "PENDING_REPLICA_DELETION"})
+    public void testDeleteKeyTrustsScheduledState(final KeyState deletedKeyState) {
+        when(keyApiHelper
+            .scheduleKeyDeletion(any(ScheduleKeyDeletionRequest.class), eq(proxyKmsClient)))
+            .thenReturn(ScheduleKeyDeletionResponse.builder().keyState(deletedKeyState).build());
+        mockDeletePropagation();
+
+        assertThat(
+            keyHandlerHelper.deleteKey(proxy, proxyKmsClient, MOCK_MODEL, keyCallbackContext))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(null));
+
+        // The response already shows the key is being deleted, so it isn't described
+        verify(keyApiHelper, never()).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testDeleteKeyPollsWhileSettling() {
+        keyHandlerHelper = new KeyHandlerHelper<>(TestConstants.MOCK_TYPE_NAME, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyTranslator, Constant.of()
+                .delay(Duration.ofMillis(1))
+                .timeout(Duration.ofSeconds(5))
+                .build());
+        when(keyApiHelper
+            .scheduleKeyDeletion(any(ScheduleKeyDeletionRequest.class), eq(proxyKmsClient)))
+            .thenReturn(ScheduleKeyDeletionResponse.builder().keyState(KeyState.UPDATING).build());
+        when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(DescribeKeyResponse.builder()
+                .keyMetadata(KeyMetadata.builder().keyState(KeyState.UPDATING).build())
+                .build())
+            .thenReturn(DescribeKeyResponse.builder()
+                .keyMetadata(KeyMetadata.builder().keyState(KeyState.PENDING_DELETION).build())
+                .build());
+        mockDeletePropagation();
+
+        assertThat(
+            keyHandlerHelper.deleteKey(proxy, proxyKmsClient, MOCK_MODEL, keyCallbackContext))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(null));
+
+        verify(keyApiHelper, times(2)).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+    }
+
+    private void mockDeletePropagation() {
+        final ProgressEvent<Object, KeyCallbackContext> expectedProgressEvent =
+            ProgressEvent.progress(MOCK_MODEL, keyCallbackContext);
+        when(eventualConsistencyHandlerHelper.setRequestType(eq(expectedProgressEvent), eq(false)))
+            .thenReturn(expectedProgressEvent);
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(expectedProgressEvent)))
+            .thenReturn(expectedProgressEvent);
+    }
+
     @Test
     public void testDeleteKeyInvalidState() {
         when(keyApiHelper
@@ -545,7 +636,8 @@ public class KeyHandlerHelperTest {
         when(keyTranslator.translateKeyListEntry(eq(listKeysResponse.keys().iterator().next())))
             .thenReturn(MOCK_MODEL);
 
-        assertThat(keyHandlerHelper.listKeysAndFilterByMetadata(proxyKmsClient, null, k -> true))
+        assertThat(listHelper(KeyHandlerHelper.DEFAULT_LIST_TARGET_MODELS, Duration.ZERO)
+            .listKeysAndFilterByMetadata(proxyKmsClient, null, k -> true))
             .isEqualTo(ProgressEvent.builder()
                 .status(OperationStatus.SUCCESS)
                 .resourceModels(Collections.singletonList(MOCK_MODEL))
@@ -570,7 +662,8 @@ public class KeyHandlerHelperTest {
         when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
             .thenReturn(describeKeyResponse);
 
-        assertThat(keyHandlerHelper.listKeysAndFilterByMetadata(proxyKmsClient, null, k -> true))
+        assertThat(listHelper(KeyHandlerHelper.DEFAULT_LIST_TARGET_MODELS, Duration.ZERO)
+            .listKeysAndFilterByMetadata(proxyKmsClient, null, k -> true))
             .isEqualTo(ProgressEvent.builder()
                 .status(OperationStatus.SUCCESS)
                 .resourceModels(Collections.emptyList())
@@ -593,7 +686,8 @@ public class KeyHandlerHelperTest {
         when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
             .thenReturn(describeKeyResponse);
 
-        assertThat(keyHandlerHelper.listKeysAndFilterByMetadata(proxyKmsClient, null, k -> false))
+        assertThat(listHelper(KeyHandlerHelper.DEFAULT_LIST_TARGET_MODELS, Duration.ZERO)
+            .listKeysAndFilterByMetadata(proxyKmsClient, null, k -> false))
             .isEqualTo(ProgressEvent.builder()
                 .status(OperationStatus.SUCCESS)
                 .resourceModels(Collections.emptyList())
@@ -601,10 +695,226 @@ public class KeyHandlerHelperTest {
                 .build());
     }
 
+    @Test
+    public void testListKeysAndFilterByMetadataReadsPagesUntilTarget() {
+        mockListKeysPage(null, "marker-1", "key-a", "key-b");
+        mockListKeysPage("marker-1", "marker-2", "key-c", "key-d", "key-e");
+        mockDescribeKeys();
+
+        // Only keys a, c and d pass the filter, the list is full after key c
+        final ProgressEvent<Object, KeyCallbackContext> firstList =
+            listHelper(2, KeyHandlerHelper.DEFAULT_LIST_TIME_BUDGET)
+                .listKeysAndFilterByMetadata(proxyKmsClient, null, ListedKeysFilter.INSTANCE);
+
+        assertThat(firstList.getResourceModels()).containsExactly("key-a", "key-c");
+        assertThat(firstList.getNextToken()).isEqualTo("key-c!marker-1");
+        // Only one more model was missing on the second page, so only key c was described
+        verify(keyApiHelper, never()).describeKey(eq(keyTranslator.describeKeyRequest("key-d")),
+            eq(proxyKmsClient));
+        verify(keyApiHelper, never()).describeKey(eq(keyTranslator.describeKeyRequest("key-e")),
+            eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testListKeysAndFilterByMetadataResumesWithinPage() {
+        mockListKeysPage("marker-1", "marker-2", "key-c", "key-d", "key-e");
+        mockListKeysPage("marker-2", null);
+        mockDescribeKeys();
+
+        final ProgressEvent<Object, KeyCallbackContext> secondList =
+            listHelper(2, KeyHandlerHelper.DEFAULT_LIST_TIME_BUDGET)
+                .listKeysAndFilterByMetadata(proxyKmsClient, "key-c!marker-1", ListedKeysFilter.INSTANCE);
+
+        assertThat(secondList.getResourceModels()).containsExactly("key-d");
+        assertThat(secondList.getNextToken()).isNull();
+        // Key c was already listed, so it is not described again
+        verify(keyApiHelper, never()).describeKey(eq(keyTranslator.describeKeyRequest("key-c")),
+            eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testListKeysAndFilterByMetadataResumesAfterKeysCreatedOnPage() {
+        // Key b was created between the two list calls, before key c on the page
+        mockListKeysPage("marker-1", null, "key-b", "key-c", "key-d", "key-e");
+        mockDescribeKeys();
+
+        final ProgressEvent<Object, KeyCallbackContext> secondList =
+            listHelper(2, KeyHandlerHelper.DEFAULT_LIST_TIME_BUDGET)
+                .listKeysAndFilterByMetadata(proxyKmsClient, "key-c!marker-1", ListedKeysFilter.INSTANCE);
+
+        // Key c isn't listed twice
+        assertThat(secondList.getResourceModels()).containsExactly("key-d");
+        assertThat(secondList.getNextToken()).isNull();
+    }
+
+    @Test
+    public void testListKeysAndFilterByMetadataStopsWhenOutOfTime() {
+        final AtomicLong nanos = new AtomicLong();
+        final Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos.getAndAdd(Duration.ofSeconds(1).toNanos());
+            }
+        };
+        mockListKeysPage(null, "marker-1", "key-b");
+        mockListKeysPage("marker-1", "marker-2", "key-e");
+        // Neither key passes the filter, so none is translated
+        mockDescribeKeyResponses();
+
+        // Every page takes a second, so the budget runs out after the second page
+        final KeyHandlerHelper<Object, KeyCallbackContext, KeyTranslator<Object>> listHelper =
+            new KeyHandlerHelper<>(TestConstants.MOCK_TYPE_NAME, keyApiHelper, eventualConsistencyHandlerHelper,
+                keyTranslator, null, new KeyMetadataFetcher(keyApiHelper), KeyAttributeCache.disabled(),
+                KeyHandlerHelper.DEFAULT_LIST_TARGET_MODELS, Duration.ofMillis(1500), ticker);
+
+        final ProgressEvent<Object, KeyCallbackContext> list =
+            listHelper.listKeysAndFilterByMetadata(proxyKmsClient, null, ListedKeysFilter.INSTANCE);
+
+        assertThat(list.getResourceModels()).isEmpty();
+        assertThat(list.getNextToken()).isEqualTo("marker-2");
+    }
+
+    @Test
+    public void testListKeysAndFilterByMetadataSkipsCachedExcludedKeys() {
+        final KmsApiMetrics metrics = mock(KmsApiMetrics.class);
+        final KeyAttributeCache keyAttributeCache =
+            new KeyAttributeCache(10, KeyAttributeCache.DEFAULT_MULTI_REGION_TTL, Ticker.systemTicker(), metrics);
+        keyAttributeCache.put("key-b", KEY_METADATA.toBuilder()
+            .multiRegion(true)
+            .multiRegionConfiguration(MultiRegionConfiguration.builder()
+                .multiRegionKeyType(MultiRegionKeyType.REPLICA)
+                .build())
+            .build());
+        mockListKeysPage(null, null, "key-a", "key-b");
+        mockDescribeKeys();
+
+        final KeyHandlerHelper<Object, KeyCallbackContext, KeyTranslator<Object>> listHelper =
+            new KeyHandlerHelper<>(TestConstants.MOCK_TYPE_NAME, keyApiHelper, eventualConsistencyHandlerHelper,
+                keyTranslator, null, new KeyMetadataFetcher(keyApiHelper), keyAttributeCache,
+                KeyHandlerHelper.DEFAULT_LIST_TARGET_MODELS, KeyHandlerHelper.DEFAULT_LIST_TIME_BUDGET,
+                Ticker.systemTicker());
+
+        // List the single-Region keys, the cache already knows key b is a replica
+        assertThat(listHelper.listKeysAndFilterByMetadata(proxyKmsClient, null,
+            keyMetadata -> !Boolean.TRUE.equals(keyMetadata.multiRegion())).getResourceModels())
+            .containsExactly("key-a");
+
+        verify(keyApiHelper).describeKey(eq(keyTranslator.describeKeyRequest("key-a")), eq(proxyKmsClient));
+        verify(keyApiHelper, never()).describeKey(eq(keyTranslator.describeKeyRequest("key-b")),
+            eq(proxyKmsClient));
+        verify(metrics).recordCount("DescribeKey", KmsApiMetrics.CACHE_HITS);
+        verify(metrics).recordCount("DescribeKey", KmsApiMetrics.CACHE_MISSES);
+        assertThat(keyAttributeCache.get("key-a")).isPresent();
+    }
+
+    private KeyHandlerHelper<Object, KeyCallbackContext, KeyTranslator<Object>> listHelper(
+        final int targetModels, final Duration timeBudget) {
+        return new KeyHandlerHelper<>(TestConstants.MOCK_TYPE_NAME, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyTranslator, null, new KeyMetadataFetcher(keyApiHelper),
+            KeyAttributeCache.disabled(), targetModels, timeBudget, Ticker.systemTicker());
+    }
+
+    private void mockListKeysPage(final String marker, final String nextMarker, final String... keyIds) {
+        final List<KeyListEntry> keys = new ArrayList<>();
+        for (final String keyId : keyIds) {
+            keys.add(KeyListEntry.builder().keyId(keyId).keyArn(keyId).build());
+        }
+        when(keyApiHelper.listKeys(eq(keyTranslator.listKeysRequest(marker)), eq(proxyKmsClient)))
+            .thenReturn(ListKeysResponse.builder().keys(keys).nextMarker(nextMarker).build());
+    }
+
+    private void mockDescribeKeys() {
+        mockDescribeKeyResponses();
+        when(keyTranslator.translateKeyListEntry(any(KeyListEntry.class)))
+            .thenAnswer(invocation -> invocation.<KeyListEntry>getArgument(0).keyId());
+    }
+
+    private void mockDescribeKeyResponses() {
+        when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenAnswer(invocation -> DescribeKeyResponse.builder()
+                .keyMetadata(KEY_METADATA.toBuilder()
+                    .keyId(invocation.<DescribeKeyRequest>getArgument(0).keyId())
+                    .build())
+                .build());
+    }
+
+    /**
+     * Lets keys a, c and d through.
+     */
+    private enum ListedKeysFilter implements Function<KeyMetadata, Boolean> {
+        INSTANCE;
+
+        @Override
+        public Boolean apply(final KeyMetadata keyMetadata) {
+            return ImmutableSet.of("key-a", "key-c", "key-d").contains(keyMetadata.keyId());
+        }
+    }
+
     private static KeyMetadata[] pendingDeletionMetadataProvider() {
         return new KeyMetadata[] {
             KEY_METADATA_PENDING_DELETION,
             KEY_METADATA_PENDING_REPLICA_DELETION
         };
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIsKeyConsistent() {
+        mockDescribeKeyForConsistency(KEY_METADATA.toBuilder().description("Mock description")
+            .enabled(false).build());
+        when(keyApiHelper.getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(GetKeyPolicyResponse.builder().policy(TestConstants.KEY_POLICY).build());
+
+        assertThat(keyHandlerHelper.isKeyConsistent(proxyKmsClient, MOCK_MODEL)).isTrue();
+    }
+
+    @Test
+    public void testIsKeyConsistentDescriptionNotPropagated() {
+        mockDescribeKeyForConsistency(KEY_METADATA.toBuilder().description("mock-description")
+            .enabled(false).build());
+
+        assertThat(keyHandlerHelper.isKeyConsistent(proxyKmsClient, MOCK_MODEL)).isFalse();
+        verify(keyApiHelper, never()).getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testIsKeyConsistentEnabledNotPropagated() {
+        mockDescribeKeyForConsistency(KEY_METADATA.toBuilder().description("Mock description")
+            .enabled(true).build());
+
+        assertThat(keyHandlerHelper.isKeyConsistent(proxyKmsClient, MOCK_MODEL)).isFalse();
+        verify(keyApiHelper, never()).getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testIsKeyConsistentPolicyNotPropagated() {
+        mockDescribeKeyForConsistency(KEY_METADATA.toBuilder().description("Mock description")
+            .enabled(false).build());
+        when(keyApiHelper.getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(GetKeyPolicyResponse.builder().policy(UPDATED_KEY_POLICY).build());
+
+        assertThat(keyHandlerHelper.isKeyConsistent(proxyKmsClient, MOCK_MODEL)).isFalse();
+    }
+
+    @Test
+    public void testIsKeyConsistentNoKeyPolicy() {
+        mockDescribeKeyForConsistency(KEY_METADATA.toBuilder().description("Mock description")
+            .enabled(false).build());
+        doReturn(null).when(keyTranslator).getKeyPolicy(MOCK_MODEL);
+
+        assertThat(keyHandlerHelper.isKeyConsistent(proxyKmsClient, MOCK_MODEL)).isTrue();
+        verify(keyApiHelper, never()).getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testIsKeyConsistentReadFailed() {
+        when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenThrow(CfnThrottlingException.class);
+
+        assertThat(keyHandlerHelper.isKeyConsistent(proxyKmsClient, MOCK_MODEL)).isFalse();
+    }
+
+    private void mockDescribeKeyForConsistency(final KeyMetadata keyMetadata) {
+        when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(DescribeKeyResponse.builder().keyMetadata(keyMetadata).build());
+    }
+}
@@ -0,0 +1,54 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.kms.model.KeyListEntry;
+
+public class KeyListCursorTest {
+    private static final List<KeyListEntry> KEYS = Arrays.asList(
+        KeyListEntry.builder().keyId("key-a").build(),
+        KeyListEntry.builder().keyId("key-b").build(),
+        KeyListEntry.builder().keyId("key-c").build());
+
+    @Test
+    public void testFirstPage() {
+        assertThat(KeyListCursor.parse(null)).isEqualTo(new KeyListCursor(null, null));
+        assertThat(KeyListCursor.parse("")).isEqualTo(new KeyListCursor(null, null));
+        assertThat(new KeyListCursor(null, null).toToken()).isNull();
+    }
+
+    @Test
+    public void testPageBoundaryIsPlainMarker() {
+        assertThat(new KeyListCursor(TestConstants.NEXT_MARKER, null).toToken())
+            .isEqualTo(TestConstants.NEXT_MARKER);
+        assertThat(KeyListCursor.parse(TestConstants.NEXT_MARKER))
+            .isEqualTo(new KeyListCursor(TestConstants.NEXT_MARKER, null));
+    }
+
+    @Test
+    public void testWithinPageRoundTrips() {
+        final KeyListCursor cursor = new KeyListCursor(TestConstants.NEXT_MARKER, "key-b");
+        assertThat(cursor.toToken()).isEqualTo("key-b!" + TestConstants.NEXT_MARKER);
+        assertThat(KeyListCursor.parse(cursor.toToken())).isEqualTo(cursor);
+
+        final KeyListCursor firstPage = new KeyListCursor(null, "key-b");
+        assertThat(KeyListCursor.parse(firstPage.toToken())).isEqualTo(firstPage);
+    }
+
+    @Test
+    public void testMissingKeyIdIsMarker() {
+        assertThat(KeyListCursor.parse("!abc")).isEqualTo(new KeyListCursor("!abc", null));
+    }
+
+    @Test
+    public void testResumesAfterLastKey() {
+        assertThat(new KeyListCursor(null, null).resumeIndex(KEYS)).isEqualTo(0);
+        assertThat(new KeyListCursor(null, "key-a").resumeIndex(KEYS)).isEqualTo(1);
+        assertThat(new KeyListCursor(null, "key-c").resumeIndex(KEYS)).isEqualTo(3);
+        // A key that was deleted since reads the page again, rather than skipping any of it
+        assertThat(new KeyListCursor(null, "key-deleted").resumeIndex(KEYS)).isEqualTo(0);
+    }
+}
@@ -0,0 +1,158 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.DescribeKeyRequest;
+import software.amazon.awssdk.services.kms.model.DescribeKeyResponse;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+@ExtendWith(MockitoExtension.class)
+public class KeyMetadataFetcherTest {
+    private static final String DESCRIBE_KEY = "DescribeKey";
+    private static final List<String> KEY_IDS =
+        Arrays.asList("key-id-1", "key-id-2", "key-id-3", "key-id-4", "key-id-5");
+
+    @Mock
+    private KeyApiHelper keyApiHelper;
+
+    @Mock
+    private ProxyClient<KmsClient> proxyKmsClient;
+
+    private ExecutorService executorService;
+    private KeyMetadataFetcher keyMetadataFetcher;
+
+    @BeforeEach
+    public void setup() {
+        executorService = Executors.newFixedThreadPool(2);
+        keyMetadataFetcher = new KeyMetadataFetcher(keyApiHelper, executorService, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testDescribeKeysPreservesOrder() {
+        when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenAnswer(invocation -> describeKeyResponse(
+                invocation.<DescribeKeyRequest>getArgument(0).keyId()));
+
+        final List<KeyMetadata> keyMetadata =
+            keyMetadataFetcher.describeKeys(describeKeyRequests(), proxyKmsClient);
+
+        assertThat(keyMetadata.stream().map(KeyMetadata::keyId).collect(Collectors.toList()))
+            .isEqualTo(KEY_IDS);
+    }
+
+    @Test
+    public void testDescribeKeysEmpty() {
+        assertThat(keyMetadataFetcher.describeKeys(Collections.emptyList(), proxyKmsClient))
+            .isEmpty();
+    }
+
+    @Test
+    public void testDescribeKeysRetriesThrottled() {
+        final DescribeKeyRequest describeKeyRequest = describeKeyRequests().get(0);
+        when(keyApiHelper.describeKey(eq(describeKeyRequest), eq(proxyKmsClient)))
+            .thenThrow(new CfnThrottlingException(DESCRIBE_KEY))
+            .thenReturn(describeKeyResponse(describeKeyRequest.keyId()));
+
+        assertThat(keyMetadataFetcher
+            .describeKeys(Collections.singletonList(describeKeyRequest), proxyKmsClient))
+            .containsExactly(describeKeyResponse(describeKeyRequest.keyId()).keyMetadata());
+        verify(keyApiHelper, times(2)).describeKey(eq(describeKeyRequest), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testDescribeKeysThrottledTooManyTimes() {
+        when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenThrow(new CfnThrottlingException(DESCRIBE_KEY));
+
+        assertThatExceptionOfType(CfnThrottlingException.class).isThrownBy(() ->
+            keyMetadataFetcher.describeKeys(describeKeyRequests().subList(0, 1), proxyKmsClient));
+        verify(keyApiHelper, times(2))
+            .describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testDescribeKeysPropagatesOtherErrors() {
+        when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenThrow(new CfnNotFoundException("AWS::KMS::Key", "key-id-1"));
+
+        assertThatExceptionOfType(CfnNotFoundException.class).isThrownBy(() ->
+            keyMetadataFetcher.describeKeys(describeKeyRequests().subList(0, 1), proxyKmsClient));
+    }
+
+    @Test
+    public void testDescribeKeysCancelsOutstandingOnFailure() {
+        // A single worker, the first describe fails and the second one never returns on its own
+        final ExecutorService singleWorker = Executors.newSingleThreadExecutor();
+        final KeyMetadataFetcher singleWorkerFetcher = new KeyMetadataFetcher(keyApiHelper, singleWorker, 2);
+        final CountDownLatch neverReleased = new CountDownLatch(1);
+        when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenAnswer(invocation -> {
+                final String keyId = invocation.<DescribeKeyRequest>getArgument(0).keyId();
+                if (KEY_IDS.get(0).equals(keyId)) {
+                    throw new CfnNotFoundException("AWS::KMS::Key", keyId);
+                }
+
+                neverReleased.await();
+                return describeKeyResponse(keyId);
+            });
+
+        try {
+            assertThatExceptionOfType(CfnNotFoundException.class).isThrownBy(() ->
+                singleWorkerFetcher.describeKeys(describeKeyRequests(), proxyKmsClient));
+        } finally {
+            singleWorker.shutdownNow();
+        }
+
+        // The describe in flight is interrupted, and the queued ones never start
+        verify(keyApiHelper, atMost(2)).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> new KeyMetadataFetcher(keyApiHelper, executorService, 0));
+        assertThatExceptionOfType(NullPointerException.class)
+            .isThrownBy(() -> new KeyMetadataFetcher(keyApiHelper, null, 1));
+    }
+
+    private static List<DescribeKeyRequest> describeKeyRequests() {
+        return KEY_IDS.stream()
+            .map(keyId -> DescribeKeyRequest.builder().keyId(keyId).build())
+            .collect(Collectors.toList());
+    }
+
+    private static DescribeKeyResponse describeKeyResponse(final String keyId) {
+        return DescribeKeyResponse.builder()
+            .keyMetadata(KeyMetadata.builder().keyId(keyId).build())
+            .build();
+    }
+}
@@ -9,6 +9,7 @@ import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.junit.jupiter.api.Test;
 import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
 import software.amazon.cloudformation.exceptions.TerminalException;
@@ -52,7 +53,9 @@ public class KeyTranslatorTest {
     @Test
     public void testTranslatePolicyInputJsonProcessingException() throws JsonProcessingException {
         final ObjectMapper mockMapper = mock(ObjectMapper.class);
-        when(mockMapper.writeValueAsString(eq(TestConstants.DESERIALIZED_KEY_POLICY)))
+        final ObjectWriter mockWriter = mock(ObjectWriter.class);
+        when(mockMapper.writer()).thenReturn(mockWriter);
+        when(mockWriter.writeValueAsString(eq(TestConstants.DESERIALIZED_KEY_POLICY)))
             .thenThrow(JsonProcessingException.class);
         final MockKeyTranslator mockKeyTranslator = new MockKeyTranslator(mockMapper);
 
@@ -66,7 +69,9 @@ public class KeyTranslatorTest {
     @Test
     public void testTranslatePolicyInputWithJsonProcessingDefaultKeyPolicyJson() throws JsonProcessingException {
         final ObjectMapper mockMapper = mock(ObjectMapper.class);
-        when(mockMapper.writeValueAsString(eq(TestConstants.DEFAULT_KEY_POLICY_FROM_JSON)))
+        final ObjectWriter mockWriter = mock(ObjectWriter.class);
+        when(mockMapper.writer()).thenReturn(mockWriter);
+        when(mockWriter.writeValueAsString(eq(TestConstants.DEFAULT_KEY_POLICY_FROM_JSON)))
                 .thenThrow(JsonProcessingException.class);
         final MockKeyTranslator mockKeyTranslator = new MockKeyTranslator(mockMapper);
 
@@ -117,5 +122,7 @@ public class KeyTranslatorTest {
             .isNotNull();
         assertThat(keyTranslator.untagResourceRequest(MOCK_MODEL, TestConstants.SDK_TAGS))
             .isNotNull();
+        assertThat(keyTranslator.untagResourceByKeysRequest(MOCK_MODEL, TestConstants.TAGS.keySet())
+            .tagKeys()).containsExactly("Key1");
     }
 }
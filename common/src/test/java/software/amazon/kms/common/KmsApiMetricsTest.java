@@ -0,0 +1,256 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Ticker;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.exceptions.CfnUnauthorizedTaggingOperationException;
+
+public class KmsApiMetricsTest {
+    private static final String RESOURCE_TYPE = "AWS::KMS::Key";
+    private static final String OPERATION = "MockOperation";
+    private static final long TIMESTAMP = 1_700_000_000_000L;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> lines = new ArrayList<>();
+    private KmsApiMetrics metrics;
+    private MockKmsApiHelper helper;
+
+    @BeforeEach
+    public void setup() {
+        metrics = new KmsApiMetrics(new Ticker() {
+            @Override
+            public long read() {
+                return nanos.get();
+            }
+        }, Clock.fixed(Instant.ofEpochMilli(TIMESTAMP), ZoneOffset.UTC));
+        // Every call finds the limiter a second later than the last, so it never waits
+        final AtomicLong limiterNanos = new AtomicLong();
+        helper = new MockKmsApiHelper(metrics, new AdaptiveRateLimiter(1, 1, AdaptiveRateLimiter.DEFAULT_MAX_WAIT, new Ticker() {
+            @Override
+            public long read() {
+                return limiterNanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            }
+        }, nanos -> {
+        }));
+    }
+
+    @Test
+    public void testSuccessfulCalls() throws IOException {
+        assertThat(helper.testCall(slowResponse("response", 10))).isEqualTo("response");
+        assertThat(helper.testCall(slowResponse("response", 10))).isEqualTo("response");
+        assertThat(helper.testCall(slowResponse("response", 100))).isEqualTo("response");
+
+        metrics.flush(RESOURCE_TYPE, lines::add);
+
+        assertThat(lines).hasSize(1);
+        final JsonNode emf = objectMapper.readTree(lines.get(0));
+        final JsonNode directive = emf.get("_aws").get("CloudWatchMetrics").get(0);
+        assertThat(emf.get("_aws").get("Timestamp").asLong()).isEqualTo(TIMESTAMP);
+        assertThat(directive.get("Namespace").asText()).isEqualTo(KmsApiMetrics.NAMESPACE);
+        assertThat(directive.get("Dimensions").toString()).isEqualTo("[[\"ResourceType\",\"Operation\"]]");
+        assertThat(directive.get("Metrics").findValuesAsText("Name")).containsExactly("Latency", "Calls");
+        assertThat(emf.get("ResourceType").asText()).isEqualTo(RESOURCE_TYPE);
+        assertThat(emf.get("Operation").asText()).isEqualTo(OPERATION);
+        assertThat(emf.get("Calls").asLong()).isEqualTo(3);
+
+        final JsonNode latency = emf.get("Latency");
+        assertThat(latency.get("Values")).hasSize(2);
+        assertThat(latency.get("Values").get(0).asDouble())
+            .isEqualTo(KmsApiMetrics.bucketMillis(KmsApiMetrics.bucket(10)));
+        assertThat(latency.get("Counts").toString()).isEqualTo("[2,1]");
+        assertThat(latency.get("Min").asDouble()).isEqualTo(10);
+        assertThat(latency.get("Max").asDouble()).isEqualTo(100);
+        assertThat(latency.get("Sum").asDouble()).isEqualTo(120);
+        assertThat(latency.get("Count").asLong()).isEqualTo(3);
+    }
+
+    @Test
+    public void testFailedCalls() throws IOException {
+        assertThatExceptionOfType(CfnNotFoundException.class)
+            .isThrownBy(() -> helper.testExceptionWrapping(NotFoundException.class));
+        assertThatExceptionOfType(CfnUnauthorizedTaggingOperationException.class)
+            .isThrownBy(() -> helper.testExceptionWrapping(KmsException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder()
+                    .sdkHttpResponse(SdkHttpResponse.builder()
+                        .statusCode(400)
+                        .build())
+                    .errorCode(AbstractKmsApiHelper.ACCESS_DENIED_ERROR_CODE)
+                    .errorMessage("Not authorized to perform: kms:TagResource")
+                    .build())
+                .build()));
+
+        metrics.flush(RESOURCE_TYPE, lines::add);
+
+        final JsonNode emf = objectMapper.readTree(lines.get(0));
+        assertThat(emf.get("_aws").get("CloudWatchMetrics").get(0).get("Metrics").findValuesAsText("Name"))
+            .containsExactly("Latency", "Calls", "CfnNotFoundException", KmsApiMetrics.TAGGING_ACCESS_DENIED);
+        assertThat(emf.get("Calls").asLong()).isEqualTo(2);
+        assertThat(emf.get("CfnNotFoundException").asLong()).isEqualTo(1);
+        assertThat(emf.get(KmsApiMetrics.TAGGING_ACCESS_DENIED).asLong()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFlushStartsOver() {
+        helper.testCall(() -> "response");
+
+        metrics.flush(RESOURCE_TYPE, lines::add);
+        metrics.flush(RESOURCE_TYPE, lines::add);
+
+        assertThat(lines).hasSize(1);
+    }
+
+    @Test
+    public void testFlushKeepsLaterCalls() throws IOException {
+        helper.testCall(() -> "response");
+        metrics.flush(RESOURCE_TYPE, lines::add);
+        helper.testCall(() -> "response");
+        helper.testCall(() -> "response");
+        metrics.flush(RESOURCE_TYPE, lines::add);
+
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines.get(0)).get("Calls").asLong()).isEqualTo(1);
+        assertThat(objectMapper.readTree(lines.get(1)).get("Calls").asLong()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRateLimiter() throws IOException {
+        final MockKmsApiHelper limitedHelper = new MockKmsApiHelper(metrics, new AdaptiveRateLimiter(1, 1,
+            AdaptiveRateLimiter.DEFAULT_MAX_WAIT, new Ticker() {
+                @Override
+                public long read() {
+                    return nanos.get();
+                }
+            }, nanos::addAndGet));
+
+        limitedHelper.testCall(() -> "response");
+        // The next call may be made after a second
+        nanos.set(TimeUnit.MILLISECONDS.toNanos(600));
+        limitedHelper.testCall(() -> "response");
+        // And the one after that not for another second, which it waits out
+        limitedHelper.testCall(() -> "response");
+        metrics.flush(RESOURCE_TYPE, lines::add);
+
+        final JsonNode emf = objectMapper.readTree(lines.get(0));
+        assertThat(emf.get("Calls").asLong()).isEqualTo(3);
+        assertThat(emf.get(KmsApiMetrics.LIMITER_WAIT).asDouble()).isEqualTo(1400);
+    }
+
+    @Test
+    public void testRateLimiterRejection() throws IOException {
+        // The clock stands still, so every call queues a second behind the last
+        final MockKmsApiHelper limitedHelper = new MockKmsApiHelper(metrics, new AdaptiveRateLimiter(1, 1,
+            Duration.ofSeconds(1), new Ticker() {
+                @Override
+                public long read() {
+                    return nanos.get();
+                }
+            }, waitNanos -> {
+            }));
+
+        limitedHelper.testCall(() -> "response");
+        limitedHelper.testCall(() -> "response");
+        // The third would have to wait two seconds, longer than it may
+        assertThatExceptionOfType(CfnThrottlingException.class)
+            .isThrownBy(() -> limitedHelper.testCall(() -> "response"));
+        metrics.flush(RESOURCE_TYPE, lines::add);
+
+        final JsonNode emf = objectMapper.readTree(lines.get(0));
+        assertThat(emf.get("_aws").get("CloudWatchMetrics").get(0).get("Metrics").findValuesAsText("Name"))
+            .contains(KmsApiMetrics.LIMITER_REJECTED);
+        assertThat(emf.get("Calls").asLong()).isEqualTo(2);
+        assertThat(emf.get(KmsApiMetrics.LIMITER_REJECTED).asLong()).isEqualTo(1);
+    }
+
+    @Test
+    public void testTimeToReady() throws IOException {
+        metrics.recordTimeToReady(OPERATION, Duration.ofSeconds(20));
+        metrics.recordTimeToReady(OPERATION, Duration.ofSeconds(40));
+        metrics.flush(RESOURCE_TYPE, lines::add);
+
+        final JsonNode emf = objectMapper.readTree(lines.get(0));
+        assertThat(emf.get("_aws").get("CloudWatchMetrics").get(0).get("Metrics").findValuesAsText("Name"))
+            .containsExactly("Calls", KmsApiMetrics.TIME_TO_READY);
+        final JsonNode timeToReady = emf.get(KmsApiMetrics.TIME_TO_READY);
+        assertThat(timeToReady.get("Values")).hasSize(2);
+        assertThat(timeToReady.get("Min").asDouble()).isEqualTo(20_000);
+        assertThat(timeToReady.get("Max").asDouble()).isEqualTo(40_000);
+        assertThat(timeToReady.get("Count").asLong()).isEqualTo(2);
+    }
+
+    @Test
+    public void testCounts() throws IOException {
+        metrics.recordCount(OPERATION, KmsApiMetrics.CACHE_MISSES);
+        metrics.recordCount(OPERATION, KmsApiMetrics.CACHE_HITS);
+        metrics.recordCount(OPERATION, KmsApiMetrics.CACHE_HITS);
+        metrics.flush(RESOURCE_TYPE, lines::add);
+
+        final JsonNode emf = objectMapper.readTree(lines.get(0));
+        assertThat(emf.get("_aws").get("CloudWatchMetrics").get(0).get("Metrics").findValuesAsText("Name"))
+            .containsExactly("Calls", KmsApiMetrics.CACHE_HITS, KmsApiMetrics.CACHE_MISSES);
+        assertThat(emf.get(KmsApiMetrics.CACHE_HITS).asLong()).isEqualTo(2);
+        assertThat(emf.get(KmsApiMetrics.CACHE_MISSES).asLong()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPropagation() throws IOException {
+        metrics.recordPropagation(OPERATION, Duration.ofSeconds(6), true);
+        metrics.recordPropagation(OPERATION, Duration.ofSeconds(60), false);
+        metrics.flush(RESOURCE_TYPE, lines::add);
+
+        final JsonNode emf = objectMapper.readTree(lines.get(0));
+        assertThat(emf.get("_aws").get("CloudWatchMetrics").get(0).get("Metrics").findValuesAsText("Name"))
+            .containsExactly("Calls", KmsApiMetrics.PROPAGATION_TIME, KmsApiMetrics.PROPAGATION_UNCONFIRMED);
+        final JsonNode propagationTime = emf.get(KmsApiMetrics.PROPAGATION_TIME);
+        assertThat(propagationTime.get("Min").asDouble()).isEqualTo(6_000);
+        assertThat(propagationTime.get("Max").asDouble()).isEqualTo(60_000);
+        assertThat(propagationTime.get("Count").asLong()).isEqualTo(2);
+        assertThat(emf.get(KmsApiMetrics.PROPAGATION_UNCONFIRMED).asLong()).isEqualTo(1);
+    }
+
+    @Test
+    public void testBuckets() {
+        assertThat(KmsApiMetrics.bucket(0)).isEqualTo(KmsApiMetrics.bucket(0.1));
+        assertThat(KmsApiMetrics.bucket(10)).isEqualTo(KmsApiMetrics.bucket(11));
+        assertThat(KmsApiMetrics.bucket(10)).isLessThan(KmsApiMetrics.bucket(13));
+        // The reported value is within the bucket
+        assertThat(KmsApiMetrics.bucket(KmsApiMetrics.bucketMillis(KmsApiMetrics.bucket(1000))))
+            .isEqualTo(KmsApiMetrics.bucket(1000));
+    }
+
+    @Test
+    public void testShared() {
+        assertThat(KmsApiMetrics.shared()).isSameAs(KmsApiMetrics.shared());
+    }
+
+    /**
+     * Returns a response once the given time has passed, the way a KMS call would.
+     */
+    private <T> Supplier<T> slowResponse(final T response, final long millis) {
+        return () -> {
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+            return response;
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kms.KmsClient;
+
+@ExtendWith(MockitoExtension.class)
+public class KmsClientPoolTest {
+    @Mock
+    private KmsClient defaultKmsClient;
+
+    @Mock
+    private KmsClient regionalKmsClient;
+
+    @Mock
+    private Supplier<KmsClient> defaultClientFactory;
+
+    @Mock
+    private Function<Region, KmsClient> regionalClientFactory;
+
+    @Mock
+    private KmsApiMetrics metrics;
+
+    private KmsClientPool kmsClientPool;
+
+    @BeforeEach
+    public void setup() {
+        kmsClientPool = new KmsClientPool(defaultClientFactory, regionalClientFactory, metrics);
+    }
+
+    @Test
+    public void testGetDefaultClientIsMemoized() {
+        when(defaultClientFactory.get()).thenReturn(defaultKmsClient);
+
+        assertThat(kmsClientPool.getDefaultClient()).isSameAs(defaultKmsClient);
+        assertThat(kmsClientPool.getDefaultClient()).isSameAs(defaultKmsClient);
+        verify(defaultClientFactory, times(1)).get();
+    }
+
+    @Test
+    public void testGetClientIsPooled() {
+        when(regionalClientFactory.apply(Region.US_WEST_2)).thenReturn(regionalKmsClient);
+
+        assertThat(kmsClientPool.getClient(Region.US_WEST_2)).isSameAs(regionalKmsClient);
+        assertThat(kmsClientPool.getClient(Region.US_WEST_2)).isSameAs(regionalKmsClient);
+        assertThat(kmsClientPool.getClient(Region.US_WEST_2)).isSameAs(regionalKmsClient);
+
+        verify(regionalClientFactory, times(1)).apply(Region.US_WEST_2);
+        assertThat(kmsClientPool.size()).isEqualTo(1);
+        verify(metrics).recordCount(KmsClientPool.OPERATION, KmsApiMetrics.CACHE_MISSES);
+        verify(metrics, times(2)).recordCount(KmsClientPool.OPERATION, KmsApiMetrics.CACHE_HITS);
+    }
+
+    @Test
+    public void testWarm() {
+        when(regionalClientFactory.apply(Region.US_WEST_2)).thenReturn(regionalKmsClient);
+        when(regionalClientFactory.apply(Region.EU_WEST_1)).thenReturn(regionalKmsClient);
+
+        kmsClientPool.warm(Arrays.asList(Region.US_WEST_2, Region.EU_WEST_1));
+        kmsClientPool.warm(Collections.singletonList(Region.US_WEST_2));
+
+        assertThat(kmsClientPool.size()).isEqualTo(2);
+        verify(metrics, never()).recordCount(KmsClientPool.OPERATION, KmsApiMetrics.CACHE_MISSES);
+        assertThat(kmsClientPool.getClient(Region.EU_WEST_1)).isSameAs(regionalKmsClient);
+        verify(metrics).recordCount(KmsClientPool.OPERATION, KmsApiMetrics.CACHE_HITS);
+        verify(regionalClientFactory, times(1)).apply(Region.US_WEST_2);
+    }
+
+    @Test
+    public void testKmsRegion() {
+        assertThat(KmsClientPool.kmsRegion("us-west-2")).isEqualTo(Region.US_WEST_2);
+        assertThat(KmsClientPool.kmsRegion("not-a-region")).isNull();
+    }
+}
@@ -0,0 +1,72 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import software.amazon.awssdk.services.kms.model.MalformedPolicyDocumentException;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
+import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+
+public class KmsExceptionClassifierTest {
+    private static final String OPERATION = "MockOperation";
+
+    @Test
+    public void testUnmappedExceptionIsReturned() {
+        final SdkClientException clientException = SdkClientException.create("Unable to connect");
+        final IllegalStateException illegalStateException = new IllegalStateException();
+
+        assertThat(KmsExceptionClassifier.toCfnException(OPERATION, clientException)).isSameAs(clientException);
+        assertThat(KmsExceptionClassifier.toCfnException(OPERATION, illegalStateException))
+            .isSameAs(illegalStateException);
+    }
+
+    @Test
+    public void testMappingIsCachedPerClass() {
+        final NotFoundException notFoundException = NotFoundException.builder().message("Not found").build();
+
+        assertThat(KmsExceptionClassifier.toCfnException(OPERATION, notFoundException))
+            .isInstanceOf(CfnNotFoundException.class)
+            .hasCause(notFoundException);
+        assertThat(KmsExceptionClassifier.toCfnException(OPERATION, notFoundException))
+            .isInstanceOf(CfnNotFoundException.class);
+    }
+
+    @Test
+    public void testKmsExceptionWithoutErrorDetails() {
+        assertThat(KmsExceptionClassifier.toCfnException(OPERATION, KmsException.builder().build()))
+            .isInstanceOf(CfnGeneralServiceException.class);
+    }
+
+    @Test
+    public void testAccessDeniedWithoutMessage() {
+        final KmsException accessDeniedException = (KmsException) KmsException.builder()
+            .awsErrorDetails(AwsErrorDetails.builder()
+                .sdkHttpResponse(SdkHttpResponse.builder()
+                    .statusCode(400)
+                    .build())
+                .errorCode(AbstractKmsApiHelper.ACCESS_DENIED_ERROR_CODE)
+                .build())
+            .build();
+
+        assertThat(KmsExceptionClassifier.toCfnException(OPERATION, accessDeniedException))
+            .isInstanceOf(CfnAccessDeniedException.class);
+    }
+
+    @Test
+    public void testMessageIsKept() {
+        final MalformedPolicyDocumentException malformedPolicyDocumentException =
+            MalformedPolicyDocumentException.builder().message("Policy contains a statement with no principal").build();
+
+        assertThat(KmsExceptionClassifier.toCfnException(OPERATION, malformedPolicyDocumentException))
+            .isInstanceOf(CfnInvalidRequestException.class)
+            .hasMessageContaining("Policy contains a statement with no principal")
+            .hasCause(malformedPolicyDocumentException);
+    }
+}
@@ -1,5 +1,6 @@
 package software.amazon.kms.common;
 
+import java.util.function.Supplier;
 import org.mockito.creation.instance.Instantiator;
 import org.mockito.internal.configuration.plugins.Plugins;
 
@@ -12,6 +13,22 @@ public class MockKmsApiHelper extends AbstractKmsApiHelper {
     private static final Instantiator INSTANTIATOR =
         Plugins.getInstantiatorProvider().getInstantiator(null);
 
+    public MockKmsApiHelper() {
+        super();
+    }
+
+    public MockKmsApiHelper(final KmsApiMetrics metrics) {
+        super(metrics);
+    }
+
+    public MockKmsApiHelper(final KmsApiMetrics metrics, final AdaptiveRateLimiter rateLimiter) {
+        super(metrics, rateLimiter);
+    }
+
+    public <T> T testCall(final Supplier<T> serviceCall) {
+        return wrapKmsExceptions(OPERATION, serviceCall);
+    }
+
     public void testExceptionWrapping(Class<? extends RuntimeException> c) {
         testExceptionWrapping(INSTANTIATOR.newInstance(c));
     }
@@ -0,0 +1,98 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PolicyCanonicalizerTest {
+    private static final String POLICY =
+        "{\"Version\":\"2012-10-17\",\"Statement\":[{\"Effect\":\"Allow\",\"Principal\":"
+            + "{\"AWS\":[\"arn:aws:iam::111122223333:root\"]},\"Action\":[\"kms:*\"],"
+            + "\"Resource\":\"*\",\"Condition\":{\"Bool\":{\"aws:SecureTransport\":true}}}]}";
+    private static final String REFORMATTED_POLICY = "{\n"
+        + "  \"Statement\": {\n"
+        + "    \"Condition\": {\"Bool\": {\"aws:SecureTransport\": \"true\"}},\n"
+        + "    \"Resource\": \"*\",\n"
+        + "    \"Action\": \"kms:*\",\n"
+        + "    \"Principal\": {\"AWS\": \"arn:aws:iam::111122223333:root\"},\n"
+        + "    \"Effect\": \"Allow\"\n"
+        + "  },\n"
+        + "  \"Version\": \"2012-10-17\"\n"
+        + "}";
+    private static final String CHANGED_POLICY =
+        "{\"Version\":\"2012-10-17\",\"Statement\":[{\"Effect\":\"Allow\",\"Principal\":"
+            + "{\"AWS\":[\"arn:aws:iam::111122223333:root\"]},\"Action\":[\"kms:*\", \"iam:*\"],"
+            + "\"Resource\":\"*\",\"Condition\":{\"Bool\":{\"aws:SecureTransport\":true}}}]}";
+
+    private PolicyCanonicalizer policyCanonicalizer;
+
+    @BeforeEach
+    public void setup() {
+        policyCanonicalizer = new PolicyCanonicalizer();
+    }
+
+    @Test
+    public void testCanonicalize() {
+        assertThat(policyCanonicalizer.canonicalize(POLICY)).isEqualTo(
+            "{\"Statement\":{\"Action\":\"kms:*\",\"Condition\":{\"Bool\":"
+                + "{\"aws:SecureTransport\":\"true\"}},\"Effect\":\"Allow\",\"Principal\":"
+                + "{\"AWS\":\"arn:aws:iam::111122223333:root\"},\"Resource\":\"*\"},"
+                + "\"Version\":\"2012-10-17\"}");
+    }
+
+    @Test
+    public void testCanonicalizeCachesByContent() {
+        final String canonicalPolicy = policyCanonicalizer.canonicalize(POLICY);
+
+        assertThat(policyCanonicalizer.canonicalize(new String(POLICY))).isEqualTo(canonicalPolicy);
+        assertThat(policyCanonicalizer.cacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void testCanonicalizeInvalidJson() {
+        assertThat(policyCanonicalizer.canonicalize("{not json")).isEqualTo("{not json");
+        assertThat(policyCanonicalizer.canonicalize("")).isEqualTo("");
+    }
+
+    @Test
+    public void testCanonicalizeMultipleElementArrays() {
+        assertThat(policyCanonicalizer.canonicalize("{\"a\":[2,1,{\"c\":1,\"b\":[false]}]}"))
+            .isEqualTo("{\"a\":[\"2\",\"1\",{\"b\":\"false\",\"c\":\"1\"}]}");
+    }
+
+    @Test
+    public void testIsEquivalent() {
+        assertThat(policyCanonicalizer.isEquivalent(POLICY, POLICY)).isTrue();
+        assertThat(policyCanonicalizer.isEquivalent(null, null)).isTrue();
+        assertThat(policyCanonicalizer.isEquivalent(POLICY, REFORMATTED_POLICY)).isTrue();
+        assertThat(policyCanonicalizer.isEquivalent(POLICY, CHANGED_POLICY)).isFalse();
+        assertThat(policyCanonicalizer.isEquivalent(POLICY, "")).isFalse();
+        assertThat(policyCanonicalizer.isEquivalent(POLICY, null)).isFalse();
+        assertThat(policyCanonicalizer.isEquivalent(null, POLICY)).isFalse();
+    }
+
+    @Test
+    public void testIsEquivalentJsonObjects() {
+        final ImmutableMap<String, Object> policy = ImmutableMap.of(
+            "Version", "2012-10-17",
+            "Statement", Collections.singletonList(ImmutableMap.of(
+                "Effect", "Allow",
+                "Principal", ImmutableMap.of("AWS", Collections.singletonList("arn:aws:iam::111122223333:root")),
+                "Action", Collections.singletonList("kms:*"),
+                "Resource", "*",
+                "Condition", ImmutableMap.of("Bool", ImmutableMap.of("aws:SecureTransport", true)))));
+
+        // Models hold policies as JSON objects, they are compared without serializing them
+        assertThat(policyCanonicalizer.isEquivalent(policy, POLICY)).isTrue();
+        assertThat(policyCanonicalizer.isEquivalent(REFORMATTED_POLICY, policy)).isTrue();
+        assertThat(policyCanonicalizer.isEquivalent(policy, CHANGED_POLICY)).isFalse();
+        assertThat(policyCanonicalizer.isEquivalent(ImmutableMap.of("a", Arrays.asList(2, 1)),
+            ImmutableMap.of("a", Arrays.asList("2", "1")))).isTrue();
+        assertThat(policyCanonicalizer.isEquivalent(ImmutableMap.of("a", Arrays.asList(2, 1)),
+            ImmutableMap.of("a", Arrays.asList(1, 2)))).isFalse();
+    }
+}
@@ -0,0 +1,45 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+public class PolicyJsonTest {
+    private final PolicyJson policyJson = PolicyJson.shared();
+
+    @Test
+    public void testShared() {
+        assertThat(PolicyJson.shared()).isSameAs(policyJson);
+    }
+
+    @Test
+    public void testWritePolicy() throws JsonProcessingException {
+        assertThat(policyJson.writePolicy(TestConstants.DESERIALIZED_KEY_POLICY))
+            .isEqualTo(TestConstants.KEY_POLICY);
+    }
+
+    @Test
+    public void testReadPolicy() throws IOException {
+        assertThat(policyJson.readPolicy(TestConstants.KEY_POLICY))
+            .isEqualTo(TestConstants.DESERIALIZED_KEY_POLICY);
+    }
+
+    @Test
+    public void testReadInvalidPolicy() {
+        assertThatExceptionOfType(IOException.class)
+            .isThrownBy(() -> policyJson.readPolicy("\"InvalidPolicy"));
+    }
+
+    @Test
+    public void testCreateParser() throws IOException {
+        try (JsonParser parser = policyJson.createParser(TestConstants.KEY_POLICY)) {
+            assertThat(parser.nextToken()).isEqualTo(JsonToken.START_OBJECT);
+            assertThat(parser.nextFieldName()).isEqualTo("Sid");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.kms.model.Tag;
+
+public class TagDiffTest {
+    private static final Map<String, String> EXISTING_TAGS = ImmutableMap.of(
+        "Unchanged", "Value",
+        "Changed", "OldValue",
+        "Removed", "Value");
+    private static final Map<String, String> DESIRED_TAGS = ImmutableMap.of(
+        "Unchanged", "Value",
+        "Changed", "NewValue",
+        "Added", "Value");
+
+    @Test
+    public void testBetween() {
+        final TagDiff tagDiff = TagDiff.between(EXISTING_TAGS, DESIRED_TAGS);
+
+        assertThat(tagDiff.getAddedTags()).containsExactly(entry("Added", "Value"));
+        assertThat(tagDiff.getChangedTags()).containsExactly(entry("Changed", "NewValue"));
+        assertThat(tagDiff.getRemovedTagKeys()).containsExactly("Removed");
+        assertThat(tagDiff.isEmpty()).isFalse();
+        assertThat(tagDiff.hasTagsToApply()).isTrue();
+        assertThat(tagDiff.hasTagsToRemove()).isTrue();
+    }
+
+    @Test
+    public void testTagsToApply() {
+        assertThat(TagDiff.between(EXISTING_TAGS, DESIRED_TAGS).tagsToApply()).containsExactlyInAnyOrder(
+            Tag.builder().tagKey("Added").tagValue("Value").build(),
+            Tag.builder().tagKey("Changed").tagValue("NewValue").build());
+    }
+
+    @Test
+    public void testBetweenEqualTags() {
+        final TagDiff tagDiff = TagDiff.between(EXISTING_TAGS, new HashMap<>(EXISTING_TAGS));
+
+        assertThat(tagDiff.isEmpty()).isTrue();
+        assertThat(tagDiff.tagsToApply()).isEmpty();
+        assertThat(tagDiff.getRemovedTagKeys()).isEmpty();
+    }
+
+    @Test
+    public void testBetweenNullTags() {
+        assertThat(TagDiff.between(null, null).isEmpty()).isTrue();
+        assertThat(TagDiff.between(null, DESIRED_TAGS).getAddedTags()).isEqualTo(DESIRED_TAGS);
+        assertThat(TagDiff.between(EXISTING_TAGS, null).getRemovedTagKeys())
+            .isEqualTo(EXISTING_TAGS.keySet());
+    }
+
+    @Test
+    public void testBetweenIgnoresValuelessTags() {
+        final Map<String, String> existingTags = new HashMap<>();
+        existingTags.put("Removed", null);
+        existingTags.put("Kept", "Value");
+        final Map<String, String> desiredTags = new HashMap<>();
+        desiredTags.put("Added", null);
+        desiredTags.put("Kept", null);
+
+        final TagDiff tagDiff = TagDiff.between(existingTags, desiredTags);
+
+        // A value-less desired tag is as good as no tag at all
+        assertThat(tagDiff.getAddedTags()).isEmpty();
+        assertThat(tagDiff.getChangedTags()).isEmpty();
+        assertThat(tagDiff.getRemovedTagKeys()).containsExactly("Kept");
+    }
+
+    @Test
+    public void testBetweenEmptyTags() {
+        assertThat(TagDiff.between(Collections.emptyMap(), Collections.emptyMap()))
+            .isEqualTo(TagDiff.between(null, null));
+    }
+}
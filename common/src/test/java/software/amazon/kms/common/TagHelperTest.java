@@ -1,5 +1,7 @@
 package software.amazon.kms.common;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
@@ -26,6 +28,7 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -199,13 +202,12 @@ public class TagHelperTest {
             .thenReturn(tagResourceResponse);
         when(keyApiHelper.untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient)))
                 .thenReturn(untagResourceResponse);
-        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(MOCK_MODEL), eq(callbackContext),
-                eq(false))).thenReturn(inProgressEvent);
 
         assertThat(tagHelper.updateKeyTags(proxy,proxyKmsClient,MOCK_MODEL,request,callbackContext,TestConstants.TAGS))
                 .isEqualTo(inProgressEvent);
-        verify(keyHandlerHelper)
-            .retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(MOCK_MODEL), eq(callbackContext), eq(false));
+        assertThat(callbackContext.getMutations()).containsExactly(KeyMutation.TAGS);
+        verify(keyHandlerHelper, never())
+            .retrieveResourceTags(any(), any(), any(), any(), anyBoolean());
         verify(keyApiHelper).tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
         verify(keyApiHelper).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
     }
@@ -216,14 +218,39 @@ public class TagHelperTest {
             .previousResourceTags(TestConstants.PREVIOUS_TAGS)
             .build();
 
-        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(MOCK_MODEL), eq(callbackContext),
-                eq(false))).thenReturn(inProgressEvent);
-
         assertThat(tagHelper.updateKeyTags(proxy,proxyKmsClient,MOCK_MODEL,request,callbackContext,
                 TestConstants.PREVIOUS_TAGS)).isEqualTo(inProgressEvent);
-        verify(keyHandlerHelper)
-            .retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(MOCK_MODEL), eq(callbackContext), eq(false));
+        assertThat(callbackContext.getMutations()).isEmpty();
         verify(keyApiHelper, never()).tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
         verify(keyApiHelper, never()).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
     }
+
+    @Test
+    public void testUpdateKeyTagsChangedValue() {
+        ResourceHandlerRequest<Object> request = ResourceHandlerRequest.<Object>builder()
+            .desiredResourceTags(TestConstants.TAGS)
+            .previousResourceTags(ImmutableMap.of("Key1", "OldValue1"))
+            .build();
+
+        when(keyApiHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(tagResourceResponse);
+
+        assertThat(tagHelper.updateKeyTags(proxy,proxyKmsClient,MOCK_MODEL,request,callbackContext,TestConstants.TAGS))
+                .isEqualTo(inProgressEvent);
+        // TagResource overwrites the value, the tag doesn't need to be removed first
+        verify(keyApiHelper).tagResource(eq(TagResourceRequest.builder()
+            .keyId("mock-key-id")
+            .tags(TestConstants.SDK_TAGS)
+            .build()), eq(proxyKmsClient));
+        verify(keyApiHelper, never()).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testConvertToMap() {
+        final Set<Tag> tags = Sets.newHashSet(TestConstants.SDK_TAGS);
+        tags.add(Tag.builder().tagKey("Key3").build());
+
+        assertThat(TagHelper.convertToMap(tags)).isEqualTo(TestConstants.TAGS);
+        assertThat(TagHelper.convertToMap(null)).isEmpty();
+    }
 }
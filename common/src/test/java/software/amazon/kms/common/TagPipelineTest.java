@@ -0,0 +1,190 @@
+package software.amazon.kms.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.TagResourceRequest;
+import software.amazon.awssdk.services.kms.model.TagResourceResponse;
+import software.amazon.awssdk.services.kms.model.UntagResourceRequest;
+import software.amazon.awssdk.services.kms.model.UntagResourceResponse;
+import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+@ExtendWith(MockitoExtension.class)
+public class TagPipelineTest {
+    private static final String TAG_RESOURCE = "TagResource";
+    private static final String UNTAG_RESOURCE = "UntagResource";
+    private static final Object MOCK_MODEL = new Object();
+
+    @Mock
+    private KeyApiHelper keyApiHelper;
+
+    @Mock
+    private KmsClient kms;
+
+    private final MockKeyTranslator keyTranslator = new MockKeyTranslator();
+    private AmazonWebServicesClientProxy proxy;
+    private ProxyClient<KmsClient> proxyKmsClient;
+    private TagPipeline tagPipeline;
+    private KeyCallbackContext callbackContext;
+
+    @BeforeEach
+    public void setup() {
+        proxy = new AmazonWebServicesClientProxy(TestConstants.LOGGER,
+            TestConstants.MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
+        proxyKmsClient = TestUtils.buildMockProxy(proxy, kms);
+        tagPipeline = new TagPipeline(keyApiHelper, 10, 2);
+        callbackContext = new KeyCallbackContext();
+    }
+
+    @Test
+    public void testApplyInChunks() {
+        when(keyApiHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(TagResourceResponse.builder().build());
+        when(keyApiHelper.untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(UntagResourceResponse.builder().build());
+        final TagDiff tagDiff = TagDiff.between(tags("old", 12), tags("new", 25));
+
+        assertThat(tagPipeline.apply(proxyKmsClient, keyTranslator, MOCK_MODEL, callbackContext, tagDiff))
+            .isEqualTo(ProgressEvent.progress(MOCK_MODEL, callbackContext));
+
+        // 25 tags to add and 12 to remove, 10 per call
+        verify(keyApiHelper, times(3)).tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
+        verify(keyApiHelper, times(2)).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
+        assertThat(callbackContext.getReconciledTagKeys()).hasSize(37);
+    }
+
+    @Test
+    public void testApplySingleChunk() {
+        when(keyApiHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(TagResourceResponse.builder().build());
+
+        assertThat(tagPipeline.apply(proxyKmsClient, keyTranslator, MOCK_MODEL, callbackContext,
+            TagDiff.between(null, TestConstants.TAGS)))
+            .isEqualTo(ProgressEvent.progress(MOCK_MODEL, callbackContext));
+
+        verify(keyApiHelper).tagResource(eq(TagResourceRequest.builder()
+            .keyId("mock-key-id")
+            .tags(TestConstants.SDK_TAGS)
+            .build()), eq(proxyKmsClient));
+        assertThat(callbackContext.getReconciledTagKeys()).containsExactly("Key1");
+    }
+
+    @Test
+    public void testApplyAgainSendsNothing() {
+        when(keyApiHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(TagResourceResponse.builder().build());
+        when(keyApiHelper.untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(UntagResourceResponse.builder().build());
+        final TagDiff tagDiff = TagDiff.between(TestConstants.PREVIOUS_TAGS, TestConstants.TAGS);
+
+        // A handler called back after the propagation wait rebuilds the same diff
+        assertThat(tagPipeline.apply(proxyKmsClient, keyTranslator, MOCK_MODEL, callbackContext, tagDiff))
+            .isEqualTo(ProgressEvent.progress(MOCK_MODEL, callbackContext));
+        assertThat(tagPipeline.apply(proxyKmsClient, keyTranslator, MOCK_MODEL, callbackContext, tagDiff))
+            .isEqualTo(ProgressEvent.progress(MOCK_MODEL, callbackContext));
+
+        verify(keyApiHelper).tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
+        verify(keyApiHelper).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
+        assertThat(callbackContext.getReconciledTagKeys()).containsExactlyInAnyOrder("Key1", "Key2");
+    }
+
+    @Test
+    public void testApplyEmptyDiff() {
+        assertThat(tagPipeline.apply(proxyKmsClient, keyTranslator, MOCK_MODEL, callbackContext,
+            TagDiff.between(TestConstants.TAGS, TestConstants.TAGS)))
+            .isEqualTo(ProgressEvent.progress(MOCK_MODEL, callbackContext));
+
+        verify(keyApiHelper, never()).tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
+        verify(keyApiHelper, never()).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testApplySkipsReconciledTags() {
+        callbackContext.getReconciledTagKeys().add("Key2");
+
+        assertThat(tagPipeline.apply(proxyKmsClient, keyTranslator, MOCK_MODEL, callbackContext,
+            TagDiff.between(TestConstants.PREVIOUS_TAGS, Collections.emptyMap())))
+            .isEqualTo(ProgressEvent.progress(MOCK_MODEL, callbackContext));
+
+        verify(keyApiHelper, never()).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testApplyThrottledResumes() {
+        when(keyApiHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
+            .thenReturn(TagResourceResponse.builder().build());
+        when(keyApiHelper.untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient)))
+            .thenThrow(new CfnThrottlingException(UNTAG_RESOURCE))
+            .thenReturn(UntagResourceResponse.builder().build());
+        final TagDiff tagDiff = TagDiff.between(TestConstants.PREVIOUS_TAGS, TestConstants.TAGS);
+
+        // The throttled untag is retried after a callback, the tag that went through is kept
+        assertThat(tagPipeline.apply(proxyKmsClient, keyTranslator, MOCK_MODEL, callbackContext, tagDiff))
+            .isEqualTo(ProgressEvent.defaultInProgressHandler(callbackContext,
+                TagPipeline.THROTTLED_CALLBACK_DELAY_SECONDS, MOCK_MODEL));
+        assertThat(callbackContext.getReconciledTagKeys()).containsExactly("Key1");
+
+        assertThat(tagPipeline.apply(proxyKmsClient, keyTranslator, MOCK_MODEL, callbackContext, tagDiff))
+            .isEqualTo(ProgressEvent.progress(MOCK_MODEL, callbackContext));
+        assertThat(callbackContext.getReconciledTagKeys()).containsExactlyInAnyOrder("Key1", "Key2");
+
+        verify(keyApiHelper).tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
+        verify(keyApiHelper, times(2)).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
+    }
+
+    @Test
+    public void testApplyFailurePreferredOverThrottling() {
+        when(keyApiHelper.tagResource(argThat(request -> request != null
+            && request.tags().get(0).tagKey().equals("new-0")), eq(proxyKmsClient)))
+            .thenThrow(new CfnThrottlingException(TAG_RESOURCE));
+        when(keyApiHelper.tagResource(argThat(request -> request != null
+            && request.tags().get(0).tagKey().equals("new-1")), eq(proxyKmsClient)))
+            .thenThrow(new CfnInvalidRequestException(new RuntimeException(TAG_RESOURCE)));
+        final TagPipeline singleTagPipeline = new TagPipeline(keyApiHelper, 1, 2);
+
+        assertThatExceptionOfType(CfnInvalidRequestException.class).isThrownBy(() -> singleTagPipeline
+            .apply(proxyKmsClient, keyTranslator, MOCK_MODEL, callbackContext,
+                TagDiff.between(null, tags("new", 2))));
+        assertThat(callbackContext.getReconciledTagKeys()).isEmpty();
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> new TagPipeline(keyApiHelper, 0, 1));
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> new TagPipeline(keyApiHelper, TagPipeline.MAX_TAGS_PER_REQUEST + 1, 1));
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> new TagPipeline(keyApiHelper, 1, 0));
+    }
+
+    private static Map<String, String> tags(final String prefix, final int count) {
+        final Map<String, String> tags = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            tags.put(prefix + "-" + i, "value-" + i);
+        }
+        return tags;
+    }
+}
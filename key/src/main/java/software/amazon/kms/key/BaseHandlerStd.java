@@ -23,6 +23,8 @@ import software.amazon.kms.common.CreatableKeyHandlerHelper;
 import software.amazon.kms.common.CreatableKeyTranslator;
 import software.amazon.kms.common.EventualConsistencyHandlerHelper;
 import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.KeyMutation;
+import software.amazon.kms.common.KmsApiMetrics;
 import software.amazon.kms.common.TagHelper;
 
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
@@ -37,15 +39,22 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
 
     private final Delay stabilizeDelay;
 
+    static {
+        // Starts once in Lambda, in the background, when the handler wrapper loads the handlers during the init phase
+        Priming.prime();
+    }
+
     public BaseHandlerStd() {
-        this.clientBuilder = new ClientBuilder();
-        this.translator = new Translator();
-        this.keyApiHelper = new KeyApiHelper();
-        this.eventualConsistencyHandlerHelper = new EventualConsistencyHandlerHelper<>();
-        this.keyHandlerHelper =
-            new CreatableKeyHandlerHelper<>(ResourceModel.TYPE_NAME, keyApiHelper,
-                eventualConsistencyHandlerHelper, translator);
-        this.tagHelper = new TagHelper<>(translator, keyApiHelper, keyHandlerHelper);
+        this(HandlerDependencies.shared());
+    }
+
+    BaseHandlerStd(final HandlerDependencies dependencies) {
+        this.clientBuilder = dependencies.clientBuilder;
+        this.translator = dependencies.translator;
+        this.keyApiHelper = dependencies.keyApiHelper;
+        this.eventualConsistencyHandlerHelper = dependencies.eventualConsistencyHandlerHelper;
+        this.keyHandlerHelper = dependencies.keyHandlerHelper;
+        this.tagHelper = dependencies.tagHelper;
         this.stabilizeDelay = keyHandlerHelper.BACKOFF_STRATEGY;
     }
 
@@ -107,12 +116,17 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final Logger logger) {
-        return handleRequest(
-            proxy,
-            request,
-            callbackContext != null ? callbackContext : new CallbackContext(),
-            proxy.newProxy(clientBuilder::getClient),
-            logger);
+        try {
+            return handleRequest(
+                proxy,
+                request,
+                callbackContext != null ? callbackContext : new CallbackContext(),
+                proxy.newProxy(clientBuilder::getClient),
+                logger);
+        } finally {
+            // Lambda may freeze the container once we return, so every invocation writes out its own calls
+            KmsApiMetrics.shared().flush(ResourceModel.TYPE_NAME, logger::log);
+        }
     }
 
     protected abstract ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -133,6 +147,7 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
 
         if ((!wasEnabled && shouldBeEnabled) || ((wasEnabled && shouldBeEnabled) &&
             (!Objects.equals(model.getRotationPeriodInDays(), previousModel.getRotationPeriodInDays())))) {
+            callbackContext.recordMutation(KeyMutation.KEY_ROTATION);
             return proxy.initiate("kms::update-key-rotation", proxyClient, model, callbackContext)
                 .translateToServiceRequest(translator::enableKeyRotationRequest)
                     .backoffDelay(stabilizeDelay)
@@ -152,6 +167,7 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
                     .retryErrorFilter((_req, ex, _client, _model, _cb) -> ex instanceof NotFoundException)
                 .progress();
         } else if (wasEnabled && !shouldBeEnabled) {
+            callbackContext.recordMutation(KeyMutation.KEY_ROTATION);
             return proxy.initiate("kms::update-key-rotation", proxyClient, model, callbackContext)
                 .translateToServiceRequest(translator::disableKeyRotationRequest)
                 .makeServiceCall(keyApiHelper::disableKeyRotation)
@@ -64,7 +64,8 @@ public class CreateHandler extends BaseHandlerStd {
                 .disableKeyIfNecessary(proxy, proxyClient, null, model, callbackContext))
                 .then(progress -> eventualConsistencyHandlerHelper.setRequestType(progress, false))
             // Final propagation to make sure all updates are reflected
-            .then(eventualConsistencyHandlerHelper::waitForChangesToPropagate)
+            .then(progress -> eventualConsistencyHandlerHelper.waitForChangesToPropagate(progress,
+                (m, c) -> keyHandlerHelper.isKeyConsistent(proxyClient, m)))
             .then(progress -> ProgressEvent.defaultSuccessHandler(unsetWriteOnly(model)));
     }
 }
@@ -0,0 +1,70 @@
+package software.amazon.kms.key;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import software.amazon.kms.common.ClientBuilder;
+import software.amazon.kms.common.CreatableKeyHandlerHelper;
+import software.amazon.kms.common.CreatableKeyTranslator;
+import software.amazon.kms.common.EventualConsistencyHandlerHelper;
+import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.TagHelper;
+import software.amazon.kms.common.TagPipeline;
+
+/**
+ * The helpers of the AWS::KMS::Key handlers. They are thread-safe and never change once built,
+ * so a single instance, built when the first handler is, serves every handler in the container
+ * instead of each handler building its own, along with the thread pools of its key and tag helpers
+ * and of the read handler.
+ */
+final class HandlerDependencies {
+    // A read makes at most this many calls side by side once the key is described
+    private static final int READ_CONCURRENCY = 3;
+    private static final long IDLE_WORKER_TIMEOUT_SECONDS = 30;
+    private static final HandlerDependencies SHARED = new HandlerDependencies();
+
+    final ClientBuilder clientBuilder;
+    final Translator translator;
+    final KeyApiHelper keyApiHelper;
+    final TagPipeline tagPipeline;
+    final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext>
+        eventualConsistencyHandlerHelper;
+    final CreatableKeyHandlerHelper<ResourceModel, CallbackContext, CreatableKeyTranslator<ResourceModel>>
+        keyHandlerHelper;
+    final TagHelper<ResourceModel, CallbackContext, CreatableKeyTranslator<ResourceModel>> tagHelper;
+    final ExecutorService readExecutor;
+
+    private HandlerDependencies() {
+        this.clientBuilder = new ClientBuilder();
+        this.translator = new Translator();
+        this.keyApiHelper = new KeyApiHelper();
+        this.tagPipeline = new TagPipeline(keyApiHelper);
+        this.eventualConsistencyHandlerHelper = new EventualConsistencyHandlerHelper<>();
+        this.keyHandlerHelper = new CreatableKeyHandlerHelper<>(ResourceModel.TYPE_NAME, keyApiHelper,
+            eventualConsistencyHandlerHelper, translator, tagPipeline);
+        this.tagHelper = new TagHelper<>(translator, keyApiHelper, keyHandlerHelper, tagPipeline);
+        this.readExecutor = newReadExecutor();
+    }
+
+    private static ExecutorService newReadExecutor() {
+        // Workers are daemon threads that time out when idle, so a warm container
+        // does not hold on to threads between reads.
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(READ_CONCURRENCY,
+            READ_CONCURRENCY, IDLE_WORKER_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            runnable -> {
+                final Thread thread = new Thread(runnable, "kms-read-key");
+                thread.setDaemon(true);
+                return thread;
+            });
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    /**
+     * Gets the instance shared by the whole container.
+     */
+    static HandlerDependencies shared() {
+        return SHARED;
+    }
+}
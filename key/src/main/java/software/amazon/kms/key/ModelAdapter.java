@@ -6,12 +6,12 @@ import java.util.Objects;
 import com.amazonaws.util.StringUtils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import software.amazon.awssdk.services.kms.model.KeySpec;
 import software.amazon.awssdk.services.kms.model.KeyUsageType;
 import software.amazon.awssdk.services.kms.model.OriginType;
 import software.amazon.cloudformation.exceptions.TerminalException;
+import software.amazon.kms.common.PolicyJson;
 
 import static software.amazon.kms.common.KeyTranslator.DEFAULT_KEY_POLICY_FROM_JSON;
 
@@ -87,7 +87,7 @@ public class ModelAdapter {
         final String policyString;
         if (policy instanceof Map) {
             try {
-                policyString = new ObjectMapper().writeValueAsString(policy);
+                policyString = PolicyJson.shared().writePolicy(policy);
             } catch (final JsonProcessingException e) {
                 throw new TerminalException(e);
             }
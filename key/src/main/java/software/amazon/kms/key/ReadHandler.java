@@ -1,18 +1,25 @@
 package software.amazon.kms.key;
 
 
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static software.amazon.kms.key.ModelAdapter.unsetWriteOnly;
 
 
 import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.GetKeyPolicyResponse;
+import software.amazon.awssdk.services.kms.model.ListResourceTagsResponse;
 import software.amazon.awssdk.services.kms.model.OriginType;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.kms.common.AbstractKmsApiHelper;
 import software.amazon.kms.common.ClientBuilder;
 import software.amazon.kms.common.CreatableKeyHandlerHelper;
 import software.amazon.kms.common.CreatableKeyTranslator;
@@ -20,8 +27,16 @@ import software.amazon.kms.common.EventualConsistencyHandlerHelper;
 import software.amazon.kms.common.KeyApiHelper;
 
 public class ReadHandler extends BaseHandlerStd {
+    // Runs the reads that only depend on DescribeKey side by side, or null to make them one by one
+    private final Executor readExecutor;
+
     public ReadHandler() {
-        super();
+        this(HandlerDependencies.shared());
+    }
+
+    private ReadHandler(final HandlerDependencies dependencies) {
+        super(dependencies);
+        this.readExecutor = dependencies.readExecutor;
     }
 
     public ReadHandler(final ClientBuilder clientBuilder,
@@ -30,8 +45,20 @@ public class ReadHandler extends BaseHandlerStd {
                        final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext>
                            eventualConsistencyHandlerHelper,
                        final CreatableKeyHandlerHelper<ResourceModel, CallbackContext, CreatableKeyTranslator<ResourceModel>> keyHandlerHelper) {
+        this(clientBuilder, translator, keyApiHelper, eventualConsistencyHandlerHelper,
+            keyHandlerHelper, null);
+    }
+
+    public ReadHandler(final ClientBuilder clientBuilder,
+                       final Translator translator,
+                       final KeyApiHelper keyApiHelper,
+                       final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext>
+                           eventualConsistencyHandlerHelper,
+                       final CreatableKeyHandlerHelper<ResourceModel, CallbackContext, CreatableKeyTranslator<ResourceModel>> keyHandlerHelper,
+                       final Executor readExecutor) {
         super(clientBuilder, translator, keyApiHelper, eventualConsistencyHandlerHelper,
             keyHandlerHelper);
+        this.readExecutor = readExecutor;
     }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -46,6 +73,20 @@ public class ReadHandler extends BaseHandlerStd {
             // Describe the key, and update our resource model
             .then(
                 p -> keyHandlerHelper.describeKey(proxy, proxyClient, model, callbackContext, true))
+            .then(p -> readExecutor != null
+                ? readAttributesConcurrently(proxyClient, model, callbackContext)
+                : readAttributes(proxy, proxyClient, model, callbackContext))
+                // !!! WARNING !!! Make sure to update unsetWriteOnly when you add a new property
+                // which is not a WriteOnly property or contract tests will break
+            .then(p -> ProgressEvent.defaultSuccessHandler(unsetWriteOnly(model)));
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> readAttributes(
+        final AmazonWebServicesClientProxy proxy,
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceModel model,
+        final CallbackContext callbackContext) {
+        return ProgressEvent.progress(model, callbackContext)
             // Retrieving the key policy can potentially cause an access denied exception
             .then(p -> softFailAccessDenied(() -> keyHandlerHelper
                 .getKeyPolicy(proxy, proxyClient, model, callbackContext), model, callbackContext))
@@ -67,9 +108,61 @@ public class ReadHandler extends BaseHandlerStd {
             // Retrieving the tags can potentially cause an access denied exception, fail gracefully
             .then(p -> softFailAccessDenied(() -> keyHandlerHelper
                 .retrieveResourceTags(proxy, proxyClient, model, callbackContext, true),
-                model, callbackContext))
-                // !!! WARNING !!! Make sure to update unsetWriteOnly when you add a new property
-                // which is not a WriteOnly property or contract tests will break
-            .then(p -> ProgressEvent.defaultSuccessHandler(unsetWriteOnly(model)));
+                model, callbackContext));
+    }
+
+    /**
+     * Reads the same attributes as {@link #readAttributes}, but starts every call before
+     * waiting on any of them, so the read takes about as long as its slowest call. The calls
+     * are made on the read executor with the same pooled client as every other call, through the
+     * handler's proxy client, which {@link AbstractKmsApiHelper} allows to be shared across threads.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> readAttributesConcurrently(
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceModel model,
+        final CallbackContext callbackContext) {
+        final CompletableFuture<GetKeyPolicyResponse> keyPolicy = CompletableFuture.supplyAsync(
+            () -> keyApiHelper.getKeyPolicy(translator.getKeyPolicyRequest(model), proxyClient),
+            readExecutor);
+        final CompletableFuture<Boolean> keyRotationEnabled =
+            Objects.equals(model.getOrigin(), OriginType.EXTERNAL.toString())
+                ? CompletableFuture.completedFuture(false)
+                : CompletableFuture.supplyAsync(() -> keyApiHelper.getKeyRotationStatus(
+                    translator.getKeyRotationStatusRequest(model), proxyClient).keyRotationEnabled(),
+                    readExecutor);
+        final CompletableFuture<Set<software.amazon.awssdk.services.kms.model.Tag>> tags =
+            CompletableFuture.supplyAsync(() -> listResourceTags(proxyClient, model), readExecutor);
+
+        // Each call keeps its own soft failure, just like the sequential reads
+        return ProgressEvent.progress(model, callbackContext)
+            .then(p -> softFailAccessDenied(() -> {
+                translator.setKeyPolicy(model, translator.deserializeKeyPolicy(
+                    AbstractKmsApiHelper.awaitResponse(keyPolicy).policy()));
+                return ProgressEvent.progress(model, callbackContext);
+            }, model, callbackContext))
+            .then(p -> softFailAccessDenied(() -> {
+                model.setEnableKeyRotation(AbstractKmsApiHelper.awaitResponse(keyRotationEnabled));
+                return ProgressEvent.progress(model, callbackContext);
+            }, model, callbackContext))
+            .then(p -> softFailAccessDenied(() -> {
+                callbackContext.setExistingTags(AbstractKmsApiHelper.awaitResponse(tags));
+                translator.setTags(model, callbackContext.getExistingTags());
+                return ProgressEvent.progress(model, callbackContext);
+            }, model, callbackContext));
+    }
+
+    private Set<software.amazon.awssdk.services.kms.model.Tag> listResourceTags(
+        final ProxyClient<KmsClient> proxyClient,
+        final ResourceModel model) {
+        final Set<software.amazon.awssdk.services.kms.model.Tag> tags = new HashSet<>();
+        String marker = null;
+        do {
+            final ListResourceTagsResponse listResourceTagsResponse = keyApiHelper
+                .listResourceTags(translator.listResourceTagsRequest(model, marker), proxyClient);
+            tags.addAll(listResourceTagsResponse.tags());
+            marker = listResourceTagsResponse.nextMarker();
+        } while (marker != null);
+
+        return tags;
     }
 }
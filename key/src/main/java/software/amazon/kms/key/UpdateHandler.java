@@ -67,13 +67,17 @@ public class UpdateHandler extends BaseHandlerStd {
                     // Customer is attempting to change tags, no soft fail
                     return tagHelper.updateKeyTags(proxy, proxyClient, model, request, callbackContext, tags);
                 } else {
-                    // Customer did not explicitly request a tag update, fixing the drift
+                    // Customer did not explicitly request a tag update. The diff is against the previous
+                    // request tags, so tags added outside of CloudFormation are left alone
                     return softFailAccessDenied(() -> tagHelper
                         .updateKeyTags(proxy, proxyClient, model, request, callbackContext, tags),
                             model, callbackContext);
                 }
             })
-            .then(eventualConsistencyHandlerHelper::waitForChangesToPropagate)
+            // Nothing to propagate if every step found the key already up to date
+            .then(progress -> callbackContext.getMutations().isEmpty() ? progress
+                : eventualConsistencyHandlerHelper.waitForChangesToPropagate(progress,
+                    (m, c) -> keyHandlerHelper.isKeyConsistent(proxyClient, m)))
             .then(progress -> ProgressEvent.defaultSuccessHandler(unsetWriteOnly(model)));
     }
 }
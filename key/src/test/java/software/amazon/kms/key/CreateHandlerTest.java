@@ -43,6 +43,7 @@ import software.amazon.kms.common.CreatableKeyHandlerHelper;
 import software.amazon.kms.common.CreatableKeyTranslator;
 import software.amazon.kms.common.EventualConsistencyHandlerHelper;
 import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.PropagationProbe;
 import software.amazon.kms.common.TagHelper;
 import software.amazon.kms.common.TestConstants;
 import software.amazon.kms.common.TestUtils;
@@ -165,8 +166,14 @@ public class CreateHandlerTest {
                 eq(callbackContext))).thenReturn(inProgressEvent);
         when(eventualConsistencyHandlerHelper.setRequestType(eq(inProgressEvent), eq(false)))
                 .thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
-            .thenReturn(inProgressEvent);
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
+            .thenAnswer(invocation -> {
+                // Probe once, the way the helper would
+                invocation.<PropagationProbe<ResourceModel, CallbackContext>>getArgument(1)
+                    .isConsistent(null, callbackContext);
+                return inProgressEvent;
+            });
+        when(keyHandlerHelper.isKeyConsistent(eq(proxyKmsClient), any())).thenReturn(true);
 
         // Setup our request
         final ResourceHandlerRequest<ResourceModel> request =
@@ -191,7 +198,8 @@ public class CreateHandlerTest {
                 eq(callbackContext), eq(TestConstants.TAGS));
         verify(keyHandlerHelper).disableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), isNull(),
             eq(KEY_MODEL_WITH_DEFAULTS_SET), eq(callbackContext));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
+        verify(keyHandlerHelper).isKeyConsistent(eq(proxyKmsClient), any());
 
         // We shouldn't make any other calls
         verifyNoMoreInteractions(keyApiHelper);
@@ -199,6 +207,43 @@ public class CreateHandlerTest {
         verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
     }
 
+    @Test
+    public void handleRequest_WaitsCreateDelayEvenIfConsistent() {
+        handler = new CreateHandler(clientBuilder, translator, keyApiHelper,
+            new EventualConsistencyHandlerHelper<>(), keyHandlerHelper, tagHelper, BACKOFF_STRATEGY);
+        when(keyApiHelper.enableKeyRotation(any(EnableKeyRotationRequest.class), eq(proxyKmsClient)))
+            .thenReturn(EnableKeyRotationResponse.builder().build());
+        when(keyHandlerHelper.createKey(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_WITH_DEFAULTS_SET),
+            eq(callbackContext), eq(TestConstants.TAGS)))
+            .thenReturn(ProgressEvent.progress(KEY_MODEL_WITH_DEFAULTS_SET, callbackContext));
+        when(keyHandlerHelper.disableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), isNull(),
+            eq(KEY_MODEL_WITH_DEFAULTS_SET), eq(callbackContext)))
+            .thenReturn(ProgressEvent.progress(KEY_MODEL_WITH_DEFAULTS_SET, callbackContext));
+
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(KEY_MODEL)
+                .desiredResourceTags(TestConstants.TAGS)
+                .build();
+
+        // Re-invoke the handler like CloudFormation would, until the create finishes
+        int waitedSeconds = 0;
+        ProgressEvent<ResourceModel, CallbackContext> progressEvent = null;
+        for (int invocation = 0; invocation < 10; invocation++) {
+            progressEvent = handler.handleRequest(proxy, request, callbackContext, proxyKmsClient,
+                TestConstants.LOGGER);
+            if (progressEvent.getStatus() != OperationStatus.IN_PROGRESS) {
+                break;
+            }
+            waitedSeconds += progressEvent.getCallbackDelaySeconds();
+        }
+
+        // Probes can't see the new key's policy being enforced, so the create waits the create delay
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(waitedSeconds).isGreaterThanOrEqualTo(
+            EventualConsistencyHandlerHelper.CREATE_DELETE_EVENTUAL_CONSISTENCY_DELAY_SECONDS);
+    }
+
     @Test
     public void handleRequest_SimpleSuccess_RetryEnableKeyRotation() {
 
@@ -223,7 +268,7 @@ public class CreateHandlerTest {
                         eq(callbackContext))).thenReturn(inProgressEvent);
         when(eventualConsistencyHandlerHelper.setRequestType(eq(inProgressEvent), eq(false)))
                 .thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
                 .thenReturn(inProgressEvent);
 
         // Setup our request
@@ -250,7 +295,7 @@ public class CreateHandlerTest {
                         eq(callbackContext), eq(TestConstants.TAGS));
         verify(keyHandlerHelper).disableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), isNull(),
                 eq(KEY_MODEL_WITH_DEFAULTS_SET), eq(callbackContext));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
 
         // We shouldn't make any other calls
         verifyNoMoreInteractions(keyApiHelper);
@@ -454,7 +499,7 @@ public class CreateHandlerTest {
                         eq(callbackContext))).thenReturn(inProgressEvent);
         when(eventualConsistencyHandlerHelper.setRequestType(eq(inProgressEvent), eq(false)))
                 .thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
                 .thenReturn(inProgressEvent);
 
         // Setup our request
@@ -476,7 +521,7 @@ public class CreateHandlerTest {
                         eq(callbackContext), eq(TestConstants.TAGS));
         verify(keyHandlerHelper).disableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), isNull(),
                 eq(KEY_MODEL_EXTERNAL_ROTATION_DISABLED), eq(callbackContext));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
 
         // We shouldn't make any other calls
         verifyNoMoreInteractions(keyApiHelper);
@@ -501,7 +546,7 @@ public class CreateHandlerTest {
                 eq(KEY_MODEL_ROTATION_IN_PERIOD_DAYS), eq(callbackContext))).thenReturn(inProgressEvent);
         when(eventualConsistencyHandlerHelper.setRequestType(eq(inProgressEvent), eq(false)))
                 .thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
                 .thenReturn(inProgressEvent);
 
         // Setup our request
@@ -525,7 +570,7 @@ public class CreateHandlerTest {
                 eq(callbackContext), eq(TestConstants.TAGS));
         verify(keyHandlerHelper).disableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), isNull(),
                 eq(KEY_MODEL_ROTATION_IN_PERIOD_DAYS), eq(callbackContext));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
 
         // We shouldn't make any other calls
         verifyNoMoreInteractions(keyApiHelper);
@@ -544,7 +589,7 @@ public class CreateHandlerTest {
                 eq(KEY_MODEL_ASYMMETRIC_KEY_AGREEMENT), eq(callbackContext))).thenReturn(inProgressEvent);
         when(eventualConsistencyHandlerHelper.setRequestType(eq(inProgressEvent), eq(false)))
                 .thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
                 .thenReturn(inProgressEvent);
 
         // Setup our request
@@ -565,7 +610,7 @@ public class CreateHandlerTest {
                 eq(callbackContext), eq(TestConstants.TAGS));
         verify(keyHandlerHelper).disableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), isNull(),
                 eq(KEY_MODEL_ASYMMETRIC_KEY_AGREEMENT), eq(callbackContext));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
 
         // We shouldn't make any other calls
         verifyNoMoreInteractions(keyApiHelper);
@@ -4,14 +4,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
 import java.time.Duration;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,8 +23,12 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.GetKeyPolicyRequest;
+import software.amazon.awssdk.services.kms.model.GetKeyPolicyResponse;
 import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusRequest;
 import software.amazon.awssdk.services.kms.model.GetKeyRotationStatusResponse;
+import software.amazon.awssdk.services.kms.model.ListResourceTagsRequest;
+import software.amazon.awssdk.services.kms.model.ListResourceTagsResponse;
 import software.amazon.awssdk.services.kms.model.OriginType;
 import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
 import software.amazon.cloudformation.exceptions.CfnUnauthorizedTaggingOperationException;
@@ -236,4 +244,198 @@ public class ReadHandlerTest {
         verifyNoMoreInteractions(keyHandlerHelper);
         verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
     }
+
+    @Test
+    public void handleRequest_RepeatedReadSeesChanges() {
+        final Map<String, Object> updatedKeyPolicy = ImmutableMap.of("Version", "2012-10-17");
+        mockDescribeKey();
+        // The key policy changes between the two reads, which doesn't show in its metadata
+        when(keyHandlerHelper.getKeyPolicy(eq(proxy), eq(proxyKmsClient), any(ResourceModel.class),
+            any(CallbackContext.class))).thenAnswer(i -> {
+                final ResourceModel model = i.getArgument(2);
+                model.setKeyPolicy(TestConstants.DESERIALIZED_KEY_POLICY);
+                return ProgressEvent.progress(model, i.getArgument(3));
+            }).thenAnswer(i -> {
+                final ResourceModel model = i.getArgument(2);
+                model.setKeyPolicy(updatedKeyPolicy);
+                return ProgressEvent.progress(model, i.getArgument(3));
+            });
+        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient),
+            any(ResourceModel.class), any(CallbackContext.class), eq(true)))
+            .thenAnswer(i -> ProgressEvent.progress(i.getArgument(2), i.getArgument(3)));
+        when(keyApiHelper.getKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient)))
+            .thenReturn(GetKeyRotationStatusResponse.builder().keyRotationEnabled(true).build());
+
+        handler.handleRequest(proxy, readRequest(describedKeyModel()), new CallbackContext(),
+            proxyKmsClient, TestConstants.LOGGER);
+        final ProgressEvent<ResourceModel, CallbackContext> secondRead =
+            handler.handleRequest(proxy, readRequest(describedKeyModel()), new CallbackContext(),
+                proxyKmsClient, TestConstants.LOGGER);
+
+        // The second read retrieves everything again, and returns the updated policy
+        assertThat(secondRead.getResourceModel().getKeyPolicy()).isEqualTo(updatedKeyPolicy);
+        verify(keyHandlerHelper, times(2)).getKeyPolicy(eq(proxy), eq(proxyKmsClient),
+            any(ResourceModel.class), any(CallbackContext.class));
+        verify(keyHandlerHelper, times(2)).retrieveResourceTags(eq(proxy), eq(proxyKmsClient),
+            any(ResourceModel.class), any(CallbackContext.class), eq(true));
+        verify(keyApiHelper, times(2)).getKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient));
+    }
+
+    @Test
+    public void handleRequest_RepeatedReadByDeniedCaller() {
+        mockDescribeKey();
+        // The first caller may read the key policy, the second one may not
+        when(keyHandlerHelper.getKeyPolicy(eq(proxy), eq(proxyKmsClient), any(ResourceModel.class),
+            any(CallbackContext.class))).thenAnswer(i -> {
+                final ResourceModel model = i.getArgument(2);
+                model.setKeyPolicy(TestConstants.DESERIALIZED_KEY_POLICY);
+                return ProgressEvent.progress(model, i.getArgument(3));
+            }).thenThrow(CfnAccessDeniedException.class);
+        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient),
+            any(ResourceModel.class), any(CallbackContext.class), eq(true)))
+            .thenAnswer(i -> ProgressEvent.progress(i.getArgument(2), i.getArgument(3)));
+        when(keyApiHelper.getKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient)))
+            .thenReturn(GetKeyRotationStatusResponse.builder().keyRotationEnabled(true).build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> firstRead =
+            handler.handleRequest(proxy, readRequest(describedKeyModel()), new CallbackContext(),
+                proxyKmsClient, TestConstants.LOGGER);
+        final ProgressEvent<ResourceModel, CallbackContext> secondRead =
+            handler.handleRequest(proxy, readRequest(describedKeyModel()), new CallbackContext(),
+                proxyKmsClient, TestConstants.LOGGER);
+
+        // The denied caller soft fails instead of getting the policy the first caller read
+        assertThat(firstRead.getResourceModel().getKeyPolicy())
+            .isEqualTo(TestConstants.DESERIALIZED_KEY_POLICY);
+        assertThat(secondRead.isSuccess()).isTrue();
+        assertThat(secondRead.getResourceModel().getKeyPolicy()).isNull();
+        verify(keyHandlerHelper, times(2)).getKeyPolicy(eq(proxy), eq(proxyKmsClient),
+            any(ResourceModel.class), any(CallbackContext.class));
+    }
+
+    @Test
+    public void handleRequest_ConcurrentReadsSuccess() {
+        final ReadHandler concurrentHandler = new ReadHandler(clientBuilder, translator,
+            keyApiHelper, eventualConsistencyHandlerHelper, keyHandlerHelper,
+            MoreExecutors.directExecutor());
+        mockDescribeKey();
+        when(keyApiHelper.getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(GetKeyPolicyResponse.builder().policy(TestConstants.KEY_POLICY).build());
+        when(keyApiHelper.getKeyRotationStatus(any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient)))
+            .thenReturn(GetKeyRotationStatusResponse.builder().keyRotationEnabled(true).build());
+        // The tags span two pages
+        when(keyApiHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(ListResourceTagsResponse.builder()
+                .tags(software.amazon.awssdk.services.kms.model.Tag.builder()
+                    .tagKey("Key").tagValue("Value").build())
+                .nextMarker("marker")
+                .build())
+            .thenReturn(ListResourceTagsResponse.builder()
+                .tags(software.amazon.awssdk.services.kms.model.Tag.builder()
+                    .tagKey("Key2").tagValue("Value2").build())
+                .build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            concurrentHandler.handleRequest(proxy, readRequest(describedKeyModel()),
+                callbackContext, proxyKmsClient, TestConstants.LOGGER);
+
+        assertThat(response.isSuccess()).isTrue();
+        assertThat(response.getResourceModel().getKeyPolicy())
+            .isEqualTo(TestConstants.DESERIALIZED_KEY_POLICY);
+        assertThat(response.getResourceModel().getEnableKeyRotation()).isTrue();
+        assertThat(response.getResourceModel().getTags()).containsExactlyInAnyOrder(
+            Tag.builder().key("Key").value("Value").build(),
+            Tag.builder().key("Key2").value("Value2").build());
+
+        verify(keyHandlerHelper).describeKey(eq(proxy), eq(proxyKmsClient),
+            any(ResourceModel.class), eq(callbackContext), eq(true));
+        verify(keyApiHelper).getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient));
+        verify(keyApiHelper).getKeyRotationStatus(any(GetKeyRotationStatusRequest.class),
+            eq(proxyKmsClient));
+        verify(keyApiHelper, times(2)).listResourceTags(any(ListResourceTagsRequest.class),
+            eq(proxyKmsClient));
+
+        // We shouldn't call anything else
+        verifyNoMoreInteractions(keyApiHelper);
+        verifyNoMoreInteractions(keyHandlerHelper);
+        verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
+    }
+
+    @Test
+    public void handleRequest_ConcurrentReadsSoftFailAccessDenied() {
+        final ReadHandler concurrentHandler = new ReadHandler(clientBuilder, translator,
+            keyApiHelper, eventualConsistencyHandlerHelper, keyHandlerHelper,
+            MoreExecutors.directExecutor());
+        mockDescribeKey();
+        when(keyApiHelper.getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenThrow(new CfnAccessDeniedException("GetKeyPolicy", new RuntimeException()));
+        when(keyApiHelper.getKeyRotationStatus(any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient)))
+            .thenThrow(new CfnAccessDeniedException("GetKeyRotationStatus",
+                new RuntimeException()));
+        when(keyApiHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenThrow(new CfnUnauthorizedTaggingOperationException(new RuntimeException()));
+
+        // Set up our request
+        final ResourceModel model = describedKeyModel();
+        model.setEnableKeyRotation(false);
+
+        // Our soft failing should ignore every access denied
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            concurrentHandler.handleRequest(proxy, readRequest(model), callbackContext,
+                proxyKmsClient, TestConstants.LOGGER);
+
+        final ResourceModel expectedModel = describedKeyModel();
+        expectedModel.setEnableKeyRotation(false);
+        assertThat(response)
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(ModelAdapter.unsetWriteOnly(expectedModel)));
+    }
+
+    @Test
+    public void handleRequest_ConcurrentReadsOriginExternal() {
+        final ReadHandler concurrentHandler = new ReadHandler(clientBuilder, translator,
+            keyApiHelper, eventualConsistencyHandlerHelper, keyHandlerHelper,
+            MoreExecutors.directExecutor());
+        mockDescribeKey();
+        when(keyApiHelper.getKeyPolicy(any(GetKeyPolicyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(GetKeyPolicyResponse.builder().policy(TestConstants.KEY_POLICY).build());
+        when(keyApiHelper.listResourceTags(any(ListResourceTagsRequest.class), eq(proxyKmsClient)))
+            .thenReturn(ListResourceTagsResponse.builder().build());
+
+        final ResourceModel model = describedKeyModel();
+        model.setOrigin(OriginType.EXTERNAL.toString());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            concurrentHandler.handleRequest(proxy, readRequest(model), callbackContext,
+                proxyKmsClient, TestConstants.LOGGER);
+
+        assertThat(response.isSuccess()).isTrue();
+        assertThat(response.getResourceModel().getEnableKeyRotation()).isFalse();
+
+        // Make sure we never called get key rotation status
+        verify(keyApiHelper, never()).getKeyRotationStatus(
+            any(GetKeyRotationStatusRequest.class), eq(proxyKmsClient));
+    }
+
+    private void mockDescribeKey() {
+        when(keyHandlerHelper.describeKey(eq(proxy), eq(proxyKmsClient), any(ResourceModel.class),
+            any(CallbackContext.class), eq(true)))
+            .thenAnswer(i -> ProgressEvent.progress(i.getArgument(2), i.getArgument(3)));
+    }
+
+    private static ResourceModel describedKeyModel() {
+        // The properties describing the key leaves on the model
+        return ResourceModel.builder()
+            .keyId("mock-key-id")
+            .arn("mock-arn")
+            .description("mock-description")
+            .enabled(true)
+            .build();
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> readRequest(final ResourceModel model) {
+        return ResourceHandlerRequest.<ResourceModel>builder().desiredResourceState(model).build();
+    }
 }
@@ -25,6 +25,7 @@ import software.amazon.awssdk.services.kms.model.EnableKeyRotationResponse;
 import software.amazon.awssdk.services.kms.model.KeySpec;
 import software.amazon.awssdk.services.kms.model.KeyUsageType;
 import software.amazon.awssdk.services.kms.model.OriginType;
+import software.amazon.awssdk.services.kms.model.Tag;
 import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
 import software.amazon.cloudformation.exceptions.CfnInvalidRequestException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
@@ -36,6 +37,8 @@ import software.amazon.kms.common.CreatableKeyHandlerHelper;
 import software.amazon.kms.common.CreatableKeyTranslator;
 import software.amazon.kms.common.EventualConsistencyHandlerHelper;
 import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.KeyMutation;
+import software.amazon.kms.common.PropagationProbe;
 import software.amazon.kms.common.TagHelper;
 import software.amazon.kms.common.TestConstants;
 import software.amazon.kms.common.TestUtils;
@@ -218,10 +221,14 @@ public class UpdateHandlerTest {
                 .thenReturn(tagResourceResponse);
         when(keyApiHelper.untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient)))
             .thenReturn(untagResourceResponse);
-        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext),
-            eq(false))).thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
-            .thenReturn(inProgressEvent);
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
+            .thenAnswer(invocation -> {
+                // Probe once, the way the helper would
+                invocation.<PropagationProbe<ResourceModel, CallbackContext>>getArgument(1)
+                    .isConsistent(null, callbackContext);
+                return inProgressEvent;
+            });
+        when(keyHandlerHelper.isKeyConsistent(eq(proxyKmsClient), any())).thenReturn(true);
 
         // Set up our request
         final ResourceHandlerRequest<ResourceModel> request =
@@ -255,12 +262,11 @@ public class UpdateHandlerTest {
         verify(keyHandlerHelper)
             .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS), eq(KEY_MODEL),
                 eq(callbackContext));
-        verify(keyHandlerHelper)
-            .retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext), eq(false));
         verify(keyApiHelper)
             .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
         verify(keyApiHelper).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
+        verify(keyHandlerHelper).isKeyConsistent(eq(proxyKmsClient), any());
 
         // We shouldn't call anything else
         verifyZeroInteractions(keyApiHelper);
@@ -299,9 +305,7 @@ public class UpdateHandlerTest {
             .thenReturn(tagResourceResponse);
         when(keyApiHelper.untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient)))
             .thenReturn(untagResourceResponse);
-        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_NO_POLICY), eq(callbackContext),
-            eq(false))).thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
             .thenReturn(inProgressEvent);
 
         // Set up our request
@@ -336,12 +340,10 @@ public class UpdateHandlerTest {
         verify(keyHandlerHelper)
             .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_NO_POLICY_PREVIOUS), eq(KEY_MODEL_NO_POLICY),
                 eq(callbackContext));
-        verify(keyHandlerHelper)
-            .retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_NO_POLICY), eq(callbackContext), eq(false));
         verify(keyApiHelper)
             .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
         verify(keyApiHelper).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
 
         // We shouldn't call anything else
         verifyZeroInteractions(keyApiHelper);
@@ -380,9 +382,7 @@ public class UpdateHandlerTest {
                 .thenReturn(tagResourceResponse);
         when(keyApiHelper.untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient)))
                 .thenReturn(untagResourceResponse);
-        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_DEFAULT_POLICY), eq(callbackContext),
-                eq(false))).thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
                 .thenReturn(inProgressEvent);
 
         // Set up our request
@@ -417,12 +417,10 @@ public class UpdateHandlerTest {
         verify(keyHandlerHelper)
                 .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(KEY_MODEL_DEFAULT_POLICY),
                         eq(callbackContext));
-        verify(keyHandlerHelper)
-                .retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_DEFAULT_POLICY), eq(callbackContext), eq(false));
         verify(keyApiHelper)
                 .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
         verify(keyApiHelper).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
 
         // We shouldn't call anything else
         verifyZeroInteractions(keyApiHelper);
@@ -459,8 +457,6 @@ public class UpdateHandlerTest {
         // Throw CfnAccessDeniedException to mock no kms:UntagResource permission
         when(keyApiHelper.untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient)))
             .thenThrow(CfnAccessDeniedException.class);
-        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext),
-                eq(false))).thenReturn(inProgressEvent);
 
         // Set up our request
         final ResourceHandlerRequest<ResourceModel> request =
@@ -492,13 +488,12 @@ public class UpdateHandlerTest {
         verify(keyHandlerHelper)
             .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS), eq(KEY_MODEL),
                 eq(callbackContext));
-        verify(keyHandlerHelper)
-            .retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext), eq(false));
         verify(keyApiHelper)
             .untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
-        verify(keyApiHelper, never())
+        // Tagging doesn't depend on the failed untag, so it is still sent
+        verify(keyApiHelper)
             .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
-        verify(eventualConsistencyHandlerHelper, never()).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper, never()).waitForChangesToPropagate(eq(inProgressEvent), any());
 
         // We shouldn't call anything else
         verifyZeroInteractions(keyApiHelper);
@@ -526,14 +521,15 @@ public class UpdateHandlerTest {
         when(keyHandlerHelper
             .updateKeyDescription(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS),
                 eq(KEY_MODEL), eq(callbackContext)))
-            .thenReturn(inProgressEvent);
+            .thenAnswer(invocation -> {
+                callbackContext.recordMutation(KeyMutation.DESCRIPTION);
+                return inProgressEvent;
+            });
         when(keyHandlerHelper
             .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS), eq(KEY_MODEL),
                 eq(callbackContext)))
             .thenReturn(inProgressEvent);
-        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext),
-                eq(false))).thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
             .thenReturn(inProgressEvent);
 
 
@@ -569,13 +565,86 @@ public class UpdateHandlerTest {
         verify(keyHandlerHelper)
             .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS), eq(KEY_MODEL),
                 eq(callbackContext));
+        verify(keyHandlerHelper, never())
+            .retrieveResourceTags(any(), any(), any(), any(), eq(false));
+        verify(keyApiHelper, never())
+            .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
+        verify(keyApiHelper, never())
+            .untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
+
+        // We shouldn't call anything else
+        verifyZeroInteractions(keyApiHelper);
+        verifyNoMoreInteractions(keyHandlerHelper);
+        verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
+    }
+
+    @Test
+    public void handleRequest_NoChangesSkipsPropagation() {
+        // Mock out delegation to our helpers and make them return an IN_PROGRESS event
+        final ProgressEvent<ResourceModel, CallbackContext> inProgressEvent =
+            ProgressEvent.progress(KEY_MODEL, callbackContext);
+        when(keyHandlerHelper
+            .describeKey(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext),
+                eq(false)))
+            .thenReturn(inProgressEvent);
+        when(keyHandlerHelper
+            .enableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS),
+                eq(KEY_MODEL), eq(callbackContext), eq(true)))
+            .thenReturn(inProgressEvent);
+        when(keyHandlerHelper
+            .disableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS),
+                eq(KEY_MODEL), eq(callbackContext)))
+            .thenReturn(inProgressEvent);
+        when(keyHandlerHelper
+            .updateKeyDescription(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS),
+                eq(KEY_MODEL), eq(callbackContext)))
+            .thenReturn(inProgressEvent);
+        when(keyHandlerHelper
+            .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS), eq(KEY_MODEL),
+                eq(callbackContext)))
+            .thenReturn(inProgressEvent);
+
+        // Set up our request
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .awsPartition(TestConstants.AWS_PARTITION)
+                .awsAccountId(TestConstants.ACCOUNT_ID)
+                .previousResourceState(KEY_MODEL_PREVIOUS)
+                .desiredResourceState(KEY_MODEL)
+                .desiredResourceTags(TestConstants.TAGS)
+                .previousResourceTags(TestConstants.TAGS)
+                .build();
+
+        // Execute the update handler and make sure it returns the expected results
+        assertThat(handler
+            .handleRequest(proxy, request, callbackContext, proxyKmsClient, TestConstants.LOGGER))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(KEY_MODEL_REDACTED));
+
+        // Make sure we called our helpers with the correct parameters, and skipped the propagation
+        // since none of them had anything to change
         verify(keyHandlerHelper)
-            .retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext), eq(false));
+            .describeKey(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext),
+                eq(false));
+        verify(keyHandlerHelper)
+            .enableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS),
+                eq(KEY_MODEL), eq(callbackContext), eq(true));
+        verify(keyHandlerHelper)
+            .disableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS),
+                eq(KEY_MODEL), eq(callbackContext));
+        verify(keyHandlerHelper)
+            .updateKeyDescription(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS),
+                eq(KEY_MODEL), eq(callbackContext));
+        verify(keyHandlerHelper)
+            .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS), eq(KEY_MODEL),
+                eq(callbackContext));
+        verify(keyHandlerHelper, never())
+            .retrieveResourceTags(any(), any(), any(), any(), eq(false));
         verify(keyApiHelper, never())
             .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
         verify(keyApiHelper, never())
             .untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper, never()).waitForChangesToPropagate(any(), any());
 
         // We shouldn't call anything else
         verifyZeroInteractions(keyApiHelper);
@@ -583,6 +652,65 @@ public class UpdateHandlerTest {
         verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
     }
 
+    @Test
+    public void handleRequest_KeepsOutOfBandTags() {
+        // Mock out delegation to our helpers and make them return an IN_PROGRESS event
+        final ProgressEvent<ResourceModel, CallbackContext> inProgressEvent =
+            ProgressEvent.progress(KEY_MODEL, callbackContext);
+        when(keyHandlerHelper
+            .describeKey(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext),
+                eq(false)))
+            .thenAnswer(invocation -> {
+                // Someone tagged the key outside of CloudFormation
+                callbackContext.setExistingTags(ImmutableSet.<Tag>builder()
+                    .addAll(TestConstants.SDK_TAGS)
+                    .addAll(TestConstants.SDK_TAGS_NEW)
+                    .build());
+                return inProgressEvent;
+            });
+        when(keyHandlerHelper
+            .enableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS),
+                eq(KEY_MODEL), eq(callbackContext), eq(true)))
+            .thenReturn(inProgressEvent);
+        when(keyHandlerHelper
+            .disableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS),
+                eq(KEY_MODEL), eq(callbackContext)))
+            .thenReturn(inProgressEvent);
+        when(keyHandlerHelper
+            .updateKeyDescription(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS),
+                eq(KEY_MODEL), eq(callbackContext)))
+            .thenReturn(inProgressEvent);
+        when(keyHandlerHelper
+            .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS), eq(KEY_MODEL),
+                eq(callbackContext)))
+            .thenReturn(inProgressEvent);
+
+        // Set up our request, the tags didn't change
+        final ResourceHandlerRequest<ResourceModel> request =
+            ResourceHandlerRequest.<ResourceModel>builder()
+                .awsPartition(TestConstants.AWS_PARTITION)
+                .awsAccountId(TestConstants.ACCOUNT_ID)
+                .previousResourceState(KEY_MODEL_PREVIOUS)
+                .desiredResourceState(KEY_MODEL)
+                .desiredResourceTags(TestConstants.TAGS)
+                .previousResourceTags(TestConstants.TAGS)
+                .build();
+
+        // Execute the update handler and make sure it returns the expected results
+        assertThat(handler
+            .handleRequest(proxy, request, callbackContext, proxyKmsClient, TestConstants.LOGGER))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(KEY_MODEL_REDACTED));
+
+        // Make sure the out-of-band tag survived, and the tags weren't even listed
+        verify(keyHandlerHelper, never())
+            .retrieveResourceTags(any(), any(), any(), any(), eq(false));
+        verify(keyApiHelper, never())
+            .untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
+        verify(keyApiHelper, never())
+            .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
+        verify(eventualConsistencyHandlerHelper, never()).waitForChangesToPropagate(any(), any());
+    }
+
     @Test
     public void handleRequest_InvalidResourceModel() {
         // Mock out delegation to our helpers and make them return an IN_PROGRESS event
@@ -639,9 +767,7 @@ public class UpdateHandlerTest {
         when(keyHandlerHelper
                 .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(KEY_MODEL_ROTATION_IN_PERIOD_DAYS),
                         eq(callbackContext))).thenReturn(inProgressEvent);
-        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_ROTATION_IN_PERIOD_DAYS),
-                eq(callbackContext), eq(false))).thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
                 .thenReturn(inProgressEvent);
 
         // Set up our request
@@ -678,13 +804,10 @@ public class UpdateHandlerTest {
         verify(keyHandlerHelper)
                 .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(KEY_MODEL_ROTATION_IN_PERIOD_DAYS),
                         eq(callbackContext));
-        verify(keyHandlerHelper)
-                .retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_ROTATION_IN_PERIOD_DAYS),
-                        eq(callbackContext), eq(false));
         verify(keyApiHelper)
                 .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
         verify(keyApiHelper).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
 
         // We shouldn't call anything else
         verifyZeroInteractions(keyApiHelper);
@@ -716,10 +839,7 @@ public class UpdateHandlerTest {
                 .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_ROTATION_IN_PERIOD_DAYS),
                         eq(KEY_MODEL_UPDATE_WITH_SAME_ROTATION_IN_PERIOD_DAYS), eq(callbackContext)))
                 .thenReturn(inProgressEvent);
-        when(keyHandlerHelper.retrieveResourceTags(eq(proxy), eq(proxyKmsClient),
-                eq(KEY_MODEL_UPDATE_WITH_SAME_ROTATION_IN_PERIOD_DAYS), eq(callbackContext), eq(false)))
-                .thenReturn(inProgressEvent);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
                 .thenReturn(inProgressEvent);
 
         // Set up our request
@@ -757,13 +877,10 @@ public class UpdateHandlerTest {
         verify(keyHandlerHelper)
                 .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_ROTATION_IN_PERIOD_DAYS),
                         eq(KEY_MODEL_UPDATE_WITH_SAME_ROTATION_IN_PERIOD_DAYS), eq(callbackContext));
-        verify(keyHandlerHelper)
-                .retrieveResourceTags(eq(proxy), eq(proxyKmsClient),
-                        eq(KEY_MODEL_UPDATE_WITH_SAME_ROTATION_IN_PERIOD_DAYS), eq(callbackContext), eq(false));
         verify(keyApiHelper)
                 .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
         verify(keyApiHelper).untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
 
         // We shouldn't call anything else
         verifyZeroInteractions(keyApiHelper);
@@ -0,0 +1,31 @@
+package software.amazon.kms.local;
+
+/**
+ * A value that readers only see some time after it was written, like a KMS key attribute
+ * that has not been replicated to every host yet. Until the lag has passed, readers get
+ * the value it replaced. Writers always start from the latest value.
+ */
+final class Lagged<T> {
+    private T previous;
+    private T latest;
+    private long writtenAtNanos;
+
+    Lagged(final T value) {
+        this.previous = value;
+        this.latest = value;
+    }
+
+    synchronized T read(final long nowNanos, final long lagNanos) {
+        return nowNanos - writtenAtNanos < lagNanos ? previous : latest;
+    }
+
+    synchronized T latest() {
+        return latest;
+    }
+
+    synchronized void write(final T value, final long nowNanos, final long lagNanos) {
+        this.previous = read(nowNanos, lagNanos);
+        this.latest = value;
+        this.writtenAtNanos = nowNanos;
+    }
+}
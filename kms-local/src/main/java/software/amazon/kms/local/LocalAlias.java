@@ -0,0 +1,31 @@
+package software.amazon.kms.local;
+
+import java.time.Instant;
+
+/**
+ * An alias held by the local KMS.
+ */
+final class LocalAlias {
+    final String region;
+    final String aliasName;
+    final String arn;
+    final Instant creationDate;
+    // Reads before this time do not find the alias at all
+    final long visibleAtNanos;
+    final Lagged<String> targetKeyId;
+    volatile Instant lastUpdatedDate;
+
+    LocalAlias(final String region,
+               final String aliasName,
+               final String arn,
+               final long visibleAtNanos,
+               final String targetKeyId) {
+        this.region = region;
+        this.aliasName = aliasName;
+        this.arn = arn;
+        this.creationDate = Instant.now();
+        this.lastUpdatedDate = creationDate;
+        this.visibleAtNanos = visibleAtNanos;
+        this.targetKeyId = new Lagged<>(targetKeyId);
+    }
+}
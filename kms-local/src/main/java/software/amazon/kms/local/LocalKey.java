@@ -0,0 +1,75 @@
+package software.amazon.kms.local;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * A key held by the local KMS. The attributes the handlers update are {@link Lagged}, so
+ * reads can be made to trail writes the way they do in KMS.
+ */
+final class LocalKey {
+    static final String ENABLED = "Enabled";
+    static final String DISABLED = "Disabled";
+    static final String CREATING = "Creating";
+    static final String PENDING_DELETION = "PendingDeletion";
+
+    final String region;
+    final String keyId;
+    final String arn;
+    final Instant creationDate;
+    final String keyUsage;
+    final String keySpec;
+    final String origin;
+    final boolean multiRegion;
+    // Only set on replica keys
+    final LocalKey primaryKey;
+    // Only filled on multi-region primary keys
+    final Set<String> replicaArns = new ConcurrentSkipListSet<>();
+    // Reads before this time do not find the key at all
+    final long visibleAtNanos;
+
+    final Lagged<String> description;
+    final Lagged<String> policy;
+    final Lagged<String> keyState;
+    final Lagged<Boolean> rotationEnabled;
+    final Lagged<Map<String, String>> tags;
+    volatile Instant deletionDate;
+    volatile int pendingWindowInDays;
+
+    LocalKey(final String region,
+             final String keyId,
+             final String arn,
+             final String keyUsage,
+             final String keySpec,
+             final String origin,
+             final boolean multiRegion,
+             final LocalKey primaryKey,
+             final long visibleAtNanos,
+             final String description,
+             final String policy,
+             final String keyState,
+             final Map<String, String> tags) {
+        this.region = region;
+        this.keyId = keyId;
+        this.arn = arn;
+        this.creationDate = Instant.now();
+        this.keyUsage = keyUsage;
+        this.keySpec = keySpec;
+        this.origin = origin;
+        this.multiRegion = multiRegion;
+        this.primaryKey = primaryKey;
+        this.visibleAtNanos = visibleAtNanos;
+        this.description = new Lagged<>(description);
+        this.policy = new Lagged<>(policy);
+        this.keyState = new Lagged<>(keyState);
+        this.rotationEnabled = new Lagged<>(false);
+        this.tags = new Lagged<>(Collections.unmodifiableMap(tags));
+    }
+
+    LocalKey primaryOrSelf() {
+        return primaryKey == null ? this : primaryKey;
+    }
+}
@@ -0,0 +1,526 @@
+package software.amazon.kms.local;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Ticker;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The state of the local KMS and the operations the handlers call, with requests and
+ * responses in the shape of the KMS JSON protocol. Keys and aliases are kept per region,
+ * and every request is made in the region it was signed for.
+ *
+ * <p>Only what the handlers rely on is modeled: key states, policies, rotation, tags,
+ * multi-region replicas and aliases. Cryptographic operations are not supported.
+ */
+class LocalKms {
+    static final int MAX_TAGS = 50;
+
+    private static final String SYMMETRIC_DEFAULT = "SYMMETRIC_DEFAULT";
+    private static final String ENCRYPT_DECRYPT = "ENCRYPT_DECRYPT";
+    private static final String ALIAS_PREFIX = "alias/";
+    private static final String RESERVED_ALIAS_PREFIX = "alias/aws/";
+    private static final String MULTI_REGION_KEY_PREFIX = "mrk-";
+    private static final int DEFAULT_LIST_LIMIT = 100;
+    private static final int DEFAULT_PENDING_WINDOW_IN_DAYS = 30;
+
+    private final ObjectMapper objectMapper;
+    private final Ticker ticker;
+    private final String accountId;
+    private final long consistencyLagNanos;
+    // Keyed by ARN, which puts the keys of a region next to each other
+    private final ConcurrentNavigableMap<String, LocalKey> keys = new ConcurrentSkipListMap<>();
+    // Keyed by alias ARN, for the same reason
+    private final ConcurrentNavigableMap<String, LocalAlias> aliases = new ConcurrentSkipListMap<>();
+
+    LocalKms(final ObjectMapper objectMapper, final Ticker ticker, final LocalKmsConfig config) {
+        this.objectMapper = objectMapper;
+        this.ticker = ticker;
+        this.accountId = config.getAccountId();
+        this.consistencyLagNanos = config.getConsistencyLag().toNanos();
+    }
+
+    /**
+     * Runs an operation, e.g. "CreateKey", in the given region.
+     *
+     * @throws LocalKmsException if the operation fails the way KMS would fail it
+     */
+    ObjectNode call(final String operation, final String region, final JsonNode request) {
+        switch (operation) {
+            case "CreateKey":
+                return createKey(region, request);
+            case "ReplicateKey":
+                return replicateKey(region, request);
+            case "DescribeKey":
+                return describeKey(region, request);
+            case "ListKeys":
+                return listKeys(region, request);
+            case "EnableKey":
+                return setKeyState(region, request, LocalKey.ENABLED);
+            case "DisableKey":
+                return setKeyState(region, request, LocalKey.DISABLED);
+            case "UpdateKeyDescription":
+                return updateKeyDescription(region, request);
+            case "GetKeyPolicy":
+                return getKeyPolicy(region, request);
+            case "PutKeyPolicy":
+                return putKeyPolicy(region, request);
+            case "GetKeyRotationStatus":
+                return getKeyRotationStatus(region, request);
+            case "EnableKeyRotation":
+                return setKeyRotation(region, request, true);
+            case "DisableKeyRotation":
+                return setKeyRotation(region, request, false);
+            case "ListResourceTags":
+                return listResourceTags(region, request);
+            case "TagResource":
+                return tagResource(region, request);
+            case "UntagResource":
+                return untagResource(region, request);
+            case "ScheduleKeyDeletion":
+                return scheduleKeyDeletion(region, request);
+            case "CreateAlias":
+                return createAlias(region, request);
+            case "UpdateAlias":
+                return updateAlias(region, request);
+            case "DeleteAlias":
+                return deleteAlias(region, request);
+            case "ListAliases":
+                return listAliases(region, request);
+            default:
+                throw new LocalKmsException(LocalKmsException.UNKNOWN_OPERATION,
+                    operation + " is not supported by the local KMS");
+        }
+    }
+
+    private ObjectNode createKey(final String region, final JsonNode request) {
+        final boolean multiRegion = request.path("MultiRegion").asBoolean(false);
+        final String keyId = (multiRegion ? MULTI_REGION_KEY_PREFIX : "") + UUID.randomUUID();
+        final LocalKey key = new LocalKey(region, keyId, keyArn(region, keyId),
+            request.path("KeyUsage").asText(ENCRYPT_DECRYPT),
+            request.path("KeySpec").asText(request.path("CustomerMasterKeySpec").asText(SYMMETRIC_DEFAULT)),
+            request.path("Origin").asText("AWS_KMS"),
+            multiRegion,
+            null,
+            ticker.read() + consistencyLagNanos,
+            request.path("Description").asText(""),
+            request.path("Policy").asText(defaultPolicy()),
+            LocalKey.ENABLED,
+            readTags(request.path("Tags")));
+        keys.put(key.arn, key);
+
+        final ObjectNode response = objectMapper.createObjectNode();
+        response.set("KeyMetadata", keyMetadata(key, true));
+        return response;
+    }
+
+    private ObjectNode replicateKey(final String region, final JsonNode request) {
+        final LocalKey primaryKey = findKey(region, request.path("KeyId").asText());
+        if (!primaryKey.multiRegion || primaryKey.primaryKey != null) {
+            throw new LocalKmsException(LocalKmsException.VALIDATION,
+                primaryKey.arn + " is not a multi-Region primary key");
+        }
+
+        final String replicaRegion = requiredText(request, "ReplicaRegion");
+        final String replicaArn = keyArn(replicaRegion, primaryKey.keyId);
+        final LocalKey replicaKey = new LocalKey(replicaRegion, primaryKey.keyId, replicaArn,
+            primaryKey.keyUsage,
+            primaryKey.keySpec,
+            primaryKey.origin,
+            true,
+            primaryKey,
+            ticker.read(),
+            request.path("Description").asText(primaryKey.description.latest()),
+            request.path("Policy").asText(defaultPolicy()),
+            LocalKey.CREATING,
+            readTags(request.path("Tags")));
+        if (keys.putIfAbsent(replicaArn, replicaKey) != null) {
+            throw new LocalKmsException(LocalKmsException.ALREADY_EXISTS, replicaArn + " already exists");
+        }
+        // Replicas are Creating until the replication lag has passed
+        replicaKey.keyState.write(LocalKey.ENABLED, ticker.read(), consistencyLagNanos);
+        primaryKey.replicaArns.add(replicaArn);
+
+        final ObjectNode response = objectMapper.createObjectNode();
+        response.set("ReplicaKeyMetadata", keyMetadata(replicaKey, false));
+        response.put("ReplicaPolicy", replicaKey.policy.latest());
+        response.set("ReplicaTags", writeTags(replicaKey.tags.latest().entrySet()));
+        return response;
+    }
+
+    private ObjectNode describeKey(final String region, final JsonNode request) {
+        final ObjectNode response = objectMapper.createObjectNode();
+        response.set("KeyMetadata", keyMetadata(findKey(region, request.path("KeyId").asText()), false));
+        return response;
+    }
+
+    private ObjectNode listKeys(final String region, final JsonNode request) {
+        final String regionPrefix = keyArn(region, "");
+        final NavigableMap<String, LocalKey> regionKeys = tailMap(keys, regionPrefix, request);
+        final int limit = request.path("Limit").asInt(DEFAULT_LIST_LIMIT);
+        final long now = ticker.read();
+
+        final ObjectNode response = objectMapper.createObjectNode();
+        final ArrayNode keyEntries = response.putArray("Keys");
+        for (final LocalKey key : regionKeys.values()) {
+            if (!key.arn.startsWith(regionPrefix)) {
+                break;
+            }
+            if (now < key.visibleAtNanos) {
+                continue;
+            }
+            if (keyEntries.size() == limit) {
+                return truncated(response, key.arn);
+            }
+            keyEntries.addObject().put("KeyId", key.keyId).put("KeyArn", key.arn);
+        }
+
+        response.put("Truncated", false);
+        return response;
+    }
+
+    private ObjectNode setKeyState(final String region, final JsonNode request, final String keyState) {
+        final LocalKey key = findKey(region, request.path("KeyId").asText());
+        synchronized (key) {
+            checkNotPendingDeletion(key);
+            key.keyState.write(keyState, ticker.read(), consistencyLagNanos);
+        }
+        return objectMapper.createObjectNode();
+    }
+
+    private ObjectNode updateKeyDescription(final String region, final JsonNode request) {
+        final LocalKey key = findKey(region, request.path("KeyId").asText());
+        synchronized (key) {
+            checkNotPendingDeletion(key);
+            key.description.write(requiredText(request, "Description"), ticker.read(), consistencyLagNanos);
+        }
+        return objectMapper.createObjectNode();
+    }
+
+    private ObjectNode getKeyPolicy(final String region, final JsonNode request) {
+        final LocalKey key = findKey(region, request.path("KeyId").asText());
+        final ObjectNode response = objectMapper.createObjectNode();
+        response.put("Policy", key.policy.read(ticker.read(), consistencyLagNanos));
+        response.put("PolicyName", "default");
+        return response;
+    }
+
+    private ObjectNode putKeyPolicy(final String region, final JsonNode request) {
+        final LocalKey key = findKey(region, request.path("KeyId").asText());
+        synchronized (key) {
+            checkNotPendingDeletion(key);
+            key.policy.write(requiredText(request, "Policy"), ticker.read(), consistencyLagNanos);
+        }
+        return objectMapper.createObjectNode();
+    }
+
+    private ObjectNode getKeyRotationStatus(final String region, final JsonNode request) {
+        final LocalKey key = findKey(region, request.path("KeyId").asText());
+        final ObjectNode response = objectMapper.createObjectNode();
+        response.put("KeyRotationEnabled",
+            key.primaryOrSelf().rotationEnabled.read(ticker.read(), consistencyLagNanos));
+        return response;
+    }
+
+    private ObjectNode setKeyRotation(final String region, final JsonNode request, final boolean enabled) {
+        final LocalKey key = findKey(region, request.path("KeyId").asText());
+        if (!SYMMETRIC_DEFAULT.equals(key.keySpec) || key.primaryKey != null) {
+            throw new LocalKmsException("UnsupportedOperationException",
+                key.arn + " does not support automatic rotation");
+        }
+
+        synchronized (key) {
+            checkNotPendingDeletion(key);
+            // Like KMS, rotation can only be turned on for an enabled key
+            checkState(key, !enabled || !LocalKey.DISABLED.equals(key.keyState.latest()));
+            key.rotationEnabled.write(enabled, ticker.read(), consistencyLagNanos);
+        }
+        return objectMapper.createObjectNode();
+    }
+
+    private ObjectNode listResourceTags(final String region, final JsonNode request) {
+        final LocalKey key = findKey(region, request.path("KeyId").asText());
+        final NavigableMap<String, String> tags = tailMap(
+            new TreeMap<>(key.tags.read(ticker.read(), consistencyLagNanos)), "", request);
+        final int limit = request.path("Limit").asInt(MAX_TAGS);
+
+        final ObjectNode response = objectMapper.createObjectNode();
+        final List<Map.Entry<String, String>> page = new ArrayList<>();
+        for (final Map.Entry<String, String> tag : tags.entrySet()) {
+            if (page.size() == limit) {
+                response.set("Tags", writeTags(page));
+                return truncated(response, tag.getKey());
+            }
+            page.add(tag);
+        }
+
+        response.set("Tags", writeTags(page));
+        response.put("Truncated", false);
+        return response;
+    }
+
+    private ObjectNode tagResource(final String region, final JsonNode request) {
+        final LocalKey key = findKey(region, request.path("KeyId").asText());
+        synchronized (key) {
+            checkNotPendingDeletion(key);
+            final Map<String, String> tags = new TreeMap<>(key.tags.latest());
+            tags.putAll(readTags(request.path("Tags")));
+            if (tags.size() > MAX_TAGS) {
+                throw new LocalKmsException("TagException",
+                    "A key can have at most " + MAX_TAGS + " tags");
+            }
+            key.tags.write(tags, ticker.read(), consistencyLagNanos);
+        }
+        return objectMapper.createObjectNode();
+    }
+
+    private ObjectNode untagResource(final String region, final JsonNode request) {
+        final LocalKey key = findKey(region, request.path("KeyId").asText());
+        synchronized (key) {
+            checkNotPendingDeletion(key);
+            final Map<String, String> tags = new TreeMap<>(key.tags.latest());
+            request.path("TagKeys").forEach(tagKey -> tags.remove(tagKey.asText()));
+            key.tags.write(tags, ticker.read(), consistencyLagNanos);
+        }
+        return objectMapper.createObjectNode();
+    }
+
+    private ObjectNode scheduleKeyDeletion(final String region, final JsonNode request) {
+        final LocalKey key = findKey(region, request.path("KeyId").asText());
+        final int pendingWindowInDays = request.path("PendingWindowInDays").asInt(DEFAULT_PENDING_WINDOW_IN_DAYS);
+        synchronized (key) {
+            checkNotPendingDeletion(key);
+            key.deletionDate = Instant.now().plus(pendingWindowInDays, ChronoUnit.DAYS);
+            key.pendingWindowInDays = pendingWindowInDays;
+            key.keyState.write(LocalKey.PENDING_DELETION, ticker.read(), consistencyLagNanos);
+        }
+
+        final ObjectNode response = objectMapper.createObjectNode();
+        response.put("KeyId", key.arn);
+        response.put("KeyState", LocalKey.PENDING_DELETION);
+        response.put("DeletionDate", epochSeconds(key.deletionDate));
+        response.put("PendingWindowInDays", pendingWindowInDays);
+        return response;
+    }
+
+    private ObjectNode createAlias(final String region, final JsonNode request) {
+        final String aliasName = requiredText(request, "AliasName");
+        if (!aliasName.startsWith(ALIAS_PREFIX) || aliasName.startsWith(RESERVED_ALIAS_PREFIX)) {
+            throw new LocalKmsException("InvalidAliasNameException", aliasName + " is not a valid alias name");
+        }
+
+        final LocalKey targetKey = findKey(region, requiredText(request, "TargetKeyId"));
+        final LocalAlias alias = new LocalAlias(region, aliasName, aliasArn(region, aliasName),
+            ticker.read() + consistencyLagNanos, targetKey.keyId);
+        if (aliases.putIfAbsent(alias.arn, alias) != null) {
+            throw new LocalKmsException(LocalKmsException.ALREADY_EXISTS, alias.arn + " already exists");
+        }
+        return objectMapper.createObjectNode();
+    }
+
+    private ObjectNode updateAlias(final String region, final JsonNode request) {
+        final LocalAlias alias = findAlias(region, requiredText(request, "AliasName"));
+        final LocalKey targetKey = findKey(region, requiredText(request, "TargetKeyId"));
+        alias.targetKeyId.write(targetKey.keyId, ticker.read(), consistencyLagNanos);
+        alias.lastUpdatedDate = Instant.now();
+        return objectMapper.createObjectNode();
+    }
+
+    private ObjectNode deleteAlias(final String region, final JsonNode request) {
+        final LocalAlias alias = findAlias(region, requiredText(request, "AliasName"));
+        aliases.remove(alias.arn, alias);
+        return objectMapper.createObjectNode();
+    }
+
+    private ObjectNode listAliases(final String region, final JsonNode request) {
+        final String targetKeyId = request.hasNonNull("KeyId")
+            ? findKey(region, request.path("KeyId").asText()).keyId : null;
+        final String regionPrefix = aliasArn(region, "");
+        final NavigableMap<String, LocalAlias> regionAliases = tailMap(aliases, regionPrefix, request);
+        final int limit = request.path("Limit").asInt(DEFAULT_LIST_LIMIT);
+        final long now = ticker.read();
+
+        final ObjectNode response = objectMapper.createObjectNode();
+        final ArrayNode aliasEntries = response.putArray("Aliases");
+        for (final LocalAlias alias : regionAliases.values()) {
+            if (!alias.arn.startsWith(regionPrefix)) {
+                break;
+            }
+            final String aliasTargetKeyId = alias.targetKeyId.read(now, consistencyLagNanos);
+            if (now < alias.visibleAtNanos || targetKeyId != null && !targetKeyId.equals(aliasTargetKeyId)) {
+                continue;
+            }
+            if (aliasEntries.size() == limit) {
+                return truncated(response, alias.arn);
+            }
+            aliasEntries.addObject()
+                .put("AliasName", alias.aliasName)
+                .put("AliasArn", alias.arn)
+                .put("TargetKeyId", aliasTargetKeyId)
+                .put("CreationDate", epochSeconds(alias.creationDate))
+                .put("LastUpdatedDate", epochSeconds(alias.lastUpdatedDate));
+        }
+
+        response.put("Truncated", false);
+        return response;
+    }
+
+    /**
+     * Finds a key by id, ARN, alias name or alias ARN. Keys that are not visible yet are
+     * not found.
+     */
+    private LocalKey findKey(final String region, final String keyId) {
+        if (keyId.isEmpty()) {
+            throw new LocalKmsException(LocalKmsException.VALIDATION, "KeyId is required");
+        }
+
+        final String keyArn;
+        if (keyId.startsWith(ALIAS_PREFIX)) {
+            keyArn = keyArn(region, findAlias(region, keyId).targetKeyId.read(ticker.read(), consistencyLagNanos));
+        } else if (keyId.startsWith("arn:")) {
+            final String[] arn = keyId.split(":", 6);
+            if (arn.length != 6) {
+                throw new LocalKmsException(LocalKmsException.INVALID_ARN, keyId + " is not a valid ARN");
+            }
+            return arn[5].startsWith(ALIAS_PREFIX) ? findKey(arn[3], arn[5]) : visibleKey(keyId);
+        } else {
+            keyArn = keyArn(region, keyId);
+        }
+        return visibleKey(keyArn);
+    }
+
+    private LocalKey visibleKey(final String keyArn) {
+        final LocalKey key = keys.get(keyArn);
+        if (key == null || ticker.read() < key.visibleAtNanos) {
+            throw new LocalKmsException(LocalKmsException.NOT_FOUND, "Key '" + keyArn + "' does not exist");
+        }
+        return key;
+    }
+
+    private LocalAlias findAlias(final String region, final String aliasName) {
+        final LocalAlias alias = aliases.get(aliasArn(region, aliasName));
+        if (alias == null || ticker.read() < alias.visibleAtNanos) {
+            throw new LocalKmsException(LocalKmsException.NOT_FOUND, "Alias '" + aliasName + "' does not exist");
+        }
+        return alias;
+    }
+
+    private ObjectNode keyMetadata(final LocalKey key, final boolean latest) {
+        final long now = ticker.read();
+        final String keyState = latest ? key.keyState.latest() : key.keyState.read(now, consistencyLagNanos);
+
+        final ObjectNode keyMetadata = objectMapper.createObjectNode()
+            .put("AWSAccountId", accountId)
+            .put("KeyId", key.keyId)
+            .put("Arn", key.arn)
+            .put("CreationDate", epochSeconds(key.creationDate))
+            .put("Enabled", LocalKey.ENABLED.equals(keyState))
+            .put("Description", latest ? key.description.latest() : key.description.read(now, consistencyLagNanos))
+            .put("KeyUsage", key.keyUsage)
+            .put("KeyState", keyState)
+            .put("Origin", key.origin)
+            .put("KeyManager", "CUSTOMER")
+            .put("CustomerMasterKeySpec", key.keySpec)
+            .put("KeySpec", key.keySpec)
+            .put("MultiRegion", key.multiRegion);
+        if (SYMMETRIC_DEFAULT.equals(key.keySpec) && ENCRYPT_DECRYPT.equals(key.keyUsage)) {
+            keyMetadata.putArray("EncryptionAlgorithms").add(SYMMETRIC_DEFAULT);
+        }
+        if (LocalKey.PENDING_DELETION.equals(keyState)) {
+            keyMetadata.put("DeletionDate", epochSeconds(key.deletionDate));
+            keyMetadata.put("PendingDeletionWindowInDays", key.pendingWindowInDays);
+        }
+        if (key.multiRegion) {
+            final LocalKey primaryKey = key.primaryOrSelf();
+            final ObjectNode multiRegionConfiguration = keyMetadata.putObject("MultiRegionConfiguration");
+            multiRegionConfiguration.put("MultiRegionKeyType", key.primaryKey == null ? "PRIMARY" : "REPLICA");
+            multiRegionConfiguration.putObject("PrimaryKey")
+                .put("Arn", primaryKey.arn)
+                .put("Region", primaryKey.region);
+            final ArrayNode replicaKeys = multiRegionConfiguration.putArray("ReplicaKeys");
+            for (final String replicaArn : primaryKey.replicaArns) {
+                replicaKeys.addObject().put("Arn", replicaArn).put("Region", replicaArn.split(":")[3]);
+            }
+        }
+        return keyMetadata;
+    }
+
+    private ArrayNode writeTags(final Collection<Map.Entry<String, String>> tags) {
+        final ArrayNode tagEntries = objectMapper.createArrayNode();
+        tags.forEach(tag -> tagEntries.addObject().put("TagKey", tag.getKey()).put("TagValue", tag.getValue()));
+        return tagEntries;
+    }
+
+    private static Map<String, String> readTags(final JsonNode tagEntries) {
+        final Map<String, String> tags = new TreeMap<>();
+        tagEntries.forEach(tag -> tags.put(tag.path("TagKey").asText(), tag.path("TagValue").asText()));
+        if (tags.size() > MAX_TAGS) {
+            throw new LocalKmsException("TagException", "A key can have at most " + MAX_TAGS + " tags");
+        }
+        return tags;
+    }
+
+    private static <V> NavigableMap<String, V> tailMap(final NavigableMap<String, V> map,
+                                                       final String prefix,
+                                                       final JsonNode request) {
+        // Markers are the first entry of the next page
+        final String marker = request.path("Marker").asText(null);
+        return marker == null ? map.tailMap(prefix, true) : map.tailMap(marker, true);
+    }
+
+    private static ObjectNode truncated(final ObjectNode response, final String nextMarker) {
+        response.put("Truncated", true);
+        response.put("NextMarker", nextMarker);
+        return response;
+    }
+
+    private static String requiredText(final JsonNode request, final String field) {
+        final JsonNode value = request.get(field);
+        if (value == null || value.isNull()) {
+            throw new LocalKmsException(LocalKmsException.VALIDATION, field + " is required");
+        }
+        return value.asText();
+    }
+
+    private static void checkNotPendingDeletion(final LocalKey key) {
+        checkState(key, !LocalKey.PENDING_DELETION.equals(key.keyState.latest()));
+    }
+
+    private static void checkState(final LocalKey key, final boolean valid) {
+        if (!valid) {
+            throw new LocalKmsException(LocalKmsException.INVALID_STATE,
+                key.arn + " is " + key.keyState.latest());
+        }
+    }
+
+    private static double epochSeconds(final Instant instant) {
+        return instant.toEpochMilli() / 1000.0;
+    }
+
+    private String keyArn(final String region, final String keyId) {
+        return "arn:aws:kms:" + region + ":" + accountId + ":key/" + keyId;
+    }
+
+    private String aliasArn(final String region, final String aliasName) {
+        return "arn:aws:kms:" + region + ":" + accountId + ":" + aliasName;
+    }
+
+    private String defaultPolicy() {
+        return "{\"Version\":\"2012-10-17\",\"Id\":\"key-default-1\",\"Statement\":[{"
+            + "\"Sid\":\"Enable IAM User Permissions\",\"Effect\":\"Allow\","
+            + "\"Principal\":{\"AWS\":\"arn:aws:iam::" + accountId + ":root\"},"
+            + "\"Action\":\"kms:*\",\"Resource\":\"*\"}]}";
+    }
+}
@@ -0,0 +1,44 @@
+package software.amazon.kms.local;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * How a {@link LocalKmsServer} behaves. The defaults answer every call immediately, never
+ * throttle and have no replication lag, so the server only costs what the SDK and HTTP do.
+ */
+@lombok.Builder(toBuilder = true)
+@lombok.Value
+public class LocalKmsConfig {
+    // The region of requests that are not signed, and of keys looked up by id alone
+    @lombok.Builder.Default
+    String defaultRegion = "us-east-1";
+
+    @lombok.Builder.Default
+    String accountId = "123456789012";
+
+    // Added to every call, before it is throttled or answered
+    @lombok.Builder.Default
+    Duration latency = Duration.ZERO;
+
+    // A random delay between zero and this, added on top of the latency
+    @lombok.Builder.Default
+    Duration latencyJitter = Duration.ZERO;
+
+    // Calls per second shared by every operation, zero for no limit
+    @lombok.Builder.Default
+    double requestsPerSecond = 0;
+
+    // Calls per second for a single operation, e.g. "TagResource", on top of the shared limit
+    @lombok.Singular("operationRequestsPerSecond")
+    Map<String, Double> requestsPerSecondByOperation;
+
+    // How long a write takes before reads see it. Reads get the previous value until then,
+    // and keys and aliases are not found at all.
+    @lombok.Builder.Default
+    Duration consistencyLag = Duration.ZERO;
+
+    // Threads answering calls, so that simulated latency does not serialize them
+    @lombok.Builder.Default
+    int serverThreads = 16;
+}
@@ -0,0 +1,28 @@
+package software.amazon.kms.local;
+
+/**
+ * An error the local KMS answers with. The error code is sent as the {@code __type} of the
+ * response, which is what the SDK maps to its modeled exceptions.
+ */
+class LocalKmsException extends RuntimeException {
+    static final String NOT_FOUND = "NotFoundException";
+    static final String ALREADY_EXISTS = "AlreadyExistsException";
+    static final String INVALID_STATE = "KMSInvalidStateException";
+    static final String INVALID_ARN = "InvalidArnException";
+    static final String VALIDATION = "ValidationException";
+    static final String THROTTLING = "ThrottlingException";
+    static final String UNKNOWN_OPERATION = "UnknownOperationException";
+
+    private static final long serialVersionUID = 1L;
+
+    private final String errorCode;
+
+    LocalKmsException(final String errorCode, final String message) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    String getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,206 @@
+package software.amazon.kms.local;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.RateLimiter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import software.amazon.kms.common.ClientBuilder;
+
+/**
+ * An in-process HTTP server that speaks the KMS {@code x-amz-json-1.1} protocol, for running
+ * the handlers against real SDK clients without calling KMS. Point the handlers at it with
+ * {@link #clientBuilder()}.
+ *
+ * <p>Calls can be slowed down, throttled and made eventually consistent through the
+ * {@link LocalKmsConfig}. The server counts the calls and throttles of every operation.
+ */
+public class LocalKmsServer implements AutoCloseable {
+    private static final String TARGET_HEADER = "X-Amz-Target";
+    private static final String TARGET_PREFIX = "TrentService.";
+    private static final String CONTENT_TYPE = "application/x-amz-json-1.1";
+    // Requests are signed with SigV4, whose credential scope holds the region
+    private static final Pattern SIGNED_REGION =
+        Pattern.compile("Credential=[^/]+/[^/]+/([^/]+)/kms/aws4_request");
+
+    private final LocalKmsConfig config;
+    private final ObjectMapper objectMapper;
+    private final LocalKms localKms;
+    private final RateLimiter rateLimiter;
+    private final ConcurrentMap<String, RateLimiter> operationRateLimiters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> throttles = new ConcurrentHashMap<>();
+    private final ExecutorService executorService;
+    private final HttpServer httpServer;
+
+    private LocalKmsServer(final LocalKmsConfig config, final Ticker ticker) throws IOException {
+        this.config = config;
+        this.objectMapper = new ObjectMapper();
+        this.localKms = new LocalKms(objectMapper, ticker, config);
+        this.rateLimiter = config.getRequestsPerSecond() > 0
+            ? RateLimiter.create(config.getRequestsPerSecond()) : null;
+        config.getRequestsPerSecondByOperation().forEach((operation, requestsPerSecond) ->
+            operationRateLimiters.put(operation, RateLimiter.create(requestsPerSecond)));
+
+        this.executorService = Executors.newFixedThreadPool(config.getServerThreads(), runnable -> {
+            final Thread thread = new Thread(runnable, "local-kms");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        httpServer.createContext("/", this::handle);
+        httpServer.setExecutor(executorService);
+    }
+
+    /**
+     * Starts a server on a free loopback port.
+     */
+    public static LocalKmsServer start(final LocalKmsConfig config) throws IOException {
+        return start(config, Ticker.systemTicker());
+    }
+
+    /**
+     * Starts a server on a free loopback port, whose consistency lag is measured by the
+     * given ticker.
+     */
+    public static LocalKmsServer start(final LocalKmsConfig config, final Ticker ticker) throws IOException {
+        final LocalKmsServer server = new LocalKmsServer(config, ticker);
+        server.httpServer.start();
+        return server;
+    }
+
+    public URI getEndpoint() {
+        return URI.create("http://" + httpServer.getAddress().getHostString() + ":"
+            + httpServer.getAddress().getPort());
+    }
+
+    /**
+     * Builds a client builder whose clients all call this server, in every region.
+     */
+    public ClientBuilder clientBuilder() {
+        return ClientBuilder.forEndpoint(getEndpoint(), config.getDefaultRegion());
+    }
+
+    /**
+     * The number of calls made to each operation, throttled ones included.
+     */
+    public Map<String, Long> getCallCounts() {
+        return snapshot(calls);
+    }
+
+    /**
+     * The number of calls to each operation that were throttled.
+     */
+    public Map<String, Long> getThrottleCounts() {
+        return snapshot(throttles);
+    }
+
+    public void resetCounts() {
+        calls.clear();
+        throttles.clear();
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        executorService.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            final String target = exchange.getRequestHeaders().getFirst(TARGET_HEADER);
+            final String operation = target != null && target.startsWith(TARGET_PREFIX)
+                ? target.substring(TARGET_PREFIX.length()) : String.valueOf(target);
+            calls.computeIfAbsent(operation, o -> new LongAdder()).increment();
+
+            simulateLatency();
+            if (isThrottled(operation)) {
+                throttles.computeIfAbsent(operation, o -> new LongAdder()).increment();
+                throw new LocalKmsException(LocalKmsException.THROTTLING, "Rate exceeded");
+            }
+
+            final JsonNode request;
+            try (InputStream body = exchange.getRequestBody()) {
+                request = objectMapper.readTree(body);
+            }
+            respond(exchange, 200, localKms.call(operation, signedRegion(exchange),
+                request == null || request.isMissingNode() ? objectMapper.createObjectNode() : request));
+        } catch (final LocalKmsException e) {
+            final ObjectNode error = objectMapper.createObjectNode()
+                .put("__type", e.getErrorCode())
+                .put("message", e.getMessage());
+            respond(exchange, 400, error);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        } catch (final RuntimeException e) {
+            final ObjectNode error = objectMapper.createObjectNode()
+                .put("__type", "KMSInternalException")
+                .put("message", String.valueOf(e));
+            respond(exchange, 500, error);
+        }
+    }
+
+    private void simulateLatency() throws InterruptedException {
+        long latencyNanos = config.getLatency().toNanos();
+        final long jitterNanos = config.getLatencyJitter().toNanos();
+        if (jitterNanos > 0) {
+            latencyNanos += ThreadLocalRandom.current().nextLong(jitterNanos);
+        }
+        if (latencyNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(latencyNanos);
+        }
+    }
+
+    private boolean isThrottled(final String operation) {
+        final RateLimiter operationRateLimiter = operationRateLimiters.get(operation);
+        return operationRateLimiter != null && !operationRateLimiter.tryAcquire()
+            || rateLimiter != null && !rateLimiter.tryAcquire();
+    }
+
+    private String signedRegion(final HttpExchange exchange) {
+        final String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null) {
+            final Matcher matcher = SIGNED_REGION.matcher(authorization);
+            if (matcher.find()) {
+                return matcher.group(1);
+            }
+        }
+        return config.getDefaultRegion();
+    }
+
+    private void respond(final HttpExchange exchange, final int status, final ObjectNode body) throws IOException {
+        final byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    private static Map<String, Long> snapshot(final Map<String, LongAdder> counters) {
+        final Map<String, Long> snapshot = new HashMap<>();
+        counters.forEach((operation, count) -> snapshot.put(operation, count.sum()));
+        return Collections.unmodifiableMap(snapshot);
+    }
+}
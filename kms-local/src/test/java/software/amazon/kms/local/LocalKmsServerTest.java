@@ -0,0 +1,208 @@
+package software.amazon.kms.local;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import com.google.common.base.Ticker;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.retry.AwsRetryStrategy;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.AlreadyExistsException;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.awssdk.services.kms.model.KmsInvalidStateException;
+import software.amazon.awssdk.services.kms.model.KmsException;
+import software.amazon.awssdk.services.kms.model.ListKeysResponse;
+import software.amazon.awssdk.services.kms.model.MultiRegionKeyType;
+import software.amazon.awssdk.services.kms.model.NotFoundException;
+import software.amazon.awssdk.services.kms.model.Tag;
+
+public class LocalKmsServerTest {
+    private static final String POLICY = "{\"Statement\":[]}";
+    private static final Tag TAG = Tag.builder().tagKey("Key").tagValue("Value").build();
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+
+    private LocalKmsServer server;
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testKeyLifecycle() throws IOException {
+        final KmsClient kmsClient = start(LocalKmsConfig.builder().build(), Region.US_EAST_1);
+
+        final KeyMetadata keyMetadata = kmsClient.createKey(request -> request
+            .description("Description")
+            .policy(POLICY)
+            .tags(TAG)).keyMetadata();
+        final String keyId = keyMetadata.keyId();
+        assertThat(keyMetadata.keyState()).isEqualTo(KeyState.ENABLED);
+        assertThat(keyMetadata.arn()).isEqualTo("arn:aws:kms:us-east-1:123456789012:key/" + keyId);
+
+        kmsClient.updateKeyDescription(request -> request.keyId(keyId).description("Updated"));
+        kmsClient.putKeyPolicy(request -> request.keyId(keyId).policyName("default").policy("{}"));
+        kmsClient.enableKeyRotation(request -> request.keyId(keyId));
+        kmsClient.tagResource(request -> request.keyId(keyId)
+            .tags(Tag.builder().tagKey("Other").tagValue("Value").build()));
+        kmsClient.untagResource(request -> request.keyId(keyId).tagKeys("Key"));
+        kmsClient.disableKey(request -> request.keyId(keyId));
+
+        assertThat(kmsClient.describeKey(request -> request.keyId(keyMetadata.arn())).keyMetadata())
+            .extracting(KeyMetadata::description, KeyMetadata::keyState, KeyMetadata::enabled)
+            .containsExactly("Updated", KeyState.DISABLED, false);
+        assertThat(kmsClient.getKeyPolicy(request -> request.keyId(keyId).policyName("default")).policy())
+            .isEqualTo("{}");
+        assertThat(kmsClient.getKeyRotationStatus(request -> request.keyId(keyId)).keyRotationEnabled())
+            .isTrue();
+        assertThat(kmsClient.listResourceTags(request -> request.keyId(keyId)).tags())
+            .containsExactly(Tag.builder().tagKey("Other").tagValue("Value").build());
+
+        kmsClient.scheduleKeyDeletion(request -> request.keyId(keyId).pendingWindowInDays(7));
+        assertThat(kmsClient.describeKey(request -> request.keyId(keyId)).keyMetadata())
+            .extracting(KeyMetadata::keyState, KeyMetadata::pendingDeletionWindowInDays)
+            .containsExactly(KeyState.PENDING_DELETION, 7);
+        assertThatExceptionOfType(KmsInvalidStateException.class)
+            .isThrownBy(() -> kmsClient.enableKey(request -> request.keyId(keyId)));
+
+        assertThat(server.getCallCounts()).containsEntry("CreateKey", 1L).containsEntry("DescribeKey", 2L);
+    }
+
+    @Test
+    public void testListKeysPages() throws IOException {
+        final KmsClient kmsClient = start(LocalKmsConfig.builder().build(), Region.US_EAST_1);
+        for (int i = 0; i < 3; i++) {
+            kmsClient.createKey(request -> { });
+        }
+
+        final ListKeysResponse firstPage = kmsClient.listKeys(request -> request.limit(2));
+        assertThat(firstPage.keys()).hasSize(2);
+        assertThat(firstPage.truncated()).isTrue();
+
+        final ListKeysResponse lastPage = kmsClient.listKeys(request -> request.marker(firstPage.nextMarker()));
+        assertThat(lastPage.keys()).hasSize(1);
+        assertThat(lastPage.truncated()).isFalse();
+    }
+
+    @Test
+    public void testAliases() throws IOException {
+        final KmsClient kmsClient = start(LocalKmsConfig.builder().build(), Region.US_EAST_1);
+        final String firstKeyId = kmsClient.createKey(request -> { }).keyMetadata().keyId();
+        final String secondKeyId = kmsClient.createKey(request -> { }).keyMetadata().keyId();
+
+        kmsClient.createAlias(request -> request.aliasName("alias/test").targetKeyId(firstKeyId));
+        assertThatExceptionOfType(AlreadyExistsException.class).isThrownBy(() -> kmsClient
+            .createAlias(request -> request.aliasName("alias/test").targetKeyId(firstKeyId)));
+        assertThat(kmsClient.describeKey(request -> request.keyId("alias/test")).keyMetadata().keyId())
+            .isEqualTo(firstKeyId);
+
+        kmsClient.updateAlias(request -> request.aliasName("alias/test").targetKeyId(secondKeyId));
+        assertThat(kmsClient.listAliases(request -> request.keyId(secondKeyId)).aliases())
+            .extracting(alias -> alias.aliasName())
+            .containsExactly("alias/test");
+        assertThat(kmsClient.listAliases(request -> request.keyId(firstKeyId)).aliases()).isEmpty();
+
+        kmsClient.deleteAlias(request -> request.aliasName("alias/test"));
+        assertThatExceptionOfType(NotFoundException.class)
+            .isThrownBy(() -> kmsClient.deleteAlias(request -> request.aliasName("alias/test")));
+    }
+
+    @Test
+    public void testReplicateKeyToSignedRegion() throws IOException {
+        final KmsClient kmsClient = start(LocalKmsConfig.builder().build(), Region.US_EAST_1);
+        final KmsClient replicaKmsClient = client(Region.EU_WEST_1);
+        final KeyMetadata primaryKeyMetadata = kmsClient.createKey(request -> request.multiRegion(true))
+            .keyMetadata();
+
+        kmsClient.replicateKey(request -> request.keyId(primaryKeyMetadata.keyId())
+            .replicaRegion("eu-west-1"));
+
+        final KeyMetadata replicaKeyMetadata = replicaKmsClient
+            .describeKey(request -> request.keyId(primaryKeyMetadata.keyId())).keyMetadata();
+        assertThat(replicaKeyMetadata.arn()).startsWith("arn:aws:kms:eu-west-1:");
+        assertThat(replicaKeyMetadata.multiRegionConfiguration().multiRegionKeyType())
+            .isEqualTo(MultiRegionKeyType.REPLICA);
+        assertThat(replicaKeyMetadata.multiRegionConfiguration().primaryKey().arn())
+            .isEqualTo(primaryKeyMetadata.arn());
+        assertThatExceptionOfType(AlreadyExistsException.class).isThrownBy(() -> kmsClient
+            .replicateKey(request -> request.keyId(primaryKeyMetadata.keyId()).replicaRegion("eu-west-1")));
+    }
+
+    @Test
+    public void testConsistencyLag() throws IOException {
+        final KmsClient kmsClient = start(LocalKmsConfig.builder()
+            .consistencyLag(Duration.ofSeconds(10))
+            .build(), Region.US_EAST_1);
+        final KeyMetadata keyMetadata = kmsClient.createKey(request -> request.description("Before"))
+            .keyMetadata();
+
+        // The new key is not found until the lag has passed
+        assertThatExceptionOfType(NotFoundException.class)
+            .isThrownBy(() -> kmsClient.describeKey(request -> request.keyId(keyMetadata.keyId())));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        kmsClient.updateKeyDescription(request -> request.keyId(keyMetadata.keyId()).description("After"));
+
+        // Then it reads the previous description until the update has propagated
+        assertThat(kmsClient.describeKey(request -> request.keyId(keyMetadata.keyId())).keyMetadata()
+            .description()).isEqualTo("Before");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(kmsClient.describeKey(request -> request.keyId(keyMetadata.keyId())).keyMetadata()
+            .description()).isEqualTo("After");
+    }
+
+    @Test
+    public void testThrottling() throws IOException {
+        final KmsClient kmsClient = start(LocalKmsConfig.builder()
+            .operationRequestsPerSecond("ListKeys", 0.001)
+            .build(), Region.US_EAST_1);
+
+        kmsClient.listKeys();
+        assertThatExceptionOfType(KmsException.class)
+            .isThrownBy(kmsClient::listKeys)
+            .satisfies(e -> assertThat(e.awsErrorDetails().errorCode()).isEqualTo("ThrottlingException"));
+
+        assertThat(server.getCallCounts()).containsEntry("ListKeys", 2L);
+        assertThat(server.getThrottleCounts()).containsEntry("ListKeys", 1L);
+        server.resetCounts();
+        assertThat(server.getCallCounts()).isEmpty();
+    }
+
+    @Test
+    public void testClientBuilder() throws IOException {
+        start(LocalKmsConfig.builder().build(), Region.US_EAST_1);
+
+        assertThat(server.clientBuilder().getClient().serviceClientConfiguration().endpointOverride())
+            .contains(server.getEndpoint());
+    }
+
+    private KmsClient start(final LocalKmsConfig config, final Region region) throws IOException {
+        server = LocalKmsServer.start(config, ticker);
+        return client(region);
+    }
+
+    private KmsClient client(final Region region) {
+        return KmsClient.builder()
+            .endpointOverride(server.getEndpoint())
+            .region(region)
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("akid", "secret")))
+            // Throttles are asserted on, not retried
+            .overrideConfiguration(configuration -> configuration.retryStrategy(AwsRetryStrategy.doNotRetry()))
+            .build();
+    }
+}
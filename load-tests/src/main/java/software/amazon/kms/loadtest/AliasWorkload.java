@@ -0,0 +1,124 @@
+package software.amazon.kms.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.kms.alias.AliasApiHelper;
+import software.amazon.kms.alias.CallbackContext;
+import software.amazon.kms.alias.CreateHandler;
+import software.amazon.kms.alias.DeleteHandler;
+import software.amazon.kms.alias.ListHandler;
+import software.amazon.kms.alias.ReadHandler;
+import software.amazon.kms.alias.ResourceModel;
+import software.amazon.kms.alias.UpdateHandler;
+import software.amazon.kms.common.ClientBuilder;
+import software.amazon.kms.common.EventualConsistencyHandlerHelper;
+
+/**
+ * Creates, reads, updates, lists and deletes AWS::KMS::Alias resources, replaying the alias
+ * module's contract test inputs. Every alias gets its own name, and targets one of the keys
+ * created by a {@link KeyWorkload}.
+ */
+class AliasWorkload {
+    private static final String CREATE_KEY_PLACEHOLDER = "ContractTestAliasKey1";
+    private static final String UPDATE_KEY_PLACEHOLDER = "ContractTestAliasKey2";
+
+    private final LoadTestInputs inputs;
+    private final String region;
+    private final CreateHandler createHandler;
+    private final ReadHandler readHandler;
+    private final UpdateHandler updateHandler;
+    private final DeleteHandler deleteHandler;
+    private final ListHandler listHandler;
+    private final List<ResourceModel> aliases = Collections.synchronizedList(new ArrayList<>());
+
+    AliasWorkload(final ClientBuilder clientBuilder, final LoadTestInputs inputs, final String region) {
+        this.inputs = inputs;
+        this.region = region;
+
+        final AliasApiHelper aliasApiHelper = new AliasApiHelper();
+        final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext> eventualConsistencyHandlerHelper =
+            new EventualConsistencyHandlerHelper<>();
+        this.createHandler = new CreateHandler(clientBuilder, aliasApiHelper, eventualConsistencyHandlerHelper);
+        this.readHandler = new ReadHandler(clientBuilder, aliasApiHelper, eventualConsistencyHandlerHelper);
+        this.updateHandler = new UpdateHandler(clientBuilder, aliasApiHelper, eventualConsistencyHandlerHelper);
+        this.deleteHandler = new DeleteHandler(clientBuilder, aliasApiHelper, eventualConsistencyHandlerHelper);
+        this.listHandler = new ListHandler(clientBuilder, aliasApiHelper, eventualConsistencyHandlerHelper);
+    }
+
+    void create(final HandlerDriver driver, final StageRecorder stage, final List<KeyWorkload.CreatedKey> keys) {
+        for (int i = 0; i < keys.size(); i++) {
+            final ResourceModel model = inputs.model(inputs.read(contractInput("inputs_1_create.json"),
+                Collections.singletonMap(CREATE_KEY_PLACEHOLDER, keys.get(i).getKeyId())), ResourceModel.class);
+            model.setAliasName(model.getAliasName() + "-" + i);
+
+            driver.run(stage, createHandler::handleRequest, request(model, null, i), false,
+                progress -> aliases.add(progress.getResourceModel()));
+        }
+    }
+
+    void read(final HandlerDriver driver, final StageRecorder stage) {
+        int i = 0;
+        for (final ResourceModel alias : snapshot()) {
+            final ResourceModel model = ResourceModel.builder().aliasName(alias.getAliasName()).build();
+            driver.run(stage, readHandler::handleRequest, request(model, null, i++), false, progress -> { });
+        }
+    }
+
+    /**
+     * Points every alias at the key after the one it targets.
+     */
+    void update(final HandlerDriver driver, final StageRecorder stage, final List<KeyWorkload.CreatedKey> keys) {
+        int i = 0;
+        for (final ResourceModel alias : snapshot()) {
+            final ResourceModel model = inputs.model(inputs.read(contractInput("inputs_1_update.json"),
+                Collections.singletonMap(UPDATE_KEY_PLACEHOLDER, keys.get((i + 1) % keys.size()).getKeyId())),
+                ResourceModel.class);
+            model.setAliasName(alias.getAliasName());
+
+            driver.run(stage, updateHandler::handleRequest, request(model, alias, i++), false, progress -> { });
+        }
+    }
+
+    void list(final HandlerDriver driver, final StageRecorder stage, final int count) {
+        for (int i = 0; i < count; i++) {
+            driver.run(stage, listHandler::handleRequest, request(ResourceModel.builder().build(), null, i),
+                true, progress -> { });
+        }
+    }
+
+    void delete(final HandlerDriver driver, final StageRecorder stage) {
+        int i = 0;
+        for (final ResourceModel alias : snapshot()) {
+            driver.run(stage, deleteHandler::handleRequest, request(alias, null, i++), false, progress -> { });
+        }
+        aliases.clear();
+    }
+
+    private ResourceHandlerRequest<ResourceModel> request(final ResourceModel model,
+                                                          final ResourceModel previousModel,
+                                                          final int index) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .clientRequestToken(UUID.randomUUID().toString())
+            .desiredResourceState(model)
+            .previousResourceState(previousModel)
+            .logicalResourceIdentifier("LoadTestAlias" + index)
+            .awsAccountId(inputs.getAccountId())
+            .awsPartition("aws")
+            .region(region)
+            .build();
+    }
+
+    private Path contractInput(final String name) {
+        return inputs.getAliasInputs().resolve(name);
+    }
+
+    private List<ResourceModel> snapshot() {
+        synchronized (aliases) {
+            return new ArrayList<>(aliases);
+        }
+    }
+}
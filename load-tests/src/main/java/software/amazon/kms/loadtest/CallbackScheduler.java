@@ -0,0 +1,116 @@
+package software.amazon.kms.loadtest;
+
+import com.google.common.base.Preconditions;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs handler invocations on a fixed number of workers, each at the virtual time it was
+ * scheduled for. Whenever a worker is free and nothing is due yet, the clock skips ahead to
+ * the next invocation instead of waiting, so callback delays cost no real time.
+ *
+ * <p>Handlers that are running while the clock skips ahead see time jump, like a handler
+ * that was slow to run would.
+ */
+class CallbackScheduler implements AutoCloseable {
+    private final VirtualClock clock;
+    private final int concurrency;
+    private final ExecutorService workers;
+    private final Object lock = new Object();
+    private final PriorityQueue<ScheduledTask> queue = new PriorityQueue<>(
+        Comparator.comparingLong((ScheduledTask task) -> task.dueNanos).thenComparingLong(task -> task.sequence));
+    private long sequence;
+    private int running;
+    private RuntimeException failure;
+
+    CallbackScheduler(final VirtualClock clock, final int concurrency) {
+        Preconditions.checkArgument(concurrency > 0, "concurrency must be positive");
+        this.clock = clock;
+        this.concurrency = concurrency;
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            final Thread thread = new Thread(runnable, "load-test-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a task to run once the given delay has passed on the virtual clock.
+     */
+    void schedule(final long delayNanos, final Runnable task) {
+        synchronized (lock) {
+            queue.add(new ScheduledTask(clock.read() + delayNanos, sequence++, task));
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Runs the scheduled tasks, and the tasks they schedule, until there are none left.
+     *
+     * @throws RuntimeException the first exception a task threw, once the others are done
+     */
+    void runUntilIdle() throws InterruptedException {
+        synchronized (lock) {
+            while (!queue.isEmpty() || running > 0) {
+                if (queue.isEmpty() || running >= concurrency) {
+                    lock.wait();
+                    continue;
+                }
+
+                final ScheduledTask next = queue.peek();
+                if (next.dueNanos > clock.read()) {
+                    // Only this thread moves the clock, so it cannot skip past the task
+                    clock.advanceTo(next.dueNanos);
+                }
+
+                queue.poll();
+                running++;
+                workers.execute(() -> run(next));
+            }
+
+            if (failure != null) {
+                final RuntimeException e = failure;
+                failure = null;
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        workers.shutdownNow();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void run(final ScheduledTask task) {
+        try {
+            task.task.run();
+        } catch (final RuntimeException e) {
+            synchronized (lock) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        } finally {
+            synchronized (lock) {
+                running--;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private static final class ScheduledTask {
+        private final long dueNanos;
+        private final long sequence;
+        private final Runnable task;
+
+        private ScheduledTask(final long dueNanos, final long sequence, final Runnable task) {
+            this.dueNanos = dueNanos;
+            this.sequence = sequence;
+            this.task = task;
+        }
+    }
+}
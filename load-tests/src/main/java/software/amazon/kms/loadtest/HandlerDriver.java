@@ -0,0 +1,127 @@
+package software.amazon.kms.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Credentials;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.LoggerProxy;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+/**
+ * Drives a handler action to completion the way CloudFormation does: the handler is invoked
+ * again after every in progress event, with the callback context and resource model the
+ * event returned, once its callback delay has passed on the virtual clock.
+ */
+class HandlerDriver {
+    // The handlers are never given time to wait locally, so every wait is a callback
+    private static final long REMAINING_TIME_MILLIS = 0;
+
+    private final CallbackScheduler scheduler;
+    private final VirtualClock clock;
+    private final LoggerProxy logger = new LoggerProxy();
+    private final Credentials credentials = new Credentials("accessKeyId", "secretAccessKey", "sessionToken");
+    // Callback contexts go through JSON between invocations, as they do in CloudFormation
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    HandlerDriver(final CallbackScheduler scheduler, final VirtualClock clock) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+    }
+
+    /**
+     * Schedules an action, and calls back with its final event if it succeeds.
+     *
+     * @param followNextToken whether to invoke the handler again for every next token, as list actions need
+     */
+    <M, C> void run(final StageRecorder stage,
+                    final HandlerInvoker<M, C> handler,
+                    final ResourceHandlerRequest<M> request,
+                    final boolean followNextToken,
+                    final Consumer<ProgressEvent<M, C>> onSuccess) {
+        final Action<M, C> action = new Action<>(stage, handler, request, followNextToken, onSuccess);
+        scheduler.schedule(0, action::invoke);
+    }
+
+    private final class Action<M, C> {
+        private final StageRecorder stage;
+        private final HandlerInvoker<M, C> handler;
+        private final ResourceHandlerRequest<M> request;
+        private final boolean followNextToken;
+        private final Consumer<ProgressEvent<M, C>> onSuccess;
+        private final long startNanos = clock.read();
+        private long handlerNanos;
+        private int invocations;
+        private C callbackContext;
+
+        private Action(final StageRecorder stage,
+                       final HandlerInvoker<M, C> handler,
+                       final ResourceHandlerRequest<M> request,
+                       final boolean followNextToken,
+                       final Consumer<ProgressEvent<M, C>> onSuccess) {
+            this.stage = stage;
+            this.handler = handler;
+            this.request = request;
+            this.followNextToken = followNextToken;
+            this.onSuccess = onSuccess;
+        }
+
+        private void invoke() {
+            final AmazonWebServicesClientProxy proxy =
+                new AmazonWebServicesClientProxy(logger, credentials, () -> REMAINING_TIME_MILLIS);
+
+            final long invocationStartNanos = System.nanoTime();
+            ProgressEvent<M, C> event;
+            try {
+                event = handler.handleRequest(proxy, request, callbackContext, logger);
+            } catch (final BaseHandlerException e) {
+                event = ProgressEvent.failed(null, null, e.getErrorCode(), e.getMessage());
+            } catch (final RuntimeException e) {
+                event = ProgressEvent.failed(null, null, HandlerErrorCode.InternalFailure, e.toString());
+            }
+            handlerNanos += System.nanoTime() - invocationStartNanos;
+            invocations++;
+
+            if (event.getStatus() == OperationStatus.IN_PROGRESS) {
+                callbackContext = roundTrip(event.getCallbackContext());
+                if (event.getResourceModel() != null) {
+                    request.setDesiredResourceState(event.getResourceModel());
+                }
+                scheduler.schedule(TimeUnit.SECONDS.toNanos(event.getCallbackDelaySeconds()), this::invoke);
+            } else if (event.getStatus() == OperationStatus.SUCCESS) {
+                if (followNextToken && event.getNextToken() != null) {
+                    request.setNextToken(event.getNextToken());
+                    callbackContext = null;
+                    scheduler.schedule(0, this::invoke);
+                    return;
+                }
+
+                stage.recordSuccess(handlerNanos, clock.read() - startNanos, invocations);
+                onSuccess.accept(event);
+            } else {
+                stage.recordFailure(String.valueOf(event.getErrorCode()));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private C roundTrip(final C context) {
+            if (context == null) {
+                return null;
+            }
+
+            try {
+                return (C) objectMapper.readValue(objectMapper.writeValueAsBytes(context), context.getClass());
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package software.amazon.kms.loadtest;
+
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+/**
+ * A handler's entry point, e.g. {@code new CreateHandler()::handleRequest}. Every resource
+ * type generates its own handler base class, so this is what they have in common.
+ */
+@FunctionalInterface
+interface HandlerInvoker<M, C> {
+    ProgressEvent<M, C> handleRequest(AmazonWebServicesClientProxy proxy,
+                                      ResourceHandlerRequest<M> request,
+                                      C callbackContext,
+                                      Logger logger);
+}
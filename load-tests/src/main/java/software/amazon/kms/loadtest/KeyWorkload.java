@@ -0,0 +1,176 @@
+package software.amazon.kms.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.kms.common.ClientBuilder;
+import software.amazon.kms.common.CreatableKeyHandlerHelper;
+import software.amazon.kms.common.CreatableKeyTranslator;
+import software.amazon.kms.common.EventualConsistencyHandlerHelper;
+import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.TagHelper;
+import software.amazon.kms.key.CallbackContext;
+import software.amazon.kms.key.CreateHandler;
+import software.amazon.kms.key.DeleteHandler;
+import software.amazon.kms.key.ListHandler;
+import software.amazon.kms.key.ReadHandler;
+import software.amazon.kms.key.ResourceModel;
+import software.amazon.kms.key.Translator;
+import software.amazon.kms.key.UpdateHandler;
+
+/**
+ * Creates, reads, updates, lists and deletes AWS::KMS::Key resources, replaying the key
+ * module's {@code sam-tests} events.
+ */
+class KeyWorkload {
+    private final LoadTestInputs inputs;
+    private final String region;
+    private final CreateHandler createHandler;
+    private final ReadHandler readHandler;
+    private final UpdateHandler updateHandler;
+    private final DeleteHandler deleteHandler;
+    private final ListHandler listHandler;
+    private final List<CreatedKey> keys = Collections.synchronizedList(new ArrayList<>());
+
+    KeyWorkload(final ClientBuilder clientBuilder, final LoadTestInputs inputs, final String region) {
+        this.inputs = inputs;
+        this.region = region;
+
+        // Wired the way the handlers' default constructors wire them, but with the given clients
+        final Translator translator = new Translator();
+        final KeyApiHelper keyApiHelper = new KeyApiHelper();
+        final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext> eventualConsistencyHandlerHelper =
+            new EventualConsistencyHandlerHelper<>();
+        final CreatableKeyHandlerHelper<ResourceModel, CallbackContext, CreatableKeyTranslator<ResourceModel>>
+            keyHandlerHelper = new CreatableKeyHandlerHelper<>(ResourceModel.TYPE_NAME, keyApiHelper,
+            eventualConsistencyHandlerHelper, translator);
+        final TagHelper<ResourceModel, CallbackContext, CreatableKeyTranslator<ResourceModel>> tagHelper =
+            new TagHelper<>(translator, keyApiHelper, keyHandlerHelper);
+
+        this.createHandler = new CreateHandler(clientBuilder, translator, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyHandlerHelper, tagHelper);
+        this.readHandler = new ReadHandler(clientBuilder, translator, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyHandlerHelper, Executors.newFixedThreadPool(3, runnable -> {
+                final Thread thread = new Thread(runnable, "load-test-read-key");
+                thread.setDaemon(true);
+                return thread;
+            }));
+        this.updateHandler = new UpdateHandler(clientBuilder, translator, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyHandlerHelper, tagHelper);
+        this.deleteHandler = new DeleteHandler(clientBuilder, translator, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyHandlerHelper);
+        this.listHandler = new ListHandler(clientBuilder, translator, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyHandlerHelper);
+    }
+
+    List<CreatedKey> getKeys() {
+        return keys;
+    }
+
+    void create(final HandlerDriver driver, final StageRecorder stage, final int count, final boolean multiRegion) {
+        for (int i = 0; i < count; i++) {
+            final JsonNode event = inputs.read(samTest("create.json"), Collections.emptyMap());
+            final ResourceModel model = desiredState(event);
+            if (multiRegion) {
+                model.setMultiRegion(true);
+            }
+            final Map<String, String> tags = inputs.tags(event.path("request").path("desiredResourceTags"));
+
+            final ResourceHandlerRequest<ResourceModel> request = request(event, model, i);
+            request.setDesiredResourceTags(tags);
+            driver.run(stage, createHandler::handleRequest, request, false,
+                progress -> keys.add(new CreatedKey(progress.getResourceModel().getKeyId(),
+                    progress.getResourceModel().getArn(), tags)));
+        }
+    }
+
+    void read(final HandlerDriver driver, final StageRecorder stage) {
+        int i = 0;
+        for (final CreatedKey key : snapshot()) {
+            final ResourceHandlerRequest<ResourceModel> request = request(
+                inputs.read(samTest("read.json"), Collections.emptyMap()), null, i++);
+            request.getDesiredResourceState().setKeyId(key.getKeyId());
+            driver.run(stage, readHandler::handleRequest, request, false, progress -> { });
+        }
+    }
+
+    void update(final HandlerDriver driver, final StageRecorder stage) {
+        int i = 0;
+        for (final CreatedKey key : snapshot()) {
+            final JsonNode event = inputs.read(samTest("update.json"), Collections.emptyMap());
+            final ResourceHandlerRequest<ResourceModel> request = request(event, null, i++);
+            request.getDesiredResourceState().setKeyId(key.getKeyId());
+            request.getDesiredResourceState().setArn(key.getArn());
+            request.setDesiredResourceTags(inputs.tags(event.path("request").path("desiredResourceTags")));
+
+            final ResourceModel previousState = inputs.model(
+                event.path("request").path("previousResourceState"), ResourceModel.class);
+            previousState.setKeyId(key.getKeyId());
+            previousState.setArn(key.getArn());
+            request.setPreviousResourceState(previousState);
+            request.setPreviousResourceTags(key.getTags());
+            driver.run(stage, updateHandler::handleRequest, request, false, progress -> { });
+        }
+    }
+
+    void list(final HandlerDriver driver, final StageRecorder stage, final int count) {
+        for (int i = 0; i < count; i++) {
+            final ResourceHandlerRequest<ResourceModel> request = request(null, ResourceModel.builder().build(), i);
+            driver.run(stage, listHandler::handleRequest, request, true, progress -> { });
+        }
+    }
+
+    void delete(final HandlerDriver driver, final StageRecorder stage) {
+        int i = 0;
+        for (final CreatedKey key : snapshot()) {
+            final ResourceHandlerRequest<ResourceModel> request = request(
+                inputs.read(samTest("delete.json"), Collections.emptyMap()), null, i++);
+            request.getDesiredResourceState().setKeyId(key.getKeyId());
+            driver.run(stage, deleteHandler::handleRequest, request, false, progress -> { });
+        }
+        keys.clear();
+    }
+
+    private ResourceHandlerRequest<ResourceModel> request(final JsonNode event,
+                                                          final ResourceModel model,
+                                                          final int index) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .clientRequestToken(UUID.randomUUID().toString())
+            .desiredResourceState(model != null ? model : desiredState(event))
+            .logicalResourceIdentifier("LoadTestKey" + index)
+            .awsAccountId(inputs.getAccountId())
+            .awsPartition("aws")
+            .region(region)
+            .build();
+    }
+
+    private ResourceModel desiredState(final JsonNode event) {
+        return inputs.model(event.path("request").path("desiredResourceState"), ResourceModel.class);
+    }
+
+    private Path samTest(final String name) {
+        return inputs.getKeySamTests().resolve(name);
+    }
+
+    private List<CreatedKey> snapshot() {
+        synchronized (keys) {
+            return new ArrayList<>(keys);
+        }
+    }
+
+    /**
+     * A key created by the workload, and the tags it was created with.
+     */
+    @lombok.Value
+    static class CreatedKey {
+        String keyId;
+        String arn;
+        Map<String, String> tags;
+    }
+}
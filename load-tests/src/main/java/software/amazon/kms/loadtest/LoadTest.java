@@ -0,0 +1,150 @@
+package software.amazon.kms.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import software.amazon.kms.common.ClientBuilder;
+import software.amazon.kms.local.LocalKmsConfig;
+import software.amazon.kms.local.LocalKmsServer;
+
+/**
+ * Runs the Key, ReplicaKey and Alias handlers end to end against a {@link LocalKmsServer},
+ * the way CloudFormation invokes them, and reports how long every action took and how many
+ * KMS calls it made.
+ *
+ * <p>The actions run in stages, one handler action at a time, e.g. every key create and then
+ * every key read, so the KMS calls and throttles the server counts during a stage are the
+ * ones that action made. Callback delays are skipped on a virtual clock, so a stage takes as
+ * long as its handlers and KMS calls do, while its completion times are the ones CloudFormation
+ * would see.
+ *
+ * <p>Options, each {@code --name=value}:
+ * <ul>
+ *     <li>{@code resources}: keys, aliases and replicas to create, 50 by default</li>
+ *     <li>{@code concurrency}: handler invocations in flight at once, 16 by default</li>
+ *     <li>{@code lists}: list actions per resource type, 5 by default</li>
+ *     <li>{@code latency-ms}, {@code jitter-ms}: the latency of every KMS call</li>
+ *     <li>{@code requests-per-second}: the KMS request quota, unlimited by default</li>
+ *     <li>{@code lag-seconds}: how long KMS writes take to be seen by reads</li>
+ *     <li>{@code key-sam-tests}, {@code alias-inputs}: where the handler inputs are, relative to the repository</li>
+ *     <li>{@code json}: a file to write the results to, as JSON</li>
+ * </ul>
+ */
+public final class LoadTest {
+    private static final String REGION = "us-east-1";
+    private static final String REPLICA_REGION = "us-west-2";
+
+    private final LocalKmsServer server;
+    private final VirtualClock clock;
+    private final CallbackScheduler scheduler;
+    private final HandlerDriver driver;
+    private final List<StageResult> results = new ArrayList<>();
+
+    private LoadTest(final LocalKmsServer server, final VirtualClock clock, final CallbackScheduler scheduler) {
+        this.server = server;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.driver = new HandlerDriver(scheduler, clock);
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final Map<String, String> options = parseOptions(args);
+        final int resources = Integer.parseInt(options.getOrDefault("resources", "50"));
+        final int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        final int lists = Integer.parseInt(options.getOrDefault("lists", "5"));
+
+        final LocalKmsConfig config = LocalKmsConfig.builder()
+            .defaultRegion(REGION)
+            .latency(Duration.ofMillis(Long.parseLong(options.getOrDefault("latency-ms", "0"))))
+            .latencyJitter(Duration.ofMillis(Long.parseLong(options.getOrDefault("jitter-ms", "0"))))
+            .requestsPerSecond(Double.parseDouble(options.getOrDefault("requests-per-second", "0")))
+            .consistencyLag(Duration.ofSeconds(Long.parseLong(options.getOrDefault("lag-seconds", "0"))))
+            .build();
+        final Path keySamTests = Paths.get(options.getOrDefault("key-sam-tests", "key/sam-tests"));
+        final Path aliasInputs = Paths.get(options.getOrDefault("alias-inputs", "alias/inputs"));
+        final LoadTestInputs inputs = new LoadTestInputs(keySamTests, aliasInputs, config.getAccountId());
+
+        final VirtualClock clock = new VirtualClock();
+        final List<StageResult> results;
+        try (LocalKmsServer server = LocalKmsServer.start(config, clock);
+             CallbackScheduler scheduler = new CallbackScheduler(clock, concurrency)) {
+            results = new LoadTest(server, clock, scheduler).run(inputs, resources, lists);
+        }
+
+        LoadTestReport.print(System.out, results);
+        if (options.containsKey("json")) {
+            LoadTestReport.writeJson(Paths.get(options.get("json")), results);
+        }
+    }
+
+    private List<StageResult> run(final LoadTestInputs inputs, final int resources, final int lists)
+        throws InterruptedException {
+        final ClientBuilder clientBuilder = server.clientBuilder();
+        final ClientBuilder replicaClientBuilder = ClientBuilder.forEndpoint(server.getEndpoint(), REPLICA_REGION);
+        final KeyWorkload keys = new KeyWorkload(clientBuilder, inputs, REGION);
+        final KeyWorkload primaryKeys = new KeyWorkload(clientBuilder, inputs, REGION);
+        final AliasWorkload aliases = new AliasWorkload(clientBuilder, inputs, REGION);
+        final ReplicaKeyWorkload replicas = new ReplicaKeyWorkload(replicaClientBuilder, inputs, REPLICA_REGION);
+
+        stage("Key CREATE", (d, s) -> keys.create(d, s, resources, false));
+        stage("Key CREATE (multi-Region)", (d, s) -> primaryKeys.create(d, s, resources, true));
+        stage("Key READ", keys::read);
+        stage("Key UPDATE", keys::update);
+        stage("Key LIST", (d, s) -> keys.list(d, s, lists));
+
+        stage("Alias CREATE", (d, s) -> aliases.create(d, s, keys.getKeys()));
+        stage("Alias READ", aliases::read);
+        stage("Alias UPDATE", (d, s) -> aliases.update(d, s, keys.getKeys()));
+        stage("Alias LIST", (d, s) -> aliases.list(d, s, lists));
+        stage("Alias DELETE", aliases::delete);
+
+        stage("ReplicaKey CREATE", (d, s) -> replicas.create(d, s, primaryKeys.getKeys()));
+        stage("ReplicaKey READ", replicas::read);
+        stage("ReplicaKey UPDATE", replicas::update);
+        stage("ReplicaKey LIST", (d, s) -> replicas.list(d, s, lists));
+        stage("ReplicaKey DELETE", replicas::delete);
+
+        stage("Key DELETE", keys::delete);
+        stage("Key DELETE (multi-Region)", primaryKeys::delete);
+        return results;
+    }
+
+    /**
+     * Schedules a stage's actions and runs them to completion, attributing the KMS calls made
+     * meanwhile to the stage.
+     */
+    private void stage(final String name, final BiConsumer<HandlerDriver, StageRecorder> actions)
+        throws InterruptedException {
+        final StageRecorder stage = new StageRecorder(name);
+        server.resetCounts();
+        final long startNanos = System.nanoTime();
+
+        actions.accept(driver, stage);
+        scheduler.runUntilIdle();
+
+        final StageResult result = stage.result(server.getCallCounts(), server.getThrottleCounts(),
+            System.nanoTime() - startNanos);
+        results.add(result);
+        System.err.printf("%s: %d succeeded, %d failed in %d ms (%d s skipped so far)%n", name,
+            result.getSucceeded(), result.getFailed(), result.getElapsedMillis(),
+            clock.getSkippedNanos() / 1_000_000_000);
+    }
+
+    private static Map<String, String> parseOptions(final String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (final String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
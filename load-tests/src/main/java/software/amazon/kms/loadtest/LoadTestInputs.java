@@ -0,0 +1,103 @@
+package software.amazon.kms.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the inputs the handlers are tested with, i.e. the key module's {@code sam-tests/*.json}
+ * handler events and the alias module's contract test {@code inputs/*.json} models, and fills
+ * in their {@code ${...}} and {@code {{...}}} placeholders so they can be replayed many times.
+ */
+@lombok.Getter
+class LoadTestInputs {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(\\w+)}|\\{\\{(\\w+)}}");
+
+    private final Path keySamTests;
+    private final Path aliasInputs;
+    private final String accountId;
+    @lombok.Getter(lombok.AccessLevel.NONE)
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    @lombok.Getter(lombok.AccessLevel.NONE)
+    private final Map<String, String> templates = new ConcurrentHashMap<>();
+
+    LoadTestInputs(final Path keySamTests, final Path aliasInputs, final String accountId) {
+        this.keySamTests = keySamTests;
+        this.aliasInputs = aliasInputs;
+        this.accountId = accountId;
+    }
+
+    /**
+     * Reads a template file once, keeping it for every later request.
+     */
+    private String template(final Path path) {
+        return templates.computeIfAbsent(path.toAbsolutePath().toString(), p -> {
+            try {
+                return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Reads a template, with its placeholders replaced by the given values. The account id
+     * placeholders are always filled in, other placeholders without a value are left empty.
+     */
+    JsonNode read(final Path path, final Map<String, String> values) {
+        final Matcher matcher = PLACEHOLDER.matcher(template(path));
+        final StringBuffer json = new StringBuffer();
+        while (matcher.find()) {
+            final String name = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+            // The sam-tests spell it both ways
+            final String value = "accountId".equals(name) || "accontId".equals(name)
+                ? accountId : values.getOrDefault(name, "");
+            matcher.appendReplacement(json, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(json);
+
+        try {
+            return objectMapper.readTree(json.toString());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converts a resource model from its schema representation.
+     */
+    <M> M model(final JsonNode model, final Class<M> modelType) {
+        return objectMapper.convertValue(model, modelType);
+    }
+
+    /**
+     * Reads a tag map, e.g. the desiredResourceTags of a handler event.
+     */
+    Map<String, String> tags(final JsonNode tags) {
+        if (!(tags instanceof ObjectNode)) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, String> tagMap = new HashMap<>();
+        final Iterator<Map.Entry<String, JsonNode>> fields = tags.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            tagMap.put(field.getKey(), field.getValue().asText());
+        }
+        return tagMap;
+    }
+}
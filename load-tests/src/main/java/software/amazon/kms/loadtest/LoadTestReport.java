@@ -0,0 +1,75 @@
+package software.amazon.kms.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the results of a load test as a table, one row per stage, followed by the KMS calls
+ * every stage made, or writes them as JSON to compare runs with.
+ */
+final class LoadTestReport {
+    private static final double[] PERCENTILES = {50, 95, 99};
+    private static final String ROW_FORMAT = "%-28s %6s %6s %8s %8s %8s %8s %10s %10s %10s %8s %9s%n";
+
+    private LoadTestReport() {
+    }
+
+    static void print(final PrintStream out, final List<StageResult> results) {
+        out.printf(ROW_FORMAT, "Stage", "OK", "Failed", "Invokes",
+            "p50 ms", "p95 ms", "p99 ms", "p50 done", "p95 done", "p99 done", "KMS", "Throttled");
+        for (final StageResult result : results) {
+            out.printf(ROW_FORMAT, result.getName(), result.getSucceeded(), result.getFailed(),
+                result.getInvocations().at(50),
+                result.getHandlerMillis().at(50), result.getHandlerMillis().at(95), result.getHandlerMillis().at(99),
+                result.getCompletionMillis().at(50), result.getCompletionMillis().at(95),
+                result.getCompletionMillis().at(99),
+                result.getTotalKmsCalls(), result.getTotalKmsThrottles());
+        }
+
+        out.println();
+        out.println("KMS calls by stage (throttled):");
+        for (final StageResult result : results) {
+            out.printf("  %s%n", result.getName());
+            for (final Map.Entry<String, Long> calls : result.getKmsCalls().entrySet()) {
+                out.printf("    %-28s %8d (%d)%n", calls.getKey(), calls.getValue(),
+                    result.getKmsThrottles().getOrDefault(calls.getKey(), 0L));
+            }
+            for (final Map.Entry<String, Integer> failures : result.getFailures().entrySet()) {
+                out.printf("    failed with %-16s %8d%n", failures.getKey(), failures.getValue());
+            }
+        }
+    }
+
+    static void writeJson(final Path path, final List<StageResult> results) throws IOException {
+        final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        final ArrayNode stages = objectMapper.createArrayNode();
+        for (final StageResult result : results) {
+            final ObjectNode stage = stages.addObject();
+            stage.put("name", result.getName());
+            stage.put("succeeded", result.getSucceeded());
+            stage.put("failed", result.getFailed());
+            stage.put("elapsedMillis", result.getElapsedMillis());
+            percentiles(stage.putObject("invocations"), result.getInvocations());
+            percentiles(stage.putObject("handlerMillis"), result.getHandlerMillis());
+            percentiles(stage.putObject("completionMillis"), result.getCompletionMillis());
+            stage.set("failures", objectMapper.valueToTree(result.getFailures()));
+            stage.set("kmsCalls", objectMapper.valueToTree(result.getKmsCalls()));
+            stage.set("kmsThrottles", objectMapper.valueToTree(result.getKmsThrottles()));
+        }
+        objectMapper.writeValue(path.toFile(), stages);
+    }
+
+    private static void percentiles(final ObjectNode node, final Percentiles percentiles) {
+        for (final double percentile : PERCENTILES) {
+            node.put("p" + (int) percentile, percentiles.at(percentile));
+        }
+        node.put("max", percentiles.max());
+    }
+}
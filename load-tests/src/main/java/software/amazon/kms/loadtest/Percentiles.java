@@ -0,0 +1,41 @@
+package software.amazon.kms.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Nearest-rank percentiles of a set of samples.
+ */
+final class Percentiles {
+    private final long[] sortedSamples;
+
+    private Percentiles(final long[] sortedSamples) {
+        this.sortedSamples = sortedSamples;
+    }
+
+    static Percentiles of(final long[] samples) {
+        final long[] sortedSamples = samples.clone();
+        Arrays.sort(sortedSamples);
+        return new Percentiles(sortedSamples);
+    }
+
+    /**
+     * The smallest sample that at least the given percentage of the samples are less than
+     * or equal to, or zero if there are no samples.
+     */
+    long at(final double percentile) {
+        if (sortedSamples.length == 0) {
+            return 0;
+        }
+
+        final int rank = (int) Math.ceil(percentile / 100 * sortedSamples.length);
+        return sortedSamples[Math.max(rank, 1) - 1];
+    }
+
+    long max() {
+        return sortedSamples.length == 0 ? 0 : sortedSamples[sortedSamples.length - 1];
+    }
+
+    int count() {
+        return sortedSamples.length;
+    }
+}
@@ -0,0 +1,158 @@
+package software.amazon.kms.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.kms.common.ClientBuilder;
+import software.amazon.kms.common.EventualConsistencyHandlerHelper;
+import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.KeyHandlerHelper;
+import software.amazon.kms.common.KeyTranslator;
+import software.amazon.kms.common.TagHelper;
+import software.amazon.kms.replicakey.CallbackContext;
+import software.amazon.kms.replicakey.CreateHandler;
+import software.amazon.kms.replicakey.DeleteHandler;
+import software.amazon.kms.replicakey.ListHandler;
+import software.amazon.kms.replicakey.ReadHandler;
+import software.amazon.kms.replicakey.ResourceModel;
+import software.amazon.kms.replicakey.Translator;
+import software.amazon.kms.replicakey.UpdateHandler;
+
+/**
+ * Creates, reads, updates, lists and deletes AWS::KMS::ReplicaKey resources. Every replica
+ * replicates one of the multi-Region keys created by a {@link KeyWorkload}, with the policy and
+ * tags of the key module's {@code sam-tests/create.json}, and the descriptions of its create and
+ * update events.
+ */
+class ReplicaKeyWorkload {
+    private final LoadTestInputs inputs;
+    private final String region;
+    private final CreateHandler createHandler;
+    private final ReadHandler readHandler;
+    private final UpdateHandler updateHandler;
+    private final DeleteHandler deleteHandler;
+    private final ListHandler listHandler;
+    private final List<ResourceModel> replicas = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * @param clientBuilder clients whose default region is the replicas' region
+     */
+    ReplicaKeyWorkload(final ClientBuilder clientBuilder, final LoadTestInputs inputs, final String region) {
+        this.inputs = inputs;
+        this.region = region;
+
+        final Translator translator = new Translator();
+        final KeyApiHelper keyApiHelper = new KeyApiHelper();
+        final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext> eventualConsistencyHandlerHelper =
+            new EventualConsistencyHandlerHelper<>();
+        final KeyHandlerHelper<ResourceModel, CallbackContext, KeyTranslator<ResourceModel>> keyHandlerHelper =
+            new KeyHandlerHelper<>(ResourceModel.TYPE_NAME, keyApiHelper, eventualConsistencyHandlerHelper,
+                translator);
+        final TagHelper<ResourceModel, CallbackContext, KeyTranslator<ResourceModel>> tagHelper =
+            new TagHelper<>(translator, keyApiHelper, keyHandlerHelper);
+
+        this.createHandler = new CreateHandler(clientBuilder, translator, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyHandlerHelper, tagHelper);
+        this.readHandler = new ReadHandler(clientBuilder, translator, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyHandlerHelper);
+        this.updateHandler = new UpdateHandler(clientBuilder, translator, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyHandlerHelper, tagHelper);
+        this.deleteHandler = new DeleteHandler(clientBuilder, translator, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyHandlerHelper);
+        this.listHandler = new ListHandler(clientBuilder, translator, keyApiHelper,
+            eventualConsistencyHandlerHelper, keyHandlerHelper);
+    }
+
+    void create(final HandlerDriver driver, final StageRecorder stage,
+                final List<KeyWorkload.CreatedKey> primaryKeys) {
+        final JsonNode desiredState = keyEventState("create.json");
+        for (int i = 0; i < primaryKeys.size(); i++) {
+            final KeyWorkload.CreatedKey primaryKey = primaryKeys.get(i);
+            final ResourceModel model = model(desiredState, primaryKey.getArn());
+
+            final ResourceHandlerRequest<ResourceModel> request = request(model, null, i);
+            request.setDesiredResourceTags(primaryKey.getTags());
+            driver.run(stage, createHandler::handleRequest, request, false,
+                progress -> replicas.add(progress.getResourceModel()));
+        }
+    }
+
+    void read(final HandlerDriver driver, final StageRecorder stage) {
+        int i = 0;
+        for (final ResourceModel replica : snapshot()) {
+            final ResourceModel model = ResourceModel.builder().keyId(replica.getKeyId()).build();
+            driver.run(stage, readHandler::handleRequest, request(model, null, i++), false, progress -> { });
+        }
+    }
+
+    /**
+     * Gives every replica the description and policy of the key module's update event.
+     */
+    void update(final HandlerDriver driver, final StageRecorder stage) {
+        final JsonNode desiredState = keyEventState("update.json");
+        int i = 0;
+        for (final ResourceModel replica : snapshot()) {
+            final ResourceModel model = model(desiredState, replica.getPrimaryKeyArn());
+            model.setArn(replica.getArn());
+            model.setKeyId(replica.getKeyId());
+            driver.run(stage, updateHandler::handleRequest, request(model, replica, i++), false, progress -> { });
+        }
+    }
+
+    void list(final HandlerDriver driver, final StageRecorder stage, final int count) {
+        for (int i = 0; i < count; i++) {
+            driver.run(stage, listHandler::handleRequest, request(ResourceModel.builder().build(), null, i),
+                true, progress -> { });
+        }
+    }
+
+    void delete(final HandlerDriver driver, final StageRecorder stage) {
+        int i = 0;
+        for (final ResourceModel replica : snapshot()) {
+            driver.run(stage, deleteHandler::handleRequest, request(replica, null, i++), false, progress -> { });
+        }
+        replicas.clear();
+    }
+
+    private JsonNode keyEventState(final String name) {
+        return inputs.read(inputs.getKeySamTests().resolve(name), Collections.emptyMap())
+            .path("request").path("desiredResourceState");
+    }
+
+    /**
+     * The replica properties of a key's desired state, i.e. everything but what only a
+     * primary key can set.
+     */
+    private ResourceModel model(final JsonNode keyState, final String primaryKeyArn) {
+        final ObjectNode replicaState = JsonNodeFactory.instance.objectNode();
+        replicaState.put("PrimaryKeyArn", primaryKeyArn);
+        replicaState.set("Description", keyState.path("Description"));
+        replicaState.set("KeyPolicy", keyState.path("KeyPolicy"));
+        return inputs.model(replicaState, ResourceModel.class);
+    }
+
+    private ResourceHandlerRequest<ResourceModel> request(final ResourceModel model,
+                                                          final ResourceModel previousModel,
+                                                          final int index) {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .clientRequestToken(UUID.randomUUID().toString())
+            .desiredResourceState(model)
+            .previousResourceState(previousModel)
+            .logicalResourceIdentifier("LoadTestReplicaKey" + index)
+            .awsAccountId(inputs.getAccountId())
+            .awsPartition("aws")
+            .region(region)
+            .build();
+    }
+
+    private List<ResourceModel> snapshot() {
+        synchronized (replicas) {
+            return new ArrayList<>(replicas);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package software.amazon.kms.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the outcome of every action in a stage of the load test. Actions finish on the
+ * scheduler's workers, so everything here is synchronized.
+ */
+class StageRecorder {
+    private final String name;
+    private final Samples handlerNanos = new Samples();
+    private final Samples completionNanos = new Samples();
+    private final Samples invocations = new Samples();
+    private final Map<String, Integer> failures = new TreeMap<>();
+
+    StageRecorder(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a successful action.
+     *
+     * @param handlerNanos    the real time spent in the handler, over all of its invocations
+     * @param completionNanos the virtual time from the first invocation to the last, callback delays included
+     * @param invocationCount the number of times the handler was invoked
+     */
+    synchronized void recordSuccess(final long handlerNanos, final long completionNanos, final int invocationCount) {
+        this.handlerNanos.add(handlerNanos);
+        this.completionNanos.add(completionNanos);
+        this.invocations.add(invocationCount);
+    }
+
+    synchronized void recordFailure(final String errorCode) {
+        failures.merge(errorCode, 1, Integer::sum);
+    }
+
+    synchronized StageResult result(final Map<String, Long> kmsCalls,
+                                    final Map<String, Long> kmsThrottles,
+                                    final long elapsedNanos) {
+        return StageResult.builder()
+            .name(name)
+            .handlerMillis(Percentiles.of(toMillis(handlerNanos.toArray())))
+            .completionMillis(Percentiles.of(toMillis(completionNanos.toArray())))
+            .invocations(Percentiles.of(invocations.toArray()))
+            .failures(new TreeMap<>(failures))
+            .kmsCalls(new TreeMap<>(kmsCalls))
+            .kmsThrottles(new TreeMap<>(kmsThrottles))
+            .elapsedMillis(elapsedNanos / 1_000_000)
+            .build();
+    }
+
+    private static long[] toMillis(final long[] nanos) {
+        return Arrays.stream(nanos).map(n -> n / 1_000_000).toArray();
+    }
+
+    /**
+     * A growable array of primitive samples, so recording does not box.
+     */
+    private static final class Samples {
+        private long[] values = new long[64];
+        private int size;
+
+        private void add(final long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package software.amazon.kms.loadtest;
+
+import java.util.Map;
+
+/**
+ * The outcome of a stage of the load test: how long its actions took, and the KMS calls they
+ * made while it ran.
+ */
+@lombok.Builder
+@lombok.Value
+class StageResult {
+    String name;
+    Percentiles handlerMillis;
+    Percentiles completionMillis;
+    Percentiles invocations;
+    Map<String, Integer> failures;
+    Map<String, Long> kmsCalls;
+    Map<String, Long> kmsThrottles;
+    long elapsedMillis;
+
+    int getSucceeded() {
+        return handlerMillis.count();
+    }
+
+    int getFailed() {
+        return failures.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    long getTotalKmsCalls() {
+        return kmsCalls.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    long getTotalKmsThrottles() {
+        return kmsThrottles.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
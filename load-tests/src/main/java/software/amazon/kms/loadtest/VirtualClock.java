@@ -0,0 +1,32 @@
+package software.amazon.kms.loadtest;
+
+import com.google.common.base.Ticker;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A clock that follows real time, but that can be skipped ahead. The local KMS server and
+ * the {@link CallbackScheduler} share it, so a callback delay the scheduler skips also passes
+ * for the server's simulated eventual consistency.
+ */
+class VirtualClock extends Ticker {
+    private final AtomicLong skippedNanos = new AtomicLong();
+
+    @Override
+    public long read() {
+        return System.nanoTime() + skippedNanos.get();
+    }
+
+    /**
+     * Moves the clock forward to the given time, if it is not already past it.
+     */
+    void advanceTo(final long nanos) {
+        final long skip = nanos - read();
+        if (skip > 0) {
+            skippedNanos.addAndGet(skip);
+        }
+    }
+
+    long getSkippedNanos() {
+        return skippedNanos.get();
+    }
+}
@@ -0,0 +1,49 @@
+package software.amazon.kms.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class CallbackSchedulerTest {
+    private final VirtualClock clock = new VirtualClock();
+    private final CallbackScheduler scheduler = new CallbackScheduler(clock, 2);
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        scheduler.close();
+    }
+
+    @Test
+    public void testDelaysAreSkipped() throws InterruptedException {
+        final long delayNanos = TimeUnit.MINUTES.toNanos(10);
+        final List<String> ran = new CopyOnWriteArrayList<>();
+        final long startNanos = System.nanoTime();
+
+        scheduler.schedule(delayNanos, () -> ran.add("later"));
+        scheduler.schedule(0, () -> {
+            ran.add("now");
+            scheduler.schedule(delayNanos * 2, () -> ran.add("callback"));
+        });
+        scheduler.runUntilIdle();
+
+        assertThat(ran).containsExactly("now", "later", "callback");
+        assertThat(clock.getSkippedNanos()).isGreaterThan(delayNanos);
+        assertThat(System.nanoTime() - startNanos).isLessThan(delayNanos);
+    }
+
+    @Test
+    public void testTaskFailureIsRethrown() {
+        scheduler.schedule(0, () -> {
+            throw new IllegalStateException("failed");
+        });
+
+        assertThatExceptionOfType(IllegalStateException.class)
+            .isThrownBy(scheduler::runUntilIdle)
+            .withMessage("failed");
+    }
+}
@@ -0,0 +1,28 @@
+package software.amazon.kms.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class PercentilesTest {
+    @Test
+    public void testNearestRank() {
+        final Percentiles percentiles = Percentiles.of(new long[] {50, 10, 40, 20, 30});
+
+        assertThat(percentiles.at(0)).isEqualTo(10);
+        assertThat(percentiles.at(20)).isEqualTo(10);
+        assertThat(percentiles.at(50)).isEqualTo(30);
+        assertThat(percentiles.at(95)).isEqualTo(50);
+        assertThat(percentiles.max()).isEqualTo(50);
+        assertThat(percentiles.count()).isEqualTo(5);
+    }
+
+    @Test
+    public void testNoSamples() {
+        final Percentiles percentiles = Percentiles.of(new long[0]);
+
+        assertThat(percentiles.at(99)).isZero();
+        assertThat(percentiles.max()).isZero();
+        assertThat(percentiles.count()).isZero();
+    }
+}
@@ -11,6 +11,7 @@ import software.amazon.kms.common.EventualConsistencyHandlerHelper;
 import software.amazon.kms.common.KeyApiHelper;
 import software.amazon.kms.common.KeyHandlerHelper;
 import software.amazon.kms.common.KeyTranslator;
+import software.amazon.kms.common.KmsApiMetrics;
 import software.amazon.kms.common.TagHelper;
 
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
@@ -23,15 +24,19 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         keyHandlerHelper;
     final TagHelper<ResourceModel, CallbackContext, KeyTranslator<ResourceModel>> tagHelper;
 
+    static {
+        // Starts once in Lambda, in the background, when the handler wrapper loads the handlers during the init phase
+        Priming.prime();
+    }
+
     public BaseHandlerStd() {
-        this.clientBuilder = new ClientBuilder();
-        this.translator = new Translator();
-        this.keyApiHelper = new KeyApiHelper();
-        this.eventualConsistencyHandlerHelper = new EventualConsistencyHandlerHelper<>();
-        this.keyHandlerHelper =
-            new KeyHandlerHelper<>(ResourceModel.TYPE_NAME, keyApiHelper,
-                eventualConsistencyHandlerHelper, translator);
-        this.tagHelper = new TagHelper<>(translator, keyApiHelper, keyHandlerHelper);
+        this(HandlerDependencies.shared());
+    }
+
+    BaseHandlerStd(final HandlerDependencies dependencies) {
+        this(dependencies.clientBuilder, dependencies.translator, dependencies.keyApiHelper,
+            dependencies.eventualConsistencyHandlerHelper, dependencies.keyHandlerHelper,
+            dependencies.tagHelper);
     }
 
     public BaseHandlerStd(final ClientBuilder clientBuilder,
@@ -70,12 +75,17 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final Logger logger) {
-        return handleRequest(
-            proxy,
-            request,
-            callbackContext != null ? callbackContext : new CallbackContext(),
-            proxy.newProxy(clientBuilder::getClient),
-            logger);
+        try {
+            return handleRequest(
+                proxy,
+                request,
+                callbackContext != null ? callbackContext : new CallbackContext(),
+                proxy.newProxy(clientBuilder::getClient),
+                logger);
+        } finally {
+            // Lambda may freeze the container once we return, so every invocation writes out its own calls
+            KmsApiMetrics.shared().flush(ResourceModel.TYPE_NAME, logger::log);
+        }
     }
 
     protected abstract ProgressEvent<ResourceModel, CallbackContext> handleRequest(
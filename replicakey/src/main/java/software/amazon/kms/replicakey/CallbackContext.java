@@ -6,6 +6,11 @@ import software.amazon.kms.common.KeyCallbackContext;
  * The Key and ReplicaKey resources share the same callback context.
  * This class is required since the CFN java plugin expects it to exist here and with this name.
  */
+@lombok.Getter
+@lombok.Setter
+@lombok.ToString
+@lombok.EqualsAndHashCode(callSuper = true)
 public class CallbackContext extends KeyCallbackContext {
-
+    // When ReplicateKey was called, for ReplicaReadinessTracker
+    private Long replicationStartedAt;
 }
@@ -5,11 +5,10 @@ import static software.amazon.kms.replicakey.ModelAdapter.unsetWriteOnly;
 
 
 import com.amazonaws.util.StringUtils;
+import java.time.Clock;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import software.amazon.awssdk.services.kms.KmsClient;
-import software.amazon.awssdk.services.kms.model.KeyState;
-import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -20,14 +19,22 @@ import software.amazon.kms.common.EventualConsistencyHandlerHelper;
 import software.amazon.kms.common.KeyApiHelper;
 import software.amazon.kms.common.KeyHandlerHelper;
 import software.amazon.kms.common.KeyTranslator;
+import software.amazon.kms.common.KmsApiMetrics;
 import software.amazon.kms.common.TagHelper;
 
 public class CreateHandler extends BaseHandlerStd {
     private static final BiFunction<ResourceModel, ProxyClient<KmsClient>, ResourceModel>
         EMPTY_CALL = (model, proxyClient) -> model;
 
+    private final ReplicaReadinessTracker readinessTracker;
+
     public CreateHandler() {
-        super();
+        this(HandlerDependencies.shared());
+    }
+
+    private CreateHandler(final HandlerDependencies dependencies) {
+        super(dependencies);
+        this.readinessTracker = dependencies.readinessTracker;
     }
 
     public CreateHandler(final ClientBuilder clientBuilder,
@@ -37,8 +44,22 @@ public class CreateHandler extends BaseHandlerStd {
                              eventualConsistencyHandlerHelper,
                          final KeyHandlerHelper<ResourceModel, CallbackContext, KeyTranslator<ResourceModel>> keyHandlerHelper,
                          final TagHelper<ResourceModel, CallbackContext, KeyTranslator<ResourceModel>> tagHelper) {
+        this(clientBuilder, translator, keyApiHelper, eventualConsistencyHandlerHelper,
+            keyHandlerHelper, tagHelper, new ReplicaReadinessTracker(keyApiHelper, translator,
+                ReplicaReadinessTracker.POLL_DELAY, KmsApiMetrics.shared(), Clock.systemUTC()));
+    }
+
+    public CreateHandler(final ClientBuilder clientBuilder,
+                         final Translator translator,
+                         final KeyApiHelper keyApiHelper,
+                         final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext>
+                             eventualConsistencyHandlerHelper,
+                         final KeyHandlerHelper<ResourceModel, CallbackContext, KeyTranslator<ResourceModel>> keyHandlerHelper,
+                         final TagHelper<ResourceModel, CallbackContext, KeyTranslator<ResourceModel>> tagHelper,
+                         final ReplicaReadinessTracker readinessTracker) {
         super(clientBuilder, translator, keyApiHelper, eventualConsistencyHandlerHelper,
             keyHandlerHelper, tagHelper);
+        this.readinessTracker = readinessTracker;
     }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -70,27 +91,27 @@ public class CreateHandler extends BaseHandlerStd {
                             // Update our resource model with the replica key's Id
                             model.setKeyId(replicateKeyResponse.replicaKeyMetadata().keyId());
                             model.setArn(replicateKeyResponse.replicaKeyMetadata().arn());
+                            readinessTracker.replicated(callbackContext);
 
-                            // Wait for key state to propagate to other hosts
+                            // Give the replica a moment to show up in its region before the first poll
                             return ProgressEvent.defaultInProgressHandler(callbackContext,
-                                EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS,
-                                model);
+                                ReplicaReadinessTracker.INITIAL_POLL_DELAY_SECONDS, model);
                         });
                 }
             )
             /*
-             * Wait until after kms::replicate-key to stabilize the replica.
-             * This allows us to do the eventual consistency wait before stabilization,
-             * which makes it more likely that the replica will be stabilized on the first
-             * stabilization check.
+             * Stabilize the replica in its own region, shortly after kms::replicate-key.
+             * Polls start a couple of seconds apart and back off. Describing the replica only
+             * reads the control plane, the final propagation below covers the data plane.
              */
             .then(progress -> proxy
                 .initiate("kms::replicate-key-is-done-creating", proxyClient, model,
                     callbackContext)
                 .translateToServiceRequest(Function.identity())
+                .backoffDelay(readinessTracker.getPollDelay())
                 .makeServiceCall(EMPTY_CALL)
                 .stabilize((replicateRequest, replicateResponse, client, m, ctx) ->
-                    isDoneCreating(model, proxyClient))
+                    readinessTracker.isReady(model, ctx, proxyClient))
                 .progress())
             .then(progress -> keyHandlerHelper
                 .disableKeyIfNecessary(proxy, proxyClient, null, model, callbackContext))
@@ -98,18 +119,4 @@ public class CreateHandler extends BaseHandlerStd {
             .then(eventualConsistencyHandlerHelper::waitForChangesToPropagate)
             .then(progress -> ProgressEvent.defaultSuccessHandler(unsetWriteOnly(model)));
     }
-
-    private boolean isDoneCreating(final ResourceModel model,
-                                   final ProxyClient<KmsClient> proxyClient) {
-        final KeyState keyState;
-        try {
-            keyState = keyApiHelper.describeKey(
-                translator.describeKeyRequest(model.getArn()), proxyClient).keyMetadata()
-                .keyState();
-        } catch (final CfnNotFoundException e) {
-            return false;
-        }
-
-        return !keyState.equals(KeyState.CREATING);
-    }
 }
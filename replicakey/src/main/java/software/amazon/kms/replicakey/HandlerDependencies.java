@@ -0,0 +1,51 @@
+package software.amazon.kms.replicakey;
+
+import java.time.Clock;
+import software.amazon.kms.common.ClientBuilder;
+import software.amazon.kms.common.EventualConsistencyHandlerHelper;
+import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.KeyHandlerHelper;
+import software.amazon.kms.common.KeyTranslator;
+import software.amazon.kms.common.KmsApiMetrics;
+import software.amazon.kms.common.TagHelper;
+import software.amazon.kms.common.TagPipeline;
+
+/**
+ * The helpers of the AWS::KMS::ReplicaKey handlers. They are thread-safe and never change once
+ * built, so a single instance, built when the first handler is, serves every handler in the
+ * container instead of each handler building its own.
+ */
+final class HandlerDependencies {
+    private static final HandlerDependencies SHARED = new HandlerDependencies();
+
+    final ClientBuilder clientBuilder;
+    final Translator translator;
+    final KeyApiHelper keyApiHelper;
+    final TagPipeline tagPipeline;
+    final EventualConsistencyHandlerHelper<ResourceModel, CallbackContext>
+        eventualConsistencyHandlerHelper;
+    final KeyHandlerHelper<ResourceModel, CallbackContext, KeyTranslator<ResourceModel>>
+        keyHandlerHelper;
+    final TagHelper<ResourceModel, CallbackContext, KeyTranslator<ResourceModel>> tagHelper;
+    final ReplicaReadinessTracker readinessTracker;
+
+    private HandlerDependencies() {
+        this.clientBuilder = new ClientBuilder();
+        this.translator = new Translator();
+        this.keyApiHelper = new KeyApiHelper();
+        this.tagPipeline = new TagPipeline(keyApiHelper);
+        this.eventualConsistencyHandlerHelper = new EventualConsistencyHandlerHelper<>();
+        this.keyHandlerHelper = new KeyHandlerHelper<>(ResourceModel.TYPE_NAME, keyApiHelper,
+            eventualConsistencyHandlerHelper, translator, tagPipeline);
+        this.tagHelper = new TagHelper<>(translator, keyApiHelper, keyHandlerHelper, tagPipeline);
+        this.readinessTracker = new ReplicaReadinessTracker(keyApiHelper, translator,
+            ReplicaReadinessTracker.POLL_DELAY, KmsApiMetrics.shared(), Clock.systemUTC());
+    }
+
+    /**
+     * Gets the instance shared by the whole container.
+     */
+    static HandlerDependencies shared() {
+        return SHARED;
+    }
+}
@@ -0,0 +1,76 @@
+package software.amazon.kms.replicakey;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+import software.amazon.awssdk.services.kms.model.KeyMetadata;
+import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.awssdk.services.kms.model.MultiRegionConfiguration;
+import software.amazon.awssdk.services.kms.model.MultiRegionKey;
+import software.amazon.awssdk.services.kms.model.MultiRegionKeyType;
+import software.amazon.kms.common.ColdStartPriming;
+
+/**
+ * Primes the AWS::KMS::ReplicaKey handlers, see {@link ColdStartPriming}. The synthetic replica
+ * goes through the same translations as a replicated and then read key.
+ */
+final class Priming {
+    private static final String KEY_ID = "mrk-00000000000000000000000000000000";
+    private static final String ACCOUNT_ID = "111122223333";
+    private static final Map<String, String> TAGS = ImmutableMap.of("priming", "true");
+
+    private Priming() {
+        // Prevent Instantiation
+    }
+
+    static void prime() {
+        ColdStartPriming.prime(ResourceModel.TYPE_NAME, Priming::run);
+    }
+
+    static void run() {
+        // Priming builds the helpers the handlers share, so the first handler finds them built
+        final HandlerDependencies dependencies = HandlerDependencies.shared();
+        ColdStartPriming.primeClients(dependencies.clientBuilder);
+
+        final Translator translator = dependencies.translator;
+        final ResourceModel model = ModelAdapter.setDefaults(ResourceModel.builder()
+            .primaryKeyArn("arn:aws:kms:us-east-1:" + ACCOUNT_ID + ":key/" + KEY_ID)
+            .description("priming")
+            .keyPolicy(ImmutableMap.of(
+                "Version", "2012-10-17",
+                "Statement", Collections.singletonList(ImmutableMap.of(
+                    "Effect", "Allow",
+                    "Principal", ImmutableMap.of("AWS", "arn:aws:iam::" + ACCOUNT_ID + ":root"),
+                    "Action", "kms:*",
+                    "Resource", "*"))))
+            .tags(TAGS.entrySet().stream()
+                .map(tag -> Tag.builder().key(tag.getKey()).value(tag.getValue()).build())
+                .collect(Collectors.toSet()))
+            .build());
+        translator.replicateKeyRequest(model, "us-west-2", TAGS);
+
+        translator.setKeyMetadata(model, KeyMetadata.builder()
+            .keyId(KEY_ID)
+            .arn("arn:aws:kms:us-west-2:" + ACCOUNT_ID + ":key/" + KEY_ID)
+            .description("priming")
+            .enabled(true)
+            .keyState(KeyState.ENABLED)
+            .multiRegion(true)
+            .multiRegionConfiguration(MultiRegionConfiguration.builder()
+                .multiRegionKeyType(MultiRegionKeyType.REPLICA)
+                .primaryKey(MultiRegionKey.builder()
+                    .arn(model.getPrimaryKeyArn())
+                    .region("us-east-1")
+                    .build())
+                .build())
+            .build());
+        translator.describeKeyRequest(model);
+        translator.getKeyPolicyRequest(model);
+        translator.listResourceTagsRequest(model, null);
+        translator.setKeyPolicy(model,
+            translator.deserializeKeyPolicy(translator.translatePolicyInput(model.getKeyPolicy())));
+        translator.setTags(model, translator.translateTagsToSdk(TAGS));
+        ModelAdapter.unsetWriteOnly(model);
+    }
+}
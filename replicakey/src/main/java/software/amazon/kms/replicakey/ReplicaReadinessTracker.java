@@ -0,0 +1,96 @@
+package software.amazon.kms.replicakey;
+
+import java.time.Clock;
+import java.time.Duration;
+import software.amazon.awssdk.services.kms.KmsClient;
+import software.amazon.awssdk.services.kms.model.KeyState;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
+import software.amazon.cloudformation.proxy.Delay;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.delay.CappedExponential;
+import software.amazon.kms.common.JitteredDelay;
+import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.KmsApiMetrics;
+
+/**
+ * Tracks a new replica key until it leaves the Creating state. The first poll is made a couple
+ * of seconds after ReplicateKey, and polls are further apart the longer the replica takes. The
+ * time from ReplicateKey to the replica being ready is recorded as the
+ * {@value KmsApiMetrics#TIME_TO_READY} metric of ReplicateKey, to tune the poll delays with.
+ *
+ * <p>ReplicateKey always reports a new replica as Creating, so every poll describes the replica
+ * in its own region. A replica that left the Creating state is only known to the control plane,
+ * the create handler's final eventual consistency wait covers the data plane.
+ */
+public class ReplicaReadinessTracker {
+    public static final Delay POLL_DELAY = CappedExponential.of()
+        .minDelay(Duration.ofSeconds(2))
+        .maxDelay(Duration.ofSeconds(20))
+        .powerBy(1.5)
+        .timeout(Duration.ofMinutes(30))
+        .build();
+
+    public static final int INITIAL_POLL_DELAY_SECONDS = 2;
+
+    private static final String REPLICATE_KEY = "ReplicateKey";
+
+    private final KeyApiHelper keyApiHelper;
+    private final Translator translator;
+    private final Delay pollDelay;
+    private final KmsApiMetrics metrics;
+    private final Clock clock;
+
+    public ReplicaReadinessTracker(final KeyApiHelper keyApiHelper,
+                                   final Translator translator,
+                                   final Delay pollDelay,
+                                   final KmsApiMetrics metrics,
+                                   final Clock clock) {
+        this.keyApiHelper = keyApiHelper;
+        this.translator = translator;
+        this.pollDelay = pollDelay;
+        this.metrics = metrics;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the delays of a new wait for a replica, jittered so that the replicas of a stack
+     * aren't polled in lockstep.
+     */
+    public Delay getPollDelay() {
+        return new JitteredDelay(pollDelay);
+    }
+
+    /**
+     * Starts tracking a replica that ReplicateKey just created.
+     */
+    public void replicated(final CallbackContext callbackContext) {
+        callbackContext.setReplicationStartedAt(clock.millis());
+    }
+
+    /**
+     * Checks whether the replica left the Creating state, by describing it in its own region.
+     */
+    public boolean isReady(final ResourceModel model,
+                           final CallbackContext callbackContext,
+                           final ProxyClient<KmsClient> proxyClient) {
+        final KeyState keyState;
+        try {
+            keyState = keyApiHelper.describeKey(translator.describeKeyRequest(model.getArn()), proxyClient)
+                .keyMetadata().keyState();
+        } catch (final CfnNotFoundException e) {
+            // The replica isn't visible in its region yet
+            return false;
+        }
+
+        if (keyState == KeyState.CREATING) {
+            return false;
+        }
+
+        if (callbackContext.getReplicationStartedAt() != null) {
+            metrics.recordTimeToReady(REPLICATE_KEY,
+                Duration.ofMillis(clock.millis() - callbackContext.getReplicationStartedAt()));
+            callbackContext.setReplicationStartedAt(null);
+        }
+        return true;
+    }
+}
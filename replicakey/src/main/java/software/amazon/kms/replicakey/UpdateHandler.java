@@ -62,7 +62,10 @@ public class UpdateHandler extends BaseHandlerStd {
                 .updateKeyPolicy(proxy, proxyClient, previousModel, model, callbackContext))
             .then(progress -> tagHelper
                 .updateKeyTags(proxy, proxyClient, model, request, callbackContext, tags))
-            .then(eventualConsistencyHandlerHelper::waitForChangesToPropagate)
+            // Nothing to propagate if every step found the key already up to date
+            .then(progress -> callbackContext.getMutations().isEmpty() ? progress
+                : eventualConsistencyHandlerHelper.waitForChangesToPropagate(progress,
+                    (m, c) -> keyHandlerHelper.isKeyConsistent(proxyClient, m)))
             .then(progress -> ProgressEvent.defaultSuccessHandler(unsetWriteOnly(model)));
     }
 }
@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -13,7 +14,10 @@ import static org.mockito.Mockito.when;
 
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSet;
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,12 +38,14 @@ import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.cloudformation.proxy.delay.Constant;
 import software.amazon.kms.common.ClientBuilder;
 import software.amazon.kms.common.CreatableKeyTranslator;
 import software.amazon.kms.common.EventualConsistencyHandlerHelper;
 import software.amazon.kms.common.KeyApiHelper;
 import software.amazon.kms.common.KeyHandlerHelper;
 import software.amazon.kms.common.KeyTranslator;
+import software.amazon.kms.common.KmsApiMetrics;
 import software.amazon.kms.common.TagHelper;
 import software.amazon.kms.common.TestConstants;
 import software.amazon.kms.common.TestUtils;
@@ -89,6 +95,9 @@ public class CreateHandlerTest {
     private EventualConsistencyHandlerHelper<ResourceModel, CallbackContext>
         eventualConsistencyHandlerHelper;
 
+    @Mock
+    private KmsApiMetrics metrics;
+
     private CreateHandler handler;
     private AmazonWebServicesClientProxy proxy;
     private ProxyClient<KmsClient> proxyKmsClient;
@@ -99,8 +108,12 @@ public class CreateHandlerTest {
     @BeforeEach
     public void setup() {
         tagHelper = new TagHelper<>(translator, keyApiHelper, keyHandlerHelper);
+        // Poll without waiting
+        final ReplicaReadinessTracker readinessTracker = new ReplicaReadinessTracker(keyApiHelper, translator,
+            Constant.of().delay(Duration.ofMillis(1)).timeout(Duration.ofSeconds(5)).build(), metrics,
+            Clock.fixed(Instant.EPOCH, ZoneOffset.UTC));
         handler = new CreateHandler(clientBuilder, translator, keyApiHelper,
-            eventualConsistencyHandlerHelper, keyHandlerHelper, tagHelper);
+            eventualConsistencyHandlerHelper, keyHandlerHelper, tagHelper, readinessTracker);
         proxy = spy(
             new AmazonWebServicesClientProxy(TestConstants.LOGGER, TestConstants.MOCK_CREDENTIALS,
                 () -> Duration.ofSeconds(600).toMillis()));
@@ -111,39 +124,25 @@ public class CreateHandlerTest {
 
     @Test
     public void handleRequest_PartiallyPropagate() {
-        // Return our mock primary client when we try to get the primary client
-        when(clientBuilder.getClientForArnRegion(eq(KEY_MODEL.getPrimaryKeyArn()))).thenReturn(
-            Suppliers.ofInstance(primaryKms));
-        when(proxy.newProxy(ArgumentMatchers.<Supplier<KmsClient>>any()))
-            .thenReturn(primaryProxyKmsClient);
-
-        // Mock out our replicate key response
-        final ReplicateKeyResponse replicateKeyResponse = ReplicateKeyResponse.builder()
-            .replicaKeyMetadata(KeyMetadata.builder()
-                .arn(KEY_MODEL_CREATED.getArn())
-                .keyId(KEY_MODEL_CREATED.getKeyId())
-                .build())
-            .build();
-        when(keyApiHelper.replicateKey(any(ReplicateKeyRequest.class), eq(primaryProxyKmsClient)))
-            .thenReturn(replicateKeyResponse);
+        mockReplicateKey(KeyState.CREATING);
 
         // Setup our request
         final ResourceHandlerRequest<ResourceModel> request =
             ResourceHandlerRequest.<ResourceModel>builder()
-                .desiredResourceState(KEY_MODEL)
+                .desiredResourceState(newKeyModel())
                 .desiredResourceTags(TestConstants.TAGS)
                 .build();
 
-        // Execute the create handler and make sure it returns the expected results
+        // Execute the create handler, it only waits a moment before polling
         assertThat(handler
             .handleRequest(proxy, request, callbackContext, proxyKmsClient, TestConstants.LOGGER))
             .isEqualTo(ProgressEvent.defaultInProgressHandler(callbackContext,
-                EventualConsistencyHandlerHelper.EVENTUAL_CONSISTENCY_DELAY_SECONDS,
-                KEY_MODEL_CREATED));
+                ReplicaReadinessTracker.INITIAL_POLL_DELAY_SECONDS, KEY_MODEL_CREATED));
 
-        // Make sure we called replicate key with the correct parameters
+        // Make sure we called replicate key, and started tracking the replica
         verify(keyApiHelper)
             .replicateKey(any(ReplicateKeyRequest.class), eq(primaryProxyKmsClient));
+        assertThat(callbackContext.getReplicationStartedAt()).isEqualTo(Instant.EPOCH.toEpochMilli());
 
         // We shouldn't make any other calls
         verifyNoMoreInteractions(keyApiHelper);
@@ -151,6 +150,69 @@ public class CreateHandlerTest {
         verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
     }
 
+    @Test
+    public void handleRequest_PollsShortlyAfterReplicate() {
+        mockReplicateKey(KeyState.CREATING);
+
+        // The replica isn't visible in its region at first
+        final DescribeKeyResponse enabledResponse = DescribeKeyResponse.builder()
+            .keyMetadata(KeyMetadata.builder().keyState(KeyState.ENABLED).build())
+            .build();
+        when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenThrow(CfnNotFoundException.class)
+            .thenReturn(enabledResponse);
+        final ProgressEvent<ResourceModel, CallbackContext> inProgressEvent = mockDisableAndPropagation();
+
+        // The first invocation replicates the key and waits a moment
+        assertThat(handler.handleRequest(proxy, ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(newKeyModel())
+                .desiredResourceTags(TestConstants.TAGS)
+                .build(), callbackContext, proxyKmsClient, TestConstants.LOGGER).getCallbackDelaySeconds())
+            .isEqualTo(ReplicaReadinessTracker.INITIAL_POLL_DELAY_SECONDS);
+
+        // The next one polls the replica until it is ready
+        assertThat(handler.handleRequest(proxy, ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(KEY_MODEL_CREATED)
+                .desiredResourceTags(TestConstants.TAGS)
+                .build(), callbackContext, proxyKmsClient, TestConstants.LOGGER))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(KEY_MODEL_REDACTED));
+
+        verify(keyApiHelper, times(2)).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(metrics).recordTimeToReady(eq("ReplicateKey"), eq(Duration.ZERO));
+        assertThat(callbackContext.getReplicationStartedAt()).isNull();
+    }
+
+    @Test
+    public void handleRequest_DescribesReplicaDespiteReplicatedState() {
+        mockReplicateKey(KeyState.ENABLED);
+        final DescribeKeyResponse creatingResponse = DescribeKeyResponse.builder()
+            .keyMetadata(KeyMetadata.builder().keyState(KeyState.CREATING).build())
+            .build();
+        final DescribeKeyResponse enabledResponse = DescribeKeyResponse.builder()
+            .keyMetadata(KeyMetadata.builder().keyState(KeyState.ENABLED).build())
+            .build();
+        when(keyApiHelper.describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient)))
+            .thenReturn(creatingResponse)
+            .thenReturn(enabledResponse);
+        mockDisableAndPropagation();
+
+        assertThat(handler.handleRequest(proxy, ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(newKeyModel())
+                .desiredResourceTags(TestConstants.TAGS)
+                .build(), callbackContext, proxyKmsClient, TestConstants.LOGGER).getCallbackDelaySeconds())
+            .isEqualTo(ReplicaReadinessTracker.INITIAL_POLL_DELAY_SECONDS);
+        assertThat(handler.handleRequest(proxy, ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(KEY_MODEL_CREATED)
+                .desiredResourceTags(TestConstants.TAGS)
+                .build(), callbackContext, proxyKmsClient, TestConstants.LOGGER))
+            .isEqualTo(ProgressEvent.defaultSuccessHandler(KEY_MODEL_REDACTED));
+
+        // The state ReplicateKey reported is stale by the time we poll, so the replica is described
+        verify(keyApiHelper, times(2)).describeKey(any(DescribeKeyRequest.class), eq(proxyKmsClient));
+        verify(metrics).recordTimeToReady(eq("ReplicateKey"), eq(Duration.ZERO));
+    }
+
     @Test
     public void handleRequest_FullyPropagate() {
         // Return our mock primary client when we try to get the primary client
@@ -215,4 +277,46 @@ public class CreateHandlerTest {
         verifyZeroInteractions(keyHandlerHelper);
         verifyNoMoreInteractions(eventualConsistencyHandlerHelper);
     }
+
+    private static ResourceModel newKeyModel() {
+        // Handlers set the replica's key id on the model they are given, so every request gets its own
+        return ResourceModel.builder()
+            .primaryKeyArn("mock-primary-arn")
+            .keyPolicy(TestConstants.DESERIALIZED_KEY_POLICY)
+            .pendingWindowInDays(7)
+            .tags(ImmutableSet.of(Tag.builder()
+                .key("Key")
+                .value("Value")
+                .build()))
+            .build();
+    }
+
+    private void mockReplicateKey(final KeyState replicaKeyState) {
+        // Return our mock primary client when we try to get the primary client
+        when(clientBuilder.getClientForArnRegion(eq(KEY_MODEL.getPrimaryKeyArn()))).thenReturn(
+            Suppliers.ofInstance(primaryKms));
+        when(proxy.newProxy(ArgumentMatchers.<Supplier<KmsClient>>any()))
+            .thenReturn(primaryProxyKmsClient);
+
+        final ReplicateKeyResponse replicateKeyResponse = ReplicateKeyResponse.builder()
+            .replicaKeyMetadata(KeyMetadata.builder()
+                .arn(KEY_MODEL_CREATED.getArn())
+                .keyId(KEY_MODEL_CREATED.getKeyId())
+                .keyState(replicaKeyState)
+                .build())
+            .build();
+        when(keyApiHelper.replicateKey(any(ReplicateKeyRequest.class), eq(primaryProxyKmsClient)))
+            .thenReturn(replicateKeyResponse);
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> mockDisableAndPropagation() {
+        final ProgressEvent<ResourceModel, CallbackContext> inProgressEvent =
+            ProgressEvent.progress(KEY_MODEL_CREATED, callbackContext);
+        when(keyHandlerHelper
+            .disableKeyIfNecessary(eq(proxy), eq(proxyKmsClient), isNull(), eq(KEY_MODEL_CREATED),
+                eq(callbackContext))).thenReturn(inProgressEvent);
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
+            .thenReturn(inProgressEvent);
+        return inProgressEvent;
+    }
 }
@@ -0,0 +1,25 @@
+package software.amazon.kms.replicakey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class HandlerDependenciesTest {
+    @Test
+    public void testHandlersShareDependencies() {
+        final HandlerDependencies dependencies = HandlerDependencies.shared();
+        final CreateHandler createHandler = new CreateHandler();
+        final ReadHandler readHandler = new ReadHandler();
+
+        assertThat(HandlerDependencies.shared()).isSameAs(dependencies);
+        for (final BaseHandlerStd handler : new BaseHandlerStd[] {createHandler, readHandler}) {
+            assertThat(handler.clientBuilder).isSameAs(dependencies.clientBuilder);
+            assertThat(handler.translator).isSameAs(dependencies.translator);
+            assertThat(handler.keyApiHelper).isSameAs(dependencies.keyApiHelper);
+            assertThat(handler.eventualConsistencyHandlerHelper)
+                .isSameAs(dependencies.eventualConsistencyHandlerHelper);
+            assertThat(handler.keyHandlerHelper).isSameAs(dependencies.keyHandlerHelper);
+            assertThat(handler.tagHelper).isSameAs(dependencies.tagHelper);
+        }
+    }
+}
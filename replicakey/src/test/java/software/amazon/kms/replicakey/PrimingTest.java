@@ -0,0 +1,24 @@
+package software.amazon.kms.replicakey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.kms.common.ColdStartPriming;
+
+class PrimingTest {
+    @Test
+    public void testPrimesWithoutFailing() {
+        // Priming drops its failures, so run the primer directly to see them
+        assertThatCode(Priming::run).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void testNotPrimedOutsideLambda() {
+        assumeTrue(System.getenv("AWS_LAMBDA_FUNCTION_NAME") == null);
+        new ReadHandler();
+
+        assertThat(ColdStartPriming.getPrimingTime(ResourceModel.TYPE_NAME)).isEmpty();
+    }
+}
@@ -29,6 +29,7 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.kms.common.ClientBuilder;
 import software.amazon.kms.common.EventualConsistencyHandlerHelper;
 import software.amazon.kms.common.KeyApiHelper;
+import software.amazon.kms.common.PropagationProbe;
 import software.amazon.kms.common.KeyHandlerHelper;
 import software.amazon.kms.common.KeyTranslator;
 import software.amazon.kms.common.TagHelper;
@@ -121,16 +122,18 @@ public class UpdateHandlerTest {
             .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS), eq(KEY_MODEL),
                 eq(callbackContext)))
             .thenReturn(inProgressEvent);
-        when(keyHandlerHelper
-            .retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext),
-                eq(false)))
-            .thenReturn(inProgressEvent);
         when(keyApiHelper.untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient)))
             .thenReturn(untagResourceResponse);
         when(keyApiHelper.tagResource(any(TagResourceRequest.class), eq(proxyKmsClient)))
             .thenReturn(tagResourceResponse);
-        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent)))
-            .thenReturn(inProgressEvent);
+        when(eventualConsistencyHandlerHelper.waitForChangesToPropagate(eq(inProgressEvent), any()))
+            .thenAnswer(invocation -> {
+                // Probe once, the way the helper would
+                invocation.<PropagationProbe<ResourceModel, CallbackContext>>getArgument(1)
+                    .isConsistent(null, callbackContext);
+                return inProgressEvent;
+            });
+        when(keyHandlerHelper.isKeyConsistent(eq(proxyKmsClient), any())).thenReturn(true);
 
         // Set up our request
         final ResourceHandlerRequest<ResourceModel> request =
@@ -162,13 +165,12 @@ public class UpdateHandlerTest {
         verify(keyHandlerHelper)
             .updateKeyPolicy(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL_PREVIOUS), eq(KEY_MODEL),
                 eq(callbackContext));
-        verify(keyHandlerHelper)
-            .retrieveResourceTags(eq(proxy), eq(proxyKmsClient), eq(KEY_MODEL), eq(callbackContext), eq(false));
         verify(keyApiHelper)
             .tagResource(any(TagResourceRequest.class), eq(proxyKmsClient));
         verify(keyApiHelper)
             .untagResource(any(UntagResourceRequest.class), eq(proxyKmsClient));
-        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent));
+        verify(eventualConsistencyHandlerHelper).waitForChangesToPropagate(eq(inProgressEvent), any());
+        verify(keyHandlerHelper).isKeyConsistent(eq(proxyKmsClient), any());
 
         // We shouldn't call anything else
         verifyZeroInteractions(keyApiHelper);